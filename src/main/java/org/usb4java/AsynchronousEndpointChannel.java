@@ -0,0 +1,270 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadPendingException;
+import java.nio.channels.WritePendingException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * An asynchronous byte channel bound to a bulk endpoint.
+ * <p>
+ * Works like {@link EndpointChannel} with read-ahead for IN and
+ * write-behind for OUT endpoints, but never blocks. An operation which can
+ * be served immediately completes on the calling thread, otherwise it
+ * completes on the event thread as soon as a transfer completes. Completion
+ * handlers running on the event thread must not block.
+ * <p>
+ * A read completes as soon as at least one byte is available. A write
+ * completes as soon as at least one byte was copied into a transfer buffer,
+ * so it may write less than the remaining bytes of the buffer, as permitted
+ * by {@link AsynchronousByteChannel}. Only one operation may be pending at
+ * a time.
+ */
+public final class AsynchronousEndpointChannel implements AsynchronousByteChannel {
+
+    /**
+     * The transfer pipeline.
+     */
+    private final EndpointPipeline pipeline;
+
+    /**
+     * The pending operation or null. Guarded by this.
+     */
+    private Pending<?> pending;
+
+    /**
+     * Opens an asynchronous channel on a bulk endpoint.
+     *
+     * @param eventLoop    The running event loop of the context of the handle.
+     * @param handle       The device handle. The interface of the endpoint
+     *                     must be claimed.
+     * @param endpoint     The bulk endpoint address. Its direction decides
+     *                     whether the channel is readable or writable.
+     * @param transferSize The size of each transfer in bytes.
+     * @param depth        The number of transfers kept in flight.
+     */
+    public AsynchronousEndpointChannel(final EventLoop eventLoop, final DeviceHandle handle,
+                                       final byte endpoint, final int transferSize, final int depth) {
+        this(new EndpointPipeline(EndpointPipeline.bulk(eventLoop, handle, endpoint, 0),
+            (endpoint & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN, transferSize, depth));
+    }
+
+    /**
+     * Constructs a channel using the specified pipeline.
+     *
+     * @param pipeline The transfer pipeline.
+     */
+    AsynchronousEndpointChannel(final EndpointPipeline pipeline) {
+        this.pipeline = pipeline;
+        pipeline.setListener(this::drain);
+    }
+
+    @Override
+    public <A> void read(final ByteBuffer dst, final A attachment,
+                         final CompletionHandler<Integer, ? super A> handler) {
+        if (!this.pipeline.isIn()) {
+            throw new NonReadableChannelException();
+        }
+        if (dst.isReadOnly()) {
+            throw new IllegalArgumentException("Read-only buffer");
+        }
+        if (!isOpen()) {
+            handler.failed(new ClosedChannelException(), attachment);
+            return;
+        }
+        synchronized (this) {
+            if (this.pending != null) {
+                throw new ReadPendingException();
+            }
+            this.pending = new Pending<>(dst, attachment, handler);
+        }
+        drain();
+    }
+
+    @Override
+    public Future<Integer> read(final ByteBuffer dst) {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+        read(dst, future, FutureHandler.INSTANCE);
+        return future;
+    }
+
+    @Override
+    public <A> void write(final ByteBuffer src, final A attachment,
+                          final CompletionHandler<Integer, ? super A> handler) {
+        if (this.pipeline.isIn()) {
+            throw new NonWritableChannelException();
+        }
+        if (!isOpen()) {
+            handler.failed(new ClosedChannelException(), attachment);
+            return;
+        }
+        synchronized (this) {
+            if (this.pending != null) {
+                throw new WritePendingException();
+            }
+            this.pending = new Pending<>(src, attachment, handler);
+        }
+        drain();
+    }
+
+    @Override
+    public Future<Integer> write(final ByteBuffer src) {
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+        write(src, future, FutureHandler.INSTANCE);
+        return future;
+    }
+
+    /**
+     * Tries to complete the pending operation. Called after registering an
+     * operation and after each transfer completion.
+     */
+    private void drain() {
+        final Pending<?> operation;
+        int result = 0;
+        Throwable failure = null;
+        synchronized (this) {
+            operation = this.pending;
+            if (operation == null) {
+                return;
+            }
+            if (operation.buffer.hasRemaining()) {
+                try {
+                    result = this.pipeline.isIn() ? this.pipeline.read(operation.buffer, false)
+                        : this.pipeline.write(operation.buffer, false, true);
+                } catch (final ClosedChannelException e) {
+                    // Closed while the operation was pending
+                    failure = new AsynchronousCloseException();
+                } catch (final IOException e) {
+                    failure = e;
+                }
+                if (failure == null && result == 0) {
+                    return;
+                }
+            }
+            this.pending = null;
+        }
+        if (failure != null) {
+            operation.failed(failure);
+        } else {
+            operation.completed(result);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.pipeline.isOpen();
+    }
+
+    /**
+     * Closes the channel. A pending operation fails with
+     * {@link AsynchronousCloseException}. Written data already submitted is
+     * still sent, the read-ahead transfers are cancelled. Waits until no
+     * transfer is in flight, so it must not be called on the event thread.
+     */
+    @Override
+    public void close() {
+        this.pipeline.close();
+        final Pending<?> operation;
+        synchronized (this) {
+            operation = this.pending;
+            this.pending = null;
+        }
+        if (operation != null) {
+            operation.failed(new AsynchronousCloseException());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "asynchronous endpoint channel using " + this.pipeline;
+    }
+
+    /**
+     * A pending read or write.
+     *
+     * @param <A> The attachment type.
+     */
+    private static final class Pending<A> {
+
+        /**
+         * The buffer to read into or write from.
+         */
+        final ByteBuffer buffer;
+
+        /**
+         * The attachment.
+         */
+        private final A attachment;
+
+        /**
+         * The completion handler.
+         */
+        private final CompletionHandler<Integer, ? super A> handler;
+
+        /**
+         * Constructs a new pending operation.
+         *
+         * @param buffer     The buffer.
+         * @param attachment The attachment.
+         * @param handler    The completion handler.
+         */
+        Pending(final ByteBuffer buffer, final A attachment,
+                final CompletionHandler<Integer, ? super A> handler) {
+            this.buffer = buffer;
+            this.attachment = attachment;
+            this.handler = handler;
+        }
+
+        /**
+         * Reports a successful operation.
+         *
+         * @param result The number of transferred bytes.
+         */
+        void completed(final int result) {
+            this.handler.completed(result, this.attachment);
+        }
+
+        /**
+         * Reports a failed operation.
+         *
+         * @param failure The failure.
+         */
+        void failed(final Throwable failure) {
+            this.handler.failed(failure, this.attachment);
+        }
+    }
+
+    /**
+     * Completes the future passed as attachment.
+     */
+    private static final class FutureHandler implements CompletionHandler<Integer, CompletableFuture<Integer>> {
+
+        /**
+         * The shared instance.
+         */
+        static final FutureHandler INSTANCE = new FutureHandler();
+
+        @Override
+        public void completed(final Integer result, final CompletableFuture<Integer> future) {
+            future.complete(result);
+        }
+
+        @Override
+        public void failed(final Throwable failure, final CompletableFuture<Integer> future) {
+            future.completeExceptionally(failure);
+        }
+    }
+}
@@ -0,0 +1,515 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synchronous transfer functions which wait in Java instead of in native
+ * code.
+ * <p>
+ * {@link LibUsb#controlTransfer(DeviceHandle, byte, byte, short, short, ByteBuffer, long)},
+ * {@link LibUsb#bulkTransfer(DeviceHandle, byte, ByteBuffer, IntBuffer, long)} and
+ * {@link LibUsb#interruptTransfer(DeviceHandle, byte, ByteBuffer, IntBuffer, long)}
+ * block inside JNI for the whole duration of the transfer. A virtual thread
+ * calling them pins its carrier thread. The methods of this class have the
+ * same signatures and return values but submit an asynchronous transfer and
+ * park the calling thread with {@link LockSupport} until the shared
+ * {@link EventLoop} reports the completion. Virtual threads are unmounted
+ * while they wait so thousands of them can perform synchronous I/O
+ * concurrently.
+ * <p>
+ * Interrupting a waiting thread cancels its transfer. The method then
+ * returns {@link LibUsb#ERROR_INTERRUPTED} (unless the transfer completed
+ * anyway) and the interrupt flag of the thread is restored.
+ * <p>
+ * Transfer structures are pooled. Call {@link #close()} to free them after
+ * all transfers have completed.
+ */
+public final class BlockingTransfers implements AutoCloseable {
+
+    /**
+     * The transfer operations. Replaceable for tests.
+     */
+    interface Backend {
+        /**
+         * Allocates a transfer.
+         *
+         * @return The transfer or null if out of memory.
+         */
+        Transfer alloc();
+
+        /**
+         * Fills a transfer.
+         *
+         * @param transfer The transfer.
+         * @param type     The transfer type, control, bulk or interrupt.
+         * @param handle   The device handle.
+         * @param endpoint The endpoint, ignored for control transfers.
+         * @param buffer   The data buffer, starting with the setup packet for
+         *                 control transfers.
+         * @param callback The callback.
+         * @param userData The user data.
+         * @param timeout  The timeout in milliseconds.
+         */
+        void fill(Transfer transfer, byte type, DeviceHandle handle, byte endpoint,
+                  ByteBuffer buffer, TransferCallback callback, Object userData, long timeout);
+
+        /**
+         * Submits a transfer.
+         *
+         * @param transfer The transfer.
+         * @return 0 on success or an error code.
+         */
+        int submit(Transfer transfer);
+
+        /**
+         * Cancels a transfer.
+         *
+         * @param transfer The transfer.
+         */
+        void cancel(Transfer transfer);
+
+        /**
+         * Drops the buffer reference of an idle transfer.
+         *
+         * @param transfer The transfer.
+         */
+        void clearBuffer(Transfer transfer);
+
+        /**
+         * Frees a transfer.
+         *
+         * @param transfer The transfer.
+         */
+        void free(Transfer transfer);
+
+        /**
+         * Returns the user data of a transfer.
+         *
+         * @param transfer The transfer.
+         * @return The user data.
+         */
+        Object userData(Transfer transfer);
+
+        /**
+         * Returns the status of a completed transfer.
+         *
+         * @param transfer The transfer.
+         * @return The status.
+         */
+        int status(Transfer transfer);
+
+        /**
+         * Returns the actual length of a completed transfer.
+         *
+         * @param transfer The transfer.
+         * @return The number of transferred bytes.
+         */
+        int actualLength(Transfer transfer);
+    }
+
+    /**
+     * The backend calling libusb.
+     */
+    static final Backend LIBUSB = new Backend() {
+        @Override
+        public Transfer alloc() {
+            return LibUsb.allocTransfer();
+        }
+
+        @Override
+        public void fill(final Transfer transfer, final byte type, final DeviceHandle handle,
+                         final byte endpoint, final ByteBuffer buffer, final TransferCallback callback,
+                         final Object userData, final long timeout) {
+            switch (type) {
+                case LibUsb.TRANSFER_TYPE_CONTROL:
+                    LibUsb.fillControlTransfer(transfer, handle, buffer, callback, userData, timeout);
+                    break;
+                case LibUsb.TRANSFER_TYPE_BULK:
+                    LibUsb.fillBulkTransfer(transfer, handle, endpoint, buffer, callback, userData, timeout);
+                    break;
+                default:
+                    LibUsb.fillInterruptTransfer(transfer, handle, endpoint, buffer, callback, userData,
+                                                 timeout);
+                    break;
+            }
+        }
+
+        @Override
+        public int submit(final Transfer transfer) {
+            return LibUsb.submitTransfer(transfer);
+        }
+
+        @Override
+        public void cancel(final Transfer transfer) {
+            LibUsb.cancelTransfer(transfer);
+        }
+
+        @Override
+        public void clearBuffer(final Transfer transfer) {
+            transfer.setBuffer(null);
+        }
+
+        @Override
+        public void free(final Transfer transfer) {
+            LibUsb.freeTransfer(transfer);
+        }
+
+        @Override
+        public Object userData(final Transfer transfer) {
+            return transfer.userData();
+        }
+
+        @Override
+        public int status(final Transfer transfer) {
+            return transfer.status();
+        }
+
+        @Override
+        public int actualLength(final Transfer transfer) {
+            return transfer.actualLength();
+        }
+    };
+
+    /**
+     * The backend.
+     */
+    private final Backend backend;
+
+    /**
+     * The event loop which completes the transfers.
+     */
+    private final EventLoop eventLoop;
+
+    /**
+     * The callback shared by all transfers. Stores the result in the slot
+     * and wakes up the waiting thread.
+     */
+    private final TransferCallback callback = this::completed;
+
+    /**
+     * Pool of idle transfer slots.
+     */
+    private final ConcurrentLinkedQueue<Slot> pool = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructs blocking transfer functions which are completed by the
+     * specified event loop. The event loop must be running while transfers
+     * are performed.
+     *
+     * @param eventLoop The event loop handling the events of the context the
+     *                  device handles belong to.
+     */
+    public BlockingTransfers(final EventLoop eventLoop) {
+        this(LIBUSB, eventLoop);
+    }
+
+    /**
+     * Constructs blocking transfer functions using the specified backend.
+     *
+     * @param backend   The backend.
+     * @param eventLoop The event loop.
+     */
+    BlockingTransfers(final Backend backend, final EventLoop eventLoop) {
+        if (eventLoop == null) {
+            throw new IllegalArgumentException("eventLoop must not be null");
+        }
+        this.backend = backend;
+        this.eventLoop = eventLoop;
+    }
+
+    /**
+     * Returns the event loop which completes the transfers.
+     *
+     * @return The event loop.
+     */
+    public EventLoop getEventLoop() {
+        return this.eventLoop;
+    }
+
+    /**
+     * Converts the status of a completed transfer into the error code
+     * returned by the synchronous libusb functions.
+     *
+     * @param status The transfer status.
+     * @return {@link LibUsb#SUCCESS} or an error code.
+     */
+    static int toErrorCode(final int status) {
+        switch (status) {
+            case LibUsb.TRANSFER_COMPLETED:
+                return LibUsb.SUCCESS;
+            case LibUsb.TRANSFER_TIMED_OUT:
+                return LibUsb.ERROR_TIMEOUT;
+            case LibUsb.TRANSFER_STALL:
+                return LibUsb.ERROR_PIPE;
+            case LibUsb.TRANSFER_OVERFLOW:
+                return LibUsb.ERROR_OVERFLOW;
+            case LibUsb.TRANSFER_NO_DEVICE:
+                return LibUsb.ERROR_NO_DEVICE;
+            case LibUsb.TRANSFER_CANCELLED:
+                return LibUsb.ERROR_INTERRUPTED;
+            default:
+                return LibUsb.ERROR_IO;
+        }
+    }
+
+    /**
+     * Perform a USB control transfer. See
+     * {@link LibUsb#controlTransfer(DeviceHandle, byte, byte, short, short, ByteBuffer, long)}.
+     *
+     * @param handle        A handle for the device to communicate with.
+     * @param bmRequestType The request type field for the setup packet.
+     * @param bRequest      The request field for the setup packet.
+     * @param wValue        The value field for the setup packet.
+     * @param wIndex        The index field for the setup packet.
+     * @param data          A suitably-sized data buffer for either input or
+     *                      output (depending on direction bits within
+     *                      bmRequestType). May be null for transfers without
+     *                      data stage.
+     * @param timeout       Timeout in milliseconds, 0 for unlimited.
+     * @return On success the number of bytes actually transferred, otherwise
+     * a libusb error code.
+     */
+    public int controlTransfer(final DeviceHandle handle, final byte bmRequestType,
+                               final byte bRequest, final short wValue, final short wIndex,
+                               final ByteBuffer data, final long timeout) {
+        final int length = data == null ? 0 : data.capacity();
+        final ByteBuffer buffer = BufferUtils.allocateByteBuffer(LibUsb.CONTROL_SETUP_SIZE + length);
+        LibUsb.fillControlSetup(buffer, bmRequestType, bRequest, wValue, wIndex, (short) length);
+
+        final boolean in = (bmRequestType & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN;
+        if (!in && length > 0) {
+            for (int i = 0; i < length; i++) {
+                buffer.put(LibUsb.CONTROL_SETUP_SIZE + i, data.get(i));
+            }
+        }
+
+        final Slot slot = acquire();
+        try {
+            this.backend.fill(slot.transfer, LibUsb.TRANSFER_TYPE_CONTROL, handle, (byte) 0, buffer,
+                              this.callback, slot, timeout);
+            final int result = submitAndWait(slot);
+            if (result != LibUsb.SUCCESS) {
+                return result;
+            }
+            if (in) {
+                for (int i = 0; i < slot.actualLength; i++) {
+                    data.put(i, buffer.get(LibUsb.CONTROL_SETUP_SIZE + i));
+                }
+            }
+            return slot.actualLength;
+        } finally {
+            release(slot);
+        }
+    }
+
+    /**
+     * Perform a USB bulk transfer. See
+     * {@link LibUsb#bulkTransfer(DeviceHandle, byte, ByteBuffer, IntBuffer, long)}.
+     *
+     * @param handle      A handle for the device to communicate with.
+     * @param endpoint    The address of a valid endpoint to communicate with.
+     * @param data        A suitably-sized direct data buffer for either input
+     *                    or output (depending on endpoint).
+     * @param transferred Output location for the number of bytes actually
+     *                    transferred. May be null.
+     * @param timeout     Timeout in milliseconds, 0 for unlimited.
+     * @return 0 on success (and populates transferred), otherwise a libusb
+     * error code. transferred is also populated on errors.
+     */
+    public int bulkTransfer(final DeviceHandle handle, final byte endpoint,
+                            final ByteBuffer data, final IntBuffer transferred,
+                            final long timeout) {
+        final Slot slot = acquire();
+        try {
+            this.backend.fill(slot.transfer, LibUsb.TRANSFER_TYPE_BULK, handle, endpoint, data,
+                              this.callback, slot, timeout);
+            return complete(slot, transferred);
+        } finally {
+            release(slot);
+        }
+    }
+
+    /**
+     * Perform a USB interrupt transfer. See
+     * {@link LibUsb#interruptTransfer(DeviceHandle, byte, ByteBuffer, IntBuffer, long)}.
+     *
+     * @param handle      A handle for the device to communicate with.
+     * @param endpoint    The address of a valid endpoint to communicate with.
+     * @param data        A suitably-sized direct data buffer for either input
+     *                    or output (depending on endpoint).
+     * @param transferred Output location for the number of bytes actually
+     *                    transferred. May be null.
+     * @param timeout     Timeout in milliseconds, 0 for unlimited.
+     * @return 0 on success (and populates transferred), otherwise a libusb
+     * error code. transferred is also populated on errors.
+     */
+    public int interruptTransfer(final DeviceHandle handle, final byte endpoint,
+                                 final ByteBuffer data, final IntBuffer transferred,
+                                 final long timeout) {
+        final Slot slot = acquire();
+        try {
+            this.backend.fill(slot.transfer, LibUsb.TRANSFER_TYPE_INTERRUPT, handle, endpoint, data,
+                              this.callback, slot, timeout);
+            return complete(slot, transferred);
+        } finally {
+            release(slot);
+        }
+    }
+
+    /**
+     * Submits the transfer of the slot, waits for it and populates the
+     * transferred output location.
+     *
+     * @param slot        The slot with the filled transfer.
+     * @param transferred Output location for the transferred bytes or null.
+     * @return 0 on success or an error code.
+     */
+    private int complete(final Slot slot, final IntBuffer transferred) {
+        final int result = submitAndWait(slot);
+        if (transferred != null) {
+            transferred.put(0, slot.actualLength);
+        }
+        return result;
+    }
+
+    /**
+     * Submits the transfer of the slot and parks the calling thread until it
+     * completes.
+     *
+     * @param slot The slot with the filled transfer.
+     * @return 0 on success or an error code.
+     */
+    private int submitAndWait(final Slot slot) {
+        if (this.eventLoop.isEventThread()) {
+            return LibUsb.ERROR_BUSY;
+        }
+        if (!this.eventLoop.isRunning()) {
+            throw new IllegalStateException("Event loop is not running");
+        }
+
+        slot.waiter = Thread.currentThread();
+        slot.done = false;
+        slot.actualLength = 0;
+        final int result = this.backend.submit(slot.transfer);
+        if (result != LibUsb.SUCCESS) {
+            return result;
+        }
+
+        boolean interrupted = false;
+        while (!slot.done) {
+            LockSupport.park(this);
+            if (Thread.interrupted() && !interrupted) {
+                interrupted = true;
+                this.backend.cancel(slot.transfer);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return toErrorCode(slot.status);
+    }
+
+    /**
+     * Stores the result of a completed transfer in its slot and wakes up the
+     * waiting thread.
+     *
+     * @param transfer The completed transfer.
+     */
+    private void completed(final Transfer transfer) {
+        final Slot slot = (Slot) this.backend.userData(transfer);
+        slot.status = this.backend.status(transfer);
+        slot.actualLength = this.backend.actualLength(transfer);
+        slot.done = true;
+        LockSupport.unpark(slot.waiter);
+    }
+
+    /**
+     * Takes a slot from the pool or allocates a new one.
+     *
+     * @return The slot.
+     */
+    private Slot acquire() {
+        final Slot slot = this.pool.poll();
+        if (slot != null) {
+            return slot;
+        }
+        final Transfer transfer = this.backend.alloc();
+        if (transfer == null) {
+            throw new LibUsbException("Unable to allocate transfer", LibUsb.ERROR_NO_MEM);
+        }
+        return new Slot(transfer);
+    }
+
+    /**
+     * Returns a slot to the pool.
+     *
+     * @param slot The slot to return.
+     */
+    private void release(final Slot slot) {
+        slot.waiter = null;
+        // Drop the buffer reference so pooled transfers don't keep user
+        // buffers reachable
+        this.backend.clearBuffer(slot.transfer);
+        this.pool.offer(slot);
+    }
+
+    /**
+     * Frees all pooled transfers. Must not be called while transfers are
+     * in flight.
+     */
+    @Override
+    public void close() {
+        Slot slot;
+        while ((slot = this.pool.poll()) != null) {
+            this.backend.free(slot.transfer);
+        }
+    }
+
+    /**
+     * A pooled transfer together with its completion state.
+     */
+    private static final class Slot {
+
+        /**
+         * The pooled transfer.
+         */
+        private final Transfer transfer;
+
+        /**
+         * The thread waiting for the completion.
+         */
+        private volatile Thread waiter;
+
+        /**
+         * Set when the transfer has completed.
+         */
+        private volatile boolean done;
+
+        /**
+         * The transfer status. Published by {@link #done}.
+         */
+        private int status;
+
+        /**
+         * The actual length. Published by {@link #done}.
+         */
+        private int actualLength;
+
+        /**
+         * Constructs a new slot.
+         *
+         * @param transfer The transfer of the slot.
+         */
+        Slot(final Transfer transfer) {
+            this.transfer = transfer;
+        }
+    }
+}
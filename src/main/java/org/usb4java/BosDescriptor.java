@@ -30,7 +30,7 @@ import org.jetbrains.annotations.NotNull;
  * @author Klaus Reimer (k@ailis.de)
  */
 @EqualsAndHashCode(doNotUseGetters = true)
-public final class BosDescriptor {
+public final class BosDescriptor implements AutoCloseable {
 
     /**
      * The native pointer to the descriptor structure.
@@ -54,6 +54,21 @@ public final class BosDescriptor {
         return this.bosDescriptorPointer;
     }
 
+    /**
+     * Frees the descriptor with
+     * {@link LibUsb#freeBosDescriptor(BosDescriptor)}. The capability
+     * descriptors taken from it become invalid. Does nothing if the
+     * descriptor was never filled or is already freed.
+     */
+    @Override
+    public void close() {
+        if (this.bosDescriptorPointer != 0) {
+            NativeResources.closed(this.bosDescriptorPointer);
+            LibUsb.freeBosDescriptor(this);
+            this.bosDescriptorPointer = 0;
+        }
+    }
+
     /**
      * Returns the size of this descriptor (in bytes).
      *
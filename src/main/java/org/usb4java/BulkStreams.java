@@ -0,0 +1,630 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multiplexes logical channels over USB 3 bulk streams.
+ * <p>
+ * Allocates bulk streams with {@link LibUsb#allocStreams(DeviceHandle, int, byte[])}
+ * on a set of endpoints of one interface (for example the data-in, data-out
+ * and status pipes of a UAS device) and hands out the stream IDs as
+ * {@link Stream} objects. Each stream is one logical channel, such as one
+ * outstanding storage command, which can use its stream ID on all endpoints
+ * of the set. Several streams can be active at once so the device can
+ * process commands concurrently.
+ * <p>
+ * Every stream keeps its own queue of in-flight transfers and routes their
+ * completions to its own callback. The user data passed on submission is
+ * restored on the transfer before the callback is called. Closing a stream
+ * recycles its ID as soon as its last in-flight transfer has completed.
+ * Recently released IDs are handed out first. Transfers are pooled and
+ * reused.
+ */
+public final class BulkStreams implements AutoCloseable {
+
+    /**
+     * The transfer operations. Replaceable for tests.
+     */
+    interface Backend {
+        /**
+         * Allocates a transfer.
+         *
+         * @return The transfer or null if out of memory.
+         */
+        Transfer alloc();
+
+        /**
+         * Fills a bulk stream transfer.
+         *
+         * @param transfer The transfer.
+         * @param handle   The device handle.
+         * @param endpoint The endpoint.
+         * @param streamId The stream ID.
+         * @param buffer   The data buffer.
+         * @param callback The callback.
+         * @param userData The user data.
+         * @param timeout  The timeout in milliseconds.
+         */
+        void fill(Transfer transfer, DeviceHandle handle, byte endpoint, int streamId, ByteBuffer buffer,
+                  TransferCallback callback, Object userData, long timeout);
+
+        /**
+         * Submits a transfer.
+         *
+         * @param transfer The transfer.
+         * @return 0 on success or an error code.
+         */
+        int submit(Transfer transfer);
+
+        /**
+         * Cancels a transfer.
+         *
+         * @param transfer The transfer.
+         */
+        void cancel(Transfer transfer);
+
+        /**
+         * Frees a transfer.
+         *
+         * @param transfer The transfer.
+         */
+        void free(Transfer transfer);
+
+        /**
+         * Returns the user data of a transfer.
+         *
+         * @param transfer The transfer.
+         * @return The user data.
+         */
+        Object userData(Transfer transfer);
+
+        /**
+         * Sets the user data of a transfer.
+         *
+         * @param transfer The transfer.
+         * @param userData The user data.
+         */
+        void setUserData(Transfer transfer, Object userData);
+
+        /**
+         * Drops the buffer and the user data of a pooled transfer.
+         *
+         * @param transfer The transfer.
+         */
+        void clear(Transfer transfer);
+
+        /**
+         * Frees the bulk streams.
+         *
+         * @param handle    The device handle.
+         * @param endpoints The endpoints.
+         * @return 0 on success or an error code.
+         */
+        int freeStreams(DeviceHandle handle, byte[] endpoints);
+    }
+
+    /**
+     * The backend calling libusb.
+     */
+    static final Backend LIBUSB = new Backend() {
+        @Override
+        public Transfer alloc() {
+            return LibUsb.allocTransfer();
+        }
+
+        @Override
+        public void fill(final Transfer transfer, final DeviceHandle handle, final byte endpoint,
+                         final int streamId, final ByteBuffer buffer, final TransferCallback callback,
+                         final Object userData, final long timeout) {
+            LibUsb.fillBulkStreamTransfer(transfer, handle, endpoint, streamId, buffer, callback, userData,
+                                          timeout);
+        }
+
+        @Override
+        public int submit(final Transfer transfer) {
+            return LibUsb.submitTransfer(transfer);
+        }
+
+        @Override
+        public void cancel(final Transfer transfer) {
+            LibUsb.cancelTransfer(transfer);
+        }
+
+        @Override
+        public void free(final Transfer transfer) {
+            LibUsb.freeTransfer(transfer);
+        }
+
+        @Override
+        public Object userData(final Transfer transfer) {
+            return transfer.userData();
+        }
+
+        @Override
+        public void setUserData(final Transfer transfer, final Object userData) {
+            transfer.setUserData(userData);
+        }
+
+        @Override
+        public void clear(final Transfer transfer) {
+            transfer.setBuffer(null);
+            transfer.setUserData(null);
+        }
+
+        @Override
+        public int freeStreams(final DeviceHandle handle, final byte[] endpoints) {
+            return LibUsb.freeStreams(handle, endpoints);
+        }
+    };
+
+    /**
+     * The backend.
+     */
+    private final Backend backend;
+
+    /**
+     * Routes completions to the submission in the user data.
+     */
+    private final TransferCallback router = this::route;
+
+    /**
+     * The device handle.
+     */
+    private final DeviceHandle handle;
+
+    /**
+     * The endpoints the streams are allocated on.
+     */
+    private final byte[] endpoints;
+
+    /**
+     * The number of allocated streams.
+     */
+    private final int count;
+
+    /**
+     * The free stream IDs.
+     */
+    private final BlockingDeque<Integer> freeIds;
+
+    /**
+     * Pool of idle transfers.
+     */
+    private final ConcurrentLinkedQueue<Transfer> transfers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Set when the streams have been freed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Allocates up to the specified number of bulk streams on the specified
+     * endpoints. The device may grant less streams than requested.
+     *
+     * @param handle     The device handle. The interface of the endpoints
+     *                   must be claimed.
+     * @param numStreams The number of streams to request.
+     * @param endpoints  The endpoints to allocate the streams on. All must
+     *                   belong to the same interface.
+     * @throws LibUsbException When the streams could not be allocated.
+     */
+    public BulkStreams(final DeviceHandle handle, final int numStreams, final byte... endpoints) {
+        this(LIBUSB, handle, endpoints, allocate(handle, numStreams, endpoints));
+    }
+
+    /**
+     * Constructs bulk streams for already allocated stream IDs.
+     *
+     * @param backend   The backend.
+     * @param handle    The device handle.
+     * @param endpoints The endpoints.
+     * @param count     The number of allocated streams.
+     */
+    BulkStreams(final Backend backend, final DeviceHandle handle, final byte[] endpoints, final int count) {
+        this.backend = backend;
+        this.handle = handle;
+        this.endpoints = endpoints.clone();
+        this.count = count;
+        this.freeIds = new LinkedBlockingDeque<>();
+        // Stream ID 0 is reserved
+        for (int id = 1; id <= count; id++) {
+            this.freeIds.offerLast(id);
+        }
+    }
+
+    /**
+     * Allocates the bulk streams.
+     *
+     * @param handle     The device handle.
+     * @param numStreams The number of streams to request.
+     * @param endpoints  The endpoints.
+     * @return The number of allocated streams.
+     */
+    private static int allocate(final DeviceHandle handle, final int numStreams,
+                                final byte[] endpoints) {
+        if (numStreams <= 0) {
+            throw new IllegalArgumentException("numStreams must be positive");
+        }
+        if (endpoints.length == 0) {
+            throw new IllegalArgumentException("at least one endpoint required");
+        }
+        final int result = LibUsb.allocStreams(handle, numStreams, endpoints);
+        if (result < 0) {
+            throw new LibUsbException("Unable to allocate bulk streams", result);
+        }
+        if (result == 0) {
+            throw new LibUsbException("Device granted no bulk streams", LibUsb.ERROR_NOT_SUPPORTED);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of streams granted by the device.
+     *
+     * @return The number of streams.
+     */
+    public int getStreamCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the number of stream IDs currently available.
+     *
+     * @return The number of free stream IDs.
+     */
+    public int getFreeStreams() {
+        return this.freeIds.size();
+    }
+
+    /**
+     * Opens a stream if a stream ID is available.
+     *
+     * @param callback The callback receiving the completions of the stream.
+     * @return The stream or null if all stream IDs are in use.
+     */
+    public Stream tryOpen(final TransferCallback callback) {
+        checkOpen();
+        final Integer id = this.freeIds.pollFirst();
+        return id == null ? null : new Stream(id, callback);
+    }
+
+    /**
+     * Opens a stream, waiting until a stream ID becomes available.
+     *
+     * @param callback The callback receiving the completions of the stream.
+     * @param timeout  The maximum time to wait.
+     * @param unit     The timeout unit.
+     * @return The stream or null if the timeout elapsed.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    public Stream open(final TransferCallback callback, final long timeout, final TimeUnit unit)
+            throws InterruptedException {
+        checkOpen();
+        final Integer id = this.freeIds.pollFirst(timeout, unit);
+        return id == null ? null : new Stream(id, callback);
+    }
+
+    /**
+     * Throws an exception when the streams have been freed.
+     */
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("Bulk streams already freed");
+        }
+    }
+
+    /**
+     * Returns a stream ID to the pool. Recycled IDs are handed out first.
+     *
+     * @param id The stream ID.
+     */
+    void recycle(final int id) {
+        this.freeIds.offerFirst(id);
+    }
+
+    /**
+     * Takes a transfer from the pool or allocates a new one.
+     *
+     * @return The transfer.
+     */
+    private Transfer acquireTransfer() {
+        final Transfer transfer = this.transfers.poll();
+        if (transfer != null) {
+            return transfer;
+        }
+        final Transfer allocated = this.backend.alloc();
+        if (allocated == null) {
+            throw new LibUsbException("Unable to allocate transfer", LibUsb.ERROR_NO_MEM);
+        }
+        return allocated;
+    }
+
+    /**
+     * Returns a transfer to the pool.
+     *
+     * @param transfer The transfer.
+     */
+    private void releaseTransfer(final Transfer transfer) {
+        this.backend.clear(transfer);
+        this.transfers.offer(transfer);
+    }
+
+    /**
+     * Routes a completion to the stream of its submission.
+     *
+     * @param transfer The completed transfer.
+     */
+    private void route(final Transfer transfer) {
+        final Stream.Submission submission = (Stream.Submission) this.backend.userData(transfer);
+        submission.stream().completed(submission);
+    }
+
+    /**
+     * Frees the bulk streams and all pooled transfers. All streams must be
+     * closed and their transfers completed before.
+     *
+     * @throws IllegalStateException When a stream is still open or has
+     *                               transfers in flight.
+     * @throws LibUsbException       When the streams could not be freed.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        // Take all IDs so no stream can be opened while freeing
+        final ArrayDeque<Integer> ids = new ArrayDeque<>(this.count);
+        this.freeIds.drainTo(ids);
+        if (ids.size() < this.count) {
+            while (!ids.isEmpty()) {
+                this.freeIds.offerFirst(ids.pollLast());
+            }
+            throw new IllegalStateException("Bulk streams still in use");
+        }
+        this.closed = true;
+        Transfer transfer;
+        while ((transfer = this.transfers.poll()) != null) {
+            this.backend.free(transfer);
+        }
+        final int result = this.backend.freeStreams(this.handle, this.endpoints);
+        if (result != LibUsb.SUCCESS) {
+            throw new LibUsbException("Unable to free bulk streams", result);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bulk streams (%d free)", this.count, getFreeStreams());
+    }
+
+    /**
+     * A logical channel using one stream ID.
+     */
+    public final class Stream implements AutoCloseable {
+
+        /**
+         * The stream ID.
+         */
+        private final int id;
+
+        /**
+         * The callback receiving the completions.
+         */
+        private final TransferCallback callback;
+
+        /**
+         * The in-flight submissions in submission order. Guarded by this.
+         */
+        private final ArrayDeque<Submission> inFlight = new ArrayDeque<>();
+
+        /**
+         * Set when the stream has been closed. Guarded by this.
+         */
+        private boolean closed;
+
+        /**
+         * Set when the ID has been recycled. Guarded by this.
+         */
+        private boolean recycled;
+
+        /**
+         * Constructs a new stream.
+         *
+         * @param id       The stream ID.
+         * @param callback The completion callback.
+         */
+        Stream(final int id, final TransferCallback callback) {
+            this.id = id;
+            this.callback = callback;
+        }
+
+        /**
+         * Returns the stream ID.
+         *
+         * @return The stream ID.
+         */
+        public int getId() {
+            return this.id;
+        }
+
+        /**
+         * Returns the number of in-flight transfers of this stream.
+         *
+         * @return The number of in-flight transfers.
+         */
+        public synchronized int getInFlight() {
+            return this.inFlight.size();
+        }
+
+        /**
+         * Submits a bulk transfer on this stream. The completion is passed
+         * to the callback of the stream. The transfer is reused after the
+         * callback returns, so read everything needed inside the callback.
+         *
+         * @param endpoint The endpoint, one of the endpoints the streams
+         *                 were allocated on.
+         * @param buffer   The direct data buffer.
+         * @param timeout  Timeout in milliseconds, 0 for unlimited.
+         * @throws LibUsbException When the transfer could not be submitted.
+         */
+        public void submit(final byte endpoint, final ByteBuffer buffer, final long timeout) {
+            submit(endpoint, buffer, timeout, null);
+        }
+
+        /**
+         * Submits a bulk transfer with user data on this stream. The
+         * callback of the stream sees the user data as
+         * {@link Transfer#userData()} of the completed transfer.
+         *
+         * @param endpoint The endpoint, one of the endpoints the streams
+         *                 were allocated on.
+         * @param buffer   The direct data buffer.
+         * @param timeout  Timeout in milliseconds, 0 for unlimited.
+         * @param userData The user data or null.
+         * @throws LibUsbException When the transfer could not be submitted.
+         */
+        public void submit(final byte endpoint, final ByteBuffer buffer, final long timeout,
+                           final Object userData) {
+            final Backend backend = BulkStreams.this.backend;
+            final Transfer transfer = acquireTransfer();
+            final Submission submission = new Submission(transfer, userData);
+            backend.fill(transfer, BulkStreams.this.handle, endpoint, this.id, buffer,
+                         BulkStreams.this.router, submission, timeout);
+            synchronized (this) {
+                if (this.closed) {
+                    releaseTransfer(transfer);
+                    throw new IllegalStateException("Stream already closed");
+                }
+                this.inFlight.addLast(submission);
+            }
+            final int result = backend.submit(transfer);
+            if (result != LibUsb.SUCCESS) {
+                remove(submission);
+                releaseTransfer(transfer);
+                recycleIfDone();
+                throw new LibUsbException("Unable to submit stream transfer", result);
+            }
+        }
+
+        /**
+         * Cancels all in-flight transfers of this stream. Their completions
+         * are still delivered to the callback.
+         */
+        public void cancel() {
+            final Submission[] submissions;
+            synchronized (this) {
+                submissions = this.inFlight.toArray(new Submission[0]);
+            }
+            for (final Submission submission : submissions) {
+                BulkStreams.this.backend.cancel(submission.transfer);
+            }
+        }
+
+        /**
+         * Handles the completion of a transfer of this stream.
+         *
+         * @param submission The completed submission.
+         */
+        void completed(final Submission submission) {
+            remove(submission);
+            final Transfer transfer = submission.transfer;
+            BulkStreams.this.backend.setUserData(transfer, submission.userData);
+            try {
+                this.callback.processTransfer(transfer);
+            } finally {
+                releaseTransfer(transfer);
+                recycleIfDone();
+            }
+        }
+
+        /**
+         * Removes a submission from the in-flight queue.
+         *
+         * @param submission The submission.
+         */
+        private synchronized void remove(final Submission submission) {
+            // Completions usually arrive in submission order
+            if (this.inFlight.peekFirst() == submission) {
+                this.inFlight.pollFirst();
+            } else {
+                this.inFlight.removeFirstOccurrence(submission);
+            }
+        }
+
+        /**
+         * Recycles the stream ID when the stream is closed and idle.
+         */
+        private void recycleIfDone() {
+            synchronized (this) {
+                if (!this.closed || !this.inFlight.isEmpty() || this.recycled) {
+                    return;
+                }
+                this.recycled = true;
+            }
+            recycle(this.id);
+        }
+
+        /**
+         * Closes the stream. The stream ID is recycled as soon as all
+         * in-flight transfers have completed.
+         */
+        @Override
+        public void close() {
+            synchronized (this) {
+                this.closed = true;
+            }
+            recycleIfDone();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("bulk stream %d with %d transfers in flight", this.id, getInFlight());
+        }
+
+        /**
+         * An in-flight transfer of this stream.
+         */
+        final class Submission {
+
+            /**
+             * The transfer.
+             */
+            final Transfer transfer;
+
+            /**
+             * The user data of the caller.
+             */
+            final Object userData;
+
+            /**
+             * Constructs a new submission.
+             *
+             * @param transfer The transfer.
+             * @param userData The user data of the caller.
+             */
+            Submission(final Transfer transfer, final Object userData) {
+                this.transfer = transfer;
+                this.userData = userData;
+            }
+
+            /**
+             * Returns the stream of this submission.
+             *
+             * @return The stream.
+             */
+            Stream stream() {
+                return Stream.this;
+            }
+        }
+    }
+}
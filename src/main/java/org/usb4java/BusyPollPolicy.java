@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Low-latency polling policy for an {@link EventLoop}.
+ * <p>
+ * A parked event thread needs tens of microseconds to wake up when a
+ * transfer completes. With a busy-poll policy installed through
+ * {@link EventLoop#setBusyPollPolicy(BusyPollPolicy)} the event thread
+ * instead polls libusb with a zero timeout after each round of work: first
+ * spinning for the spin window, then yielding the processor between polls
+ * for the yield window, and only then parking in libusb as usual. A task
+ * passed to {@link EventLoop#execute(Runnable)} while the thread polls is
+ * picked up without any system call to wake it. The windows start again
+ * after every handled event: tasks, due timers and completions reported by
+ * transfer callbacks through {@link EventLoop#eventHandled()}, so a burst
+ * of events is handled without parking in between.
+ * <p>
+ * When adaptive, the windows follow the arrival rate. A parked thread which
+ * is woken up after less than the current spin and yield windows shows
+ * that events arrive just slightly too far apart to be caught by polling,
+ * so both windows are doubled up to the configured maximum. A thread which
+ * stays parked for longer than the maximum windows shows that events are
+ * rare, so both windows are halved down to the configured minimum to save
+ * CPU time.
+ * <p>
+ * The time from submitting a task with {@link EventLoop#execute(Runnable)}
+ * until it runs on the event thread is recorded in
+ * {@link #getTaskLatencyHistogram()}. It measures how quickly the loop
+ * picks up work handed over by other threads. It does not include the time
+ * the kernel and libusb need to report a transfer completion.
+ */
+public final class BusyPollPolicy {
+
+    /**
+     * The default initial spin window.
+     */
+    private static final long DEFAULT_SPIN = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * The default initial yield window.
+     */
+    private static final long DEFAULT_YIELD = TimeUnit.MICROSECONDS.toNanos(200);
+
+    /**
+     * The task latencies achieved by the loop.
+     */
+    private final LatencyHistogram taskLatencies = new LatencyHistogram();
+
+    /**
+     * The minimum spin window in nanoseconds.
+     */
+    private final long minSpin;
+
+    /**
+     * The maximum spin window in nanoseconds.
+     */
+    private final long maxSpin;
+
+    /**
+     * The ratio of yield window to spin window.
+     */
+    private final double yieldRatio;
+
+    /**
+     * If the windows adapt to the arrival rate.
+     */
+    private volatile boolean adaptive = true;
+
+    /**
+     * The current spin window in nanoseconds.
+     */
+    private volatile long spin;
+
+    /**
+     * The current yield window in nanoseconds.
+     */
+    private volatile long yield;
+
+    /**
+     * The number of times the event thread parked.
+     */
+    private volatile long parkCount;
+
+    /**
+     * Creates a policy with the default windows of 50 microseconds spinning
+     * and 200 microseconds yielding, adapting between 1/16 and 16 times
+     * these values.
+     */
+    public BusyPollPolicy() {
+        this(DEFAULT_SPIN, DEFAULT_YIELD, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a policy with the specified initial windows. The windows adapt
+     * between 1/16 and 16 times the initial values.
+     *
+     * @param spin  The initial spin window.
+     * @param yield The initial yield window.
+     * @param unit  The unit of the windows.
+     */
+    public BusyPollPolicy(final long spin, final long yield, final TimeUnit unit) {
+        this(unit.toNanos(spin), unit.toNanos(yield), unit.toNanos(spin) / 16, unit.toNanos(spin) * 16,
+             TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a policy with the specified initial windows and limits of the
+     * spin window. The yield window keeps its ratio to the spin window.
+     *
+     * @param spin    The initial spin window.
+     * @param yield   The initial yield window.
+     * @param minSpin The minimum spin window.
+     * @param maxSpin The maximum spin window.
+     * @param unit    The unit of all windows.
+     */
+    public BusyPollPolicy(final long spin, final long yield, final long minSpin, final long maxSpin,
+                          final TimeUnit unit) {
+        if (spin < 0 || yield < 0 || minSpin < 0) {
+            throw new IllegalArgumentException("windows must not be negative");
+        }
+        if (minSpin > spin || spin > maxSpin) {
+            throw new IllegalArgumentException("spin must be between minSpin and maxSpin");
+        }
+        this.spin = unit.toNanos(spin);
+        this.yield = unit.toNanos(yield);
+        this.minSpin = unit.toNanos(minSpin);
+        this.maxSpin = unit.toNanos(maxSpin);
+        this.yieldRatio = this.spin == 0 ? 0 : (double) this.yield / this.spin;
+    }
+
+    /**
+     * Enables or disables the adaptation of the windows.
+     *
+     * @param adaptive True to adapt the windows to the arrival rate.
+     */
+    public void setAdaptive(final boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * Checks if the windows adapt to the arrival rate.
+     *
+     * @return True if adaptive.
+     */
+    public boolean isAdaptive() {
+        return this.adaptive;
+    }
+
+    /**
+     * Returns the current spin window.
+     *
+     * @return The spin window in nanoseconds.
+     */
+    public long getSpinNanos() {
+        return this.spin;
+    }
+
+    /**
+     * Returns the current yield window.
+     *
+     * @return The yield window in nanoseconds.
+     */
+    public long getYieldNanos() {
+        return this.yield;
+    }
+
+    /**
+     * Returns how often the event thread parked.
+     *
+     * @return The number of parks.
+     */
+    public long getParkCount() {
+        return this.parkCount;
+    }
+
+    /**
+     * Returns the histogram of the times from submitting a task with
+     * {@link EventLoop#execute(Runnable)} until it runs on the event thread.
+     *
+     * @return The task latency histogram.
+     */
+    public LatencyHistogram getTaskLatencyHistogram() {
+        return this.taskLatencies;
+    }
+
+    /**
+     * Adapts the windows after the event thread was parked. Called from the
+     * event thread only.
+     *
+     * @param parked The time the thread was parked in nanoseconds.
+     * @param woken  True if the thread was woken up by an event before its
+     *               timeout.
+     */
+    void parked(final long parked, final boolean woken) {
+        this.parkCount++;
+        if (!this.adaptive) {
+            return;
+        }
+        final long current = this.spin;
+        long next = current;
+        if (woken && parked < current + this.yield) {
+            next = Math.min(this.maxSpin, Math.max(1, current * 2));
+        } else if (parked > this.maxSpin + (long) (this.maxSpin * this.yieldRatio)) {
+            next = Math.max(this.minSpin, current / 2);
+        }
+        if (next != current) {
+            this.spin = next;
+            this.yield = (long) (next * this.yieldRatio);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("busy poll policy (spin %d ns, yield %d ns%s)", this.spin, this.yield,
+                             this.adaptive ? ", adaptive" : "");
+    }
+}
@@ -0,0 +1,560 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays back the device side of a {@link UsbmonCapture} deterministically.
+ * <p>
+ * The capture is split into exchanges (a submission and its completion)
+ * which are queued per endpoint. The transfer methods of this class mirror
+ * the synchronous transfer functions of {@link LibUsb} without the device
+ * handle parameter: each call consumes the next exchange of its endpoint,
+ * serves IN data and status from the capture and checks OUT payloads
+ * against the captured payload. Like the native functions the data buffer
+ * is used from index 0 up to its capacity.
+ * <p>
+ * Completion timing follows the capture scaled by the configured speed. A
+ * speed of 1 keeps the original timing, a speed of 100 replays 100 times
+ * faster and {@link Double#POSITIVE_INFINITY} returns completions as fast as
+ * they are requested. The schedule is absolute, so a caller which falls
+ * behind the capture is never slowed down further. The timeout parameters
+ * are accepted for signature compatibility but the outcome of each transfer
+ * is always the captured one.
+ * <p>
+ * When the capture of an endpoint is exhausted the transfer methods return
+ * {@link LibUsb#ERROR_NO_DEVICE}, just like a device which has been
+ * unplugged at the end of the captured session.
+ */
+public final class CaptureReplay {
+
+    /**
+     * Linux errno for a stalled endpoint.
+     */
+    private static final int EPIPE = 32;
+
+    /**
+     * Linux errno for a babble (overflow) error.
+     */
+    private static final int EOVERFLOW = 75;
+
+    /**
+     * Linux errno for a disconnected device.
+     */
+    private static final int ENODEV = 19;
+
+    /**
+     * Linux errno for a shut down host controller.
+     */
+    private static final int ESHUTDOWN = 108;
+
+    /**
+     * Linux errno for a timed out URB.
+     */
+    private static final int ETIMEDOUT = 110;
+
+    /**
+     * Linux errno for a synchronously unlinked URB.
+     */
+    private static final int ENOENT = 2;
+
+    /**
+     * Linux errno for an asynchronously unlinked URB.
+     */
+    private static final int ECONNRESET = 104;
+
+    /**
+     * Queue key used for all control exchanges.
+     */
+    private static final int CONTROL_KEY = 0x100;
+
+    /**
+     * The exchange queues per endpoint.
+     */
+    private final Map<Integer, ArrayDeque<Exchange>> queues = new HashMap<>();
+
+    /**
+     * The capture timestamp of the first exchange in nanoseconds.
+     */
+    private final long captureStart;
+
+    /**
+     * The number of completed exchanges.
+     */
+    private final AtomicLong completed = new AtomicLong();
+
+    /**
+     * The number of OUT payloads or setup packets which did not match.
+     */
+    private final AtomicLong mismatches = new AtomicLong();
+
+    /**
+     * The replay speed factor.
+     */
+    private volatile double speed = 1;
+
+    /**
+     * If mismatching OUT payloads fail the transfer.
+     */
+    private volatile boolean strict = true;
+
+    /**
+     * The replay start time in {@link System#nanoTime()} units. 0 when not
+     * started yet.
+     */
+    private volatile long replayStart;
+
+    /**
+     * Constructs a new replay for the specified capture. The capture should
+     * only contain a single device, see
+     * {@link UsbmonCapture#filter(int, int)}.
+     *
+     * @param capture The capture to replay.
+     */
+    public CaptureReplay(final UsbmonCapture capture) {
+        final Map<Long, UsbmonPacket> pending = new HashMap<>();
+        long start = Long.MAX_VALUE;
+
+        for (final UsbmonPacket packet : capture.packets()) {
+            if (packet.type() == UsbmonPacket.TYPE_SUBMIT) {
+                pending.put(packet.id(), packet);
+                continue;
+            }
+
+            // Completions without submission were in flight when the
+            // capture started and can't be replayed
+            final UsbmonPacket submit = pending.remove(packet.id());
+            if (submit == null) {
+                continue;
+            }
+
+            start = Math.min(start, submit.timestamp());
+            final int key = keyOf(submit.transferType(), submit.endpoint());
+            this.queues.computeIfAbsent(key, k -> new ArrayDeque<>())
+                .add(new Exchange(submit, packet));
+        }
+
+        this.captureStart = start == Long.MAX_VALUE ? 0 : start;
+    }
+
+    /**
+     * Returns the queue key for the specified endpoint.
+     *
+     * @param transferType The usbmon transfer type.
+     * @param endpoint     The endpoint address.
+     * @return The queue key.
+     */
+    private static int keyOf(final int transferType, final byte endpoint) {
+        if (transferType == UsbmonPacket.XFER_CONTROL) {
+            return CONTROL_KEY;
+        }
+        return endpoint & 0xff;
+    }
+
+    /**
+     * Converts a usbmon URB status into a libusb error code.
+     *
+     * @param status The URB status (a negative errno value).
+     * @return The matching libusb error code.
+     */
+    static int toLibUsbError(final int status) {
+        switch (-status) {
+            case 0:
+                return LibUsb.SUCCESS;
+            case EPIPE:
+                return LibUsb.ERROR_PIPE;
+            case EOVERFLOW:
+                return LibUsb.ERROR_OVERFLOW;
+            case ENODEV:
+            case ESHUTDOWN:
+                return LibUsb.ERROR_NO_DEVICE;
+            case ETIMEDOUT:
+            case ENOENT:
+            case ECONNRESET:
+                return LibUsb.ERROR_TIMEOUT;
+            default:
+                return LibUsb.ERROR_IO;
+        }
+    }
+
+    /**
+     * Sets the replay speed factor. 1 keeps the original timing, larger
+     * values compress it and {@link Double#POSITIVE_INFINITY} disables
+     * waiting altogether.
+     *
+     * @param speed The speed factor. Must be positive.
+     */
+    public void setSpeed(final double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive");
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * Returns the replay speed factor.
+     *
+     * @return The speed factor.
+     */
+    public double getSpeed() {
+        return this.speed;
+    }
+
+    /**
+     * Controls if OUT payloads and setup packets which don't match the
+     * capture fail the transfer with {@link LibUsb#ERROR_IO}. Mismatches are
+     * always counted. Enabled by default.
+     *
+     * @param strict True to fail mismatching transfers.
+     */
+    public void setStrict(final boolean strict) {
+        this.strict = strict;
+    }
+
+    /**
+     * Restarts the replay clock. The next transfer is scheduled relative to
+     * the time of this call.
+     */
+    public void resetClock() {
+        this.replayStart = System.nanoTime();
+    }
+
+    /**
+     * Returns the number of exchanges replayed so far.
+     *
+     * @return The number of completed exchanges.
+     */
+    public long getCompleted() {
+        return this.completed.get();
+    }
+
+    /**
+     * Returns the number of OUT payloads and setup packets which did not
+     * match the capture.
+     *
+     * @return The number of mismatches.
+     */
+    public long getMismatches() {
+        return this.mismatches.get();
+    }
+
+    /**
+     * Returns the number of exchanges which have not been replayed yet.
+     *
+     * @return The number of remaining exchanges.
+     */
+    public int getRemaining() {
+        int remaining = 0;
+        for (final ArrayDeque<Exchange> queue : this.queues.values()) {
+            synchronized (queue) {
+                remaining += queue.size();
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Replays a control transfer. See
+     * {@link LibUsb#controlTransfer(DeviceHandle, byte, byte, short, short, ByteBuffer, long)}.
+     *
+     * @param bmRequestType The request type field for the setup packet.
+     * @param bRequest      The request field for the setup packet.
+     * @param wValue        The value field for the setup packet.
+     * @param wIndex        The index field for the setup packet.
+     * @param data          The data buffer for the data stage.
+     * @param timeout       Ignored, see class documentation.
+     * @return The number of bytes actually transferred or an error code.
+     */
+    public int controlTransfer(final byte bmRequestType, final byte bRequest,
+                               final short wValue, final short wIndex, final ByteBuffer data,
+                               final long timeout) {
+        final Exchange exchange = next(CONTROL_KEY);
+        if (exchange == null) {
+            return LibUsb.ERROR_NO_DEVICE;
+        }
+
+        boolean matches = true;
+        final byte[] setup = exchange.submit.setupArray();
+        if (setup != null) {
+            // wLength is not compared, callers often use oversized buffers
+            final ControlSetup captured = new ControlSetup(ByteBuffer.wrap(setup));
+            matches = captured.bmRequestType() == bmRequestType
+                && captured.bRequest() == bRequest
+                && captured.wValue() == wValue
+                && captured.wIndex() == wIndex;
+        }
+
+        final boolean in = (bmRequestType & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN;
+        if (!in) {
+            matches &= payloadMatches(exchange, data);
+        }
+        if (!matches) {
+            this.mismatches.incrementAndGet();
+        }
+
+        await(exchange);
+
+        if (!matches && this.strict) {
+            return LibUsb.ERROR_IO;
+        }
+        final int result = toLibUsbError(exchange.complete.status());
+        if (result != LibUsb.SUCCESS) {
+            return result;
+        }
+        if (in) {
+            return copyIn(exchange, data);
+        }
+        return exchange.complete.length();
+    }
+
+    /**
+     * Replays a bulk transfer. See
+     * {@link LibUsb#bulkTransfer(DeviceHandle, byte, ByteBuffer, IntBuffer, long)}.
+     *
+     * @param endpoint    The endpoint address.
+     * @param data        The data buffer.
+     * @param transferred Output location for the number of transferred bytes.
+     * @param timeout     Ignored, see class documentation.
+     * @return 0 on success or an error code.
+     */
+    public int bulkTransfer(final byte endpoint, final ByteBuffer data,
+                            final IntBuffer transferred, final long timeout) {
+        return transfer(endpoint, data, transferred);
+    }
+
+    /**
+     * Replays an interrupt transfer. See
+     * {@link LibUsb#interruptTransfer(DeviceHandle, byte, ByteBuffer, IntBuffer, long)}.
+     *
+     * @param endpoint    The endpoint address.
+     * @param data        The data buffer.
+     * @param transferred Output location for the number of transferred bytes.
+     * @param timeout     Ignored, see class documentation.
+     * @return 0 on success or an error code.
+     */
+    public int interruptTransfer(final byte endpoint, final ByteBuffer data,
+                                 final IntBuffer transferred, final long timeout) {
+        return transfer(endpoint, data, transferred);
+    }
+
+    /**
+     * Replays an isochronous transfer. For IN endpoints the captured buffer
+     * is copied into the data buffer (packets stay at their captured offsets)
+     * and the actual length of each packet is written to the packet length
+     * array. OUT payloads are checked like bulk payloads.
+     *
+     * @param endpoint      The endpoint address.
+     * @param data          The data buffer.
+     * @param packetLengths Output location for the actual packet lengths. May
+     *                      be null. Packets beyond its length are skipped.
+     * @return The number of captured packets on success or an error code.
+     */
+    public int isoTransfer(final byte endpoint, final ByteBuffer data,
+                           final int[] packetLengths) {
+        final Exchange exchange = next(endpoint & 0xff);
+        if (exchange == null) {
+            return LibUsb.ERROR_NO_DEVICE;
+        }
+
+        final boolean in = (endpoint & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN;
+        final boolean matches = in || payloadMatches(exchange, data);
+        if (!matches) {
+            this.mismatches.incrementAndGet();
+        }
+
+        await(exchange);
+
+        if (!matches && this.strict) {
+            return LibUsb.ERROR_IO;
+        }
+        final int result = toLibUsbError(exchange.complete.status());
+        if (result != LibUsb.SUCCESS) {
+            return result;
+        }
+
+        final UsbmonPacket.IsoPacket[] packets = exchange.complete.isoPacketArray();
+        if (in) {
+            final byte[] captured = exchange.complete.dataArray();
+            final int length = Math.min(captured.length, data.capacity());
+            for (int i = 0; i < length; i++) {
+                data.put(i, captured[i]);
+            }
+        }
+        if (packetLengths != null) {
+            for (int i = 0; i < Math.min(packets.length, packetLengths.length); i++) {
+                packetLengths[i] = packets[i].status() == 0 ? packets[i].length() : 0;
+            }
+        }
+        return packets.length;
+    }
+
+    /**
+     * Replays a bulk or interrupt transfer.
+     *
+     * @param endpoint    The endpoint address.
+     * @param data        The data buffer.
+     * @param transferred Output location for the number of transferred bytes.
+     * @return 0 on success or an error code.
+     */
+    private int transfer(final byte endpoint, final ByteBuffer data,
+                         final IntBuffer transferred) {
+        final Exchange exchange = next(endpoint & 0xff);
+        if (exchange == null) {
+            return LibUsb.ERROR_NO_DEVICE;
+        }
+
+        final boolean in = (endpoint & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN;
+        final boolean matches = in || payloadMatches(exchange, data);
+        if (!matches) {
+            this.mismatches.incrementAndGet();
+        }
+
+        await(exchange);
+
+        if (!matches && this.strict) {
+            return LibUsb.ERROR_IO;
+        }
+
+        int actual = exchange.complete.length();
+        int result = toLibUsbError(exchange.complete.status());
+        if (in && (result == LibUsb.SUCCESS || result == LibUsb.ERROR_TIMEOUT)) {
+            if (actual > data.capacity()) {
+                result = LibUsb.ERROR_OVERFLOW;
+            }
+            actual = copyIn(exchange, data);
+        }
+        if (transferred != null) {
+            transferred.put(0, Math.max(actual, 0));
+        }
+        return result;
+    }
+
+    /**
+     * Copies the captured IN data of the specified exchange into the buffer.
+     *
+     * @param exchange The exchange.
+     * @param data     The target buffer.
+     * @return The actual length of the transfer limited to the buffer
+     * capacity.
+     */
+    private static int copyIn(final Exchange exchange, final ByteBuffer data) {
+        final byte[] captured = exchange.complete.dataArray();
+        final int capacity = data == null ? 0 : data.capacity();
+        final int copy = Math.min(captured.length, capacity);
+        for (int i = 0; i < copy; i++) {
+            data.put(i, captured[i]);
+        }
+        return Math.min(exchange.complete.length(), capacity);
+    }
+
+    /**
+     * Checks if the OUT payload in the specified buffer matches the captured
+     * payload. Only the captured part of the payload can be compared when
+     * the capture was truncated by the snap length.
+     *
+     * @param exchange The exchange.
+     * @param data     The OUT payload.
+     * @return True if the payload matches.
+     */
+    private static boolean payloadMatches(final Exchange exchange, final ByteBuffer data) {
+        final int length = data == null ? 0 : data.capacity();
+        if (length != exchange.submit.length()) {
+            return false;
+        }
+
+        final byte[] expected = exchange.submit.dataArray();
+        for (int i = 0; i < Math.min(expected.length, length); i++) {
+            if (data.get(i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes the next exchange of the specified queue.
+     *
+     * @param key The queue key.
+     * @return The next exchange or null if the queue is exhausted.
+     */
+    private Exchange next(final int key) {
+        if (this.replayStart == 0) {
+            synchronized (this) {
+                if (this.replayStart == 0) {
+                    this.replayStart = System.nanoTime();
+                }
+            }
+        }
+
+        final ArrayDeque<Exchange> queue = this.queues.get(key);
+        if (queue == null) {
+            return null;
+        }
+        synchronized (queue) {
+            return queue.poll();
+        }
+    }
+
+    /**
+     * Waits until the scaled completion time of the specified exchange has
+     * been reached.
+     *
+     * @param exchange The exchange to wait for.
+     */
+    private void await(final Exchange exchange) {
+        final double speed = this.speed;
+        if (!Double.isInfinite(speed)) {
+            final long offset = (long) ((exchange.complete.timestamp() - this.captureStart) / speed);
+            final long deadline = this.replayStart + offset;
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0
+                && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+        this.completed.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("capture replay with %d remaining exchanges at speed %s",
+                             getRemaining(), this.speed);
+    }
+
+    /**
+     * A captured submission together with its completion.
+     */
+    private static final class Exchange {
+
+        /**
+         * The submission event.
+         */
+        private final UsbmonPacket submit;
+
+        /**
+         * The completion (or submission error) event.
+         */
+        private final UsbmonPacket complete;
+
+        /**
+         * Constructs a new exchange.
+         *
+         * @param submit   The submission event.
+         * @param complete The completion event.
+         */
+        Exchange(final UsbmonPacket submit, final UsbmonPacket complete) {
+            this.submit = submit;
+            this.complete = complete;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Transfer callback which queues completed transfers so application threads
+ * can process them in batches.
+ * <p>
+ * Instead of doing work inside the callback on the event thread, set this
+ * queue as callback of the transfers. The callback only pushes the transfer
+ * into a lock-free bounded ring with preallocated slots, which is cheap
+ * enough for the event thread and can be fed by several event threads at
+ * once (see {@link ShardedContexts}). Application threads drain the queue
+ * with {@link #poll(int, Consumer)} or {@link #poll(Transfer[])} without
+ * blocking, or wait for completions with {@link #take()}. Status and actual
+ * length are read from the transfer as usual, they stay valid until the
+ * transfer is resubmitted.
+ * <p>
+ * The capacity should be at least the number of transfers in flight. When
+ * the ring is full the completion is queued in an unbounded overflow queue
+ * instead of blocking the event thread; overflows are counted and the
+ * completion order between ring and overflow is not preserved.
+ */
+public final class CompletionQueue implements TransferCallback {
+
+    /**
+     * The ring slots.
+     */
+    private final Transfer[] buffer;
+
+    /**
+     * The sequence number of each slot.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * The bit mask to convert a position into a slot index.
+     */
+    private final int mask;
+
+    /**
+     * The next position to write.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * The next position to read.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Completions which didn't fit into the ring.
+     */
+    private final ConcurrentLinkedQueue<Transfer> overflow = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of overflowed completions.
+     */
+    private final LongAdder overflows = new LongAdder();
+
+    /**
+     * The number of threads blocked in {@link #take()}.
+     */
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /**
+     * Lock for blocking consumers.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when completions arrive while consumers are waiting.
+     */
+    private final Condition notEmpty = this.lock.newCondition();
+
+    /**
+     * Constructs a new completion queue.
+     *
+     * @param capacity The ring capacity. Rounded up to a power of two.
+     */
+    public CompletionQueue(final int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Transfer[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the ring capacity.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Returns the number of completions which didn't fit into the ring.
+     *
+     * @return The number of overflows.
+     */
+    public long getOverflows() {
+        return this.overflows.sum();
+    }
+
+    /**
+     * Returns the approximate number of queued completions.
+     *
+     * @return The number of queued completions.
+     */
+    public int size() {
+        return (int) Math.max(0, this.head.get() - this.tail.get()) + this.overflow.size();
+    }
+
+    /**
+     * Queues the completed transfer. Called by libusb on the event thread.
+     *
+     * @param transfer The completed transfer.
+     */
+    @Override
+    public void processTransfer(final Transfer transfer) {
+        if (!offer(transfer)) {
+            this.overflows.increment();
+            this.overflow.offer(transfer);
+        }
+        if (this.waiters.get() > 0) {
+            this.lock.lock();
+            try {
+                this.notEmpty.signal();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Puts a transfer into the ring.
+     *
+     * @param transfer The transfer.
+     * @return False if the ring is full.
+     */
+    private boolean offer(final Transfer transfer) {
+        long position = this.head.get();
+        while (true) {
+            final int index = (int) (position & this.mask);
+            final long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.head.compareAndSet(position, position + 1)) {
+                    this.buffer[index] = transfer;
+                    // A volatile store so it can't be reordered with the
+                    // following read of the waiters, which would miss a
+                    // consumer registering in await() at the same time
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+                position = this.head.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.head.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the next completed transfer without blocking.
+     *
+     * @return The transfer or null if the queue is empty.
+     */
+    public Transfer poll() {
+        long position = this.tail.get();
+        while (true) {
+            final int index = (int) (position & this.mask);
+            final long difference = this.sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    final Transfer transfer = this.buffer[index];
+                    this.buffer[index] = null;
+                    this.sequences.lazySet(index, position + this.mask + 1);
+                    return transfer;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return this.overflow.poll();
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * Passes up to max completed transfers to the handler without blocking.
+     *
+     * @param max     The maximum number of transfers to drain.
+     * @param handler The handler called for each transfer.
+     * @return The number of drained transfers.
+     */
+    public int poll(final int max, final Consumer<? super Transfer> handler) {
+        int count = 0;
+        Transfer transfer;
+        while (count < max && (transfer = poll()) != null) {
+            handler.accept(transfer);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Fills the batch array with completed transfers without blocking.
+     *
+     * @param batch The array to fill.
+     * @return The number of transfers stored at the start of the array.
+     */
+    public int poll(final Transfer[] batch) {
+        int count = 0;
+        Transfer transfer;
+        while (count < batch.length && (transfer = poll()) != null) {
+            batch[count++] = transfer;
+        }
+        return count;
+    }
+
+    /**
+     * Takes the next completed transfer, waiting if necessary.
+     *
+     * @return The transfer.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    public Transfer take() throws InterruptedException {
+        final Transfer transfer = poll();
+        return transfer != null ? transfer : await(-1);
+    }
+
+    /**
+     * Takes the next completed transfer, waiting up to the specified time.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The timeout unit.
+     * @return The transfer or null if the timeout elapsed.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    public Transfer poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final Transfer transfer = poll();
+        return transfer != null ? transfer : await(Math.max(0, unit.toNanos(timeout)));
+    }
+
+    /**
+     * Waits for at least one completed transfer and then fills the batch
+     * array like {@link #poll(Transfer[])}.
+     *
+     * @param batch The array to fill. Must not be empty.
+     * @return The number of transfers stored at the start of the array.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    public int take(final Transfer[] batch) throws InterruptedException {
+        batch[0] = take();
+        int count = 1;
+        Transfer transfer;
+        while (count < batch.length && (transfer = poll()) != null) {
+            batch[count++] = transfer;
+        }
+        return count;
+    }
+
+    /**
+     * Blocks until a transfer is available.
+     *
+     * @param nanos The maximum time to wait or -1 to wait forever.
+     * @return The transfer or null on timeout.
+     * @throws InterruptedException When interrupted while waiting.
+     */
+    private Transfer await(final long nanos) throws InterruptedException {
+        long remaining = nanos;
+        this.lock.lockInterruptibly();
+        try {
+            // Register before polling again so a producer either sees the
+            // waiter or the poll sees the completion
+            this.waiters.incrementAndGet();
+            try {
+                while (true) {
+                    final Transfer transfer = poll();
+                    if (transfer != null) {
+                        return transfer;
+                    }
+                    if (nanos < 0) {
+                        this.notEmpty.await();
+                    } else if (remaining <= 0) {
+                        return null;
+                    } else {
+                        remaining = this.notEmpty.awaitNanos(remaining);
+                    }
+                }
+            } finally {
+                this.waiters.decrementAndGet();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("completion queue with %d of %d slots used", size(), getCapacity());
+    }
+}
@@ -33,7 +33,7 @@ import java.nio.ByteBuffer;
  * @author Klaus Reimer (k@ailis.de)
  */
 @EqualsAndHashCode(doNotUseGetters = true)
-public final class ConfigDescriptor {
+public final class ConfigDescriptor implements AutoCloseable {
 
     /**
      * The native pointer to the descriptor structure.
@@ -59,6 +59,21 @@ public final class ConfigDescriptor {
         return this.configDescriptorPointer;
     }
 
+    /**
+     * Frees the descriptor with
+     * {@link LibUsb#freeConfigDescriptor(ConfigDescriptor)}. The interface
+     * and endpoint descriptors taken from it become invalid. Does nothing if
+     * the descriptor was never filled or is already freed.
+     */
+    @Override
+    public void close() {
+        if (this.configDescriptorPointer != 0) {
+            NativeResources.closed(this.configDescriptorPointer);
+            LibUsb.freeConfigDescriptor(this);
+            this.configDescriptorPointer = 0;
+        }
+    }
+
     /**
      * Returns the size of this descriptor (in bytes).
      *
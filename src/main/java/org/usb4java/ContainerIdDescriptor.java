@@ -32,7 +32,7 @@ import java.nio.ByteBuffer;
  * @author Klaus Reimer (k@ailis.de)
  */
 @EqualsAndHashCode(doNotUseGetters = true)
-public final class ContainerIdDescriptor {
+public final class ContainerIdDescriptor implements AutoCloseable {
 
     /**
      * The native pointer to the descriptor structure.
@@ -58,6 +58,21 @@ public final class ContainerIdDescriptor {
         return this.containerIdDescriptorPointer;
     }
 
+    /**
+     * Frees the descriptor with
+     * {@link LibUsb#freeContainerIdDescriptor(ContainerIdDescriptor)}. The
+     * container ID buffer taken from it becomes invalid. Does nothing if the
+     * descriptor was never filled or is already freed.
+     */
+    @Override
+    public void close() {
+        if (this.containerIdDescriptorPointer != 0) {
+            NativeResources.closed(this.containerIdDescriptorPointer);
+            LibUsb.freeContainerIdDescriptor(this);
+            this.containerIdDescriptorPointer = 0;
+        }
+    }
+
     /**
      * Returns the size of this descriptor (in bytes).
      *
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of transfer buffers allocated from device memory.
+ * <p>
+ * {@link LibUsb#devMemAlloc(DeviceHandle, int)} maps DMA-able memory of the
+ * device (Linux usbfs), so the kernel does not copy the data of transfers
+ * using such buffers. The mapping is expensive and limited, so this pool
+ * allocates large chunks per device handle and slices them into equally
+ * sized transfer buffers. Slices are padded to whole cache lines so
+ * concurrent transfers never share a cache line.
+ * <p>
+ * Many hosts don't support device memory and {@code devMemAlloc} simply
+ * returns null, others run out of mappable memory for a while. The pool
+ * then falls back to ordinary direct buffers and retries mapping device
+ * memory only after a growing number of fallback acquisitions, so
+ * unsupported hosts don't pay for a failing mapping on every acquisition.
+ * The counters tell how many buffers handed out were zero-copy and how many
+ * were fallbacks.
+ * <p>
+ * Buffers must be returned with {@link #release(ByteBuffer)} after their
+ * transfer completed. {@link #close()} frees all device memory, so it must
+ * be called before closing the device handle and after all transfers using
+ * pooled buffers have completed.
+ */
+public final class DeviceBufferPool implements AutoCloseable {
+
+    /**
+     * The cache line size slices are aligned to.
+     */
+    private static final int CACHE_LINE = 64;
+
+    /**
+     * The maximum number of fallback acquisitions between two attempts to
+     * map device memory.
+     */
+    private static final int MAX_RETRY_INTERVAL = 1024;
+
+    /**
+     * Device memory operations. Replaceable for tests.
+     */
+    interface Memory {
+        /**
+         * Allocates device memory.
+         *
+         * @param length The number of bytes.
+         * @return The memory or null if not available.
+         */
+        ByteBuffer alloc(int length);
+
+        /**
+         * Frees device memory.
+         *
+         * @param buffer The memory.
+         * @param length The number of bytes.
+         */
+        void free(ByteBuffer buffer, int length);
+    }
+
+    /**
+     * The device memory operations.
+     */
+    private final Memory memory;
+
+    /**
+     * The size of a transfer buffer.
+     */
+    private final int bufferSize;
+
+    /**
+     * The distance between two slices in a chunk.
+     */
+    private final int stride;
+
+    /**
+     * The number of slices per chunk.
+     */
+    private final int slicesPerChunk;
+
+    /**
+     * The allocated device memory chunks. Guarded by this.
+     */
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    /**
+     * Idle zero-copy buffers. Guarded by this.
+     */
+    private final ArrayDeque<ByteBuffer> zeroCopyFree = new ArrayDeque<>();
+
+    /**
+     * Idle fallback buffers. Guarded by this.
+     */
+    private final ArrayDeque<ByteBuffer> fallbackFree = new ArrayDeque<>();
+
+    /**
+     * All zero-copy slices handed out by this pool. Guarded by this.
+     */
+    private final Set<ByteBuffer> zeroCopy = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * All fallback buffers handed out by this pool. Guarded by this.
+     */
+    private final Set<ByteBuffer> fallback = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The number of zero-copy acquisitions.
+     */
+    private final LongAdder zeroCopyCount = new LongAdder();
+
+    /**
+     * The number of fallback acquisitions.
+     */
+    private final LongAdder fallbackCount = new LongAdder();
+
+    /**
+     * Set when the last attempt to map device memory failed. Guarded by
+     * this.
+     */
+    private boolean unavailable;
+
+    /**
+     * The number of fallback acquisitions to skip after the next failed
+     * mapping. Doubled on every failure. Guarded by this.
+     */
+    private int retryInterval = 1;
+
+    /**
+     * The number of fallback acquisitions left until mapping device memory
+     * is retried. Guarded by this.
+     */
+    private int retryCountdown;
+
+    /**
+     * Set when the pool is closed. Guarded by this.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs a new buffer pool for the specified device handle.
+     *
+     * @param handle         The device handle.
+     * @param bufferSize     The size of each transfer buffer in bytes.
+     * @param slicesPerChunk The number of buffers carved from each device
+     *                       memory chunk.
+     */
+    public DeviceBufferPool(final DeviceHandle handle, final int bufferSize, final int slicesPerChunk) {
+        this(new Memory() {
+            @Override
+            public ByteBuffer alloc(final int length) {
+                return LibUsb.devMemAlloc(handle, length);
+            }
+
+            @Override
+            public void free(final ByteBuffer buffer, final int length) {
+                LibUsb.devMemFree(handle, buffer, length);
+            }
+        }, bufferSize, slicesPerChunk);
+    }
+
+    /**
+     * Constructs a new buffer pool.
+     *
+     * @param memory         The device memory operations.
+     * @param bufferSize     The size of each transfer buffer in bytes.
+     * @param slicesPerChunk The number of buffers per chunk.
+     */
+    DeviceBufferPool(final Memory memory, final int bufferSize, final int slicesPerChunk) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        if (slicesPerChunk <= 0) {
+            throw new IllegalArgumentException("slicesPerChunk must be positive");
+        }
+        final long stride = (bufferSize + CACHE_LINE - 1L) / CACHE_LINE * CACHE_LINE;
+        if (stride * slicesPerChunk > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("chunk size too large");
+        }
+        this.memory = memory;
+        this.bufferSize = bufferSize;
+        this.stride = (int) stride;
+        this.slicesPerChunk = slicesPerChunk;
+    }
+
+    /**
+     * Returns the size of the transfer buffers.
+     *
+     * @return The buffer size in bytes.
+     */
+    public int getBufferSize() {
+        return this.bufferSize;
+    }
+
+    /**
+     * Takes a transfer buffer from the pool. Zero-copy buffers are
+     * preferred, a new device memory chunk is mapped when none is idle.
+     *
+     * @return A cleared direct buffer of {@link #getBufferSize()} bytes.
+     */
+    public synchronized ByteBuffer acquire() {
+        if (this.closed) {
+            throw new IllegalStateException("Buffer pool already closed");
+        }
+        if (this.zeroCopyFree.isEmpty()) {
+            if (this.retryCountdown == 0) {
+                allocateChunk();
+            } else {
+                this.retryCountdown--;
+            }
+        }
+        ByteBuffer buffer = this.zeroCopyFree.pollFirst();
+        if (buffer != null) {
+            this.zeroCopyCount.increment();
+        } else {
+            buffer = this.fallbackFree.pollFirst();
+            if (buffer == null) {
+                buffer = BufferUtils.allocateByteBuffer(this.bufferSize);
+                this.fallback.add(buffer);
+            }
+            this.fallbackCount.increment();
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Maps a new chunk of device memory and slices it. Marks device memory
+     * as unavailable and schedules the next attempt when the mapping fails.
+     */
+    private void allocateChunk() {
+        final int chunkSize = this.stride * this.slicesPerChunk;
+        final ByteBuffer chunk = this.memory.alloc(chunkSize);
+        if (chunk == null) {
+            this.unavailable = true;
+            this.retryCountdown = this.retryInterval;
+            this.retryInterval = Math.min(this.retryInterval * 2, MAX_RETRY_INTERVAL);
+            return;
+        }
+        this.unavailable = false;
+        this.retryInterval = 1;
+        this.chunks.add(chunk);
+        for (int i = 0; i < this.slicesPerChunk; i++) {
+            final ByteBuffer slice = BufferUtils.slice(chunk, i * this.stride, this.bufferSize);
+            this.zeroCopy.add(slice);
+            this.zeroCopyFree.addLast(slice);
+        }
+    }
+
+    /**
+     * Returns a buffer to the pool. The transfer using it must have
+     * completed.
+     *
+     * @param buffer A buffer acquired from this pool.
+     */
+    public synchronized void release(final ByteBuffer buffer) {
+        if (this.closed) {
+            return;
+        }
+        if (this.zeroCopy.contains(buffer)) {
+            this.zeroCopyFree.addFirst(buffer);
+        } else if (this.fallback.contains(buffer)) {
+            this.fallbackFree.addFirst(buffer);
+        } else {
+            throw new IllegalArgumentException("buffer not acquired from this pool");
+        }
+    }
+
+    /**
+     * Checks if the buffer is backed by device memory.
+     *
+     * @param buffer The buffer.
+     * @return True if zero-copy.
+     */
+    public synchronized boolean isZeroCopy(final ByteBuffer buffer) {
+        return this.zeroCopy.contains(buffer);
+    }
+
+    /**
+     * Checks if device memory could be mapped on the last attempt.
+     *
+     * @return False if the last mapping failed and the pool uses fallback
+     * buffers until a later attempt succeeds.
+     */
+    public synchronized boolean isDeviceMemoryAvailable() {
+        return !this.unavailable;
+    }
+
+    /**
+     * Returns the number of acquisitions served with device memory.
+     *
+     * @return The number of zero-copy buffers handed out.
+     */
+    public long getZeroCopyCount() {
+        return this.zeroCopyCount.sum();
+    }
+
+    /**
+     * Returns the number of acquisitions served with ordinary direct
+     * buffers.
+     *
+     * @return The number of fallback buffers handed out.
+     */
+    public long getFallbackCount() {
+        return this.fallbackCount.sum();
+    }
+
+    /**
+     * Returns the number of mapped device memory chunks.
+     *
+     * @return The number of chunks.
+     */
+    public synchronized int getChunkCount() {
+        return this.chunks.size();
+    }
+
+    /**
+     * Frees all device memory. Buffers acquired from the pool must no longer
+     * be used.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        final int chunkSize = this.stride * this.slicesPerChunk;
+        for (final ByteBuffer chunk : this.chunks) {
+            this.memory.free(chunk, chunkSize);
+        }
+        this.chunks.clear();
+        this.zeroCopy.clear();
+        this.fallback.clear();
+        this.zeroCopyFree.clear();
+        this.fallbackFree.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("device buffer pool with %d byte buffers (%d zero-copy, %d fallback)",
+                             this.bufferSize, getZeroCopyCount(), getFallbackCount());
+    }
+}
@@ -0,0 +1,850 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Persistent inventory of raw device descriptors and strings.
+ * <p>
+ * Reading all descriptors and strings of a device takes dozens of control
+ * transfers. The inventory keeps the device descriptor, all configuration
+ * descriptors, the BOS descriptor and the string table of each device, keyed
+ * by vendor ID, product ID, bcdDevice and serial number, and stores them in a
+ * compact versioned binary file. After a restart {@link #get(DeviceHandle)}
+ * only re-reads the device descriptor and the serial number of a device and
+ * returns the stored record when nothing changed, so the full fetch is
+ * skipped for known devices.
+ * <p>
+ * {@link #read(Path)} maps the file and the descriptors of the loaded
+ * records are read-only views of the mapped data. All descriptors are in
+ * USB byte order (little endian). The file starts with the magic "U4JI"
+ * followed by the format version; files of other versions are rejected.
+ * An inventory is not thread-safe.
+ */
+public final class DeviceInventory {
+
+    /**
+     * The file magic "U4JI" read as little-endian integer.
+     */
+    static final int MAGIC = 0x494a3455;
+
+    /**
+     * The current file format version.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The size of the file header.
+     */
+    private static final int HEADER_SIZE = 12;
+
+    /**
+     * The maximum size of a string descriptor.
+     */
+    private static final int MAX_STRING_SIZE = 255;
+
+    /**
+     * The size of the BOS descriptor header.
+     */
+    private static final int BOS_SIZE = 5;
+
+    /**
+     * The descriptor operations. Replaceable for tests.
+     */
+    interface Backend {
+        /**
+         * Reads a descriptor from the default control pipe.
+         *
+         * @param handle The device handle.
+         * @param type   The descriptor type.
+         * @param index  The descriptor index.
+         * @param langId The language ID of string descriptors, 0 otherwise.
+         * @param data   The direct buffer to read into.
+         * @return The number of bytes read or an error code.
+         */
+        int descriptor(DeviceHandle handle, byte type, byte index, short langId, ByteBuffer data);
+    }
+
+    /**
+     * The backend calling libusb.
+     */
+    static final Backend LIBUSB = (handle, type, index, langId, data) -> type == LibUsb.DT_STRING
+        ? LibUsb.getStringDescriptor(handle, index, langId, data)
+        : LibUsb.getDescriptor(handle, type, index, data);
+
+    /**
+     * The backend.
+     */
+    private final Backend backend;
+
+    /**
+     * The records by key.
+     */
+    private final Map<String, Record> records = new LinkedHashMap<>();
+
+    /**
+     * Constructs an empty inventory.
+     */
+    public DeviceInventory() {
+        this(LIBUSB);
+    }
+
+    /**
+     * Constructs an empty inventory using the specified backend.
+     *
+     * @param backend The backend.
+     */
+    DeviceInventory(final Backend backend) {
+        this.backend = backend;
+    }
+
+    /**
+     * Returns the key of a device.
+     *
+     * @param vendorId     The vendor ID.
+     * @param productId    The product ID.
+     * @param bcdDevice    The device release number.
+     * @param serialNumber The serial number or null.
+     * @return The key.
+     */
+    private static String key(final short vendorId, final short productId, final short bcdDevice,
+                              final String serialNumber) {
+        return String.format("%04x:%04x:%04x:%s", vendorId & 0xffff, productId & 0xffff, bcdDevice & 0xffff,
+                             serialNumber == null ? "" : serialNumber);
+    }
+
+    /**
+     * Reads an inventory from a file. The file is memory-mapped and the
+     * descriptors of the records are views of the mapped data.
+     *
+     * @param file The inventory file.
+     * @return The inventory.
+     * @throws IOException When the file could not be read or is not an
+     *                     inventory of the current version.
+     */
+    public static DeviceInventory read(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads an inventory from a buffer, from its current position up to its
+     * limit. The descriptors of the records are views of the buffer.
+     *
+     * @param buffer The buffer containing the inventory.
+     * @return The inventory.
+     * @throws IOException When the data is not an inventory of the current
+     *                     version.
+     */
+    public static DeviceInventory read(final ByteBuffer buffer) throws IOException {
+        return read(buffer, LIBUSB);
+    }
+
+    /**
+     * Reads an inventory using the specified backend.
+     *
+     * @param buffer  The buffer containing the inventory.
+     * @param backend The backend.
+     * @return The inventory.
+     * @throws IOException When the data is not an inventory of the current
+     *                     version.
+     */
+    static DeviceInventory read(final ByteBuffer buffer, final Backend backend) throws IOException {
+        final ByteBuffer in = buffer.slice().asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.remaining() < HEADER_SIZE) {
+            throw new IOException("Truncated inventory header");
+        }
+        final int magic = in.getInt();
+        if (magic != MAGIC) {
+            throw new IOException(String.format("Not a device inventory (magic 0x%08x)", magic));
+        }
+        final int version = in.getShort() & 0xffff;
+        if (version != VERSION) {
+            throw new IOException("Unsupported inventory version " + version);
+        }
+        in.getShort();
+        final int count = in.getInt();
+        final DeviceInventory inventory = new DeviceInventory(backend);
+        try {
+            for (int i = 0; i < count; i++) {
+                inventory.put(Record.read(in));
+            }
+        } catch (final RuntimeException e) {
+            // Buffer underflows and bad lengths of a truncated or corrupt file
+            throw new IOException("Corrupt inventory record", e);
+        }
+        return inventory;
+    }
+
+    /**
+     * Writes the inventory to a file. The data is written to a temporary file
+     * first which then replaces the file, so a crash never leaves a partial
+     * inventory behind.
+     *
+     * @param file The inventory file.
+     * @throws IOException When the file could not be written.
+     */
+    public void write(final Path file) throws IOException {
+        final Path absolute = file.toAbsolutePath();
+        final Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                final ByteBuffer data = toByteBuffer();
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Encodes the inventory.
+     *
+     * @return A buffer containing the encoded inventory.
+     */
+    public ByteBuffer toByteBuffer() {
+        int size = HEADER_SIZE;
+        for (final Record record : this.records.values()) {
+            size += record.size();
+        }
+        final ByteBuffer out = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC);
+        out.putShort((short) VERSION);
+        out.putShort((short) 0);
+        out.putInt(this.records.size());
+        for (final Record record : this.records.values()) {
+            record.write(out);
+        }
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return The number of devices in the inventory.
+     */
+    public int size() {
+        return this.records.size();
+    }
+
+    /**
+     * Returns all records.
+     *
+     * @return The records in insertion order.
+     */
+    public Collection<Record> getRecords() {
+        return Collections.unmodifiableCollection(this.records.values());
+    }
+
+    /**
+     * Returns the record of a device.
+     *
+     * @param vendorId     The vendor ID.
+     * @param productId    The product ID.
+     * @param bcdDevice    The device release number.
+     * @param serialNumber The serial number or null if the device has none.
+     * @return The record or null if unknown.
+     */
+    public Record get(final short vendorId, final short productId, final short bcdDevice,
+                      final String serialNumber) {
+        return this.records.get(key(vendorId, productId, bcdDevice, serialNumber));
+    }
+
+    /**
+     * Adds a record, replacing the record of the same device.
+     *
+     * @param record The record.
+     */
+    public void put(final Record record) {
+        this.records.put(record.key(), record);
+    }
+
+    /**
+     * Removes the record of a device.
+     *
+     * @param record The record.
+     * @return True if the record was removed.
+     */
+    public boolean remove(final Record record) {
+        return this.records.remove(record.key(), record);
+    }
+
+    /**
+     * Returns the record of a device, fetching all descriptors only if the
+     * device is unknown or changed.
+     *
+     * @param handle The device handle.
+     * @return The record.
+     * @throws LibUsbException When a descriptor could not be read.
+     */
+    public Record get(final DeviceHandle handle) {
+        final Record record = validate(handle);
+        return record == null ? fetch(handle) : record;
+    }
+
+    /**
+     * Checks if the inventory knows a device. Re-reads the device descriptor
+     * and, if the device has one, the serial number and compares them to the
+     * record.
+     *
+     * @param handle The device handle.
+     * @return The unchanged record or null if the device is unknown or its
+     * device descriptor changed.
+     * @throws LibUsbException When the device descriptor could not be read.
+     */
+    public Record validate(final DeviceHandle handle) {
+        final ByteBuffer device = readDescriptor(handle, LibUsb.DT_DEVICE, 0, LibUsb.DT_DEVICE_SIZE);
+        final short vendorId = device.getShort(8);
+        final short productId = device.getShort(10);
+        final short bcdDevice = device.getShort(12);
+        final int serialIndex = device.get(16) & 0xff;
+        String serialNumber = null;
+        if (serialIndex != 0) {
+            final String prefix = key(vendorId, productId, bcdDevice, null);
+            Record candidate = null;
+            for (final Record record : this.records.values()) {
+                if (record.key().startsWith(prefix)) {
+                    candidate = record;
+                    break;
+                }
+            }
+            if (candidate == null) {
+                return null;
+            }
+            serialNumber = readString(handle, serialIndex, candidate.languageId);
+        }
+        final Record record = get(vendorId, productId, bcdDevice, serialNumber);
+        if (record == null || !record.deviceDescriptor.equals(device)) {
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * Reads all descriptors and strings of a device and stores them as its
+     * record.
+     *
+     * @param handle The device handle.
+     * @return The new record.
+     * @throws LibUsbException When the device or a configuration descriptor
+     *                         could not be read. Missing BOS descriptors and
+     *                         strings are skipped.
+     */
+    public Record fetch(final DeviceHandle handle) {
+        final ByteBuffer device = readDescriptor(handle, LibUsb.DT_DEVICE, 0, LibUsb.DT_DEVICE_SIZE);
+        final List<ByteBuffer> configs = new ArrayList<>();
+        final int configCount = device.get(17) & 0xff;
+        for (int i = 0; i < configCount; i++) {
+            final ByteBuffer header = readDescriptor(handle, LibUsb.DT_CONFIG, i, LibUsb.DT_CONFIG_SIZE);
+            configs.add(readDescriptor(handle, LibUsb.DT_CONFIG, i, header.getShort(2) & 0xffff));
+        }
+
+        ByteBuffer bos = null;
+        if ((device.getShort(2) & 0xffff) >= 0x0201) {
+            final ByteBuffer header = tryRead(handle, LibUsb.DT_BOS, 0, (short) 0, BOS_SIZE);
+            if (header != null && header.remaining() == BOS_SIZE) {
+                bos = tryRead(handle, LibUsb.DT_BOS, 0, (short) 0, header.getShort(2) & 0xffff);
+            }
+        }
+
+        short languageId = 0;
+        final Map<Integer, String> strings = new TreeMap<>();
+        final ByteBuffer languages = tryRead(handle, LibUsb.DT_STRING, 0, (short) 0, MAX_STRING_SIZE);
+        if (languages != null && languages.remaining() >= 4) {
+            languageId = languages.getShort(2);
+            for (final int index : stringIndexes(device, configs)) {
+                final String string = tryReadString(handle, index, languageId);
+                if (string != null) {
+                    strings.put(index, string);
+                }
+            }
+        }
+
+        final int serialIndex = device.get(16) & 0xff;
+        final Record record = new Record(device, configs, bos, languageId, strings,
+                                         serialIndex == 0 ? null : strings.get(serialIndex));
+        put(record);
+        return record;
+    }
+
+    /**
+     * Collects the string indexes referenced by the device descriptor, the
+     * configuration descriptors and their interface descriptors.
+     *
+     * @param device  The device descriptor.
+     * @param configs The configuration descriptors.
+     * @return The non-zero string indexes in ascending order.
+     */
+    static Collection<Integer> stringIndexes(final ByteBuffer device, final List<ByteBuffer> configs) {
+        final TreeSet<Integer> indexes = new TreeSet<>();
+        indexes.add(device.get(14) & 0xff);
+        indexes.add(device.get(15) & 0xff);
+        indexes.add(device.get(16) & 0xff);
+        for (final ByteBuffer config : configs) {
+            if (config.limit() > 6) {
+                indexes.add(config.get(6) & 0xff);
+            }
+            int offset = 0;
+            while (offset + 2 <= config.limit()) {
+                final int length = config.get(offset) & 0xff;
+                if (length < 2) {
+                    break;
+                }
+                if (config.get(offset + 1) == LibUsb.DT_INTERFACE && length >= 9 && offset + 9 <= config.limit()) {
+                    indexes.add(config.get(offset + 8) & 0xff);
+                }
+                offset += length;
+            }
+        }
+        indexes.remove(0);
+        return indexes;
+    }
+
+    /**
+     * Reads a descriptor which must exist.
+     *
+     * @param handle The device handle.
+     * @param type   The descriptor type.
+     * @param index  The descriptor index.
+     * @param length The expected length.
+     * @return The descriptor in little-endian order.
+     * @throws LibUsbException When the descriptor could not be read or is
+     *                         shorter than expected.
+     */
+    private ByteBuffer readDescriptor(final DeviceHandle handle, final byte type, final int index,
+                                      final int length) {
+        final ByteBuffer buffer = BufferUtils.allocateByteBuffer(length);
+        final int result = this.backend.descriptor(handle, type, (byte) index, (short) 0, buffer);
+        if (result < 0) {
+            throw new LibUsbException("Unable to read descriptor " + type + "/" + index, result);
+        }
+        if (result < length) {
+            throw new LibUsbException("Short descriptor " + type + "/" + index, LibUsb.ERROR_IO);
+        }
+        return copy(buffer, result);
+    }
+
+    /**
+     * Reads an optional descriptor.
+     *
+     * @param handle The device handle.
+     * @param type   The descriptor type.
+     * @param index  The descriptor index.
+     * @param langId The language ID.
+     * @param length The maximum length.
+     * @return The descriptor in little-endian order or null if it could not
+     * be read.
+     */
+    private ByteBuffer tryRead(final DeviceHandle handle, final byte type, final int index, final short langId,
+                               final int length) {
+        final ByteBuffer buffer = BufferUtils.allocateByteBuffer(length);
+        final int result = this.backend.descriptor(handle, type, (byte) index, langId, buffer);
+        return result < 2 ? null : copy(buffer, result);
+    }
+
+    /**
+     * Reads a string which must exist.
+     *
+     * @param handle The device handle.
+     * @param index  The string index.
+     * @param langId The language ID.
+     * @return The string.
+     * @throws LibUsbException When the string could not be read.
+     */
+    private String readString(final DeviceHandle handle, final int index, final short langId) {
+        final ByteBuffer buffer = BufferUtils.allocateByteBuffer(MAX_STRING_SIZE);
+        final int result = this.backend.descriptor(handle, LibUsb.DT_STRING, (byte) index, langId, buffer);
+        if (result < 0) {
+            throw new LibUsbException("Unable to read string " + index, result);
+        }
+        return decodeString(copy(buffer, result));
+    }
+
+    /**
+     * Reads an optional string.
+     *
+     * @param handle The device handle.
+     * @param index  The string index.
+     * @param langId The language ID.
+     * @return The string or null if it could not be read.
+     */
+    private String tryReadString(final DeviceHandle handle, final int index, final short langId) {
+        final ByteBuffer descriptor = tryRead(handle, LibUsb.DT_STRING, index, langId, MAX_STRING_SIZE);
+        return descriptor == null ? null : decodeString(descriptor);
+    }
+
+    /**
+     * Decodes a string descriptor.
+     *
+     * @param descriptor The string descriptor.
+     * @return The string.
+     */
+    static String decodeString(final ByteBuffer descriptor) {
+        if (descriptor.limit() < 2) {
+            return "";
+        }
+        final int length = Math.min(descriptor.limit(), descriptor.get(0) & 0xff) & ~1;
+        final byte[] chars = new byte[Math.max(0, length - 2)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = descriptor.get(2 + i);
+        }
+        return new String(chars, StandardCharsets.UTF_16LE);
+    }
+
+    /**
+     * Copies the received bytes of a buffer into a heap buffer.
+     *
+     * @param buffer The buffer.
+     * @param length The number of received bytes.
+     * @return The read-only little-endian copy.
+     */
+    private static ByteBuffer copy(final ByteBuffer buffer, final int length) {
+        final ByteBuffer source = buffer.duplicate();
+        source.clear().limit(Math.min(length, source.capacity()));
+        final ByteBuffer copy = ByteBuffer.allocate(source.remaining());
+        copy.put(source).flip();
+        return copy.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public String toString() {
+        return "device inventory with " + this.records.size() + " devices";
+    }
+
+    /**
+     * The stored descriptors and strings of one device.
+     */
+    public static final class Record {
+
+        /**
+         * The device descriptor.
+         */
+        private final ByteBuffer deviceDescriptor;
+
+        /**
+         * The configuration descriptors including their interface and
+         * endpoint descriptors.
+         */
+        private final List<ByteBuffer> configDescriptors;
+
+        /**
+         * The BOS descriptor including its capabilities or null.
+         */
+        private final ByteBuffer bosDescriptor;
+
+        /**
+         * The language ID of the strings.
+         */
+        private final short languageId;
+
+        /**
+         * The strings by index.
+         */
+        private final Map<Integer, String> strings;
+
+        /**
+         * The serial number or null.
+         */
+        private final String serialNumber;
+
+        /**
+         * Constructs a new record.
+         *
+         * @param deviceDescriptor  The device descriptor.
+         * @param configDescriptors The configuration descriptors.
+         * @param bosDescriptor     The BOS descriptor or null.
+         * @param languageId        The language ID of the strings.
+         * @param strings           The strings by index.
+         * @param serialNumber      The serial number or null.
+         */
+        Record(final ByteBuffer deviceDescriptor, final List<ByteBuffer> configDescriptors,
+               final ByteBuffer bosDescriptor, final short languageId, final Map<Integer, String> strings,
+               final String serialNumber) {
+            if (deviceDescriptor.remaining() != LibUsb.DT_DEVICE_SIZE) {
+                throw new IllegalArgumentException("Invalid device descriptor size");
+            }
+            this.deviceDescriptor = deviceDescriptor;
+            this.configDescriptors = Collections.unmodifiableList(configDescriptors);
+            this.bosDescriptor = bosDescriptor;
+            this.languageId = languageId;
+            this.strings = Collections.unmodifiableMap(strings);
+            this.serialNumber = serialNumber;
+        }
+
+        /**
+         * Reads a record.
+         *
+         * @param in The little-endian input positioned at the record.
+         * @return The record.
+         */
+        static Record read(final ByteBuffer in) {
+            final ByteBuffer device = slice(in, in.get() & 0xff);
+            final int configCount = in.get() & 0xff;
+            final List<ByteBuffer> configs = new ArrayList<>(configCount);
+            for (int i = 0; i < configCount; i++) {
+                configs.add(slice(in, in.getShort() & 0xffff));
+            }
+            final int bosLength = in.getShort() & 0xffff;
+            final ByteBuffer bos = bosLength == 0 ? null : slice(in, bosLength);
+            final short languageId = in.getShort();
+            final String serialNumber = readString(in);
+            final int stringCount = in.get() & 0xff;
+            final Map<Integer, String> strings = new TreeMap<>();
+            for (int i = 0; i < stringCount; i++) {
+                strings.put(in.get() & 0xff, readString(in));
+            }
+            return new Record(device, configs, bos, languageId, strings,
+                              serialNumber.isEmpty() ? null : serialNumber);
+        }
+
+        /**
+         * Returns the next bytes of the input as read-only view and skips
+         * them.
+         *
+         * @param in     The input.
+         * @param length The number of bytes.
+         * @return The little-endian view.
+         */
+        private static ByteBuffer slice(final ByteBuffer in, final int length) {
+            final ByteBuffer view = in.slice();
+            view.limit(length);
+            in.position(in.position() + length);
+            return view.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Reads a length-prefixed UTF-8 string.
+         *
+         * @param in The input.
+         * @return The string.
+         */
+        private static String readString(final ByteBuffer in) {
+            final byte[] bytes = new byte[in.get() & 0xff];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Writes a length-prefixed UTF-8 string.
+         *
+         * @param out    The output.
+         * @param string The string or null.
+         */
+        private static void writeString(final ByteBuffer out, final String string) {
+            final byte[] bytes = utf8(string);
+            out.put((byte) bytes.length);
+            out.put(bytes);
+        }
+
+        /**
+         * Encodes a string as UTF-8 limited to 255 bytes.
+         *
+         * @param string The string or null.
+         * @return The encoded bytes.
+         */
+        private static byte[] utf8(final String string) {
+            final byte[] bytes = string == null ? new byte[0] : string.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 255) {
+                // String descriptors hold at most 126 characters, so this
+                // only truncates records built by hand
+                final byte[] truncated = new byte[255];
+                System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+                return truncated;
+            }
+            return bytes;
+        }
+
+        /**
+         * Returns the encoded size of the record.
+         *
+         * @return The size in bytes.
+         */
+        int size() {
+            int size = 1 + this.deviceDescriptor.remaining() + 1;
+            for (final ByteBuffer config : this.configDescriptors) {
+                size += 2 + config.remaining();
+            }
+            size += 2 + (this.bosDescriptor == null ? 0 : this.bosDescriptor.remaining());
+            size += 2 + 1 + utf8(this.serialNumber).length + 1;
+            for (final String string : this.strings.values()) {
+                size += 2 + utf8(string).length;
+            }
+            return size;
+        }
+
+        /**
+         * Writes the record.
+         *
+         * @param out The little-endian output.
+         */
+        void write(final ByteBuffer out) {
+            out.put((byte) this.deviceDescriptor.remaining());
+            out.put(this.deviceDescriptor.duplicate());
+            out.put((byte) this.configDescriptors.size());
+            for (final ByteBuffer config : this.configDescriptors) {
+                out.putShort((short) config.remaining());
+                out.put(config.duplicate());
+            }
+            if (this.bosDescriptor == null) {
+                out.putShort((short) 0);
+            } else {
+                out.putShort((short) this.bosDescriptor.remaining());
+                out.put(this.bosDescriptor.duplicate());
+            }
+            out.putShort(this.languageId);
+            writeString(out, this.serialNumber);
+            out.put((byte) this.strings.size());
+            for (final Map.Entry<Integer, String> entry : this.strings.entrySet()) {
+                out.put(entry.getKey().byteValue());
+                writeString(out, entry.getValue());
+            }
+        }
+
+        /**
+         * Returns the key of the record.
+         *
+         * @return The key.
+         */
+        String key() {
+            return DeviceInventory.key(getVendorId(), getProductId(), getBcdDevice(), this.serialNumber);
+        }
+
+        /**
+         * Returns the vendor ID.
+         *
+         * @return The vendor ID.
+         */
+        public short getVendorId() {
+            return this.deviceDescriptor.getShort(this.deviceDescriptor.position() + 8);
+        }
+
+        /**
+         * Returns the product ID.
+         *
+         * @return The product ID.
+         */
+        public short getProductId() {
+            return this.deviceDescriptor.getShort(this.deviceDescriptor.position() + 10);
+        }
+
+        /**
+         * Returns the device release number.
+         *
+         * @return The bcdDevice value.
+         */
+        public short getBcdDevice() {
+            return this.deviceDescriptor.getShort(this.deviceDescriptor.position() + 12);
+        }
+
+        /**
+         * Returns the serial number.
+         *
+         * @return The serial number or null if the device has none.
+         */
+        public String getSerialNumber() {
+            return this.serialNumber;
+        }
+
+        /**
+         * Returns the language ID of the strings.
+         *
+         * @return The language ID or 0 if the device has no strings.
+         */
+        public short getLanguageId() {
+            return this.languageId;
+        }
+
+        /**
+         * Returns the device descriptor.
+         *
+         * @return A read-only little-endian view of the descriptor.
+         */
+        public ByteBuffer getDeviceDescriptor() {
+            return this.deviceDescriptor.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Returns the number of configuration descriptors.
+         *
+         * @return The number of configurations.
+         */
+        public int getConfigCount() {
+            return this.configDescriptors.size();
+        }
+
+        /**
+         * Returns a configuration descriptor including its interface,
+         * endpoint and class-specific descriptors.
+         *
+         * @param index The configuration index.
+         * @return A read-only little-endian view of the descriptor.
+         */
+        public ByteBuffer getConfigDescriptor(final int index) {
+            return this.configDescriptors.get(index).duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Returns the BOS descriptor including its device capabilities.
+         *
+         * @return A read-only little-endian view of the descriptor or null if
+         * the device has none.
+         */
+        public ByteBuffer getBosDescriptor() {
+            return this.bosDescriptor == null ? null
+                : this.bosDescriptor.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Returns a string.
+         *
+         * @param index The string index.
+         * @return The string or null if unknown.
+         */
+        public String getString(final int index) {
+            return this.strings.get(index);
+        }
+
+        /**
+         * Returns all strings.
+         *
+         * @return The strings by index.
+         */
+        public Map<Integer, String> getStrings() {
+            return this.strings;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%04x:%04x %s with %d configurations", getVendorId() & 0xffff,
+                                 getProductId() & 0xffff, this.serialNumber == null ? "" : this.serialNumber,
+                                 this.configDescriptors.size());
+        }
+    }
+}
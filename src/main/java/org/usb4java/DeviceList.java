@@ -26,7 +26,7 @@ import java.util.Iterator;
  *
  * @author Klaus Reimer (k@ailis.de)
  */
-public final class DeviceList implements Iterable<Device>
+public final class DeviceList implements Iterable<Device>, AutoCloseable
 {
     /** The native pointer to the devices array. */
     private long deviceListPointer;
@@ -53,6 +53,25 @@ public final class DeviceList implements Iterable<Device>
         return this.deviceListPointer;
     }
 
+    /**
+     * Frees the list and unrefs the devices in it, like
+     * {@link LibUsb#freeDeviceList(DeviceList, boolean)} with unref set.
+     * Devices still needed afterwards must be referenced with
+     * {@link LibUsb#refDevice(Device)} first. Does nothing if the list was
+     * never filled or is already freed.
+     */
+    @Override
+    public void close()
+    {
+        if (this.deviceListPointer != 0)
+        {
+            NativeResources.closed(this.deviceListPointer);
+            LibUsb.freeDeviceList(this, true);
+            this.deviceListPointer = 0;
+            this.size = 0;
+        }
+    }
+
     /**
      * Returns the number of devices in the list.
      *
@@ -0,0 +1,467 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares one open {@link DeviceHandle} per {@link Device} between all
+ * components of an application.
+ * <p>
+ * Each call to {@link #open(Device)} returns a new {@link Session} but the
+ * underlying device handle is opened only once and shared by reference
+ * count, so repeated opens of an already open device only cost a map lookup.
+ * Kernel drivers are detached automatically through
+ * {@link LibUsb#setAutoDetachKernelDriver(DeviceHandle, boolean)} where
+ * supported.
+ * <p>
+ * Interfaces are claimed through the session with
+ * {@link Session#claimInterface(int)}. Each interface is claimed in libusb
+ * only once, no matter how many sessions claim it, and released when the
+ * last session holding it releases it or is closed.
+ * <p>
+ * When the last session of a device is closed the handle stays open for a
+ * grace period, so a component which re-opens the device shortly after
+ * doesn't pay for a new open. Idle handles are closed by a daemon thread
+ * after the grace period. {@link #close()} closes all handles at once.
+ */
+public final class DeviceSessions implements AutoCloseable {
+
+    /**
+     * The operations used on device handles. Replaceable for tests.
+     */
+    interface Backend {
+        /**
+         * Opens a device.
+         *
+         * @param device The device.
+         * @param handle Output location for the handle.
+         * @return 0 on success or an error code.
+         */
+        int open(Device device, DeviceHandle handle);
+
+        /**
+         * Closes a device handle.
+         *
+         * @param handle The handle.
+         */
+        void close(DeviceHandle handle);
+
+        /**
+         * Enables automatic kernel driver detachment.
+         *
+         * @param handle The handle.
+         * @return 0 on success or an error code.
+         */
+        int enableAutoDetach(DeviceHandle handle);
+
+        /**
+         * Claims an interface.
+         *
+         * @param handle The handle.
+         * @param iface  The interface number.
+         * @return 0 on success or an error code.
+         */
+        int claimInterface(DeviceHandle handle, int iface);
+
+        /**
+         * Releases an interface.
+         *
+         * @param handle The handle.
+         * @param iface  The interface number.
+         * @return 0 on success or an error code.
+         */
+        int releaseInterface(DeviceHandle handle, int iface);
+    }
+
+    /**
+     * The backend calling libusb.
+     */
+    private static final Backend LIBUSB = new Backend() {
+        @Override
+        public int open(final Device device, final DeviceHandle handle) {
+            return LibUsb.open(device, handle);
+        }
+
+        @Override
+        public void close(final DeviceHandle handle) {
+            LibUsb.close(handle);
+        }
+
+        @Override
+        public int enableAutoDetach(final DeviceHandle handle) {
+            return LibUsb.setAutoDetachKernelDriver(handle, true);
+        }
+
+        @Override
+        public int claimInterface(final DeviceHandle handle, final int iface) {
+            return LibUsb.claimInterface(handle, iface);
+        }
+
+        @Override
+        public int releaseInterface(final DeviceHandle handle, final int iface) {
+            return LibUsb.releaseInterface(handle, iface);
+        }
+    };
+
+    /**
+     * The backend.
+     */
+    private final Backend backend;
+
+    /**
+     * The grace period in nanoseconds before idle handles are closed.
+     */
+    private final long gracePeriod;
+
+    /**
+     * The scheduler closing idle handles. Null when the grace period is 0.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The open devices.
+     */
+    private final Map<Device, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new session manager.
+     *
+     * @param gracePeriod The time an unused handle stays open. 0 closes it
+     *                    with the last session.
+     * @param unit        The unit of the grace period.
+     */
+    public DeviceSessions(final long gracePeriod, final TimeUnit unit) {
+        this(LIBUSB, unit.toNanos(gracePeriod));
+    }
+
+    /**
+     * Constructs a new session manager.
+     *
+     * @param backend     The backend.
+     * @param gracePeriod The grace period in nanoseconds.
+     */
+    DeviceSessions(final Backend backend, final long gracePeriod) {
+        if (gracePeriod < 0) {
+            throw new IllegalArgumentException("gracePeriod must not be negative");
+        }
+        this.backend = backend;
+        this.gracePeriod = gracePeriod;
+        this.scheduler = gracePeriod == 0 ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "usb4java device sessions");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a session for the specified device. The device handle is shared
+     * with all other sessions of the same device.
+     *
+     * @param device The device to open.
+     * @return The session. Must be closed when no longer needed.
+     * @throws LibUsbException When the device could not be opened.
+     */
+    public Session open(final Device device) {
+        while (true) {
+            Entry entry = this.entries.get(device);
+            if (entry == null) {
+                entry = create(device);
+            }
+            if (entry.acquire()) {
+                return new Session(entry);
+            }
+            // Closed concurrently after the lookup, try again
+        }
+    }
+
+    /**
+     * Opens the device handle of a new entry or returns the entry created
+     * concurrently.
+     *
+     * @param device The device to open.
+     * @return The entry.
+     */
+    private synchronized Entry create(final Device device) {
+        final Entry existing = this.entries.get(device);
+        if (existing != null) {
+            return existing;
+        }
+        final DeviceHandle handle = new DeviceHandle();
+        final int result = this.backend.open(device, handle);
+        if (result != LibUsb.SUCCESS) {
+            throw new LibUsbException("Unable to open device", result);
+        }
+        // Not supported on all platforms, claiming fails later if a kernel
+        // driver is really in the way
+        this.backend.enableAutoDetach(handle);
+        final Entry entry = new Entry(device, handle);
+        this.entries.put(device, entry);
+        return entry;
+    }
+
+    /**
+     * Returns the number of open device handles, including idle ones.
+     *
+     * @return The number of open handles.
+     */
+    public int getOpenHandles() {
+        return this.entries.size();
+    }
+
+    /**
+     * Closes all device handles immediately, no matter if sessions are
+     * still open. Sessions of closed handles must not be used anymore.
+     */
+    @Override
+    public void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+        for (final Entry entry : this.entries.values()) {
+            entry.close(true);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("device sessions with %d open handles", this.entries.size());
+    }
+
+    /**
+     * A shared device handle with its reference count and claimed
+     * interfaces.
+     */
+    private final class Entry {
+
+        /**
+         * The device.
+         */
+        private final Device device;
+
+        /**
+         * The shared handle.
+         */
+        private final DeviceHandle handle;
+
+        /**
+         * The claimed interfaces mapped to their claim counts. Guarded by
+         * this.
+         */
+        private final Map<Integer, Integer> claims = new HashMap<>();
+
+        /**
+         * The number of open sessions. Guarded by this.
+         */
+        private int references;
+
+        /**
+         * The scheduled idle close or null. Guarded by this.
+         */
+        private ScheduledFuture<?> idleClose;
+
+        /**
+         * Set when the handle has been closed. Guarded by this.
+         */
+        private boolean closed;
+
+        /**
+         * Constructs a new entry.
+         *
+         * @param device The device.
+         * @param handle The open handle.
+         */
+        Entry(final Device device, final DeviceHandle handle) {
+            this.device = device;
+            this.handle = handle;
+        }
+
+        /**
+         * Adds a reference.
+         *
+         * @return False if the handle has already been closed.
+         */
+        synchronized boolean acquire() {
+            if (this.closed) {
+                return false;
+            }
+            this.references++;
+            if (this.idleClose != null) {
+                this.idleClose.cancel(false);
+                this.idleClose = null;
+            }
+            return true;
+        }
+
+        /**
+         * Removes a reference and closes the handle or schedules closing it
+         * when it was the last one.
+         */
+        synchronized void release() {
+            if (--this.references > 0 || this.closed) {
+                return;
+            }
+            if (DeviceSessions.this.scheduler == null) {
+                close(false);
+            } else {
+                this.idleClose = DeviceSessions.this.scheduler.schedule(() -> close(false),
+                    DeviceSessions.this.gracePeriod, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * Claims an interface unless already claimed by another session.
+         *
+         * @param iface The interface number.
+         */
+        synchronized void claim(final int iface) {
+            if (this.closed) {
+                throw new IllegalStateException("Device handle already closed");
+            }
+            final Integer count = this.claims.get(iface);
+            if (count == null) {
+                final int result = DeviceSessions.this.backend.claimInterface(this.handle, iface);
+                if (result != LibUsb.SUCCESS) {
+                    throw new LibUsbException("Unable to claim interface " + iface, result);
+                }
+                this.claims.put(iface, 1);
+            } else {
+                this.claims.put(iface, count + 1);
+            }
+        }
+
+        /**
+         * Releases a claim and the interface when it was the last claim.
+         *
+         * @param iface The interface number.
+         */
+        synchronized void unclaim(final int iface) {
+            final Integer count = this.claims.get(iface);
+            if (count == null || this.closed) {
+                return;
+            }
+            if (count > 1) {
+                this.claims.put(iface, count - 1);
+            } else {
+                this.claims.remove(iface);
+                DeviceSessions.this.backend.releaseInterface(this.handle, iface);
+            }
+        }
+
+        /**
+         * Releases all interfaces and closes the handle.
+         *
+         * @param force True to close even if sessions are still open.
+         */
+        synchronized void close(final boolean force) {
+            if (this.closed || (this.references > 0 && !force)) {
+                return;
+            }
+            this.closed = true;
+            for (final Integer iface : this.claims.keySet()) {
+                DeviceSessions.this.backend.releaseInterface(this.handle, iface);
+            }
+            this.claims.clear();
+            DeviceSessions.this.entries.remove(this.device, this);
+            DeviceSessions.this.backend.close(this.handle);
+        }
+    }
+
+    /**
+     * A reference to a shared device handle.
+     */
+    public final class Session implements AutoCloseable {
+
+        /**
+         * The shared entry.
+         */
+        private final Entry entry;
+
+        /**
+         * The interfaces claimed by this session. Guarded by this.
+         */
+        private final List<Integer> claimed = new ArrayList<>(1);
+
+        /**
+         * Set when the session has been closed. Guarded by this.
+         */
+        private boolean closed;
+
+        /**
+         * Constructs a new session.
+         *
+         * @param entry The shared entry.
+         */
+        Session(final Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Returns the shared device handle. Do not close it directly.
+         *
+         * @return The device handle.
+         */
+        public DeviceHandle getHandle() {
+            return this.entry.handle;
+        }
+
+        /**
+         * Claims an interface for this session. The interface is claimed in
+         * libusb only if no other session claimed it already.
+         *
+         * @param iface The interface number.
+         * @throws LibUsbException When the interface could not be claimed.
+         */
+        public synchronized void claimInterface(final int iface) {
+            if (this.closed) {
+                throw new IllegalStateException("Session already closed");
+            }
+            this.entry.claim(iface);
+            this.claimed.add(iface);
+        }
+
+        /**
+         * Releases an interface claimed by this session.
+         *
+         * @param iface The interface number.
+         */
+        public synchronized void releaseInterface(final int iface) {
+            if (this.claimed.remove(Integer.valueOf(iface))) {
+                this.entry.unclaim(iface);
+            }
+        }
+
+        /**
+         * Releases all interfaces claimed by this session and drops the
+         * reference to the device handle.
+         */
+        @Override
+        public synchronized void close() {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            for (final Integer iface : this.claimed) {
+                this.entry.unclaim(iface);
+            }
+            this.claimed.clear();
+            this.entry.release();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("device session on %s", this.entry.handle);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+
+/**
+ * A blocking byte channel bound to a bulk endpoint.
+ * <p>
+ * The channel of an IN endpoint is readable, the channel of an OUT endpoint
+ * is writable. Calling the other operation throws
+ * {@link NonReadableChannelException} or {@link NonWritableChannelException}.
+ * Code written against {@code java.nio.channels}, such as
+ * {@link java.nio.channels.FileChannel#transferFrom(java.nio.channels.ReadableByteChannel, long, long)},
+ * can move data between an endpoint and other channels directly.
+ * <p>
+ * The channel keeps several transfers in flight. An IN channel submits all
+ * of its transfers on the first read (read-ahead) and
+ * {@link #read(ByteBuffer)} returns data of already completed transfers. An
+ * OUT channel copies written data into idle transfer buffers and submits
+ * them without waiting for their completion (write-behind), so
+ * {@link #write(ByteBuffer)} only blocks while all buffers are in flight. A
+ * failed transfer is reported as {@link IOException} by the next operation.
+ * <p>
+ * Completions are handled by the {@link EventLoop} passed to the
+ * constructor, which must be running until the channel is closed. The
+ * transfer size should be a multiple of the maximum packet size of the
+ * endpoint.
+ */
+public final class EndpointChannel implements ByteChannel {
+
+    /**
+     * The transfer pipeline.
+     */
+    private final EndpointPipeline pipeline;
+
+    /**
+     * Opens a channel on a bulk endpoint.
+     *
+     * @param eventLoop    The running event loop of the context of the handle.
+     * @param handle       The device handle. The interface of the endpoint
+     *                     must be claimed.
+     * @param endpoint     The bulk endpoint address. Its direction decides
+     *                     whether the channel is readable or writable.
+     * @param transferSize The size of each transfer in bytes.
+     * @param depth        The number of transfers kept in flight.
+     */
+    public EndpointChannel(final EventLoop eventLoop, final DeviceHandle handle, final byte endpoint,
+                           final int transferSize, final int depth) {
+        this(new EndpointPipeline(EndpointPipeline.bulk(eventLoop, handle, endpoint, 0),
+            (endpoint & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN, transferSize, depth));
+    }
+
+    /**
+     * Constructs a channel using the specified pipeline.
+     *
+     * @param pipeline The transfer pipeline.
+     */
+    EndpointChannel(final EndpointPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Reads received data, waiting until at least one byte is available.
+     *
+     * @param dst The buffer to read into.
+     * @return The number of bytes read. Never -1 because an endpoint has no
+     * end of stream.
+     * @throws IOException When a transfer failed or the channel is closed.
+     */
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        if (!this.pipeline.isIn()) {
+            throw new NonReadableChannelException();
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        return this.pipeline.read(dst, true);
+    }
+
+    /**
+     * Writes all remaining bytes of the buffer. Full transfer buffers and
+     * the remainder are submitted but not waited for.
+     *
+     * @param src The buffer to write from.
+     * @return The number of bytes written.
+     * @throws IOException When a previous transfer failed or the channel is
+     *                     closed.
+     */
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+        if (this.pipeline.isIn()) {
+            throw new NonWritableChannelException();
+        }
+        return this.pipeline.write(src, true, true);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.pipeline.isOpen();
+    }
+
+    /**
+     * Closes the channel. Written data already submitted is still sent, the
+     * read-ahead transfers are cancelled. Waits until no transfer is in
+     * flight.
+     */
+    @Override
+    public void close() {
+        this.pipeline.close();
+    }
+
+    @Override
+    public String toString() {
+        return "endpoint channel using " + this.pipeline;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream reading from a bulk IN endpoint.
+ * <p>
+ * Instead of performing one synchronous bulk transfer per read, the stream
+ * keeps a configurable number of transfers in flight (read-ahead) and
+ * serves {@link #read(byte[], int, int)} from the data of already completed
+ * transfers. A consumed transfer buffer is resubmitted immediately, so the
+ * throughput is not limited by the round-trip time of a single transfer.
+ * The read-ahead starts with the first read.
+ * <p>
+ * Completions are handled by the {@link EventLoop} passed to the
+ * constructor, which must be running until the stream is closed. The
+ * transfer size should be a multiple of the maximum packet size of the
+ * endpoint. An endpoint has no end of stream, so reads block until data
+ * arrives and never return -1.
+ */
+public final class EndpointInputStream extends InputStream {
+
+    /**
+     * The transfer pipeline.
+     */
+    private final EndpointPipeline pipeline;
+
+    /**
+     * Buffer for single byte reads.
+     */
+    private final byte[] single = new byte[1];
+
+    /**
+     * Opens an input stream on a bulk IN endpoint.
+     *
+     * @param eventLoop    The running event loop of the context of the handle.
+     * @param handle       The device handle. The interface of the endpoint
+     *                     must be claimed.
+     * @param endpoint     The bulk IN endpoint address.
+     * @param transferSize The size of each transfer in bytes.
+     * @param depth        The number of transfers kept in flight.
+     */
+    public EndpointInputStream(final EventLoop eventLoop, final DeviceHandle handle, final byte endpoint,
+                               final int transferSize, final int depth) {
+        this(new EndpointPipeline(EndpointPipeline.bulk(eventLoop, handle, endpoint, 0), true,
+            transferSize, depth));
+        if ((endpoint & LibUsb.ENDPOINT_DIR_MASK) != LibUsb.ENDPOINT_IN) {
+            throw new IllegalArgumentException("Not an IN endpoint");
+        }
+    }
+
+    /**
+     * Opens an input stream on a bulk IN endpoint whose transfer size and
+     * depth are chosen by a tuner while reading.
+     *
+     * @param eventLoop The running event loop of the context of the handle.
+     * @param handle    The device handle. The interface of the endpoint must
+     *                  be claimed.
+     * @param endpoint  The bulk IN endpoint address.
+     * @param tuner     The tuner, not attached to another stream.
+     */
+    public EndpointInputStream(final EventLoop eventLoop, final DeviceHandle handle, final byte endpoint,
+                               final StreamTuner tuner) {
+        this(eventLoop, handle, endpoint, tuner.getTransferSize(), tuner.getDepth());
+        tuner.attach(this.pipeline);
+    }
+
+    /**
+     * Constructs an input stream using the specified pipeline.
+     *
+     * @param pipeline The IN transfer pipeline.
+     */
+    EndpointInputStream(final EndpointPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public int read() throws IOException {
+        read(this.single, 0, 1);
+        return this.single[0] & 0xff;
+    }
+
+    /**
+     * Reads received data, waiting until at least one byte is available.
+     * Copies as much data of already completed transfers as fits.
+     *
+     * @param b   The buffer to read into.
+     * @param off The offset in the buffer.
+     * @param len The maximum number of bytes to read.
+     * @return The number of bytes read.
+     * @throws IOException When a transfer failed or the stream is closed.
+     */
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        return this.pipeline.read(ByteBuffer.wrap(b, off, len), true);
+    }
+
+    /**
+     * Returns the number of bytes of completed transfers which were not
+     * read yet.
+     *
+     * @return The number of bytes which can be read without blocking.
+     */
+    @Override
+    public int available() {
+        return this.pipeline.available();
+    }
+
+    /**
+     * Closes the stream. The read-ahead transfers are cancelled and their
+     * data is discarded. Waits until no transfer is in flight.
+     */
+    @Override
+    public void close() {
+        this.pipeline.close();
+    }
+
+    @Override
+    public String toString() {
+        return "endpoint input stream using " + this.pipeline;
+    }
+}
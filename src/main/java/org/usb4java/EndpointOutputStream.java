@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An output stream writing to a bulk OUT endpoint.
+ * <p>
+ * Written data is collected in transfer buffers of a configurable size. A
+ * full buffer is submitted immediately without waiting for its completion
+ * (write-behind), so up to the configured number of transfers are in flight
+ * at once. Writing only blocks while all buffers are in flight.
+ * {@link #flush()} submits a partially filled buffer and waits until all
+ * data was sent. A failed transfer is reported as {@link IOException} by
+ * the next write or flush.
+ * <p>
+ * Completions are handled by the {@link EventLoop} passed to the
+ * constructor, which must be running until the stream is closed.
+ */
+public final class EndpointOutputStream extends OutputStream {
+
+    /**
+     * The transfer pipeline.
+     */
+    private final EndpointPipeline pipeline;
+
+    /**
+     * Buffer for single byte writes.
+     */
+    private final byte[] single = new byte[1];
+
+    /**
+     * Opens an output stream on a bulk OUT endpoint.
+     *
+     * @param eventLoop    The running event loop of the context of the handle.
+     * @param handle       The device handle. The interface of the endpoint
+     *                     must be claimed.
+     * @param endpoint     The bulk OUT endpoint address.
+     * @param transferSize The size of each transfer in bytes.
+     * @param depth        The maximum number of transfers in flight.
+     */
+    public EndpointOutputStream(final EventLoop eventLoop, final DeviceHandle handle,
+                                final byte endpoint, final int transferSize, final int depth) {
+        this(new EndpointPipeline(EndpointPipeline.bulk(eventLoop, handle, endpoint, 0), false,
+            transferSize, depth));
+        if ((endpoint & LibUsb.ENDPOINT_DIR_MASK) != LibUsb.ENDPOINT_OUT) {
+            throw new IllegalArgumentException("Not an OUT endpoint");
+        }
+    }
+
+    /**
+     * Constructs an output stream using the specified pipeline.
+     *
+     * @param pipeline The OUT transfer pipeline.
+     */
+    EndpointOutputStream(final EndpointPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.single[0] = (byte) b;
+        write(this.single, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        this.pipeline.write(ByteBuffer.wrap(b, off, len), true, false);
+    }
+
+    /**
+     * Submits buffered data and waits until all transfers completed.
+     *
+     * @throws IOException When a transfer failed or the stream is closed.
+     */
+    @Override
+    public void flush() throws IOException {
+        this.pipeline.flush();
+    }
+
+    /**
+     * Flushes and closes the stream. Does nothing when already closed.
+     *
+     * @throws IOException When flushing failed. The stream is closed anyway.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.pipeline.isOpen()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            this.pipeline.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "endpoint output stream using " + this.pipeline;
+    }
+}
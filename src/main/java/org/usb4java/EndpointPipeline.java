@@ -0,0 +1,807 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of transfer buffers kept in flight on one endpoint. Shared
+ * implementation of the endpoint channels and streams.
+ * <p>
+ * For IN endpoints all buffers are submitted up front (read-ahead) and
+ * resubmitted as soon as a reader has consumed their data. Completions are
+ * consumed in submission order. For OUT endpoints written data is copied
+ * into idle buffers which are submitted when full or flushed
+ * (write-behind). The first failed transfer is reported by the next
+ * operation.
+ * <p>
+ * The transfer size and depth of IN pipelines can be changed while
+ * reading. Consumed slots are then replaced or dropped instead of being
+ * resubmitted until the new configuration is reached, so no received data
+ * is lost.
+ */
+final class EndpointPipeline {
+
+    /**
+     * Transfer operations. Replaceable for tests.
+     */
+    interface Backend {
+        /**
+         * Submits a transfer for the first bytes of the buffer of a slot.
+         * Its completion must be reported with
+         * {@link EndpointPipeline#completed(Slot, int, int)}.
+         *
+         * @param slot   The slot.
+         * @param length The number of bytes to transfer.
+         * @return {@link LibUsb#SUCCESS} or an error code.
+         */
+        int submit(Slot slot, int length);
+
+        /**
+         * Cancels the transfer of a slot.
+         *
+         * @param slot The slot.
+         */
+        void cancel(Slot slot);
+
+        /**
+         * Frees the transfer of a slot.
+         *
+         * @param slot The slot.
+         */
+        void free(Slot slot);
+
+        /**
+         * Throws an exception if the current thread must not wait for
+         * completions.
+         */
+        void checkWait();
+    }
+
+    /**
+     * Observes the completions of IN transfers.
+     */
+    interface Observer {
+        /**
+         * Called after each completed IN transfer, outside of the lock.
+         *
+         * @param actualLength The number of received bytes.
+         * @param inFlight     The number of transfers still in flight.
+         */
+        void completed(int actualLength, int inFlight);
+    }
+
+    /**
+     * The callback of all libusb transfers.
+     */
+    private static final TransferCallback CALLBACK = transfer -> {
+        final Slot slot = (Slot) transfer.userData();
+        slot.pipeline.completed(slot, transfer.status(), transfer.actualLength());
+    };
+
+    /**
+     * The transfer operations.
+     */
+    private final Backend backend;
+
+    /**
+     * True for IN endpoints.
+     */
+    private final boolean in;
+
+    /**
+     * The slots in flight in submission order. For IN endpoints completed
+     * slots stay here until consumed. Guarded by lock.
+     */
+    private final ArrayDeque<Slot> queue = new ArrayDeque<>();
+
+    /**
+     * Slots not in flight: OUT slots ready to be filled and IN slots not
+     * submitted yet or stopped after an error. Guarded by lock.
+     */
+    private final ArrayDeque<Slot> idle = new ArrayDeque<>();
+
+    /**
+     * The lock guarding the state.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Signalled when a transfer completes.
+     */
+    private final Condition changed = this.lock.newCondition();
+
+    /**
+     * Called after each completion, outside of the lock.
+     */
+    private volatile Runnable listener;
+
+    /**
+     * Called after each IN completion, outside of the lock.
+     */
+    private volatile Observer observer;
+
+    /**
+     * The size of new transfer buffers. Guarded by lock.
+     */
+    private int transferSize;
+
+    /**
+     * The number of slots to keep. Guarded by lock.
+     */
+    private int depth;
+
+    /**
+     * The number of slots in the pipeline. Guarded by lock.
+     */
+    private int slots;
+
+    /**
+     * The OUT slot currently being filled or null. Guarded by lock.
+     */
+    private Slot filling;
+
+    /**
+     * The first transfer error or null. Guarded by lock.
+     */
+    private IOException error;
+
+    /**
+     * Set when the IN slots were submitted. Guarded by lock.
+     */
+    private boolean started;
+
+    /**
+     * Set when closed. Guarded by lock.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs a new pipeline.
+     *
+     * @param backend      The transfer operations.
+     * @param in           True for IN endpoints.
+     * @param transferSize The size of each transfer buffer.
+     * @param depth        The number of transfer buffers.
+     */
+    EndpointPipeline(final Backend backend, final boolean in, final int transferSize, final int depth) {
+        if (transferSize <= 0) {
+            throw new IllegalArgumentException("transferSize must be positive");
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("depth must be positive");
+        }
+        this.backend = backend;
+        this.in = in;
+        this.transferSize = transferSize;
+        this.depth = depth;
+        this.slots = depth;
+        for (int i = 0; i < depth; i++) {
+            this.idle.addLast(new Slot(this, BufferUtils.allocateByteBuffer(transferSize)));
+        }
+    }
+
+    /**
+     * Creates the backend transferring with libusb bulk transfers.
+     *
+     * @param eventLoop The running event loop of the context of the handle.
+     * @param handle    The device handle.
+     * @param endpoint  The bulk endpoint.
+     * @param timeout   The timeout of each transfer in milliseconds, 0 for
+     *                  unlimited.
+     * @return The backend.
+     */
+    static Backend bulk(final EventLoop eventLoop, final DeviceHandle handle, final byte endpoint,
+                        final long timeout) {
+        if (eventLoop == null) {
+            throw new IllegalArgumentException("eventLoop must not be null");
+        }
+        return new Backend() {
+            @Override
+            public int submit(final Slot slot, final int length) {
+                if (slot.transfer == null) {
+                    slot.transfer = LibUsb.allocTransfer();
+                    if (slot.transfer == null) {
+                        return LibUsb.ERROR_NO_MEM;
+                    }
+                    // Each slot owns its transfer, so only the length changes
+                    // on resubmission
+                    LibUsb.fillBulkTransfer(slot.transfer, handle, endpoint, slot.buffer, CALLBACK, slot,
+                                            timeout);
+                    if (TransferView.isAvailable()) {
+                        slot.view = new TransferView(slot.transfer);
+                    }
+                }
+                if (slot.view != null) {
+                    slot.view.setLength(length);
+                } else {
+                    slot.transfer.setLength(length);
+                }
+                return LibUsb.submitTransfer(slot.transfer);
+            }
+
+            @Override
+            public void cancel(final Slot slot) {
+                LibUsb.cancelTransfer(slot.transfer);
+            }
+
+            @Override
+            public void free(final Slot slot) {
+                if (slot.transfer != null) {
+                    slot.transfer.setBuffer(null);
+                    LibUsb.freeTransfer(slot.transfer);
+                    slot.transfer = null;
+                    slot.view = null;
+                }
+            }
+
+            @Override
+            public void checkWait() {
+                if (eventLoop.isEventThread()) {
+                    throw new IllegalStateException("Can't wait for transfers on the event thread");
+                }
+            }
+        };
+    }
+
+    /**
+     * Checks if this is an IN pipeline.
+     *
+     * @return True for IN endpoints.
+     */
+    boolean isIn() {
+        return this.in;
+    }
+
+    /**
+     * Sets the listener called after each completion.
+     *
+     * @param listener The listener or null.
+     */
+    void setListener(final Runnable listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the observer called after each IN completion.
+     *
+     * @param observer The observer or null.
+     */
+    void setObserver(final Observer observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Changes the transfer size and depth of an IN pipeline. Before the
+     * first read the slots are replaced right away. While reading, missing
+     * slots are submitted right away while surplus slots and slots of the
+     * old size are dropped or replaced when their data was consumed.
+     *
+     * @param transferSize The size of each transfer buffer.
+     * @param depth        The number of transfer buffers.
+     */
+    void reconfigure(final int transferSize, final int depth) {
+        if (transferSize <= 0) {
+            throw new IllegalArgumentException("transferSize must be positive");
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("depth must be positive");
+        }
+        if (!this.in) {
+            throw new IllegalStateException("Only IN pipelines can be reconfigured");
+        }
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.transferSize = transferSize;
+            this.depth = depth;
+            if (!this.started) {
+                for (final Slot slot : this.idle) {
+                    this.backend.free(slot);
+                }
+                this.idle.clear();
+                for (int i = 0; i < depth; i++) {
+                    this.idle.addLast(new Slot(this, BufferUtils.allocateByteBuffer(transferSize)));
+                }
+                this.slots = depth;
+            } else {
+                grow();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the configured transfer size.
+     *
+     * @return The size of new transfer buffers.
+     */
+    int getTransferSize() {
+        this.lock.lock();
+        try {
+            return this.transferSize;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the configured depth.
+     *
+     * @return The number of transfer buffers to keep.
+     */
+    int getDepth() {
+        this.lock.lock();
+        try {
+            return this.depth;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the pipeline is open.
+     *
+     * @return True if not closed.
+     */
+    boolean isOpen() {
+        this.lock.lock();
+        try {
+            return !this.closed;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Reads received data.
+     *
+     * @param dst   The buffer to read into.
+     * @param block True to wait until at least one byte is available.
+     * @return The number of bytes read, 0 if not blocking and no data is
+     * available.
+     * @throws IOException When a transfer failed or the pipeline is closed.
+     */
+    int read(final ByteBuffer dst, final boolean block) throws IOException {
+        this.lock.lock();
+        try {
+            checkOpen();
+            start();
+            int count = 0;
+            while (dst.hasRemaining()) {
+                final Slot head = this.queue.peekFirst();
+                if (head != null && head.done) {
+                    count += consume(head, dst);
+                    continue;
+                }
+                if (count > 0 || this.error != null || !block) {
+                    break;
+                }
+                await();
+            }
+            if (count == 0) {
+                throwError();
+            }
+            return count;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Copies data from a completed IN slot and resubmits it when empty.
+     *
+     * @param slot The completed head slot.
+     * @param dst  The destination.
+     * @return The number of bytes copied.
+     */
+    private int consume(final Slot slot, final ByteBuffer dst) {
+        final int count = Math.min(dst.remaining(), slot.length - slot.offset);
+        if (count > 0) {
+            final ByteBuffer source = slot.buffer.duplicate();
+            source.position(slot.offset).limit(slot.offset + count);
+            dst.put(source);
+            slot.offset += count;
+        }
+        if (slot.offset == slot.length) {
+            this.queue.pollFirst();
+            recycle(slot);
+        }
+        return count;
+    }
+
+    /**
+     * Resubmits a consumed IN slot, replacing or dropping it when the
+     * pipeline was reconfigured.
+     *
+     * @param slot The consumed slot.
+     */
+    private void recycle(final Slot slot) {
+        if (this.slots > this.depth) {
+            this.backend.free(slot);
+            this.slots--;
+            return;
+        }
+        Slot next = slot;
+        if (slot.buffer.capacity() != this.transferSize) {
+            this.backend.free(slot);
+            next = new Slot(this, BufferUtils.allocateByteBuffer(this.transferSize));
+        }
+        submit(next, next.buffer.capacity());
+    }
+
+    /**
+     * Submits new IN slots until the configured depth is reached. Must be
+     * called with the lock held.
+     */
+    private void grow() {
+        while (this.slots < this.depth && this.error == null) {
+            this.slots++;
+            final Slot slot = new Slot(this, BufferUtils.allocateByteBuffer(this.transferSize));
+            submit(slot, this.transferSize);
+        }
+    }
+
+    /**
+     * Returns the number of bytes which can be read without waiting.
+     *
+     * @return The number of received bytes not yet read.
+     */
+    int available() {
+        this.lock.lock();
+        try {
+            int available = 0;
+            for (final Slot slot : this.queue) {
+                if (!slot.done) {
+                    break;
+                }
+                available += slot.length - slot.offset;
+            }
+            return available;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes data.
+     *
+     * @param src          The buffer to write from.
+     * @param block        True to wait for idle buffers until all data is
+     *                     written.
+     * @param flushPartial True to submit a partially filled buffer at the
+     *                     end instead of keeping it for more data.
+     * @return The number of bytes written.
+     * @throws IOException When a transfer failed or the pipeline is closed.
+     */
+    int write(final ByteBuffer src, final boolean block, final boolean flushPartial) throws IOException {
+        this.lock.lock();
+        try {
+            checkOpen();
+            throwError();
+            int count = 0;
+            while (src.hasRemaining()) {
+                if (this.filling == null) {
+                    this.filling = this.idle.pollFirst();
+                    if (this.filling == null) {
+                        if (!block) {
+                            break;
+                        }
+                        await();
+                        throwError();
+                        continue;
+                    }
+                    this.filling.offset = 0;
+                }
+                final Slot slot = this.filling;
+                final int length = Math.min(src.remaining(), slot.buffer.capacity() - slot.offset);
+                final ByteBuffer source = src.duplicate();
+                source.limit(source.position() + length);
+                final ByteBuffer target = slot.buffer.duplicate();
+                target.position(slot.offset);
+                target.put(source);
+                src.position(src.position() + length);
+                slot.offset += length;
+                count += length;
+                if (slot.offset == slot.buffer.capacity()) {
+                    submitFilling();
+                }
+            }
+            if (flushPartial) {
+                submitFilling();
+            }
+            return count;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Submits the OUT slot being filled, if it contains data.
+     */
+    private void submitFilling() {
+        final Slot slot = this.filling;
+        if (slot != null && slot.offset > 0) {
+            this.filling = null;
+            this.queue.addLast(slot);
+            submit(slot, slot.offset);
+        }
+    }
+
+    /**
+     * Submits buffered data and waits until all OUT transfers completed.
+     *
+     * @throws IOException When a transfer failed or the pipeline is closed.
+     */
+    void flush() throws IOException {
+        this.lock.lock();
+        try {
+            checkOpen();
+            submitFilling();
+            while (!this.queue.isEmpty() && this.error == null) {
+                await();
+            }
+            throwError();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Submits the IN slots when reading for the first time.
+     */
+    private void start() {
+        if (this.in && !this.started) {
+            this.started = true;
+            Slot slot;
+            while ((slot = this.idle.pollFirst()) != null) {
+                submit(slot, slot.buffer.capacity());
+            }
+        }
+    }
+
+    /**
+     * Submits a slot. A failed submission is recorded as error.
+     *
+     * @param slot   The slot. Must already be in the queue.
+     * @param length The number of bytes to transfer.
+     */
+    private void submit(final Slot slot, final int length) {
+        slot.done = false;
+        slot.offset = 0;
+        slot.length = 0;
+        if (this.in) {
+            this.queue.addLast(slot);
+        }
+        final int result = this.error == null ? this.backend.submit(slot, length) : LibUsb.ERROR_IO;
+        if (result != LibUsb.SUCCESS) {
+            this.queue.removeFirstOccurrence(slot);
+            this.idle.addLast(slot);
+            if (this.error == null) {
+                this.error = new IOException("Unable to submit transfer (error code " + result + ")");
+            }
+        }
+    }
+
+    /**
+     * Handles the completion of a transfer.
+     *
+     * @param slot         The slot of the transfer.
+     * @param status       The transfer status.
+     * @param actualLength The number of transferred bytes.
+     */
+    void completed(final Slot slot, final int status, final int actualLength) {
+        final Observer observer = this.in ? this.observer : null;
+        int inFlight = 0;
+        this.lock.lock();
+        try {
+            if (status != LibUsb.TRANSFER_COMPLETED && this.error == null && !this.closed) {
+                this.error = new IOException("Transfer failed (error code "
+                    + BlockingTransfers.toErrorCode(status) + ")");
+            }
+            slot.done = true;
+            if (this.in && status == LibUsb.TRANSFER_COMPLETED && !this.closed) {
+                // Stays queued until a reader consumed the data
+                slot.length = actualLength;
+            } else {
+                this.queue.removeFirstOccurrence(slot);
+                this.idle.addLast(slot);
+            }
+            this.changed.signalAll();
+            if (observer != null) {
+                for (final Slot queued : this.queue) {
+                    if (!queued.done) {
+                        inFlight++;
+                    }
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        final Runnable listener = this.listener;
+        if (listener != null) {
+            listener.run();
+        }
+        if (observer != null && status == LibUsb.TRANSFER_COMPLETED) {
+            observer.completed(actualLength, inFlight);
+        }
+    }
+
+    /**
+     * Waits for the next completion. Must be called with the lock held.
+     *
+     * @throws IOException When interrupted or closed while waiting.
+     */
+    private void await() throws IOException {
+        this.backend.checkWait();
+        try {
+            this.changed.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for transfer");
+        }
+        if (this.closed) {
+            throw new AsynchronousCloseException();
+        }
+    }
+
+    /**
+     * Throws an exception if closed. Must be called with the lock held.
+     *
+     * @throws ClosedChannelException When closed.
+     */
+    private void checkOpen() throws ClosedChannelException {
+        if (this.closed) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Throws the recorded transfer error. Must be called with the lock held.
+     *
+     * @throws IOException The recorded error.
+     */
+    private void throwError() throws IOException {
+        if (this.error != null) {
+            throw this.error;
+        }
+    }
+
+    /**
+     * Closes the pipeline. OUT data which was already submitted is sent,
+     * IN transfers are cancelled. Waits until no transfer is in flight and
+     * frees the transfers.
+     */
+    void close() {
+        final Slot[] cancel;
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.changed.signalAll();
+            cancel = this.in ? this.queue.toArray(new Slot[0]) : new Slot[0];
+        } finally {
+            this.lock.unlock();
+        }
+        for (final Slot slot : cancel) {
+            if (!slot.done) {
+                this.backend.cancel(slot);
+            }
+        }
+        this.lock.lock();
+        try {
+            boolean interrupted = false;
+            while (hasInFlight()) {
+                this.backend.checkWait();
+                try {
+                    this.changed.await();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            for (final Slot slot : this.queue) {
+                this.backend.free(slot);
+            }
+            for (final Slot slot : this.idle) {
+                this.backend.free(slot);
+            }
+            if (this.filling != null) {
+                this.backend.free(this.filling);
+                this.filling = null;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if any transfer is in flight. Must be called with the lock
+     * held.
+     *
+     * @return True if a submitted transfer has not completed yet.
+     */
+    private boolean hasInFlight() {
+        for (final Slot slot : this.queue) {
+            if (!slot.done) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s pipeline of %d transfers", this.in ? "IN" : "OUT",
+                             this.queue.size() + this.idle.size() + (this.filling == null ? 0 : 1));
+    }
+
+    /**
+     * One transfer buffer of the pipeline.
+     */
+    static final class Slot {
+
+        /**
+         * The pipeline.
+         */
+        final EndpointPipeline pipeline;
+
+        /**
+         * The transfer buffer.
+         */
+        final ByteBuffer buffer;
+
+        /**
+         * The libusb transfer or null if not allocated yet.
+         */
+        Transfer transfer;
+
+        /**
+         * The direct view of the transfer or null.
+         */
+        TransferView view;
+
+        /**
+         * The number of received bytes.
+         */
+        int length;
+
+        /**
+         * The read or fill offset.
+         */
+        int offset;
+
+        /**
+         * Set when the transfer completed.
+         */
+        boolean done;
+
+        /**
+         * Constructs a new slot.
+         *
+         * @param pipeline The pipeline.
+         * @param buffer   The transfer buffer.
+         */
+        Slot(final EndpointPipeline pipeline, final ByteBuffer buffer) {
+            this.pipeline = pipeline;
+            this.buffer = buffer;
+        }
+    }
+}
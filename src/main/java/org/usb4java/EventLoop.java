@@ -0,0 +1,549 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.LongBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Background thread which handles libusb events of a single {@link Context}.
+ * <p>
+ * Asynchronous transfers only complete while some thread handles events. An
+ * event loop does this on a dedicated daemon thread so that transfer
+ * callbacks are invoked without the application having to call
+ * {@link LibUsb#handleEventsTimeout(Context, long)} itself.
+ * <p>
+ * The event thread only wakes up when there is something to do. On
+ * platforms where libusb represents its timeouts as file descriptors
+ * ({@link LibUsb#pollfdsHandleTimeouts(Context)} returns 1, like Linux with
+ * timerfd) the thread blocks until a file descriptor becomes ready. On other
+ * platforms the wait is bounded by {@link LibUsb#getNextTimeout(Context,
+ * LongBuffer)} instead of a fixed polling interval.
+ * <p>
+ * The loop is also an {@link Executor}: tasks passed to
+ * {@link #execute(Runnable)} run on the event thread between two rounds of
+ * event handling, so application work and transfer completions can be
+ * handled by the same thread without locking. Submitting a task wakes up the
+ * event thread through {@link LibUsb#interruptEventHandler(Context)}.
+ * <p>
+ * Java-side timers like {@link TransferDeadlines} are advanced by the event
+ * thread as well. Their next deadline is merged with the libusb timeout so
+ * the thread still wakes up only once per due tick.
+ * <p>
+ * For the lowest latency a {@link BusyPollPolicy} lets the event thread
+ * spin and then yield between zero-timeout polls before it parks, trading
+ * CPU time for not having to be woken up. The event thread can be supplied
+ * by the application through a {@link ThreadFactory}, for example to run it
+ * on a thread pinned to an isolated core.
+ * <p>
+ * The loop is started with {@link #start()} and stopped with
+ * {@link #close()} which wakes up the event thread and waits for it to
+ * finish. Close the event loop before calling {@link LibUsb#exit(Context)}.
+ */
+public final class EventLoop implements Executor, AutoCloseable {
+
+    /**
+     * A Java-side timer advanced by the event thread.
+     */
+    interface TimerSource {
+        /**
+         * Processes all timers due at the specified time. Called from the
+         * event thread only.
+         *
+         * @param now The current time in {@link System#nanoTime()} units.
+         * @return The next deadline in {@link System#nanoTime()} units or
+         * {@link Long#MAX_VALUE} if none.
+         */
+        long process(long now);
+
+        /**
+         * Checks if timers were scheduled since the last call to
+         * {@link #process(long)}. May be called from any thread.
+         *
+         * @return True if timers are pending.
+         */
+        boolean hasPending();
+    }
+
+    /**
+     * The maximum time in microseconds to block in libusb per iteration.
+     * Only a safety net, the thread is woken up explicitly whenever there
+     * is work to do.
+     */
+    private static final long MAX_WAIT = 60000000;
+
+    /**
+     * The context to handle events for. Null for the default context.
+     */
+    private final Context context;
+
+    /**
+     * The event handling thread.
+     */
+    private final Thread thread;
+
+    /**
+     * Tasks to run on the event thread.
+     */
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Output location for the next libusb timeout. Only used by the event
+     * thread.
+     */
+    private final LongBuffer nextTimeout = BufferUtils.allocateLongBuffer();
+
+    /**
+     * Java-side timers advanced by the event thread.
+     */
+    private final CopyOnWriteArrayList<TimerSource> timers = new CopyOnWriteArrayList<>();
+
+    /**
+     * If the loop should keep running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Set while the event thread blocks in libusb.
+     */
+    private volatile boolean sleeping;
+
+    /**
+     * The time in {@link System#nanoTime()} units at which the sleeping
+     * event thread wakes up on its own.
+     */
+    private volatile long plannedWakeup;
+
+    /**
+     * The busy-poll policy or null to always park.
+     */
+    private volatile BusyPollPolicy busyPoll;
+
+    /**
+     * The last error code returned by libusb or {@link LibUsb#SUCCESS}.
+     */
+    private volatile int lastError = LibUsb.SUCCESS;
+
+    /**
+     * The earliest timer deadline returned by the timer sources. Only used
+     * by the event thread.
+     */
+    private long nextTimer = Long.MAX_VALUE;
+
+    /**
+     * Set when an event was handled during the current poll. Only used by
+     * the event thread.
+     */
+    private boolean handled;
+
+    /**
+     * Constructs a new event loop for the specified context.
+     *
+     * @param context The context to handle events for, or null for the
+     *                default context.
+     */
+    public EventLoop(final Context context) {
+        this(context, "usb4java event loop");
+    }
+
+    /**
+     * Constructs a new event loop for the specified context.
+     *
+     * @param context The context to handle events for, or null for the
+     *                default context.
+     * @param name    The name of the event thread.
+     */
+    public EventLoop(final Context context, final String name) {
+        this.context = context;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Constructs a new event loop running on a thread created by the
+     * specified factory. The factory decides the name, priority, daemon
+     * status and any platform specific setup such as CPU affinity of the
+     * event thread.
+     *
+     * @param context       The context to handle events for, or null for
+     *                      the default context.
+     * @param threadFactory The factory creating the event thread. Must
+     *                      return a new, unstarted thread.
+     */
+    public EventLoop(final Context context, final ThreadFactory threadFactory) {
+        this.context = context;
+        this.thread = threadFactory.newThread(this::run);
+        if (this.thread == null || this.thread.getState() != Thread.State.NEW) {
+            throw new IllegalArgumentException("threadFactory must return a new thread");
+        }
+    }
+
+    /**
+     * Returns the context this loop handles events for.
+     *
+     * @return The context or null for the default context.
+     */
+    public Context getContext() {
+        return this.context;
+    }
+
+    /**
+     * Starts the event thread.
+     *
+     * @throws IllegalStateException When the loop was already started.
+     */
+    public synchronized void start() {
+        if (this.thread.getState() != Thread.State.NEW) {
+            throw new IllegalStateException("Event loop already started");
+        }
+        this.running = true;
+        this.thread.start();
+    }
+
+    /**
+     * Checks if the event thread is running.
+     *
+     * @return True if running, false if not started yet or already closed.
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Checks if the calling thread is the event thread of this loop.
+     * Blocking on a transfer completion from the event thread would
+     * deadlock.
+     *
+     * @return True if called from the event thread.
+     */
+    public boolean isEventThread() {
+        return Thread.currentThread() == this.thread;
+    }
+
+    /**
+     * Installs a busy-poll policy. Takes effect with the next round of event
+     * handling.
+     *
+     * @param policy The policy or null to park the event thread whenever
+     *               there is nothing to do.
+     */
+    public void setBusyPollPolicy(final BusyPollPolicy policy) {
+        this.busyPoll = policy;
+        if (!isEventThread()) {
+            LibUsb.interruptEventHandler(this.context);
+        }
+    }
+
+    /**
+     * Returns the busy-poll policy.
+     *
+     * @return The policy or null if not busy polling.
+     */
+    public BusyPollPolicy getBusyPollPolicy() {
+        return this.busyPoll;
+    }
+
+    /**
+     * Returns the last error code returned by the libusb event handler.
+     *
+     * @return The last error code or {@link LibUsb#SUCCESS}.
+     */
+    public int getLastError() {
+        return this.lastError;
+    }
+
+    /**
+     * Reports that a transfer callback handled a completion. A busy-polling
+     * event thread then starts its spin and yield windows again, so the
+     * next completion of a burst is caught without parking. Does nothing
+     * when not called on the event thread or without busy-poll policy.
+     */
+    public void eventHandled() {
+        if (isEventThread()) {
+            this.handled = true;
+        }
+    }
+
+    /**
+     * Runs the specified task on the event thread. Tasks run in submission
+     * order between two rounds of event handling. Exceptions thrown by a
+     * task are passed to the uncaught exception handler of the event thread
+     * and don't stop the loop.
+     *
+     * @param task The task to run.
+     */
+    @Override
+    public void execute(final Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        final BusyPollPolicy policy = this.busyPoll;
+        this.tasks.offer(policy == null ? task : new TimedTask(task, policy.getTaskLatencyHistogram()));
+        // A polling event thread picks up the task without being woken up
+        if (!isEventThread() && (policy == null || this.sleeping)) {
+            LibUsb.interruptEventHandler(this.context);
+        }
+    }
+
+    /**
+     * Handles events until the loop is closed.
+     */
+    private void run() {
+        // Constant for the lifetime of the context
+        final boolean fdTimeouts = LibUsb.pollfdsHandleTimeouts(this.context) == 1;
+
+        while (this.running) {
+            runTasks();
+            if (!this.running) {
+                break;
+            }
+            final BusyPollPolicy policy = this.busyPoll;
+            if (policy != null && poll(policy)) {
+                continue;
+            }
+
+            final long now = System.nanoTime();
+            long timeout = fdTimeouts ? MAX_WAIT : nextLibUsbTimeout();
+            final long timerDeadline = processTimers(now);
+            if (timerDeadline != Long.MAX_VALUE) {
+                // Round up to whole microseconds so the timers are due when
+                // the thread wakes up
+                timeout = Math.min(timeout, Math.max(0, (timerDeadline - now + 999) / 1000));
+            }
+
+            // Publish the wakeup time before checking for new timers so
+            // either this thread sees them or the scheduling thread sees
+            // that it has to wake up this thread
+            this.plannedWakeup = now + timeout * 1000;
+            this.sleeping = true;
+            if (hasPendingTimers() || !this.tasks.isEmpty()) {
+                timeout = 0;
+            }
+            final int result = LibUsb.handleEventsTimeoutCompleted(this.context, timeout, null);
+            this.sleeping = false;
+            if (result != LibUsb.SUCCESS && result != LibUsb.ERROR_INTERRUPTED) {
+                this.lastError = result;
+            }
+            if (policy != null && timeout > 0) {
+                final long parked = System.nanoTime() - now;
+                policy.parked(parked, parked < timeout * 1000);
+            }
+        }
+        runTasks();
+    }
+
+    /**
+     * Polls libusb with a zero timeout for the spin window and then, yielding
+     * between the polls, for the yield window. Both windows start again
+     * after each handled event.
+     *
+     * @param policy The busy-poll policy.
+     * @return True if tasks arrived while polling, false if the windows
+     * elapsed without events and the thread should park.
+     */
+    private boolean poll(final BusyPollPolicy policy) {
+        long spinEnd = System.nanoTime() + policy.getSpinNanos();
+        long yieldEnd = spinEnd + policy.getYieldNanos();
+        this.handled = false;
+        while (this.running) {
+            final int result = LibUsb.handleEventsTimeoutCompleted(this.context, 0, null);
+            if (result != LibUsb.SUCCESS && result != LibUsb.ERROR_INTERRUPTED) {
+                this.lastError = result;
+            }
+            if (!this.tasks.isEmpty()) {
+                return true;
+            }
+            final long now = System.nanoTime();
+            final long due = this.nextTimer;
+            processTimers(now);
+            if (this.handled || (due != Long.MAX_VALUE && now - due >= 0)) {
+                this.handled = false;
+                spinEnd = now + policy.getSpinNanos();
+                yieldEnd = spinEnd + policy.getYieldNanos();
+            }
+            if (now - spinEnd < 0) {
+                Thread.onSpinWait();
+            } else if (now - yieldEnd < 0) {
+                Thread.yield();
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Advances all timer sources.
+     *
+     * @param now The current time in {@link System#nanoTime()} units.
+     * @return The earliest next deadline or {@link Long#MAX_VALUE} if none.
+     */
+    private long processTimers(final long now) {
+        long deadline = Long.MAX_VALUE;
+        for (final TimerSource timer : this.timers) {
+            try {
+                final long next = timer.process(now);
+                if (next != Long.MAX_VALUE && (deadline == Long.MAX_VALUE || next - deadline < 0)) {
+                    deadline = next;
+                }
+            } catch (final RuntimeException e) {
+                final Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+        }
+        this.nextTimer = deadline;
+        return deadline;
+    }
+
+    /**
+     * Checks if any timer source has timers which were scheduled after it
+     * was last processed.
+     *
+     * @return True if timers are pending.
+     */
+    private boolean hasPendingTimers() {
+        for (final TimerSource timer : this.timers) {
+            if (timer.hasPending()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registers a timer source advanced by the event thread.
+     *
+     * @param timer The timer source to add.
+     */
+    void addTimerSource(final TimerSource timer) {
+        this.timers.add(timer);
+        wakeup(System.nanoTime());
+    }
+
+    /**
+     * Unregisters a timer source.
+     *
+     * @param timer The timer source to remove.
+     */
+    void removeTimerSource(final TimerSource timer) {
+        this.timers.remove(timer);
+    }
+
+    /**
+     * Wakes up the event thread if it sleeps beyond the specified deadline.
+     * Called after a new timer was scheduled.
+     *
+     * @param deadline The deadline in {@link System#nanoTime()} units.
+     */
+    void wakeup(final long deadline) {
+        if (this.sleeping && deadline - this.plannedWakeup < 0 && !isEventThread()) {
+            LibUsb.interruptEventHandler(this.context);
+        }
+    }
+
+    /**
+     * Returns the time in microseconds until libusb must be called into to
+     * handle its next timeout, limited to {@link #MAX_WAIT}.
+     *
+     * @return The time to wait in microseconds.
+     */
+    private long nextLibUsbTimeout() {
+        if (LibUsb.getNextTimeout(this.context, this.nextTimeout) == 1) {
+            return Math.min(this.nextTimeout.get(0), MAX_WAIT);
+        }
+        return MAX_WAIT;
+    }
+
+    /**
+     * Runs all pending tasks.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                final Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            }
+        }
+    }
+
+    /**
+     * Stops the event thread and waits for it to finish. Pending tasks are
+     * run before the thread finishes. Transfers which are still in flight no
+     * longer complete until events are handled otherwise.
+     */
+    @Override
+    public synchronized void close() {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        LibUsb.interruptEventHandler(this.context);
+        if (!isEventThread()) {
+            boolean interrupted = false;
+            while (this.thread.isAlive()) {
+                try {
+                    this.thread.join();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * A task which records the time from its submission until it runs.
+     */
+    private static final class TimedTask implements Runnable {
+
+        /**
+         * The task.
+         */
+        private final Runnable task;
+
+        /**
+         * The histogram receiving the latency.
+         */
+        private final LatencyHistogram histogram;
+
+        /**
+         * The submission time in {@link System#nanoTime()} units.
+         */
+        private final long submitted = System.nanoTime();
+
+        /**
+         * Wraps a task.
+         *
+         * @param task      The task.
+         * @param histogram The histogram receiving the latency.
+         */
+        TimedTask(final Runnable task, final LatencyHistogram histogram) {
+            this.task = task;
+            this.histogram = histogram;
+        }
+
+        @Override
+        public void run() {
+            this.histogram.record(System.nanoTime() - this.submitted);
+            this.task.run();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("event loop for %s (%s)",
+                             this.context == null ? "default context" : this.context,
+                             this.running ? "running" : "stopped");
+    }
+}
@@ -0,0 +1,714 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves very large amounts of data over a bulk endpoint by splitting them
+ * into pipelined chunks.
+ * <p>
+ * A single huge bulk transfer either fails with {@link LibUsb#ERROR_NO_MEM}
+ * because of the usbfs memory limit or is serialized by the kernel. This
+ * class splits a large direct buffer or a memory-mapped file region into
+ * chunks which are multiples of the maximum packet size of the endpoint and
+ * keeps a bounded number of them in flight, resubmitting each transfer for
+ * the next chunk as soon as it completes.
+ * <p>
+ * For IN endpoints a short packet ends the transfer: the data before it is
+ * the complete result and the chunks still in flight are cancelled. A chunk
+ * which received data before its cancellation took effect has consumed data
+ * the device sent for its next transfer (with mass storage devices, for
+ * example, the status wrapper). These bytes are dropped and reported with
+ * {@link ProgressListener#dataLost(long)} and {@link #getLostBytes()}, so
+ * the caller can resynchronize with the device. For OUT endpoints a zero-length packet can be appended
+ * when the total length is a multiple of the packet size, see
+ * {@link #setZeroLengthPacket(boolean)}.
+ * <p>
+ * Completions are handled by the {@link EventLoop} passed to the
+ * constructor, which must be running. Aggregate progress is reported to an
+ * optional {@link ProgressListener} on the event thread.
+ */
+public final class LargeTransfer {
+
+    /**
+     * Receives the progress of a large transfer.
+     */
+    public interface ProgressListener {
+        /**
+         * Called on the event thread after each completed chunk.
+         *
+         * @param transferred The number of bytes transferred so far.
+         * @param total       The total number of bytes requested.
+         */
+        void progress(long transferred, long total);
+
+        /**
+         * Called on the event thread when chunks still in flight after a
+         * short packet or an error received data which was dropped. Does
+         * nothing by default.
+         *
+         * @param lost The number of dropped bytes.
+         */
+        default void dataLost(final long lost) {
+            // Ignored by default
+        }
+    }
+
+    /**
+     * The transfer operations. Replaceable for tests.
+     */
+    interface Backend {
+        /**
+         * Allocates a transfer.
+         *
+         * @return The transfer or null if out of memory.
+         */
+        Transfer alloc();
+
+        /**
+         * Fills and submits a bulk transfer.
+         *
+         * @param transfer The transfer.
+         * @param handle   The device handle.
+         * @param endpoint The endpoint.
+         * @param buffer   The data buffer.
+         * @param callback The callback.
+         * @param userData The user data.
+         * @param timeout  The timeout in milliseconds.
+         * @param flags    The transfer flags.
+         * @return 0 on success or an error code.
+         */
+        int submit(Transfer transfer, DeviceHandle handle, byte endpoint, ByteBuffer buffer,
+                   TransferCallback callback, Object userData, long timeout, byte flags);
+
+        /**
+         * Cancels a transfer.
+         *
+         * @param transfer The transfer.
+         */
+        void cancel(Transfer transfer);
+
+        /**
+         * Frees a transfer.
+         *
+         * @param transfer The transfer.
+         */
+        void free(Transfer transfer);
+
+        /**
+         * Returns the user data of a transfer.
+         *
+         * @param transfer The transfer.
+         * @return The user data.
+         */
+        Object userData(Transfer transfer);
+
+        /**
+         * Returns the status of a completed transfer.
+         *
+         * @param transfer The transfer.
+         * @return The status.
+         */
+        int status(Transfer transfer);
+
+        /**
+         * Returns the actual length of a completed transfer.
+         *
+         * @param transfer The transfer.
+         * @return The number of transferred bytes.
+         */
+        int actualLength(Transfer transfer);
+    }
+
+    /**
+     * The backend calling libusb.
+     */
+    static final Backend LIBUSB = new Backend() {
+        @Override
+        public Transfer alloc() {
+            return LibUsb.allocTransfer();
+        }
+
+        @Override
+        public int submit(final Transfer transfer, final DeviceHandle handle, final byte endpoint,
+                          final ByteBuffer buffer, final TransferCallback callback, final Object userData,
+                          final long timeout, final byte flags) {
+            LibUsb.fillBulkTransfer(transfer, handle, endpoint, buffer, callback, userData, timeout);
+            transfer.setFlags(flags);
+            return LibUsb.submitTransfer(transfer);
+        }
+
+        @Override
+        public void cancel(final Transfer transfer) {
+            LibUsb.cancelTransfer(transfer);
+        }
+
+        @Override
+        public void free(final Transfer transfer) {
+            LibUsb.freeTransfer(transfer);
+        }
+
+        @Override
+        public Object userData(final Transfer transfer) {
+            return transfer.userData();
+        }
+
+        @Override
+        public int status(final Transfer transfer) {
+            return transfer.status();
+        }
+
+        @Override
+        public int actualLength(final Transfer transfer) {
+            return transfer.actualLength();
+        }
+    };
+
+    /**
+     * The default chunk size.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * The largest region of a file mapped at once.
+     */
+    private static final int MAX_WINDOW = 1 << 30;
+
+    /**
+     * The transfer operations.
+     */
+    private final Backend backend;
+
+    /**
+     * The event loop handling the completions.
+     */
+    private final EventLoop eventLoop;
+
+    /**
+     * The device handle.
+     */
+    private final DeviceHandle handle;
+
+    /**
+     * The bulk endpoint.
+     */
+    private final byte endpoint;
+
+    /**
+     * The maximum packet size of the endpoint.
+     */
+    private final int packetSize;
+
+    /**
+     * The size of one chunk, a multiple of the packet size.
+     */
+    private volatile int chunkSize;
+
+    /**
+     * The maximum number of chunks in flight.
+     */
+    private volatile int maxInFlight = 8;
+
+    /**
+     * The timeout of each chunk in milliseconds.
+     */
+    private volatile long timeout;
+
+    /**
+     * If a zero-length packet terminates OUT transfers.
+     */
+    private volatile boolean zeroLengthPacket;
+
+    /**
+     * The progress listener or null.
+     */
+    private volatile ProgressListener listener;
+
+    /**
+     * The bytes dropped by all operations.
+     */
+    private final AtomicLong lostBytes = new AtomicLong();
+
+    /**
+     * Constructs a large transfer helper for a bulk endpoint.
+     *
+     * @param eventLoop  The running event loop of the context of the handle.
+     * @param handle     The device handle.
+     * @param endpoint   The bulk endpoint address.
+     * @param packetSize The maximum packet size of the endpoint
+     *                   ({@link LibUsb#getMaxPacketSize(Device, byte)}).
+     */
+    public LargeTransfer(final EventLoop eventLoop, final DeviceHandle handle, final byte endpoint,
+                         final int packetSize) {
+        this(LIBUSB, eventLoop, handle, endpoint, packetSize);
+    }
+
+    /**
+     * Constructs a large transfer helper using the specified backend.
+     *
+     * @param backend    The backend.
+     * @param eventLoop  The event loop.
+     * @param handle     The device handle.
+     * @param endpoint   The bulk endpoint address.
+     * @param packetSize The maximum packet size of the endpoint.
+     */
+    LargeTransfer(final Backend backend, final EventLoop eventLoop, final DeviceHandle handle,
+                  final byte endpoint, final int packetSize) {
+        if (eventLoop == null) {
+            throw new IllegalArgumentException("eventLoop must not be null");
+        }
+        if (packetSize <= 0) {
+            throw new IllegalArgumentException("packetSize must be positive");
+        }
+        this.backend = backend;
+        this.eventLoop = eventLoop;
+        this.handle = handle;
+        this.endpoint = endpoint;
+        this.packetSize = packetSize;
+        this.chunkSize = alignChunkSize(DEFAULT_CHUNK_SIZE, packetSize);
+    }
+
+    /**
+     * Rounds a chunk size down to a multiple of the packet size, but at
+     * least one packet.
+     *
+     * @param chunkSize  The requested chunk size.
+     * @param packetSize The packet size.
+     * @return The aligned chunk size.
+     */
+    static int alignChunkSize(final int chunkSize, final int packetSize) {
+        return Math.max(packetSize, chunkSize / packetSize * packetSize);
+    }
+
+    /**
+     * Sets the chunk size. It is rounded down to a multiple of the packet
+     * size.
+     *
+     * @param chunkSize The chunk size in bytes.
+     */
+    public void setChunkSize(final int chunkSize) {
+        this.chunkSize = alignChunkSize(chunkSize, this.packetSize);
+    }
+
+    /**
+     * Returns the aligned chunk size.
+     *
+     * @return The chunk size in bytes.
+     */
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    /**
+     * Sets the maximum number of chunks in flight.
+     *
+     * @param maxInFlight The maximum number of chunks in flight.
+     */
+    public void setMaxInFlight(final int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Sets the timeout of each chunk.
+     *
+     * @param timeout The timeout in milliseconds, 0 for unlimited.
+     */
+    public void setTimeout(final long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Enables a terminating zero-length packet for OUT transfers whose
+     * length is a multiple of the packet size.
+     *
+     * @param zeroLengthPacket True to send a zero-length packet.
+     */
+    public void setZeroLengthPacket(final boolean zeroLengthPacket) {
+        this.zeroLengthPacket = zeroLengthPacket;
+    }
+
+    /**
+     * Sets the progress listener.
+     *
+     * @param listener The listener or null for none.
+     */
+    public void setProgressListener(final ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the number of bytes received by chunks after a short packet or
+     * an error, which were dropped.
+     *
+     * @return The number of lost bytes of all operations.
+     */
+    public long getLostBytes() {
+        return this.lostBytes.get();
+    }
+
+    /**
+     * Starts transferring the remaining bytes of a direct buffer. The
+     * buffer must not be touched until the future completes.
+     *
+     * @param buffer The direct buffer. Transfers the bytes between position
+     *               and limit.
+     * @return The future completing with the number of transferred bytes or
+     * exceptionally with a {@link LibUsbException}.
+     */
+    public CompletableFuture<Long> submit(final ByteBuffer buffer) {
+        return submit(buffer, 0, buffer.remaining());
+    }
+
+    /**
+     * Starts transferring a region of a file. The region is memory mapped,
+     * read-only for OUT and read-write for IN endpoints, in windows of up to
+     * 1 GiB which are transferred one after another.
+     *
+     * @param channel  The file channel. Must be readable, and writable for
+     *                 IN endpoints.
+     * @param position The position of the region in the file.
+     * @param size     The size of the region.
+     * @return The future completing with the number of transferred bytes or
+     * exceptionally with a {@link LibUsbException} or {@link IOException}.
+     */
+    public CompletableFuture<Long> submit(final FileChannel channel, final long position,
+                                          final long size) {
+        return submitWindow(channel, position, size, 0);
+    }
+
+    /**
+     * Maps and transfers the next window of a file region.
+     *
+     * @param channel     The file channel.
+     * @param position    The position of the window.
+     * @param remaining   The remaining size of the region.
+     * @param transferred The bytes transferred by previous windows.
+     * @return The future of the remaining region.
+     */
+    private CompletableFuture<Long> submitWindow(final FileChannel channel, final long position,
+                                                 final long remaining, final long transferred) {
+        if (remaining <= 0) {
+            return CompletableFuture.completedFuture(transferred);
+        }
+        final int window = (int) Math.min(remaining, MAX_WINDOW);
+        final MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(isIn() ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                                 position, window);
+        } catch (final IOException e) {
+            final CompletableFuture<Long> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return submit(buffer, transferred, transferred + remaining).thenCompose(count -> {
+            if (count - transferred < window) {
+                // Short packet, the device has no more data
+                return CompletableFuture.completedFuture(count);
+            }
+            return submitWindow(channel, position + window, remaining - window, count);
+        });
+    }
+
+    /**
+     * Transfers the remaining bytes of a direct buffer and waits for the
+     * result. Must not be called on the event thread.
+     *
+     * @param buffer The direct buffer.
+     * @return The number of transferred bytes.
+     * @throws LibUsbException When the transfer failed.
+     * @throws InterruptedException When interrupted while waiting. The
+     *                              transfer continues in the background.
+     */
+    public long transfer(final ByteBuffer buffer) throws InterruptedException {
+        if (this.eventLoop.isEventThread()) {
+            throw new IllegalStateException("Can't wait for transfers on the event thread");
+        }
+        try {
+            return submit(buffer).get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Checks if the endpoint is an IN endpoint.
+     *
+     * @return True for IN endpoints.
+     */
+    private boolean isIn() {
+        return (this.endpoint & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN;
+    }
+
+    /**
+     * Starts an operation.
+     *
+     * @param buffer The direct buffer.
+     * @param base   The bytes transferred before this buffer, for progress.
+     * @param total  The total bytes of the whole request, for progress.
+     * @return The future of the operation.
+     */
+    private CompletableFuture<Long> submit(final ByteBuffer buffer, final long base, final long total) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer must be direct");
+        }
+        if (!this.eventLoop.isRunning()) {
+            throw new IllegalStateException("Event loop is not running");
+        }
+        final Operation operation = new Operation(BufferUtils.slice(buffer, buffer.position(),
+            buffer.remaining()), base, total);
+        operation.start();
+        return operation.future;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("large transfer on endpoint 0x%02x with %d byte chunks",
+                             this.endpoint & 0xff, this.chunkSize);
+    }
+
+    /**
+     * One large transfer in progress.
+     */
+    private final class Operation implements TransferCallback {
+
+        /**
+         * The future completing with the number of transferred bytes.
+         */
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+        /**
+         * The data buffer.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The bytes transferred before this buffer.
+         */
+        private final long base;
+
+        /**
+         * The total bytes of the whole request.
+         */
+        private final long total;
+
+        /**
+         * The chunk size of this operation.
+         */
+        private final int chunk;
+
+        /**
+         * The transfers, one per chunk in flight.
+         */
+        private final Transfer[] transfers;
+
+        /**
+         * The length of the chunk of each transfer. Guarded by this.
+         */
+        private final int[] lengths;
+
+        /**
+         * Which transfers are in flight. Guarded by this.
+         */
+        private final boolean[] active;
+
+        /**
+         * The offset of the next chunk to submit. Guarded by this.
+         */
+        private int next;
+
+        /**
+         * The number of chunks in flight. Guarded by this.
+         */
+        private int inFlight;
+
+        /**
+         * The bytes transferred by completed chunks. Guarded by this.
+         */
+        private long transferred;
+
+        /**
+         * Set when no more chunks are submitted. Guarded by this.
+         */
+        private boolean stopped;
+
+        /**
+         * The error code or {@link LibUsb#SUCCESS}. Guarded by this.
+         */
+        private int error = LibUsb.SUCCESS;
+
+        /**
+         * The bytes received by chunks after the stop. Guarded by this.
+         */
+        private long lost;
+
+        /**
+         * Constructs a new operation.
+         *
+         * @param buffer The data buffer.
+         * @param base   The bytes transferred before.
+         * @param total  The total bytes of the request.
+         */
+        Operation(final ByteBuffer buffer, final long base, final long total) {
+            this.buffer = buffer;
+            this.base = base;
+            this.total = total;
+            this.chunk = LargeTransfer.this.chunkSize;
+            final int chunks = (buffer.capacity() + this.chunk - 1) / this.chunk;
+            final int count = Math.max(1, Math.min(LargeTransfer.this.maxInFlight, chunks));
+            this.transfers = new Transfer[count];
+            this.lengths = new int[count];
+            this.active = new boolean[count];
+        }
+
+        /**
+         * Allocates the transfers and submits the first chunks.
+         */
+        synchronized void start() {
+            if (this.buffer.capacity() == 0) {
+                this.future.complete(this.base);
+                return;
+            }
+            for (int i = 0; i < this.transfers.length; i++) {
+                final Transfer transfer = LargeTransfer.this.backend.alloc();
+                if (transfer == null) {
+                    stop(LibUsb.ERROR_NO_MEM);
+                    break;
+                }
+                this.transfers[i] = transfer;
+                submitNext(i);
+                if (this.stopped) {
+                    break;
+                }
+            }
+            finishIfDone();
+        }
+
+        /**
+         * Submits the next chunk with the transfer of the specified slot.
+         *
+         * @param slot The transfer slot.
+         */
+        private void submitNext(final int slot) {
+            final int capacity = this.buffer.capacity();
+            if (this.next >= capacity) {
+                return;
+            }
+            final boolean zlp = LargeTransfer.this.zeroLengthPacket && !isIn();
+            final int length = Math.min(this.chunk, capacity - this.next);
+            final boolean last = this.next + length >= capacity;
+            final byte flags = last && zlp && length % LargeTransfer.this.packetSize == 0
+                ? LibUsb.TRANSFER_ADD_ZERO_PACKET : 0;
+            final int result = LargeTransfer.this.backend.submit(this.transfers[slot], LargeTransfer.this.handle,
+                LargeTransfer.this.endpoint, BufferUtils.slice(this.buffer, this.next, length), this, slot,
+                LargeTransfer.this.timeout, flags);
+            this.next += length;
+            if (result != LibUsb.SUCCESS) {
+                stop(result);
+                return;
+            }
+            this.lengths[slot] = length;
+            this.active[slot] = true;
+            this.inFlight++;
+        }
+
+        @Override
+        public void processTransfer(final Transfer transfer) {
+            final Backend backend = LargeTransfer.this.backend;
+            final long progress;
+            final long dropped;
+            synchronized (this) {
+                this.inFlight--;
+                final int slot = (Integer) backend.userData(transfer);
+                this.active[slot] = false;
+                final int status = backend.status(transfer);
+                if (this.stopped) {
+                    // Completions after a short packet or an error are not
+                    // part of the result, but may have consumed data
+                    this.lost += backend.actualLength(transfer);
+                    progress = -1;
+                } else if (status == LibUsb.TRANSFER_COMPLETED) {
+                    final int actual = backend.actualLength(transfer);
+                    this.transferred += actual;
+                    progress = this.base + this.transferred;
+                    if (actual < this.lengths[slot]) {
+                        stop(LibUsb.SUCCESS);
+                    } else {
+                        submitNext(slot);
+                    }
+                } else {
+                    progress = -1;
+                    stop(BlockingTransfers.toErrorCode(status));
+                }
+                dropped = this.inFlight == 0 ? this.lost : 0;
+                finishIfDone();
+            }
+            final ProgressListener progressListener = LargeTransfer.this.listener;
+            if (progressListener != null) {
+                if (progress >= 0) {
+                    progressListener.progress(progress, this.total);
+                }
+                if (dropped > 0) {
+                    progressListener.dataLost(dropped);
+                }
+            }
+        }
+
+        /**
+         * Stops submitting chunks and cancels the chunks in flight, so they
+         * don't consume data the device sends for its next transfer.
+         *
+         * @param result The error code or {@link LibUsb#SUCCESS}.
+         */
+        private void stop(final int result) {
+            if (this.stopped) {
+                return;
+            }
+            this.stopped = true;
+            this.error = result;
+            for (int i = 0; i < this.transfers.length; i++) {
+                if (this.active[i]) {
+                    LargeTransfer.this.backend.cancel(this.transfers[i]);
+                }
+            }
+        }
+
+        /**
+         * Frees the transfers and completes the future when nothing is in
+         * flight anymore.
+         */
+        private void finishIfDone() {
+            if (this.inFlight > 0 || (!this.stopped && this.next < this.buffer.capacity())) {
+                return;
+            }
+            for (final Transfer transfer : this.transfers) {
+                if (transfer != null) {
+                    LargeTransfer.this.backend.free(transfer);
+                }
+            }
+            LargeTransfer.this.lostBytes.addAndGet(this.lost);
+            if (this.error == LibUsb.SUCCESS) {
+                this.future.complete(this.base + this.transferred);
+            } else {
+                this.future.completeExceptionally(
+                    new LibUsbException("Large transfer failed", this.error));
+            }
+        }
+    }
+}
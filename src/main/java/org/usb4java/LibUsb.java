@@ -2497,6 +2497,16 @@ public final class LibUsb {
         }
     }
 
+    /**
+     * Returns the pollfd notifier registered for a context.
+     *
+     * @param context The context or null for the default context.
+     * @return The listener and its user data or null if none is registered.
+     */
+    static ImmutablePair<PollfdListener, Object> getPollfdNotifiers(final Context context) {
+        return pollfdListeners.get(context == null ? 0 : context.getPointer());
+    }
+
     /**
      * Callback function, invoked when a new file descriptor should be added to
      * the set of file descriptors monitored for events.
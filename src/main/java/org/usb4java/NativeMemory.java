@@ -0,0 +1,435 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.FileDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Direct access to native memory for the few places where a JNI call per
+ * field is too expensive or where the JNI binding loses information.
+ * <p>
+ * Backed by {@code sun.misc.Unsafe} from the jdk.unsupported module which is
+ * available without extra command-line flags on all supported Java
+ * versions. The class is only looked up at run time and its methods are
+ * called through method handles bound to the instance, so the build does not
+ * depend on the internal API (and javac does not warn about it) while the JIT
+ * still inlines the accesses. When it is not available,
+ * {@link #isAvailable()} and {@link #isFdAvailable()} return false and
+ * callers must fall back to the JNI accessors.
+ * <p>
+ * On Java 22 and later the multi-release JAR replaces this class with a
+ * variant using the Foreign Function &amp; Memory API (see
+ * {@code src/main/java22}). Both variants must keep the same methods.
+ */
+final class NativeMemory {
+
+    /**
+     * Unsafe.addressSize() or null if not available.
+     */
+    private static final MethodHandle ADDRESS_SIZE;
+
+    /**
+     * Unsafe.getByte(long) or null if not available.
+     */
+    private static final MethodHandle GET_BYTE;
+
+    /**
+     * Unsafe.putByte(long, byte) or null if not available.
+     */
+    private static final MethodHandle PUT_BYTE;
+
+    /**
+     * Unsafe.getShort(long) or null if not available.
+     */
+    private static final MethodHandle GET_SHORT;
+
+    /**
+     * Unsafe.getInt(long) or null if not available.
+     */
+    private static final MethodHandle GET_INT;
+
+    /**
+     * Unsafe.putInt(long, int) or null if not available.
+     */
+    private static final MethodHandle PUT_INT;
+
+    /**
+     * Unsafe.getAddress(long) or null if not available.
+     */
+    private static final MethodHandle GET_ADDRESS;
+
+    /**
+     * Unsafe.putAddress(long, long) or null if not available.
+     */
+    private static final MethodHandle PUT_ADDRESS;
+
+    /**
+     * Unsafe.getLong(Object, long) or null if not available.
+     */
+    private static final MethodHandle GET_OBJECT_LONG;
+
+    /**
+     * Unsafe.getInt(Object, long) or null if not available.
+     */
+    private static final MethodHandle GET_OBJECT_INT;
+
+    /**
+     * Unsafe.getObject(Object, long) or null if not available.
+     */
+    private static final MethodHandle GET_OBJECT;
+
+    /**
+     * Offset of the address field within direct buffers.
+     */
+    private static final long BUFFER_ADDRESS_OFFSET;
+
+    /**
+     * Offset of the fd field within file descriptor objects or -1 if not
+     * available.
+     */
+    private static final long FD_OFFSET;
+
+    /**
+     * Offset of the field of direct buffers referencing the buffer owning
+     * their memory or -1 if not available.
+     */
+    private static final long ATTACHMENT_OFFSET;
+
+    static {
+        MethodHandle[] handles = new MethodHandle[11];
+        long bufferAddressOffset = -1;
+        long fdOffset = -1;
+        long attachmentOffset = -1;
+        try {
+            final Class<?> type = Class.forName("sun.misc.Unsafe");
+            final Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            final Object unsafe = field.get(null);
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            final MethodHandle offset = lookup.findVirtual(type, "objectFieldOffset",
+                MethodType.methodType(long.class, Field.class)).bindTo(unsafe);
+            handles[0] = lookup.findVirtual(type, "addressSize", MethodType.methodType(int.class)).bindTo(unsafe);
+            handles[1] = lookup.findVirtual(type, "getByte",
+                MethodType.methodType(byte.class, long.class)).bindTo(unsafe);
+            handles[2] = lookup.findVirtual(type, "putByte",
+                MethodType.methodType(void.class, long.class, byte.class)).bindTo(unsafe);
+            handles[3] = lookup.findVirtual(type, "getShort",
+                MethodType.methodType(short.class, long.class)).bindTo(unsafe);
+            handles[4] = lookup.findVirtual(type, "getInt",
+                MethodType.methodType(int.class, long.class)).bindTo(unsafe);
+            handles[5] = lookup.findVirtual(type, "putInt",
+                MethodType.methodType(void.class, long.class, int.class)).bindTo(unsafe);
+            handles[6] = lookup.findVirtual(type, "getAddress",
+                MethodType.methodType(long.class, long.class)).bindTo(unsafe);
+            handles[7] = lookup.findVirtual(type, "putAddress",
+                MethodType.methodType(void.class, long.class, long.class)).bindTo(unsafe);
+            handles[8] = lookup.findVirtual(type, "getLong",
+                MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+            handles[9] = lookup.findVirtual(type, "getInt",
+                MethodType.methodType(int.class, Object.class, long.class)).bindTo(unsafe);
+            handles[10] = lookup.findVirtual(type, "getObject",
+                MethodType.methodType(Object.class, Object.class, long.class)).bindTo(unsafe);
+            bufferAddressOffset = (long) offset.invokeExact(Buffer.class.getDeclaredField("address"));
+            try {
+                fdOffset = (long) offset.invokeExact(FileDescriptor.class.getDeclaredField("fd"));
+            } catch (final ReflectiveOperationException | RuntimeException e) {
+                // Memory access works without file descriptor access
+                fdOffset = -1;
+            }
+            try {
+                attachmentOffset = (long) offset.invokeExact(
+                    Class.forName("java.nio.DirectByteBuffer").getDeclaredField("att"));
+            } catch (final ReflectiveOperationException | RuntimeException e) {
+                // Views are limited to the buffer itself without the owner
+                attachmentOffset = -1;
+            }
+        } catch (final Throwable e) {
+            handles = new MethodHandle[11];
+        }
+        ADDRESS_SIZE = handles[0];
+        GET_BYTE = handles[1];
+        PUT_BYTE = handles[2];
+        GET_SHORT = handles[3];
+        GET_INT = handles[4];
+        PUT_INT = handles[5];
+        GET_ADDRESS = handles[6];
+        PUT_ADDRESS = handles[7];
+        GET_OBJECT_LONG = handles[8];
+        GET_OBJECT_INT = handles[9];
+        GET_OBJECT = handles[10];
+        BUFFER_ADDRESS_OFFSET = bufferAddressOffset;
+        FD_OFFSET = GET_OBJECT_INT == null ? -1 : fdOffset;
+        ATTACHMENT_OFFSET = GET_OBJECT == null ? -1 : attachmentOffset;
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private NativeMemory() {
+        // Empty
+    }
+
+    /**
+     * Checks if direct native memory access is available.
+     *
+     * @return True if available, false if not.
+     */
+    static boolean isAvailable() {
+        return GET_BYTE != null;
+    }
+
+    /**
+     * Checks if the numeric value of file descriptor objects can be read.
+     *
+     * @return True if available, false if not.
+     */
+    static boolean isFdAvailable() {
+        return FD_OFFSET >= 0;
+    }
+
+    /**
+     * Checks that native memory access is available.
+     *
+     * @throws UnsupportedOperationException When native memory access is not
+     *                                       available.
+     */
+    private static void checkAvailable() {
+        if (GET_BYTE == null) {
+            throw new UnsupportedOperationException("Native memory access is not available");
+        }
+    }
+
+    /**
+     * Rethrows an exception thrown by an unsafe method.
+     *
+     * @param e The exception.
+     * @return Never returns, declared for use in throw statements.
+     */
+    private static RuntimeException rethrow(final Throwable e) {
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        throw new IllegalStateException(e);
+    }
+
+    /**
+     * Returns the size of a native pointer in bytes.
+     *
+     * @return The pointer size (4 or 8).
+     */
+    static int addressSize() {
+        checkAvailable();
+        try {
+            return (int) ADDRESS_SIZE.invokeExact();
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Reads a byte from native memory.
+     *
+     * @param address The address to read from.
+     * @return The read value.
+     */
+    static byte getByte(final long address) {
+        checkAvailable();
+        try {
+            return (byte) GET_BYTE.invokeExact(address);
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Writes a byte to native memory.
+     *
+     * @param address The address to write to.
+     * @param value   The value to write.
+     */
+    static void putByte(final long address, final byte value) {
+        checkAvailable();
+        try {
+            PUT_BYTE.invokeExact(address, value);
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Reads a short from native memory.
+     *
+     * @param address The address to read from.
+     * @return The read value.
+     */
+    static short getShort(final long address) {
+        checkAvailable();
+        try {
+            return (short) GET_SHORT.invokeExact(address);
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Reads an int from native memory.
+     *
+     * @param address The address to read from.
+     * @return The read value.
+     */
+    static int getInt(final long address) {
+        checkAvailable();
+        try {
+            return (int) GET_INT.invokeExact(address);
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Writes an int to native memory.
+     *
+     * @param address The address to write to.
+     * @param value   The value to write.
+     */
+    static void putInt(final long address, final int value) {
+        checkAvailable();
+        try {
+            PUT_INT.invokeExact(address, value);
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Reads a native pointer from native memory.
+     *
+     * @param address The address to read from.
+     * @return The read pointer.
+     */
+    static long getAddress(final long address) {
+        checkAvailable();
+        try {
+            return (long) GET_ADDRESS.invokeExact(address);
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Writes a native pointer to native memory.
+     *
+     * @param address The address to write to.
+     * @param value   The pointer to write.
+     */
+    static void putAddress(final long address, final long value) {
+        checkAvailable();
+        try {
+            PUT_ADDRESS.invokeExact(address, value);
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Returns the native address of a direct buffer.
+     *
+     * @param buffer The direct buffer.
+     * @return The address of the first element of the buffer (ignoring the
+     * position).
+     * @throws IllegalArgumentException When the buffer is not direct.
+     */
+    static long address(final ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer must be direct");
+        }
+        checkAvailable();
+        try {
+            return (long) GET_OBJECT_LONG.invokeExact((Object) buffer, BUFFER_ADDRESS_OFFSET);
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Returns a buffer viewing the given number of bytes starting at the
+     * position of a direct buffer, possibly beyond its limit and capacity.
+     * <p>
+     * This variant can only look beyond the capacity when the buffer is a
+     * slice or duplicate of the buffer owning the memory, and the view must
+     * stay within the memory of that owner.
+     *
+     * @param buffer The direct buffer.
+     * @param length The number of bytes to view.
+     * @return The view, read-only if the buffer is read-only, or null if
+     * the memory can't be viewed.
+     * @throws IllegalArgumentException When the buffer is not direct.
+     */
+    static ByteBuffer view(final ByteBuffer buffer, final int length) {
+        final long start = address(buffer) + buffer.position();
+        final ByteBuffer owner = owner(buffer);
+        final long base = address(owner);
+        if (start < base || start + length > base + owner.capacity()) {
+            return null;
+        }
+        final ByteBuffer view = owner.duplicate();
+        view.limit((int) (start - base) + length).position((int) (start - base));
+        return buffer.isReadOnly() ? view.slice().asReadOnlyBuffer() : view.slice();
+    }
+
+    /**
+     * Returns the buffer owning the memory of a direct buffer.
+     *
+     * @param buffer The direct buffer.
+     * @return The owning buffer or the buffer itself if it owns its memory
+     * or the owner is unknown.
+     */
+    private static ByteBuffer owner(final ByteBuffer buffer) {
+        ByteBuffer owner = buffer;
+        if (ATTACHMENT_OFFSET < 0) {
+            return owner;
+        }
+        try {
+            // Java 8 references the parent, later versions the owner
+            Object attachment = GET_OBJECT.invokeExact((Object) owner, ATTACHMENT_OFFSET);
+            while (attachment instanceof ByteBuffer) {
+                owner = (ByteBuffer) attachment;
+                attachment = GET_OBJECT.invokeExact((Object) owner, ATTACHMENT_OFFSET);
+            }
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+        return owner;
+    }
+
+    /**
+     * Returns the numeric value of a file descriptor object.
+     *
+     * @param fd The file descriptor.
+     * @return The numeric file descriptor.
+     * @throws UnsupportedOperationException When file descriptor access is
+     *                                       not available.
+     */
+    static int fd(final FileDescriptor fd) {
+        if (FD_OFFSET < 0) {
+            throw new UnsupportedOperationException("File descriptor access is not available");
+        }
+        try {
+            return (int) GET_OBJECT_INT.invokeExact((Object) fd, FD_OFFSET);
+        } catch (final Throwable e) {
+            throw rethrow(e);
+        }
+    }
+}
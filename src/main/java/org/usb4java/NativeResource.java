@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.util.function.Consumer;
+
+/**
+ * An auto-closeable wrapper around a native libusb structure which must be
+ * freed with a {@code LibUsb.free*} function.
+ * <p>
+ * Instances are created by the factory methods of {@link NativeResources}.
+ * Closing the wrapper frees the structure exactly once. When the
+ * {@link NativeResources#setCleanerEnabled(boolean) cleaner} is enabled, a
+ * structure which was never closed is handled by the cleaner after the
+ * wrapped object (not this wrapper) became unreachable.
+ * <p>
+ * The wrapped object must only be freed through {@link #close()} or its own
+ * {@code close()} method. Calling the matching {@code LibUsb.free*}
+ * function directly would free it a second time when the cleaner runs.
+ *
+ * @param <T> The type of the wrapped structure.
+ */
+public final class NativeResource<T> implements AutoCloseable {
+
+    /**
+     * The wrapped structure.
+     */
+    private final T resource;
+
+    /**
+     * The release action.
+     */
+    private final NativeResources.Release<T> release;
+
+    /**
+     * The function freeing the structure.
+     */
+    private final Consumer<? super T> free;
+
+    /**
+     * Constructs a new native resource.
+     *
+     * @param resource The wrapped structure.
+     * @param release  The release action.
+     * @param free     The function freeing the structure.
+     */
+    NativeResource(final T resource, final NativeResources.Release<T> release,
+                   final Consumer<? super T> free) {
+        this.resource = resource;
+        this.release = release;
+        this.free = free;
+    }
+
+    /**
+     * Returns the wrapped structure.
+     *
+     * @return The wrapped structure.
+     * @throws IllegalStateException When the resource has been closed.
+     */
+    public T get() {
+        if (this.release.isReleased()) {
+            throw new IllegalStateException("Native resource already closed");
+        }
+        return this.resource;
+    }
+
+    /**
+     * Checks if the resource has been freed.
+     *
+     * @return True if freed.
+     */
+    public boolean isClosed() {
+        return this.release.isReleased();
+    }
+
+    /**
+     * Frees the native structure. Does nothing if already freed.
+     */
+    @Override
+    public void close() {
+        if (this.release.close()) {
+            this.free.accept(this.resource);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("native resource %s (%s)", this.resource,
+                             isClosed() ? "closed" : "open");
+    }
+}
@@ -0,0 +1,715 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.lang.ref.Cleaner;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Factory for auto-closeable native libusb structures with an optional
+ * {@link Cleaner} safety net and a leak report.
+ * <p>
+ * Device lists, descriptors, transfers and pollfd lists wrap native memory
+ * which must be freed with the matching {@code LibUsb.free*} function or
+ * their {@code close()} method. The factory methods of this class return
+ * them wrapped in a {@link NativeResource} which can be used in
+ * try-with-resources blocks. Structures filled by calling {@link LibUsb}
+ * directly are tracked by passing them to {@link #track(AutoCloseable)};
+ * the native functions set their pointers only after the Java object was
+ * created, so they can't be registered automatically.
+ * <p>
+ * The cleaner is opt-in, either with {@link #setCleanerEnabled(boolean)} or
+ * the system property {@code org.usb4java.cleaner=true}. When enabled, each
+ * tracked structure is registered with a cleaner which runs after it became
+ * unreachable without being closed. The native pointers are copied into a
+ * private shadow object for this, so the cleaner never keeps the user
+ * visible object alive. Devices, interfaces, endpoints, capabilities,
+ * pollfds and buffers taken from a structure only point into its memory
+ * and don't keep it reachable, so the cleaner never frees memory they may
+ * still use: a device list is freed without unreferencing its devices, and
+ * configuration and BOS descriptors, container IDs, pollfd lists and
+ * isochronous transfers are only reported, not freed. Both cases are
+ * counted in the leak report because they point to missing close calls.
+ * <p>
+ * Live structures are always counted by type. With
+ * {@link #setSamplingInterval(int)} every n-th allocation also records its
+ * call site, and {@link #getLeakReport()} lists the sites with most live
+ * structures.
+ */
+public final class NativeResources {
+
+    /**
+     * The number of call sites listed in the leak report.
+     */
+    private static final int REPORT_SITES = 20;
+
+    /**
+     * Lazily created cleaner.
+     */
+    private static volatile Cleaner cleaner;
+
+    /**
+     * If new resources are registered with the cleaner.
+     */
+    private static volatile boolean cleanerEnabled = Boolean.getBoolean("org.usb4java.cleaner");
+
+    /**
+     * Record the call site of every n-th allocation. 0 disables sampling.
+     */
+    private static volatile int samplingInterval;
+
+    /**
+     * Allocation counter for sampling.
+     */
+    private static final AtomicLong ALLOCATIONS = new AtomicLong();
+
+    /**
+     * Live structures by type.
+     */
+    private static final Map<String, LongAdder> LIVE = new ConcurrentHashMap<>();
+
+    /**
+     * Structures freed by the cleaner by type.
+     */
+    private static final Map<String, LongAdder> CLEANED = new ConcurrentHashMap<>();
+
+    /**
+     * Structures which became unreachable without being closed and were not
+     * freed by the cleaner, by type.
+     */
+    private static final Map<String, LongAdder> ABANDONED = new ConcurrentHashMap<>();
+
+    /**
+     * Live sampled structures by allocation site.
+     */
+    private static final Map<String, LongAdder> SITES = new ConcurrentHashMap<>();
+
+    /**
+     * The release actions of the tracked structures by native pointer.
+     */
+    private static final Map<Long, Release<?>> TRACKED = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private NativeResources() {
+        // Empty
+    }
+
+    /**
+     * Enables or disables the cleaner for structures created afterwards.
+     *
+     * @param enabled True to enable the cleaner.
+     */
+    public static void setCleanerEnabled(final boolean enabled) {
+        cleanerEnabled = enabled;
+    }
+
+    /**
+     * Checks if the cleaner is enabled.
+     *
+     * @return True if enabled.
+     */
+    public static boolean isCleanerEnabled() {
+        return cleanerEnabled;
+    }
+
+    /**
+     * Sets the allocation site sampling interval. Recording a site captures a
+     * stack trace, so keep the interval high in production.
+     *
+     * @param interval Record every n-th allocation, 1 for all, 0 for none.
+     */
+    public static void setSamplingInterval(final int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("interval must not be negative");
+        }
+        samplingInterval = interval;
+    }
+
+    /**
+     * Gets the list of USB devices currently attached to the system.
+     *
+     * @param context The context or null for the default context.
+     * @return The device list. Closing it unrefs the devices.
+     * @throws LibUsbException When the list could not be retrieved.
+     */
+    public static NativeResource<DeviceList> deviceList(final Context context) {
+        final DeviceList list = new DeviceList();
+        check(LibUsb.getDeviceList(context, list), "Unable to get device list");
+        return track(list);
+    }
+
+    /**
+     * Gets the USB configuration descriptor for the currently active
+     * configuration.
+     *
+     * @param device The device.
+     * @return The configuration descriptor.
+     * @throws LibUsbException When the descriptor could not be read.
+     */
+    public static NativeResource<ConfigDescriptor> activeConfigDescriptor(final Device device) {
+        final ConfigDescriptor descriptor = new ConfigDescriptor();
+        check(LibUsb.getActiveConfigDescriptor(device, descriptor),
+              "Unable to read active config descriptor");
+        return track(descriptor);
+    }
+
+    /**
+     * Gets a USB configuration descriptor based on its index.
+     *
+     * @param device The device.
+     * @param index  The index of the configuration.
+     * @return The configuration descriptor.
+     * @throws LibUsbException When the descriptor could not be read.
+     */
+    public static NativeResource<ConfigDescriptor> configDescriptor(final Device device,
+                                                                    final byte index) {
+        final ConfigDescriptor descriptor = new ConfigDescriptor();
+        check(LibUsb.getConfigDescriptor(device, index, descriptor),
+              "Unable to read config descriptor");
+        return track(descriptor);
+    }
+
+    /**
+     * Gets a USB configuration descriptor with a specific bConfigurationValue.
+     *
+     * @param device The device.
+     * @param value  The bConfigurationValue of the configuration.
+     * @return The configuration descriptor.
+     * @throws LibUsbException When the descriptor could not be read.
+     */
+    public static NativeResource<ConfigDescriptor> configDescriptorByValue(final Device device,
+                                                                           final byte value) {
+        final ConfigDescriptor descriptor = new ConfigDescriptor();
+        check(LibUsb.getConfigDescriptorByValue(device, value, descriptor),
+              "Unable to read config descriptor");
+        return track(descriptor);
+    }
+
+    /**
+     * Gets a SuperSpeed endpoint companion descriptor.
+     *
+     * @param context  The context or null for the default context.
+     * @param endpoint The endpoint descriptor.
+     * @return The companion descriptor.
+     * @throws LibUsbException When the descriptor could not be read.
+     */
+    public static NativeResource<SsEndpointCompanionDescriptor> ssEndpointCompanionDescriptor(
+            final Context context, final EndpointDescriptor endpoint) {
+        final SsEndpointCompanionDescriptor descriptor = new SsEndpointCompanionDescriptor();
+        check(LibUsb.getSsEndpointCompanionDescriptor(context, endpoint, descriptor),
+              "Unable to read SuperSpeed endpoint companion descriptor");
+        return track(descriptor);
+    }
+
+    /**
+     * Gets a Binary Object Store (BOS) descriptor.
+     *
+     * @param handle The device handle.
+     * @return The BOS descriptor.
+     * @throws LibUsbException When the descriptor could not be read.
+     */
+    public static NativeResource<BosDescriptor> bosDescriptor(final DeviceHandle handle) {
+        final BosDescriptor descriptor = new BosDescriptor();
+        check(LibUsb.getBosDescriptor(handle, descriptor), "Unable to read BOS descriptor");
+        return track(descriptor);
+    }
+
+    /**
+     * Gets a USB 2.0 Extension descriptor.
+     *
+     * @param context    The context or null for the default context.
+     * @param capability The device capability descriptor of the BOS.
+     * @return The USB 2.0 Extension descriptor.
+     * @throws LibUsbException When the descriptor could not be read.
+     */
+    public static NativeResource<Usb20ExtensionDescriptor> usb20ExtensionDescriptor(
+            final Context context, final BosDevCapabilityDescriptor capability) {
+        final Usb20ExtensionDescriptor descriptor = new Usb20ExtensionDescriptor();
+        check(LibUsb.getUsb20ExtensionDescriptor(context, capability, descriptor),
+              "Unable to read USB 2.0 extension descriptor");
+        return track(descriptor);
+    }
+
+    /**
+     * Gets a SuperSpeed USB Device Capability descriptor.
+     *
+     * @param context    The context or null for the default context.
+     * @param capability The device capability descriptor of the BOS.
+     * @return The SuperSpeed USB Device Capability descriptor.
+     * @throws LibUsbException When the descriptor could not be read.
+     */
+    public static NativeResource<SsUsbDeviceCapabilityDescriptor> ssUsbDeviceCapabilityDescriptor(
+            final Context context, final BosDevCapabilityDescriptor capability) {
+        final SsUsbDeviceCapabilityDescriptor descriptor = new SsUsbDeviceCapabilityDescriptor();
+        check(LibUsb.getSsUsbDeviceCapabilityDescriptor(context, capability, descriptor),
+              "Unable to read SuperSpeed USB device capability descriptor");
+        return track(descriptor);
+    }
+
+    /**
+     * Gets a Container ID descriptor.
+     *
+     * @param context    The context or null for the default context.
+     * @param capability The device capability descriptor of the BOS.
+     * @return The Container ID descriptor.
+     * @throws LibUsbException When the descriptor could not be read.
+     */
+    public static NativeResource<ContainerIdDescriptor> containerIdDescriptor(
+            final Context context, final BosDevCapabilityDescriptor capability) {
+        final ContainerIdDescriptor descriptor = new ContainerIdDescriptor();
+        check(LibUsb.getContainerIdDescriptor(context, capability, descriptor),
+              "Unable to read container ID descriptor");
+        return track(descriptor);
+    }
+
+    /**
+     * Allocates a transfer. The wrapped transfer must not be in flight when
+     * the resource is closed.
+     *
+     * @param isoPackets Number of isochronous packet descriptors to allocate.
+     * @return The transfer.
+     * @throws LibUsbException When the transfer could not be allocated.
+     */
+    public static NativeResource<Transfer> transfer(final int isoPackets) {
+        final Transfer transfer = LibUsb.allocTransfer(isoPackets);
+        if (transfer == null) {
+            throw new LibUsbException("Unable to allocate transfer", LibUsb.ERROR_NO_MEM);
+        }
+        return track(transfer);
+    }
+
+    /**
+     * Retrieves the list of file descriptors libusb polls.
+     *
+     * @param context The context or null for the default context.
+     * @return The pollfd list or null when not supported on this platform.
+     */
+    public static NativeResource<Pollfds> pollfds(final Context context) {
+        final Pollfds pollfds = LibUsb.getPollfds(context);
+        return pollfds == null ? null : track(pollfds);
+    }
+
+    /**
+     * Starts tracking a structure filled by a direct {@link LibUsb} call, for
+     * example with {@link LibUsb#getConfigDescriptor(Device, byte,
+     * ConfigDescriptor)}. Afterwards the structure must be freed with its
+     * {@code close()} method or the returned wrapper, not with the
+     * {@code LibUsb.free*} function.
+     *
+     * @param structure The filled device list, descriptor, transfer or pollfd
+     *                  list.
+     * @param <T>       The type of the structure.
+     * @return The auto-closeable wrapper.
+     * @throws IllegalArgumentException When the structure is of an unknown
+     *                                  type.
+     */
+    public static <T extends AutoCloseable> NativeResource<T> track(final T structure) {
+        if (structure instanceof DeviceList) {
+            // The devices keep the reference of the list, they may still be in use
+            return track(structure, ((DeviceList) structure).getPointer(), "DeviceList",
+                         list -> ((DeviceList) list).close(),
+                         shadow -> LibUsb.freeDeviceList((DeviceList) shadow, false));
+        }
+        if (structure instanceof Transfer) {
+            final Transfer transfer = (Transfer) structure;
+            return track(structure, transfer.getPointer(), "Transfer", t -> ((Transfer) t).close(),
+                         transfer.numIsoPackets() == 0 ? shadow -> LibUsb.freeTransfer((Transfer) shadow) : null);
+        }
+        if (structure instanceof SsEndpointCompanionDescriptor) {
+            return track(structure, ((SsEndpointCompanionDescriptor) structure).getPointer(),
+                         "SsEndpointCompanionDescriptor", d -> ((SsEndpointCompanionDescriptor) d).close(),
+                         shadow -> LibUsb.freeSsEndpointCompanionDescriptor((SsEndpointCompanionDescriptor) shadow));
+        }
+        if (structure instanceof Usb20ExtensionDescriptor) {
+            return track(structure, ((Usb20ExtensionDescriptor) structure).getPointer(),
+                         "Usb20ExtensionDescriptor", d -> ((Usb20ExtensionDescriptor) d).close(),
+                         shadow -> LibUsb.freeUsb20ExtensionDescriptor((Usb20ExtensionDescriptor) shadow));
+        }
+        if (structure instanceof SsUsbDeviceCapabilityDescriptor) {
+            return track(structure, ((SsUsbDeviceCapabilityDescriptor) structure).getPointer(),
+                         "SsUsbDeviceCapabilityDescriptor", d -> ((SsUsbDeviceCapabilityDescriptor) d).close(),
+                         shadow -> LibUsb.freeSsUsbDeviceCapabilityDescriptor(
+                             (SsUsbDeviceCapabilityDescriptor) shadow));
+        }
+        // Child structures and buffers point into these, so the cleaner only reports them
+        if (structure instanceof ConfigDescriptor) {
+            return track(structure, ((ConfigDescriptor) structure).getPointer(), "ConfigDescriptor",
+                         d -> ((ConfigDescriptor) d).close(), null);
+        }
+        if (structure instanceof BosDescriptor) {
+            return track(structure, ((BosDescriptor) structure).getPointer(), "BosDescriptor",
+                         d -> ((BosDescriptor) d).close(), null);
+        }
+        if (structure instanceof ContainerIdDescriptor) {
+            return track(structure, ((ContainerIdDescriptor) structure).getPointer(), "ContainerIdDescriptor",
+                         d -> ((ContainerIdDescriptor) d).close(), null);
+        }
+        if (structure instanceof Pollfds) {
+            return track(structure, ((Pollfds) structure).getPointer(), "Pollfds",
+                         p -> ((Pollfds) p).close(), null);
+        }
+        throw new IllegalArgumentException("Unsupported native structure " + structure.getClass().getName());
+    }
+
+    /**
+     * Stops tracking a structure which is freed by its {@code close()}
+     * method. Does nothing if the structure is not tracked.
+     *
+     * @param pointer The native pointer of the structure.
+     */
+    static void closed(final long pointer) {
+        final Release<?> release = TRACKED.get(pointer);
+        if (release != null) {
+            release.close();
+        }
+    }
+
+    /**
+     * Returns the number of live structures created by this class by type.
+     *
+     * @return The live counts mapped by type name.
+     */
+    public static Map<String, Long> getLiveCounts() {
+        return snapshot(LIVE);
+    }
+
+    /**
+     * Returns the number of structures freed by the cleaner instead of an
+     * explicit close, by type.
+     *
+     * @return The cleaned counts mapped by type name.
+     */
+    public static Map<String, Long> getCleanedCounts() {
+        return snapshot(CLEANED);
+    }
+
+    /**
+     * Returns the number of structures which became unreachable without being
+     * closed but were not freed by the cleaner because other objects may
+     * still point into them, by type. They are still counted as live.
+     *
+     * @return The abandoned counts mapped by type name.
+     */
+    public static Map<String, Long> getAbandonedCounts() {
+        return snapshot(ABANDONED);
+    }
+
+    /**
+     * Returns a human readable report of the live structures, the
+     * structures freed or abandoned by the cleaner and, when sampling is
+     * enabled, the allocation sites with most live structures.
+     *
+     * @return The leak report.
+     */
+    public static String getLeakReport() {
+        final StringBuilder report = new StringBuilder("Live native structures:");
+        for (final Map.Entry<String, Long> entry : getLiveCounts().entrySet()) {
+            report.append(String.format("%n  %-32s %d", entry.getKey(), entry.getValue()));
+        }
+        final Map<String, Long> cleaned = getCleanedCounts();
+        if (!cleaned.isEmpty()) {
+            report.append(String.format("%nFreed by cleaner (missing close):"));
+            for (final Map.Entry<String, Long> entry : cleaned.entrySet()) {
+                report.append(String.format("%n  %-32s %d", entry.getKey(), entry.getValue()));
+            }
+        }
+        final Map<String, Long> abandoned = getAbandonedCounts();
+        if (!abandoned.isEmpty()) {
+            report.append(String.format("%nUnreachable but not freed (missing close):"));
+            for (final Map.Entry<String, Long> entry : abandoned.entrySet()) {
+                report.append(String.format("%n  %-32s %d", entry.getKey(), entry.getValue()));
+            }
+        }
+        final Map<String, Long> sites = snapshot(SITES);
+        if (!sites.isEmpty()) {
+            report.append(String.format("%nSampled allocation sites of live structures:"));
+            sites.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
+                .limit(REPORT_SITES)
+                .forEach(entry -> report.append(String.format("%n  %6d  %s", entry.getValue(), entry.getKey())));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Copies a counter map, dropping zero counts.
+     *
+     * @param counters The counters.
+     * @return The sorted snapshot.
+     */
+    private static Map<String, Long> snapshot(final Map<String, LongAdder> counters) {
+        final Map<String, Long> result = new TreeMap<>();
+        for (final Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            final long value = entry.getValue().sum();
+            if (value != 0) {
+                result.put(entry.getKey(), value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Throws an exception when the result is an error code.
+     *
+     * @param result  The libusb result.
+     * @param message The error message.
+     */
+    private static void check(final int result, final String message) {
+        if (result < 0) {
+            throw new LibUsbException(message, result);
+        }
+    }
+
+    /**
+     * Starts tracking a native structure which is freed by the same function
+     * when closed and when cleaned.
+     *
+     * @param resource The structure.
+     * @param type     The type name used in the leak report.
+     * @param free     The function freeing the structure.
+     * @param <T>      The type of the structure.
+     * @return The auto-closeable wrapper.
+     */
+    static <T> NativeResource<T> track(final T resource, final String type, final Consumer<? super T> free) {
+        return track(resource, 0, type, free, free);
+    }
+
+    /**
+     * Starts tracking a native structure.
+     *
+     * @param resource    The structure.
+     * @param pointer     The native pointer to unregister the structure when
+     *                    it is closed directly, or 0.
+     * @param type        The type name used in the leak report.
+     * @param free        The function freeing the structure on close.
+     * @param cleanerFree The function freeing the shadow copy in the
+     *                    cleaner, or null to only report unreachable
+     *                    structures.
+     * @param <T>         The type of the structure.
+     * @return The auto-closeable wrapper.
+     */
+    private static <T> NativeResource<T> track(final T resource, final long pointer, final String type,
+                                               final Consumer<? super T> free,
+                                               final Consumer<? super T> cleanerFree) {
+        String site = null;
+        final int interval = samplingInterval;
+        if (interval > 0 && ALLOCATIONS.incrementAndGet() % interval == 0) {
+            site = callSite(new Throwable().getStackTrace());
+            SITES.computeIfAbsent(site, key -> new LongAdder()).increment();
+        }
+        LIVE.computeIfAbsent(type, key -> new LongAdder()).increment();
+
+        final boolean clean = cleanerEnabled;
+        final Release<T> release = new Release<>(type, site, pointer,
+            clean && cleanerFree != null ? shadow(resource) : null, cleanerFree);
+        if (pointer != 0) {
+            TRACKED.put(pointer, release);
+        }
+        if (clean) {
+            release.cleanable = cleaner().register(resource, release);
+        }
+        return new NativeResource<>(resource, release, free);
+    }
+
+    /**
+     * Returns the first stack frame outside of this class.
+     *
+     * @param trace The stack trace.
+     * @return The call site.
+     */
+    private static String callSite(final StackTraceElement[] trace) {
+        for (final StackTraceElement element : trace) {
+            if (!element.getClassName().equals(NativeResources.class.getName())) {
+                return element.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * Returns the shared cleaner, creating it on first use.
+     *
+     * @return The cleaner.
+     */
+    private static Cleaner cleaner() {
+        Cleaner result = cleaner;
+        if (result == null) {
+            synchronized (NativeResources.class) {
+                result = cleaner;
+                if (result == null) {
+                    result = Cleaner.create();
+                    cleaner = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a copy of a native structure wrapper holding the same native
+     * pointers but no references to Java objects. The JNI free functions
+     * only read the pointer fields, so the copy can be freed instead of the
+     * original.
+     *
+     * @param resource The structure wrapper.
+     * @param <T>      The type of the structure.
+     * @return The shadow copy.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T shadow(final T resource) {
+        try {
+            final Constructor<?> constructor = resource.getClass().getDeclaredConstructor();
+            constructor.setAccessible(true);
+            final T shadow = (T) constructor.newInstance();
+            for (final Field field : resource.getClass().getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && field.getType().isPrimitive()) {
+                    field.setAccessible(true);
+                    field.set(shadow, field.get(resource));
+                }
+            }
+            return shadow;
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to copy " + resource.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Accounts a tracked structure at most once as closed or cleaned and
+     * frees its shadow copy when cleaned. Must not reference the user
+     * visible object because it is the cleaner action.
+     *
+     * @param <T> The type of the structure.
+     */
+    static final class Release<T> implements Runnable {
+
+        /**
+         * The type name.
+         */
+        private final String type;
+
+        /**
+         * The sampled allocation site or null.
+         */
+        private final String site;
+
+        /**
+         * The native pointer or 0 if not registered by pointer.
+         */
+        private final long pointer;
+
+        /**
+         * The shadow copy freed by the cleaner or null.
+         */
+        private final T shadow;
+
+        /**
+         * The function freeing the shadow copy or null to only report it.
+         */
+        private final Consumer<? super T> free;
+
+        /**
+         * Set once the structure is closed or cleaned.
+         */
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /**
+         * The cleaner registration or null if the cleaner is disabled.
+         */
+        volatile Cleaner.Cleanable cleanable;
+
+        /**
+         * Constructs a new release action.
+         *
+         * @param type    The type name.
+         * @param site    The allocation site or null.
+         * @param pointer The native pointer or 0.
+         * @param shadow  The shadow copy or null.
+         * @param free    The function freeing the shadow copy or null.
+         */
+        Release(final String type, final String site, final long pointer, final T shadow,
+                final Consumer<? super T> free) {
+            this.type = type;
+            this.site = site;
+            this.pointer = pointer;
+            this.shadow = shadow;
+            this.free = free;
+        }
+
+        /**
+         * Checks if the structure has been closed or cleaned.
+         *
+         * @return True if released.
+         */
+        boolean isReleased() {
+            return this.released.get();
+        }
+
+        /**
+         * Accounts an explicit close and unregisters the cleaner. The caller
+         * frees the structure.
+         *
+         * @return True if the structure must be freed now, false if it was
+         * already released.
+         */
+        boolean close() {
+            if (!this.released.compareAndSet(false, true)) {
+                return false;
+            }
+            untrack();
+            final Cleaner.Cleanable registration = this.cleanable;
+            if (registration != null) {
+                // Only drops the registration, the action sees the released flag
+                registration.clean();
+            }
+            return true;
+        }
+
+        /**
+         * Removes the structure from the registry and the live counts.
+         */
+        private void untrack() {
+            if (this.pointer != 0) {
+                TRACKED.remove(this.pointer, this);
+            }
+            LIVE.get(this.type).decrement();
+            if (this.site != null) {
+                SITES.get(this.site).decrement();
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!this.released.compareAndSet(false, true)) {
+                return;
+            }
+            if (this.shadow == null) {
+                // Still allocated, so it stays in the live counts
+                if (this.pointer != 0) {
+                    TRACKED.remove(this.pointer, this);
+                }
+                ABANDONED.computeIfAbsent(this.type, key -> new LongAdder()).increment();
+                return;
+            }
+            try {
+                this.free.accept(this.shadow);
+            } finally {
+                untrack();
+                CLEANED.computeIfAbsent(this.type, key -> new LongAdder()).increment();
+            }
+        }
+    }
+}
@@ -94,11 +94,35 @@ public final class Pollfd
 
     /**
      * Returns the numeric file descriptor.
+     * <p>
+     * The value is truncated to a byte by the JNI binding so file descriptors
+     * above 127 are not reported correctly. Use {@link #fdValue()} instead.
      *
      * @return The numeric file descriptor.
      */
     public native byte fd();
 
+    /**
+     * Returns the full numeric file descriptor. Unlike {@link #fd()} this
+     * reads the int field of the native structure directly and therefore
+     * also works for file descriptors above 127.
+     *
+     * @return The numeric file descriptor.
+     * @throws UnsupportedOperationException When native memory access is not
+     *                                       available on this JVM.
+     * @throws IllegalStateException         When the pollfd is not
+     *                                       initialized.
+     */
+    public int fdValue()
+    {
+        if (this.pollfdPointer == 0)
+        {
+            throw new IllegalStateException("pollfd is not initialized");
+        }
+        // struct libusb_pollfd { int fd; short events; }
+        return NativeMemory.getInt(this.pollfdPointer);
+    }
+
     /**
      * Returns the event flags to poll.
      *
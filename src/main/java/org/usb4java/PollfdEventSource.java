@@ -0,0 +1,268 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.FileDescriptor;
+import java.nio.LongBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Exposes the libusb event sources of a {@link Context} to an application
+ * owned poller such as a Linux epoll instance.
+ * <p>
+ * Applications which already multiplex their own file descriptors with
+ * epoll (through JNA, an FFM binding or their own native code) can add the
+ * libusb file descriptors to the same epoll set instead of running a
+ * separate {@link EventLoop} thread:
+ * <ol>
+ * <li>Register all file descriptors returned by {@link #getFds()} with the
+ * events from {@link #getEvents(int)} and keep the registration in sync
+ * through a {@link Listener}.</li>
+ * <li>Use {@link #getTimeout()} as the timeout of the epoll wait. It is
+ * infinite when libusb handles its timeouts through file descriptors.</li>
+ * <li>Call {@link #handleEvents()} whenever a libusb file descriptor is
+ * ready or the timeout expired. It never blocks.</li>
+ * </ol>
+ * <p>
+ * The numeric file descriptors are read from the native pollfd structures
+ * (see {@link Pollfd#fdValue()}) so they are not truncated. File descriptors
+ * are a Unix concept, on Windows the set is always empty.
+ */
+public final class PollfdEventSource implements AutoCloseable {
+
+    /**
+     * Listener notified about changes of the libusb file descriptor set.
+     */
+    public interface Listener {
+        /**
+         * Called when libusb starts using a file descriptor.
+         *
+         * @param fd     The numeric file descriptor.
+         * @param events The events to poll for ({@link Pollfd#POLLIN} and/or
+         *               {@link Pollfd#POLLOUT}).
+         */
+        void fdAdded(int fd, int events);
+
+        /**
+         * Called when libusb stops using a file descriptor. Remove it from
+         * the poller before returning.
+         *
+         * @param fd The numeric file descriptor.
+         */
+        void fdRemoved(int fd);
+    }
+
+    /**
+     * The context. Null for the default context.
+     */
+    private final Context context;
+
+    /**
+     * The current file descriptors mapped to their poll events.
+     */
+    private final Map<Integer, Integer> fds = new ConcurrentHashMap<>();
+
+    /**
+     * The registered listeners.
+     */
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Output location for the next libusb timeout.
+     */
+    private final LongBuffer nextTimeout = BufferUtils.allocateLongBuffer();
+
+    /**
+     * If libusb represents its timeouts as file descriptors.
+     */
+    private final boolean fdTimeouts;
+
+    /**
+     * The pollfd listener registered with libusb.
+     */
+    private final PollfdListener pollfdListener = new PollfdListener() {
+        @Override
+        public void pollfdAdded(final FileDescriptor fd, final int events, final Object userData) {
+            added(NativeMemory.fd(fd), events);
+            final ImmutablePair<PollfdListener, Object> previous = PollfdEventSource.this.previous;
+            if (previous != null) {
+                previous.left.pollfdAdded(fd, events, previous.right);
+            }
+        }
+
+        @Override
+        public void pollfdRemoved(final FileDescriptor fd, final Object userData) {
+            removed(NativeMemory.fd(fd));
+            final ImmutablePair<PollfdListener, Object> previous = PollfdEventSource.this.previous;
+            if (previous != null) {
+                previous.left.pollfdRemoved(fd, previous.right);
+            }
+        }
+    };
+
+    /**
+     * The notifier registered before this source or null.
+     */
+    private final ImmutablePair<PollfdListener, Object> previous;
+
+    /**
+     * Creates a new event source for the specified context and reads the
+     * current set of file descriptors.
+     * <p>
+     * The source installs its own pollfd notifiers on the context. A
+     * notifier the application registered before with
+     * {@link LibUsb#setPollfdNotifiers(Context, PollfdListener, Object)} keeps
+     * receiving all changes and is restored by {@link #close()}.
+     *
+     * @param context The context or null for the default context.
+     * @throws UnsupportedOperationException When native memory access is not
+     *                                       available to read the file
+     *                                       descriptors.
+     */
+    public PollfdEventSource(final Context context) {
+        if (!NativeMemory.isAvailable() || !NativeMemory.isFdAvailable()) {
+            throw new UnsupportedOperationException("Native memory access is not available");
+        }
+        this.context = context;
+        this.fdTimeouts = LibUsb.pollfdsHandleTimeouts(context) == 1;
+
+        // Register first so no change between reading and registering is lost
+        this.previous = LibUsb.getPollfdNotifiers(context);
+        LibUsb.setPollfdNotifiers(context, this.pollfdListener, null);
+        final Pollfds pollfds = LibUsb.getPollfds(context);
+        if (pollfds != null) {
+            try {
+                for (final Pollfd pollfd : pollfds) {
+                    this.fds.putIfAbsent(pollfd.fdValue(), (int) pollfd.events());
+                }
+            } finally {
+                LibUsb.freePollfds(pollfds);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener and reports all current file descriptors to it.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(final Listener listener) {
+        this.listeners.add(listener);
+        for (final Map.Entry<Integer, Integer> entry : this.fds.entrySet()) {
+            listener.fdAdded(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(final Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Returns the current libusb file descriptors.
+     *
+     * @return The numeric file descriptors.
+     */
+    public int[] getFds() {
+        return this.fds.keySet().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the poll events of the specified file descriptor.
+     *
+     * @param fd The numeric file descriptor.
+     * @return The events to poll for or 0 if libusb does not use this file
+     * descriptor.
+     */
+    public int getEvents(final int fd) {
+        final Integer events = this.fds.get(fd);
+        return events == null ? 0 : events;
+    }
+
+    /**
+     * Returns the maximum time to wait for the libusb file descriptors
+     * before {@link #handleEvents()} must be called.
+     *
+     * @return The timeout in microseconds, 0 if libusb must be called
+     * immediately or -1 if there is no timeout.
+     */
+    public long getTimeout() {
+        if (this.fdTimeouts) {
+            return -1;
+        }
+        synchronized (this.nextTimeout) {
+            final int result = LibUsb.getNextTimeout(this.context, this.nextTimeout);
+            if (result == 1) {
+                return this.nextTimeout.get(0);
+            }
+            return result == 0 ? -1 : 0;
+        }
+    }
+
+    /**
+     * Handles all pending libusb events without blocking. Transfer and
+     * hotplug callbacks are invoked from the calling thread.
+     *
+     * @throws LibUsbException When libusb reported an error.
+     */
+    public void handleEvents() {
+        final int result = LibUsb.handleEventsTimeout(this.context, 0);
+        if (result != LibUsb.SUCCESS && result != LibUsb.ERROR_INTERRUPTED) {
+            throw new LibUsbException("Unable to handle events", result);
+        }
+    }
+
+    /**
+     * Records an added file descriptor and notifies the listeners.
+     *
+     * @param fd     The numeric file descriptor.
+     * @param events The poll events.
+     */
+    void added(final int fd, final int events) {
+        this.fds.put(fd, events);
+        for (final Listener listener : this.listeners) {
+            listener.fdAdded(fd, events);
+        }
+    }
+
+    /**
+     * Records a removed file descriptor and notifies the listeners.
+     *
+     * @param fd The numeric file descriptor.
+     */
+    void removed(final int fd) {
+        if (this.fds.remove(fd) != null) {
+            for (final Listener listener : this.listeners) {
+                listener.fdRemoved(fd);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the pollfd notifiers from libusb and restores the notifier
+     * registered before the source was opened.
+     */
+    @Override
+    public void close() {
+        if (this.previous == null) {
+            LibUsb.setPollfdNotifiers(this.context, null, null);
+        } else {
+            LibUsb.setPollfdNotifiers(this.context, this.previous.left, this.previous.right);
+        }
+        this.listeners.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("pollfd event source with %d file descriptors", this.fds.size());
+    }
+}
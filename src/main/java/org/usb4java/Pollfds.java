@@ -12,7 +12,7 @@ import java.util.Iterator;
  *
  * @author Klaus Reimer (k@ailis.de)
  */
-public final class Pollfds implements Iterable<Pollfd>
+public final class Pollfds implements Iterable<Pollfd>, AutoCloseable
 {
     /** The native pointer to the pollfd array. */
     private long pollfdsPointer;
@@ -39,6 +39,22 @@ public final class Pollfds implements Iterable<Pollfd>
         return this.pollfdsPointer;
     }
 
+    /**
+     * Frees the list with {@link LibUsb#freePollfds(Pollfds)}. Does nothing
+     * if the list is already freed.
+     */
+    @Override
+    public void close()
+    {
+        if (this.pollfdsPointer != 0)
+        {
+            NativeResources.closed(this.pollfdsPointer);
+            LibUsb.freePollfds(this);
+            this.pollfdsPointer = 0;
+            this.size = 0;
+        }
+    }
+
     /**
      * Returns the number of poll file descriptors in the list.
      *
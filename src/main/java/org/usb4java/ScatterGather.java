@@ -0,0 +1,310 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transfers from and to multiple buffers at once.
+ * <p>
+ * Protocols often build a frame from separate header, payload and trailer
+ * buffers. {@link #gather(ByteBuffer...)} turns such parts into a single
+ * transfer buffer for an OUT transfer and {@link #scatter(ByteBuffer...)}
+ * provides a single transfer buffer for an IN transfer whose data is split
+ * into the parts afterwards.
+ * <p>
+ * When the parts are adjacent regions of the same direct buffer (for
+ * example slices or duplicates of one frame buffer) the transfer uses that
+ * memory directly and nothing is copied. Before Java 22 this requires the
+ * parts to be slices or duplicates of the buffer allocating the memory
+ * (as with {@link ByteBuffer#allocateDirect(int)}), otherwise the parts
+ * are copied.
+ * Otherwise the parts are copied once into a buffer taken from a
+ * {@link DeviceBufferPool}, or a temporary direct buffer when the parts
+ * don't fit into a pooled buffer.
+ */
+public final class ScatterGather {
+
+    /**
+     * The pool providing the transfer buffers.
+     */
+    private final DeviceBufferPool pool;
+
+    /**
+     * The number of vectors which used the memory of the parts directly.
+     */
+    private final LongAdder zeroCopyCount = new LongAdder();
+
+    /**
+     * The number of vectors which needed a copy.
+     */
+    private final LongAdder copyCount = new LongAdder();
+
+    /**
+     * Constructs a new scatter/gather helper.
+     *
+     * @param pool The pool providing the transfer buffers.
+     */
+    public ScatterGather(final DeviceBufferPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the number of vectors which needed no copy.
+     *
+     * @return The number of zero-copy vectors.
+     */
+    public long getZeroCopyCount() {
+        return this.zeroCopyCount.sum();
+    }
+
+    /**
+     * Returns the number of vectors which were copied.
+     *
+     * @return The number of copied vectors.
+     */
+    public long getCopyCount() {
+        return this.copyCount.sum();
+    }
+
+    /**
+     * Prepares a transfer buffer containing the remaining bytes of all
+     * parts, in order, for an OUT transfer. The positions of the parts are
+     * not changed until {@link Vector#complete(int)} is called.
+     *
+     * @param parts The parts to send.
+     * @return The vector. Close it after the transfer completed.
+     */
+    public Vector gather(final ByteBuffer... parts) {
+        final Vector vector = vector(parts, false);
+        if (vector.copied) {
+            final ByteBuffer target = vector.buffer.duplicate();
+            for (final ByteBuffer part : parts) {
+                target.put(part.duplicate());
+            }
+        }
+        return vector;
+    }
+
+    /**
+     * Prepares a transfer buffer for an IN transfer whose data is split
+     * into the remaining space of the parts, in order, by
+     * {@link Vector#complete(int)}.
+     *
+     * @param parts The parts to receive into.
+     * @return The vector. Close it after the transfer completed.
+     */
+    public Vector scatter(final ByteBuffer... parts) {
+        return vector(parts, true);
+    }
+
+    /**
+     * Creates a vector, using the memory of the parts directly if possible.
+     *
+     * @param parts The parts.
+     * @param in    True for IN transfers.
+     * @return The vector.
+     */
+    private Vector vector(final ByteBuffer[] parts, final boolean in) {
+        if (parts.length == 0) {
+            throw new IllegalArgumentException("at least one part required");
+        }
+        long total = 0;
+        for (final ByteBuffer part : parts) {
+            if (in && part.isReadOnly()) {
+                throw new IllegalArgumentException("read-only buffer can't receive data");
+            }
+            total += part.remaining();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("parts too large for one transfer");
+        }
+        final ByteBuffer region = contiguousRegion(parts, (int) total);
+        if (region != null) {
+            this.zeroCopyCount.increment();
+            return new Vector(parts, region, false, null, in);
+        }
+        this.copyCount.increment();
+        if (total <= this.pool.getBufferSize()) {
+            // libusb transfers the whole capacity, so hand out a slice of
+            // exactly the total size
+            final ByteBuffer pooled = this.pool.acquire();
+            return new Vector(parts, BufferUtils.slice(pooled, 0, (int) total), true, pooled, in);
+        }
+        return new Vector(parts, BufferUtils.allocateByteBuffer((int) total), true, null, in);
+    }
+
+    /**
+     * Returns a buffer covering the remaining bytes of all parts if they
+     * are adjacent regions of direct memory.
+     *
+     * @param parts The parts.
+     * @param total The total number of remaining bytes.
+     * @return The region or null if the parts are not adjacent.
+     */
+    static ByteBuffer contiguousRegion(final ByteBuffer[] parts, final int total) {
+        final ByteBuffer first = parts[0];
+        if (!first.isDirect() || first.isReadOnly()) {
+            return null;
+        }
+        if (parts.length > 1) {
+            if (!NativeMemory.isAvailable()) {
+                return null;
+            }
+            long end = NativeMemory.address(first) + first.limit();
+            for (int i = 1; i < parts.length; i++) {
+                final ByteBuffer part = parts[i];
+                if (!part.isDirect() || part.isReadOnly()
+                    || NativeMemory.address(part) + part.position() != end) {
+                    return null;
+                }
+                end += part.remaining();
+            }
+            // View the memory of all parts through the first one, which
+            // also works for slices with their own capacity
+            return NativeMemory.view(first, total);
+        }
+        final ByteBuffer region = first.duplicate();
+        region.limit(first.position() + total);
+        return region.slice();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("scatter/gather with %d zero-copy and %d copied vectors",
+                             getZeroCopyCount(), getCopyCount());
+    }
+
+    /**
+     * A transfer buffer representing multiple parts.
+     */
+    public final class Vector implements AutoCloseable {
+
+        /**
+         * The parts.
+         */
+        private final ByteBuffer[] parts;
+
+        /**
+         * The transfer buffer.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * If the buffer is a copy of the parts.
+         */
+        private final boolean copied;
+
+        /**
+         * The pooled buffer backing the transfer buffer or null if not
+         * pooled.
+         */
+        private final ByteBuffer pooled;
+
+        /**
+         * True for IN transfers.
+         */
+        private final boolean in;
+
+        /**
+         * Set when closed.
+         */
+        private boolean closed;
+
+        /**
+         * Constructs a new vector.
+         *
+         * @param parts  The parts.
+         * @param buffer The transfer buffer.
+         * @param copied If the buffer is a copy.
+         * @param pooled The pooled buffer backing the transfer buffer or
+         *               null.
+         * @param in     True for IN transfers.
+         */
+        Vector(final ByteBuffer[] parts, final ByteBuffer buffer, final boolean copied,
+               final ByteBuffer pooled, final boolean in) {
+            this.parts = parts.clone();
+            this.buffer = buffer;
+            this.copied = copied;
+            this.pooled = pooled;
+            this.in = in;
+        }
+
+        /**
+         * Returns the transfer buffer. Its capacity is the total size of all
+         * parts, so it can be passed to one of the {@code fill*Transfer}
+         * methods of {@link LibUsb}, which transfer the whole capacity.
+         *
+         * @return The direct transfer buffer.
+         */
+        public ByteBuffer buffer() {
+            return this.buffer;
+        }
+
+        /**
+         * Checks if the parts were copied.
+         *
+         * @return False when the memory of the parts is used directly.
+         */
+        public boolean isCopied() {
+            return this.copied;
+        }
+
+        /**
+         * Completes the transfer: advances the positions of the parts by the
+         * transferred bytes and, for copied IN vectors, copies the received
+         * data into the parts.
+         *
+         * @param actualLength The actual length of the completed transfer.
+         * @return The number of bytes distributed over the parts.
+         */
+        public int complete(final int actualLength) {
+            int remaining = actualLength;
+            int offset = 0;
+            for (final ByteBuffer part : this.parts) {
+                if (remaining <= 0) {
+                    break;
+                }
+                final int count = Math.min(remaining, part.remaining());
+                if (this.in && this.copied) {
+                    final ByteBuffer source = this.buffer.duplicate();
+                    source.position(offset).limit(offset + count);
+                    part.put(source);
+                } else {
+                    part.position(part.position() + count);
+                }
+                offset += count;
+                remaining -= count;
+            }
+            return offset;
+        }
+
+        /**
+         * Returns a pooled transfer buffer to the pool. The transfer must
+         * have completed.
+         */
+        @Override
+        public void close() {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            if (this.pooled != null) {
+                ScatterGather.this.pool.release(this.pooled);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s vector of %d parts (%s)", this.in ? "IN" : "OUT",
+                                 this.parts.length, this.copied ? "copied" : "zero-copy");
+        }
+    }
+}
@@ -0,0 +1,656 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Spreads devices over multiple libusb contexts, each with its own
+ * {@link EventLoop} thread.
+ * <p>
+ * All transfer completions of a context are handled by one event thread.
+ * With many high-rate devices this thread becomes the bottleneck. This class
+ * creates a number of contexts (shards) and assigns every device to one of
+ * them, so completions of different devices are handled by different
+ * threads in parallel.
+ * <p>
+ * Devices are identified by their physical location, the bus number and
+ * the port path (for example {@code 1-2.3}), because {@link Device} objects
+ * are bound to the context which enumerated them. A device is initially
+ * assigned to a shard by the hash of its location. {@link #open(Device)}
+ * opens the device through its shard's context, no matter which context
+ * the passed device object came from, and {@link #submitTransfer(Transfer)}
+ * counts the transfer on the shard of its device handle.
+ * <p>
+ * Each shard reports load counters. {@link #rebalance()} moves the devices
+ * which are currently not open to the least loaded shards, based on the
+ * transfers submitted since the last rebalancing. On platforms supporting
+ * hotplug the assignments follow arriving and leaving devices and, if
+ * enabled with {@link #setRebalanceOnHotplug(boolean)}, every hotplug event
+ * rebalances the shards.
+ */
+public final class ShardedContexts implements AutoCloseable {
+
+    /**
+     * Maximum depth of the port path according to the USB 3.0 specification.
+     */
+    private static final int MAX_PORT_DEPTH = 7;
+
+    /**
+     * The shards.
+     */
+    private final Shard[] shards;
+
+    /**
+     * The device assignments mapped by device location.
+     */
+    private final Map<String, Assignment> assignments = new ConcurrentHashMap<>();
+
+    /**
+     * The assignments of open device handles.
+     */
+    private final Map<DeviceHandle, Assignment> handles = new ConcurrentHashMap<>();
+
+    /**
+     * The hotplug callback handle or null if hotplug is not supported.
+     */
+    private final HotplugCallbackHandle hotplugHandle;
+
+    /**
+     * If hotplug events trigger a rebalancing.
+     */
+    private volatile boolean rebalanceOnHotplug;
+
+    /**
+     * Creates and starts the specified number of shards.
+     *
+     * @param count The number of shards, for example the number of cores
+     *              reserved for USB I/O.
+     * @throws LibUsbException When a context could not be initialized.
+     */
+    public ShardedContexts(final int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        this.shards = new Shard[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                final Context context = new Context();
+                final int result = LibUsb.init(context);
+                if (result != LibUsb.SUCCESS) {
+                    throw new LibUsbException("Unable to initialize shard " + i, result);
+                }
+                final EventLoop eventLoop = new EventLoop(context, "usb4java shard " + i);
+                this.shards[i] = new Shard(i, context, eventLoop);
+                eventLoop.start();
+            }
+        } catch (final RuntimeException e) {
+            shutdown();
+            throw e;
+        }
+        this.hotplugHandle = registerHotplug();
+    }
+
+    /**
+     * Registers the hotplug callback which keeps the assignments up to date.
+     *
+     * @return The callback handle or null if hotplug is not supported.
+     */
+    private HotplugCallbackHandle registerHotplug() {
+        if (!LibUsb.hasCapability(LibUsb.CAP_HAS_HOTPLUG)) {
+            return null;
+        }
+        final HotplugCallbackHandle handle = new HotplugCallbackHandle();
+        final int result = LibUsb.hotplugRegisterCallback(this.shards[0].context,
+            LibUsb.HOTPLUG_EVENT_DEVICE_ARRIVED | LibUsb.HOTPLUG_EVENT_DEVICE_LEFT,
+            LibUsb.HOTPLUG_ENUMERATE, LibUsb.HOTPLUG_MATCH_ANY, LibUsb.HOTPLUG_MATCH_ANY,
+            LibUsb.HOTPLUG_MATCH_ANY, this::hotplug, null, handle);
+        if (result != LibUsb.SUCCESS) {
+            shutdown();
+            throw new LibUsbException("Unable to register hotplug callback", result);
+        }
+        return handle;
+    }
+
+    /**
+     * Processes a hotplug event.
+     *
+     * @param context  The context of the event.
+     * @param device   The device.
+     * @param event    The event.
+     * @param userData Unused.
+     * @return Always 0 to stay registered.
+     */
+    private int hotplug(final Context context, final Device device, final int event,
+                        final Object userData) {
+        final String key;
+        try {
+            key = location(device);
+        } catch (final LibUsbException e) {
+            // Typically a device which already left, nothing to track
+            return 0;
+        }
+        if (event == LibUsb.HOTPLUG_EVENT_DEVICE_ARRIVED) {
+            assignment(key).left = false;
+        } else {
+            this.assignments.computeIfPresent(key, (k, assignment) -> {
+                if (assignment.openHandles.get() > 0) {
+                    // Removed when the last handle is closed
+                    assignment.left = true;
+                    return assignment;
+                }
+                this.shards[assignment.shard].devices.decrementAndGet();
+                return null;
+            });
+        }
+        if (this.rebalanceOnHotplug) {
+            rebalance();
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return this.shards.length;
+    }
+
+    /**
+     * Returns the shard with the specified index.
+     *
+     * @param index The shard index.
+     * @return The shard.
+     */
+    public Shard getShard(final int index) {
+        return this.shards[index];
+    }
+
+    /**
+     * Returns all shards.
+     *
+     * @return The shards.
+     */
+    public List<Shard> getShards() {
+        return Collections.unmodifiableList(Arrays.asList(this.shards));
+    }
+
+    /**
+     * Enables or disables rebalancing on every hotplug event.
+     *
+     * @param rebalanceOnHotplug True to rebalance on hotplug events.
+     */
+    public void setRebalanceOnHotplug(final boolean rebalanceOnHotplug) {
+        this.rebalanceOnHotplug = rebalanceOnHotplug;
+    }
+
+    /**
+     * Returns the location of a device in the form {@code bus-port.port},
+     * the same naming Linux uses in sysfs.
+     *
+     * @param device The device.
+     * @return The device location.
+     */
+    public static String location(final Device device) {
+        final ByteBuffer path = BufferUtils.allocateByteBuffer(MAX_PORT_DEPTH);
+        final int depth = LibUsb.getPortNumbers(device, path);
+        if (depth < 0) {
+            throw new LibUsbException("Unable to get port numbers", depth);
+        }
+        final byte[] ports = new byte[depth];
+        path.get(ports);
+        return location(LibUsb.getBusNumber(device), ports);
+    }
+
+    /**
+     * Returns the location of a device in the form {@code bus-port.port}.
+     *
+     * @param bus   The bus number.
+     * @param ports The port numbers from the root hub.
+     * @return The device location.
+     */
+    static String location(final int bus, final byte[] ports) {
+        final StringBuilder builder = new StringBuilder();
+        builder.append(bus);
+        for (int i = 0; i < ports.length; i++) {
+            builder.append(i == 0 ? '-' : '.').append(ports[i] & 0xff);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the shard the device with the specified location is assigned
+     * to, assigning it by location hash if not assigned yet.
+     *
+     * @param location The device location.
+     * @return The shard.
+     */
+    public Shard shardFor(final String location) {
+        return this.shards[assignment(location).shard];
+    }
+
+    /**
+     * Returns the shard the specified device is assigned to.
+     *
+     * @param device The device from any context.
+     * @return The shard.
+     */
+    public Shard shardFor(final Device device) {
+        return shardFor(location(device));
+    }
+
+    /**
+     * Returns the shard of an open device handle.
+     *
+     * @param handle The device handle opened with {@link #open(Device)}.
+     * @return The shard or null if the handle was not opened by this class.
+     */
+    public Shard shardFor(final DeviceHandle handle) {
+        final Assignment assignment = this.handles.get(handle);
+        return assignment == null ? null : this.shards[assignment.shard];
+    }
+
+    /**
+     * Returns the assignment of the specified location, creating it if
+     * necessary.
+     *
+     * @param location The device location.
+     * @return The assignment.
+     */
+    private Assignment assignment(final String location) {
+        return this.assignments.computeIfAbsent(location, key -> {
+            final int shard = Math.floorMod(key.hashCode(), this.shards.length);
+            this.shards[shard].devices.incrementAndGet();
+            return new Assignment(key, shard);
+        });
+    }
+
+    /**
+     * Opens the specified device through the context of its shard.
+     *
+     * @param device The device to open. May come from any context.
+     * @return The device handle. Close it with {@link #close(DeviceHandle)}.
+     * @throws LibUsbException When the device could not be found or opened.
+     */
+    public DeviceHandle open(final Device device) {
+        return open(location(device));
+    }
+
+    /**
+     * Opens the device at the specified location through the context of its
+     * shard.
+     *
+     * @param location The device location.
+     * @return The device handle. Close it with {@link #close(DeviceHandle)}.
+     * @throws LibUsbException When the device could not be found or opened.
+     */
+    public DeviceHandle open(final String location) {
+        final Assignment assignment;
+        final DeviceHandle handle = new DeviceHandle();
+        // Prevent rebalancing from moving the device while it is opened
+        synchronized (this) {
+            assignment = assignment(location);
+            final Shard shard = this.shards[assignment.shard];
+            final DeviceList list = new DeviceList();
+            final int count = LibUsb.getDeviceList(shard.context, list);
+            if (count < 0) {
+                throw new LibUsbException("Unable to get device list", count);
+            }
+            try {
+                int result = LibUsb.ERROR_NOT_FOUND;
+                for (final Device device : list) {
+                    if (location.equals(location(device))) {
+                        result = LibUsb.open(device, handle);
+                        break;
+                    }
+                }
+                if (result != LibUsb.SUCCESS) {
+                    throw new LibUsbException("Unable to open device " + location, result);
+                }
+            } finally {
+                LibUsb.freeDeviceList(list, true);
+            }
+            assignment.openHandles.incrementAndGet();
+            shard.openHandles.incrementAndGet();
+        }
+        this.handles.put(handle, assignment);
+        return handle;
+    }
+
+    /**
+     * Closes a device handle opened with {@link #open(Device)}. Closing the
+     * last handle of a device which left removes its assignment.
+     *
+     * @param handle The device handle to close.
+     */
+    public void close(final DeviceHandle handle) {
+        final Assignment assignment = this.handles.remove(handle);
+        LibUsb.close(handle);
+        if (assignment != null) {
+            synchronized (this) {
+                this.shards[assignment.shard].openHandles.decrementAndGet();
+                if (assignment.openHandles.decrementAndGet() == 0) {
+                    this.assignments.computeIfPresent(assignment.location, (k, current) -> {
+                        if (current != assignment || !current.left) {
+                            return current;
+                        }
+                        this.shards[current.shard].devices.decrementAndGet();
+                        return null;
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Submits a transfer and counts it on the shard of its device handle.
+     * The transfer completes on the event thread of that shard.
+     *
+     * @param transfer The transfer to submit. Its device handle must have
+     *                 been opened with {@link #open(Device)}.
+     * @return {@link LibUsb#SUCCESS} or an error code.
+     */
+    public int submitTransfer(final Transfer transfer) {
+        final Assignment assignment = this.handles.get(transfer.devHandle());
+        if (assignment == null) {
+            throw new IllegalArgumentException("Device handle not opened by this instance");
+        }
+        final int result = LibUsb.submitTransfer(transfer);
+        final Shard shard = this.shards[assignment.shard];
+        if (result == LibUsb.SUCCESS) {
+            assignment.transfers.increment();
+            shard.transfers.increment();
+            shard.bytes.add(transfer.length());
+        } else {
+            shard.failures.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Moves all devices without open handles so that the transfer load is
+     * spread as evenly as possible over the shards. The load of a device is
+     * the number of transfers submitted since the last rebalancing. Devices
+     * with open handles stay where they are.
+     */
+    public synchronized void rebalance() {
+        final List<Assignment> list = new ArrayList<>(this.assignments.values());
+        final long[] loads = new long[list.size()];
+        final int[] fixed = new int[list.size()];
+        for (int i = 0; i < loads.length; i++) {
+            final Assignment assignment = list.get(i);
+            loads[i] = assignment.transfers.sumThenReset();
+            fixed[i] = assignment.openHandles.get() > 0 ? assignment.shard : -1;
+        }
+        final int[] result = balance(loads, fixed, this.shards.length);
+        for (int i = 0; i < result.length; i++) {
+            final Assignment assignment = list.get(i);
+            if (assignment.shard != result[i]) {
+                this.shards[assignment.shard].devices.decrementAndGet();
+                this.shards[result[i]].devices.incrementAndGet();
+                assignment.shard = result[i];
+            }
+        }
+    }
+
+    /**
+     * Distributes devices over shards by assigning the movable devices in
+     * descending order of load to the currently least loaded shard. Every
+     * device weighs at least 1 so idle devices are spread by count.
+     *
+     * @param loads  The load of each device.
+     * @param fixed  The shard of each device which can't be moved or -1 if
+     *               the device can be moved.
+     * @param shards The number of shards.
+     * @return The shard of each device.
+     */
+    static int[] balance(final long[] loads, final int[] fixed, final int shards) {
+        final long[] shardLoads = new long[shards];
+        final int[] result = new int[loads.length];
+        final List<Integer> movable = new ArrayList<>();
+        for (int i = 0; i < loads.length; i++) {
+            if (fixed[i] >= 0) {
+                result[i] = fixed[i];
+                shardLoads[fixed[i]] += Math.max(1, loads[i]);
+            } else {
+                movable.add(i);
+            }
+        }
+        movable.sort((a, b) -> Long.compare(loads[b], loads[a]));
+        for (final int device : movable) {
+            int target = 0;
+            for (int shard = 1; shard < shards; shard++) {
+                if (shardLoads[shard] < shardLoads[target]) {
+                    target = shard;
+                }
+            }
+            result[device] = target;
+            shardLoads[target] += Math.max(1, loads[device]);
+        }
+        return result;
+    }
+
+    /**
+     * Deregisters the hotplug callback, stops all event loops and exits all
+     * contexts. All device handles must be closed before.
+     */
+    @Override
+    public void close() {
+        if (this.hotplugHandle != null) {
+            LibUsb.hotplugDeregisterCallback(this.shards[0].context, this.hotplugHandle);
+        }
+        shutdown();
+    }
+
+    /**
+     * Stops all event loops and exits all initialized contexts.
+     */
+    private void shutdown() {
+        for (final Shard shard : this.shards) {
+            if (shard != null) {
+                shard.eventLoop.close();
+                LibUsb.exit(shard.context);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sharded contexts with %d shards and %d devices",
+                             this.shards.length, this.assignments.size());
+    }
+
+    /**
+     * The assignment of a device to a shard.
+     */
+    private static final class Assignment {
+
+        /**
+         * The device location.
+         */
+        private final String location;
+
+        /**
+         * The shard index. Only changed while holding the lock of the
+         * sharded contexts.
+         */
+        private volatile int shard;
+
+        /**
+         * The number of open handles of the device.
+         */
+        private final AtomicInteger openHandles = new AtomicInteger();
+
+        /**
+         * The transfers submitted since the last rebalancing.
+         */
+        private final LongAdder transfers = new LongAdder();
+
+        /**
+         * Set when the device left while handles were still open.
+         */
+        private volatile boolean left;
+
+        /**
+         * Constructs a new assignment.
+         *
+         * @param location The device location.
+         * @param shard    The shard index.
+         */
+        Assignment(final String location, final int shard) {
+            this.location = location;
+            this.shard = shard;
+        }
+    }
+
+    /**
+     * A context with its own event thread and load counters.
+     */
+    public static final class Shard {
+
+        /**
+         * The shard index.
+         */
+        private final int index;
+
+        /**
+         * The context of the shard.
+         */
+        private final Context context;
+
+        /**
+         * The event loop of the shard.
+         */
+        private final EventLoop eventLoop;
+
+        /**
+         * The number of devices assigned to the shard.
+         */
+        private final AtomicInteger devices = new AtomicInteger();
+
+        /**
+         * The number of open device handles.
+         */
+        private final AtomicInteger openHandles = new AtomicInteger();
+
+        /**
+         * The number of submitted transfers.
+         */
+        private final LongAdder transfers = new LongAdder();
+
+        /**
+         * The number of submitted bytes.
+         */
+        private final LongAdder bytes = new LongAdder();
+
+        /**
+         * The number of failed submissions.
+         */
+        private final LongAdder failures = new LongAdder();
+
+        /**
+         * Constructs a new shard.
+         *
+         * @param index     The shard index.
+         * @param context   The context.
+         * @param eventLoop The event loop.
+         */
+        Shard(final int index, final Context context, final EventLoop eventLoop) {
+            this.index = index;
+            this.context = context;
+            this.eventLoop = eventLoop;
+        }
+
+        /**
+         * Returns the shard index.
+         *
+         * @return The index.
+         */
+        public int getIndex() {
+            return this.index;
+        }
+
+        /**
+         * Returns the context of the shard.
+         *
+         * @return The context.
+         */
+        public Context getContext() {
+            return this.context;
+        }
+
+        /**
+         * Returns the event loop of the shard. Tasks executed on it run on
+         * the same thread as the transfer callbacks of its devices.
+         *
+         * @return The event loop.
+         */
+        public EventLoop getEventLoop() {
+            return this.eventLoop;
+        }
+
+        /**
+         * Returns the number of devices assigned to the shard.
+         *
+         * @return The number of devices.
+         */
+        public int getDevices() {
+            return this.devices.get();
+        }
+
+        /**
+         * Returns the number of open device handles.
+         *
+         * @return The number of open handles.
+         */
+        public int getOpenHandles() {
+            return this.openHandles.get();
+        }
+
+        /**
+         * Returns the total number of transfers submitted through the shard.
+         *
+         * @return The number of transfers.
+         */
+        public long getTransfers() {
+            return this.transfers.sum();
+        }
+
+        /**
+         * Returns the total number of bytes submitted through the shard.
+         *
+         * @return The number of bytes.
+         */
+        public long getBytes() {
+            return this.bytes.sum();
+        }
+
+        /**
+         * Returns the number of failed transfer submissions.
+         *
+         * @return The number of failures.
+         */
+        public long getFailures() {
+            return this.failures.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("shard %d with %d devices, %d transfers, %d bytes",
+                                 this.index, getDevices(), getTransfers(), getBytes());
+        }
+    }
+}
@@ -29,7 +29,7 @@ import lombok.EqualsAndHashCode;
  * @author Klaus Reimer (k@ailis.de)
  */
 @EqualsAndHashCode(doNotUseGetters = true)
-public final class SsEndpointCompanionDescriptor {
+public final class SsEndpointCompanionDescriptor implements AutoCloseable {
 
     /**
      * The native pointer to the descriptor structure.
@@ -55,6 +55,20 @@ public final class SsEndpointCompanionDescriptor {
         return this.ssEndpointCompanionDescriptorPointer;
     }
 
+    /**
+     * Frees the descriptor with
+     * {@link LibUsb#freeSsEndpointCompanionDescriptor(SsEndpointCompanionDescriptor)}.
+     * Does nothing if the descriptor was never filled or is already freed.
+     */
+    @Override
+    public void close() {
+        if (this.ssEndpointCompanionDescriptorPointer != 0) {
+            NativeResources.closed(this.ssEndpointCompanionDescriptorPointer);
+            LibUsb.freeSsEndpointCompanionDescriptor(this);
+            this.ssEndpointCompanionDescriptorPointer = 0;
+        }
+    }
+
     /**
      * Returns the size of this descriptor (in bytes).
      *
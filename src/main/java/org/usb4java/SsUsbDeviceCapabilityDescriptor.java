@@ -30,7 +30,7 @@ import lombok.EqualsAndHashCode;
  * @author Klaus Reimer (k@ailis.de)
  */
 @EqualsAndHashCode(doNotUseGetters = true)
-public final class SsUsbDeviceCapabilityDescriptor {
+public final class SsUsbDeviceCapabilityDescriptor implements AutoCloseable {
 
     /**
      * The native pointer to the descriptor structure.
@@ -57,6 +57,20 @@ public final class SsUsbDeviceCapabilityDescriptor {
         return this.ssUsbDeviceCapabilityDescriptorPointer;
     }
 
+    /**
+     * Frees the descriptor with
+     * {@link LibUsb#freeSsUsbDeviceCapabilityDescriptor(SsUsbDeviceCapabilityDescriptor)}.
+     * Does nothing if the descriptor was never filled or is already freed.
+     */
+    @Override
+    public void close() {
+        if (this.ssUsbDeviceCapabilityDescriptorPointer != 0) {
+            NativeResources.closed(this.ssUsbDeviceCapabilityDescriptorPointer);
+            LibUsb.freeSsUsbDeviceCapabilityDescriptor(this);
+            this.ssUsbDeviceCapabilityDescriptorPointer = 0;
+        }
+    }
+
     /**
      * Returns the size of this descriptor (in bytes).
      *
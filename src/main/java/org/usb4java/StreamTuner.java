@@ -0,0 +1,445 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Tunes the transfer size and depth of a streaming bulk IN reader at run
+ * time.
+ * <p>
+ * The tuner starts from a baseline derived from the device speed and the
+ * maximum packet size: each transfer holds about one millisecond of data at
+ * the nominal bus rate, and enough transfers are kept in flight to cover
+ * four milliseconds. It then measures the throughput in windows of a
+ * quarter second and probes one change at a time: doubling the depth when
+ * the pipeline ran dry (no transfer in flight when one completed, which
+ * leaves the bus idle), otherwise doubling the transfer size as long as
+ * most transfers come back full. A probe is kept when it improved the
+ * throughput by at least five percent and reverted otherwise, after which
+ * the tuner settles. The memory of all transfer buffers never exceeds the
+ * configured bound.
+ * <p>
+ * The chosen settings are available through {@link #getTransferSize()} and
+ * {@link #getDepth()} and in {@link #toString()}, so they can be measured
+ * once and then pinned in production with the fixed-size constructors of
+ * {@link EndpointInputStream}. A tuner controls a single stream.
+ */
+public final class StreamTuner {
+
+    /**
+     * The maximum transfer size.
+     */
+    private static final int MAX_TRANSFER_SIZE = 1024 * 1024;
+
+    /**
+     * The maximum number of transfers in flight.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * The minimum number of transfers in flight.
+     */
+    private static final int MIN_DEPTH = 2;
+
+    /**
+     * The time in flight covered by the baseline depth in milliseconds.
+     */
+    private static final int BASELINE_MILLIS = 4;
+
+    /**
+     * The minimum duration of a measurement window.
+     */
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * The relative throughput gain required to keep a probe.
+     */
+    private static final double MIN_GAIN = 0.05;
+
+    /**
+     * The clock in nanoseconds.
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The maximum memory of all transfer buffers in bytes.
+     */
+    private final long maxMemory;
+
+    /**
+     * The maximum packet size of the endpoint.
+     */
+    private final int maxPacketSize;
+
+    /**
+     * The tuned pipeline or null if not attached yet.
+     */
+    private EndpointPipeline pipeline;
+
+    /**
+     * The current transfer size.
+     */
+    private int transferSize;
+
+    /**
+     * The current depth.
+     */
+    private int depth;
+
+    /**
+     * The transfer size before the running probe.
+     */
+    private int previousTransferSize;
+
+    /**
+     * The depth before the running probe.
+     */
+    private int previousDepth;
+
+    /**
+     * Set while a probe is measured.
+     */
+    private boolean probing;
+
+    /**
+     * Set when no further probes are made.
+     */
+    private boolean settled;
+
+    /**
+     * The throughput of the accepted settings in bytes per second.
+     */
+    private double bestThroughput;
+
+    /**
+     * The throughput of the last window in bytes per second.
+     */
+    private double throughput;
+
+    /**
+     * The largest gap between two completions in the last window.
+     */
+    private long maxGap;
+
+    /**
+     * The number of completions to ignore after a change.
+     */
+    private int warmup;
+
+    /**
+     * Set while a measurement window is running.
+     */
+    private boolean windowRunning;
+
+    /**
+     * The start of the current window.
+     */
+    private long windowStart;
+
+    /**
+     * The time of the last completion.
+     */
+    private long lastCompletion;
+
+    /**
+     * Set when a completion was seen.
+     */
+    private boolean completedBefore;
+
+    /**
+     * The bytes received in the current window.
+     */
+    private long windowBytes;
+
+    /**
+     * The completions in the current window.
+     */
+    private int windowCount;
+
+    /**
+     * The completions of full transfers in the current window.
+     */
+    private int windowFull;
+
+    /**
+     * The completions in the current window which left nothing in flight.
+     */
+    private int windowDrained;
+
+    /**
+     * The largest gap between two completions in the current window.
+     */
+    private long windowMaxGap;
+
+    /**
+     * Constructs a tuner.
+     *
+     * @param speed         The device speed as returned by
+     *                      {@link LibUsb#getDeviceSpeed(Device)}.
+     * @param maxPacketSize The maximum packet size of the endpoint as
+     *                      returned by
+     *                      {@link LibUsb#getMaxPacketSize(Device, byte)}.
+     * @param maxMemory     The maximum memory of all transfer buffers in
+     *                      bytes.
+     */
+    public StreamTuner(final int speed, final int maxPacketSize, final long maxMemory) {
+        this(speed, maxPacketSize, maxMemory, System::nanoTime);
+    }
+
+    /**
+     * Constructs a tuner using the specified clock.
+     *
+     * @param speed         The device speed.
+     * @param maxPacketSize The maximum packet size of the endpoint.
+     * @param maxMemory     The maximum memory of all transfer buffers.
+     * @param clock         The clock in nanoseconds.
+     */
+    StreamTuner(final int speed, final int maxPacketSize, final long maxMemory, final LongSupplier clock) {
+        if (maxPacketSize <= 0) {
+            throw new IllegalArgumentException("maxPacketSize must be positive");
+        }
+        if (maxMemory < (long) MIN_DEPTH * maxPacketSize) {
+            throw new IllegalArgumentException("maxMemory too small for two packets");
+        }
+        this.clock = clock;
+        this.maxMemory = maxMemory;
+        this.maxPacketSize = maxPacketSize;
+        final int bytesPerMilli = bytesPerMilli(speed);
+        int size = Math.min(roundUp(Math.max(maxPacketSize, bytesPerMilli)), roundDown(MAX_TRANSFER_SIZE));
+        int count = Math.max(MIN_DEPTH, Math.min(MAX_DEPTH,
+            (int) Math.ceil((double) BASELINE_MILLIS * bytesPerMilli / size)));
+        count = (int) Math.max(MIN_DEPTH, Math.min(count, maxMemory / size));
+        if ((long) size * count > maxMemory) {
+            size = roundDown((int) Math.min(MAX_TRANSFER_SIZE, maxMemory / count));
+        }
+        this.transferSize = size;
+        this.depth = count;
+    }
+
+    /**
+     * Returns the nominal bulk data rate of a device speed.
+     *
+     * @param speed The device speed.
+     * @return The bytes per millisecond.
+     */
+    static int bytesPerMilli(final int speed) {
+        switch (speed) {
+            case LibUsb.SPEED_LOW:
+                return 187;
+            case LibUsb.SPEED_FULL:
+                // 19 packets of 64 bytes per frame
+                return 19 * 64;
+            case LibUsb.SPEED_SUPER:
+                return 400 * 1024;
+            case LibUsb.SPEED_SUPER_PLUS:
+                return 800 * 1024;
+            default:
+                // 13 packets of 512 bytes per microframe
+                return 13 * 512 * 8;
+        }
+    }
+
+    /**
+     * Rounds a size up to a multiple of the maximum packet size.
+     *
+     * @param size The size.
+     * @return The rounded size.
+     */
+    private int roundUp(final int size) {
+        return (size + this.maxPacketSize - 1) / this.maxPacketSize * this.maxPacketSize;
+    }
+
+    /**
+     * Rounds a size down to a multiple of the maximum packet size, but at
+     * least one packet.
+     *
+     * @param size The size.
+     * @return The rounded size.
+     */
+    private int roundDown(final int size) {
+        return Math.max(this.maxPacketSize, size / this.maxPacketSize * this.maxPacketSize);
+    }
+
+    /**
+     * Attaches the tuner to the pipeline of a stream and configures the
+     * current settings.
+     *
+     * @param pipeline The IN pipeline.
+     */
+    synchronized void attach(final EndpointPipeline pipeline) {
+        if (this.pipeline != null) {
+            throw new IllegalStateException("Tuner is already attached to a stream");
+        }
+        this.pipeline = pipeline;
+        this.warmup = this.depth;
+        pipeline.setObserver(this::completed);
+    }
+
+    /**
+     * Returns the current transfer size.
+     *
+     * @return The transfer size in bytes.
+     */
+    public synchronized int getTransferSize() {
+        return this.transferSize;
+    }
+
+    /**
+     * Returns the current number of transfers in flight.
+     *
+     * @return The depth.
+     */
+    public synchronized int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Returns the throughput measured in the last window.
+     *
+     * @return The throughput in bytes per second, 0 before the first window
+     * completed.
+     */
+    public synchronized double getThroughput() {
+        return this.throughput;
+    }
+
+    /**
+     * Returns the largest gap between two completions in the last window.
+     *
+     * @return The gap in nanoseconds.
+     */
+    public synchronized long getMaxCompletionGap() {
+        return this.maxGap;
+    }
+
+    /**
+     * Checks if the tuner settled on its current settings.
+     *
+     * @return True if no further changes are probed.
+     */
+    public synchronized boolean isSettled() {
+        return this.settled;
+    }
+
+    /**
+     * Restarts probing from the current settings, for example after the
+     * load of the host changed.
+     */
+    public synchronized void retune() {
+        this.settled = false;
+        this.probing = false;
+        this.windowRunning = false;
+    }
+
+    /**
+     * Handles an IN completion.
+     *
+     * @param actualLength The number of received bytes.
+     * @param inFlight     The number of transfers still in flight.
+     */
+    synchronized void completed(final int actualLength, final int inFlight) {
+        final long now = this.clock.getAsLong();
+        if (this.warmup > 0) {
+            this.warmup--;
+            this.lastCompletion = now;
+            this.completedBefore = true;
+            return;
+        }
+        if (!this.windowRunning) {
+            this.windowRunning = true;
+            this.windowStart = this.completedBefore ? this.lastCompletion : now;
+            this.windowBytes = 0;
+            this.windowCount = 0;
+            this.windowFull = 0;
+            this.windowDrained = 0;
+            this.windowMaxGap = 0;
+        }
+        if (this.completedBefore) {
+            this.windowMaxGap = Math.max(this.windowMaxGap, now - this.lastCompletion);
+        }
+        this.lastCompletion = now;
+        this.completedBefore = true;
+        this.windowBytes += actualLength;
+        this.windowCount++;
+        if (actualLength >= this.transferSize) {
+            this.windowFull++;
+        }
+        if (inFlight == 0) {
+            this.windowDrained++;
+        }
+        final long elapsed = now - this.windowStart;
+        if (elapsed >= WINDOW_NANOS && this.windowCount >= this.depth) {
+            endWindow(elapsed);
+        }
+    }
+
+    /**
+     * Evaluates a completed measurement window.
+     *
+     * @param elapsed The duration of the window in nanoseconds.
+     */
+    private void endWindow(final long elapsed) {
+        this.windowRunning = false;
+        this.throughput = this.windowBytes * 1e9 / elapsed;
+        this.maxGap = this.windowMaxGap;
+        if (this.settled) {
+            return;
+        }
+        if (this.probing) {
+            this.probing = false;
+            if (this.throughput < this.bestThroughput * (1 + MIN_GAIN)) {
+                apply(this.previousTransferSize, this.previousDepth);
+                this.settled = true;
+                return;
+            }
+        }
+        this.bestThroughput = this.throughput;
+        probe();
+    }
+
+    /**
+     * Starts the next probe or settles if no change is possible.
+     */
+    private void probe() {
+        int size = this.transferSize;
+        int count = this.depth;
+        if (this.windowDrained > 0 && count < MAX_DEPTH && (long) size * count * 2 <= this.maxMemory) {
+            count *= 2;
+        } else if (this.windowFull * 2 >= this.windowCount && size * 2 <= MAX_TRANSFER_SIZE
+            && (long) size * 2 * count <= this.maxMemory) {
+            size *= 2;
+        } else {
+            this.settled = true;
+            return;
+        }
+        this.previousTransferSize = this.transferSize;
+        this.previousDepth = this.depth;
+        this.probing = true;
+        apply(size, count);
+    }
+
+    /**
+     * Applies settings to the pipeline.
+     *
+     * @param size  The transfer size.
+     * @param count The depth.
+     */
+    private void apply(final int size, final int count) {
+        this.transferSize = size;
+        this.depth = count;
+        // The old transfers are replaced as they are consumed
+        this.warmup = Math.max(this.depth, this.previousDepth);
+        this.pipeline.reconfigure(size, count);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("stream tuner (transfer size %d, depth %d, %.0f bytes/s%s)", this.transferSize,
+                             this.depth, this.throughput, this.settled ? ", settled" : "");
+    }
+}
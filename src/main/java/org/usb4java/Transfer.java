@@ -30,7 +30,7 @@ import java.nio.ByteBuffer;
  *
  * @author Klaus Reimer (k@ailis.de)
  */
-public final class Transfer
+public final class Transfer implements AutoCloseable
 {
     /** The native pointer to the transfer structure. */
     private long transferPointer;
@@ -61,6 +61,23 @@ public final class Transfer
         return this.transferPointer;
     }
 
+    /**
+     * Frees the transfer with {@link LibUsb#freeTransfer(Transfer)}. The
+     * transfer must not be in flight and must not be freed by libusb
+     * because of {@link LibUsb#TRANSFER_FREE_TRANSFER}. Does nothing if the
+     * transfer is already freed.
+     */
+    @Override
+    public void close()
+    {
+        if (this.transferPointer != 0)
+        {
+            NativeResources.closed(this.transferPointer);
+            LibUsb.freeTransfer(this);
+            this.transferPointer = 0;
+        }
+    }
+
     /**
      * Returns the handle of the device that this transfer will be submitted to.
      *
@@ -283,6 +300,18 @@ public final class Transfer
      */
     native void setBufferNative(final ByteBuffer buffer);
 
+    /**
+     * Updates the buffer reference after the native buffer pointer was
+     * written directly by {@link TransferView}.
+     *
+     * @param buffer
+     *            The data buffer now referenced by the native structure.
+     */
+    void setBufferReference(final ByteBuffer buffer)
+    {
+        this.transferBuffer = buffer;
+    }
+
     /**
      * Returns the number of isochronous packets. Only used for I/O with
      * isochronous endpoints.
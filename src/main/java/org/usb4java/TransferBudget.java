@@ -0,0 +1,508 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+
+/**
+ * Admission controller limiting the bytes of all submitted transfers.
+ * <p>
+ * On Linux usbfs limits the buffer memory of all transfers of the host to
+ * usbfs_memory_mb (16 MB by default) and fails submissions above it with
+ * {@link LibUsb#ERROR_NO_MEM}. When several streaming devices share the
+ * host this happens at seemingly random places. Submitting all transfers of
+ * a context through one budget below the limit turns this into a
+ * well-defined decision made before libusb is called, according to the
+ * {@link Policy}: the submission either waits for memory, is queued and
+ * submitted later, or is rejected right away.
+ * <p>
+ * The budget installs its own callback on each admitted transfer and
+ * restores the original callback before calling it on completion, so
+ * transfers are filled and handled as usual. Queued transfers which fail to
+ * submit later are reported to the {@link ErrorHandler}. The current usage
+ * and its high-water mark help to size the pipelines of all devices.
+ */
+public final class TransferBudget {
+
+    /**
+     * What to do with a transfer which does not fit into the budget.
+     */
+    public enum Policy {
+        /**
+         * Wait until enough transfers completed. Requires the
+         * {@link EventLoop} handling the completions: its event thread can't
+         * wait, because only it releases memory, so submissions on it
+         * return {@link LibUsb#ERROR_BUSY} instead.
+         */
+        BLOCK,
+
+        /** Queue the transfer and submit it when enough transfers completed. */
+        QUEUE,
+
+        /** Return {@link LibUsb#ERROR_NO_MEM} without calling libusb. */
+        REJECT
+    }
+
+    /**
+     * Receives queued transfers which could not be submitted.
+     */
+    public interface ErrorHandler {
+        /**
+         * Called when libusb rejected a queued transfer. The callback of the
+         * transfer is restored but not called.
+         *
+         * @param transfer The transfer.
+         * @param error    The error code returned by libusb.
+         */
+        void submitFailed(Transfer transfer, int error);
+    }
+
+    /**
+     * The transfer operations. Replaceable for tests.
+     */
+    interface Backend {
+        /**
+         * Submits a transfer.
+         *
+         * @param transfer The transfer.
+         * @return 0 on success or an error code.
+         */
+        int submit(Transfer transfer);
+
+        /**
+         * Returns the length of a transfer.
+         *
+         * @param transfer The transfer.
+         * @return The length in bytes.
+         */
+        int length(Transfer transfer);
+
+        /**
+         * Returns the callback of a transfer.
+         *
+         * @param transfer The transfer.
+         * @return The callback.
+         */
+        TransferCallback callback(Transfer transfer);
+
+        /**
+         * Sets the callback of a transfer.
+         *
+         * @param transfer The transfer.
+         * @param callback The callback.
+         */
+        void setCallback(Transfer transfer, TransferCallback callback);
+    }
+
+    /**
+     * The backend calling libusb.
+     */
+    static final Backend LIBUSB = new Backend() {
+        @Override
+        public int submit(final Transfer transfer) {
+            return LibUsb.submitTransfer(transfer);
+        }
+
+        @Override
+        public int length(final Transfer transfer) {
+            return transfer.length();
+        }
+
+        @Override
+        public TransferCallback callback(final Transfer transfer) {
+            return transfer.callback();
+        }
+
+        @Override
+        public void setCallback(final Transfer transfer, final TransferCallback callback) {
+            transfer.setCallback(callback);
+        }
+    };
+
+    /**
+     * The usbfs memory limit parameter on Linux.
+     */
+    private static final Path USBFS_MEMORY_MB = Paths.get("/sys/module/usbcore/parameters/usbfs_memory_mb");
+
+    /**
+     * The backend.
+     */
+    private final Backend backend;
+
+    /**
+     * The budget in bytes.
+     */
+    private final long budget;
+
+    /**
+     * The policy for transfers over the budget.
+     */
+    private final Policy policy;
+
+    /**
+     * The error handler for queued transfers.
+     */
+    private final ErrorHandler errorHandler;
+
+    /**
+     * The event loop handling the completions or null if unknown. Never
+     * null with {@link Policy#BLOCK}.
+     */
+    private final EventLoop eventLoop;
+
+    /**
+     * The queued transfers in submission order. Guarded by this.
+     */
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+
+    /**
+     * The bytes of the submitted transfers. Guarded by this.
+     */
+    private long used;
+
+    /**
+     * The highest value of {@link #used}. Guarded by this.
+     */
+    private long highWaterMark;
+
+    /**
+     * The bytes of the queued transfers. Guarded by this.
+     */
+    private long queuedBytes;
+
+    /**
+     * The number of transfers which had to wait, were queued or were
+     * rejected. Guarded by this.
+     */
+    private long overflows;
+
+    /**
+     * Constructs a budget.
+     *
+     * @param budget       The maximum number of bytes of all submitted
+     *                     transfers. A single transfer larger than this is
+     *                     still admitted when nothing else is in flight.
+     * @param policy       The policy for transfers over the budget. Not
+     *                     {@link Policy#BLOCK}, which needs the event loop.
+     * @param errorHandler Receives queued transfers failing to submit. Only
+     *                     needed for {@link Policy#QUEUE}, may be null
+     *                     otherwise.
+     */
+    public TransferBudget(final long budget, final Policy policy, final ErrorHandler errorHandler) {
+        this(LIBUSB, budget, policy, errorHandler, null);
+    }
+
+    /**
+     * Constructs a budget for transfers completed by an event loop.
+     *
+     * @param budget       The maximum number of bytes of all submitted
+     *                     transfers. A single transfer larger than this is
+     *                     still admitted when nothing else is in flight.
+     * @param policy       The policy for transfers over the budget.
+     * @param errorHandler Receives queued transfers failing to submit. Only
+     *                     needed for {@link Policy#QUEUE}, may be null
+     *                     otherwise.
+     * @param eventLoop    The event loop handling the completions. Required
+     *                     for {@link Policy#BLOCK}, so submissions on its
+     *                     event thread fail instead of waiting forever.
+     */
+    public TransferBudget(final long budget, final Policy policy, final ErrorHandler errorHandler,
+                          final EventLoop eventLoop) {
+        this(LIBUSB, budget, policy, errorHandler, eventLoop);
+    }
+
+    /**
+     * Constructs a budget using the specified backend.
+     *
+     * @param backend      The backend.
+     * @param budget       The budget in bytes.
+     * @param policy       The policy for transfers over the budget.
+     * @param errorHandler The error handler.
+     * @param eventLoop    The event loop or null if unknown. Required for
+     *                     {@link Policy#BLOCK}.
+     */
+    TransferBudget(final Backend backend, final long budget, final Policy policy,
+                   final ErrorHandler errorHandler, final EventLoop eventLoop) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        if (policy == Policy.QUEUE && errorHandler == null) {
+            throw new IllegalArgumentException("errorHandler is required for queueing");
+        }
+        if (policy == Policy.BLOCK && eventLoop == null) {
+            throw new IllegalArgumentException("eventLoop is required for blocking");
+        }
+        this.backend = backend;
+        this.budget = budget;
+        this.policy = policy;
+        this.errorHandler = errorHandler;
+        this.eventLoop = eventLoop;
+    }
+
+    /**
+     * Reads the usbfs memory limit of the host.
+     *
+     * @return The limit in bytes, or 0 if there is no limit or it could not
+     * be read, for example on other systems than Linux.
+     */
+    public static long readUsbfsLimit() {
+        try {
+            final String value = new String(Files.readAllBytes(USBFS_MEMORY_MB), StandardCharsets.US_ASCII);
+            return Math.max(0, Long.parseLong(value.trim())) * 1024 * 1024;
+        } catch (final IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the budget.
+     *
+     * @return The budget in bytes.
+     */
+    public long getBudget() {
+        return this.budget;
+    }
+
+    /**
+     * Returns the policy for transfers over the budget.
+     *
+     * @return The policy.
+     */
+    public Policy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Submits a transfer if it fits into the budget, otherwise applies the
+     * policy. The transfer must be completely filled in.
+     *
+     * @param transfer The transfer.
+     * @return {@link LibUsb#SUCCESS} if the transfer was submitted or
+     * queued, {@link LibUsb#ERROR_NO_MEM} if it was rejected,
+     * {@link LibUsb#ERROR_BUSY} if it would have to wait on the event
+     * thread, {@link LibUsb#ERROR_INTERRUPTED} if the thread was interrupted
+     * while waiting, or the error code returned by libusb.
+     */
+    public int submit(final Transfer transfer) {
+        final Entry entry = new Entry(transfer, this.backend.length(transfer), this.backend.callback(transfer));
+        synchronized (this) {
+            if (!fits(entry.length)) {
+                this.overflows++;
+                switch (this.policy) {
+                    case REJECT:
+                        return LibUsb.ERROR_NO_MEM;
+                    case QUEUE:
+                        this.backend.setCallback(transfer, entry);
+                        this.queue.add(entry);
+                        this.queuedBytes += entry.length;
+                        return LibUsb.SUCCESS;
+                    default:
+                        if (this.eventLoop.isEventThread()) {
+                            // Only this thread releases memory
+                            return LibUsb.ERROR_BUSY;
+                        }
+                        while (!fits(entry.length)) {
+                            try {
+                                wait();
+                            } catch (final InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return LibUsb.ERROR_INTERRUPTED;
+                            }
+                        }
+                }
+            }
+            acquire(entry.length);
+        }
+        this.backend.setCallback(transfer, entry);
+        final int result = this.backend.submit(transfer);
+        if (result != LibUsb.SUCCESS) {
+            this.backend.setCallback(transfer, entry.callback);
+            release(entry.length);
+        }
+        return result;
+    }
+
+    /**
+     * Removes a transfer which is still queued.
+     *
+     * @param transfer The transfer.
+     * @return True if the transfer was removed and will not be submitted,
+     * false if it is not queued.
+     */
+    public boolean remove(final Transfer transfer) {
+        Entry removed = null;
+        synchronized (this) {
+            for (final Entry entry : this.queue) {
+                if (entry.transfer.equals(transfer)) {
+                    removed = entry;
+                    break;
+                }
+            }
+            if (removed == null) {
+                return false;
+            }
+            this.queue.remove(removed);
+            this.queuedBytes -= removed.length;
+        }
+        this.backend.setCallback(transfer, removed.callback);
+        return true;
+    }
+
+    /**
+     * Checks if a transfer fits into the budget. Queued transfers are served
+     * first so large transfers are not overtaken forever by small ones.
+     * Must be called while holding the lock.
+     *
+     * @param length The length of the transfer.
+     * @return True if the transfer may be submitted.
+     */
+    private boolean fits(final long length) {
+        return this.queue.isEmpty() && (this.used == 0 || this.used + length <= this.budget);
+    }
+
+    /**
+     * Accounts the bytes of an admitted transfer. Must be called while
+     * holding the lock.
+     *
+     * @param length The length of the transfer.
+     */
+    private void acquire(final long length) {
+        this.used += length;
+        if (this.used > this.highWaterMark) {
+            this.highWaterMark = this.used;
+        }
+    }
+
+    /**
+     * Releases the bytes of a completed or failed transfer and submits queued
+     * transfers which fit now.
+     *
+     * @param length The length of the transfer.
+     */
+    private void release(final long length) {
+        synchronized (this) {
+            this.used -= length;
+            notifyAll();
+        }
+        while (true) {
+            final Entry entry;
+            synchronized (this) {
+                entry = this.queue.peek();
+                if (entry == null || (this.used > 0 && this.used + entry.length > this.budget)) {
+                    return;
+                }
+                this.queue.poll();
+                this.queuedBytes -= entry.length;
+                acquire(entry.length);
+            }
+            final int result = this.backend.submit(entry.transfer);
+            if (result != LibUsb.SUCCESS) {
+                synchronized (this) {
+                    this.used -= entry.length;
+                    notifyAll();
+                }
+                this.backend.setCallback(entry.transfer, entry.callback);
+                this.errorHandler.submitFailed(entry.transfer, result);
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes of all submitted transfers.
+     *
+     * @return The used bytes.
+     */
+    public synchronized long getUsedBytes() {
+        return this.used;
+    }
+
+    /**
+     * Returns the highest number of bytes submitted at the same time.
+     *
+     * @return The high-water mark in bytes.
+     */
+    public synchronized long getHighWaterMark() {
+        return this.highWaterMark;
+    }
+
+    /**
+     * Resets the high-water mark to the current usage.
+     */
+    public synchronized void resetHighWaterMark() {
+        this.highWaterMark = this.used;
+    }
+
+    /**
+     * Returns the bytes of the queued transfers.
+     *
+     * @return The queued bytes.
+     */
+    public synchronized long getQueuedBytes() {
+        return this.queuedBytes;
+    }
+
+    /**
+     * Returns how many transfers did not fit into the budget right away and
+     * had to wait, were queued or were rejected.
+     *
+     * @return The number of overflows.
+     */
+    public synchronized long getOverflowCount() {
+        return this.overflows;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("transfer budget of %d bytes (%d used, %d peak, %d queued, %s)", this.budget,
+                             this.used, this.highWaterMark, this.queuedBytes, this.policy);
+    }
+
+    /**
+     * An admitted or queued transfer.
+     */
+    private final class Entry implements TransferCallback {
+
+        /**
+         * The transfer.
+         */
+        final Transfer transfer;
+
+        /**
+         * The length in bytes.
+         */
+        final int length;
+
+        /**
+         * The original callback of the transfer.
+         */
+        final TransferCallback callback;
+
+        /**
+         * Constructs a new entry.
+         *
+         * @param transfer The transfer.
+         * @param length   The length in bytes.
+         * @param callback The original callback.
+         */
+        Entry(final Transfer transfer, final int length, final TransferCallback callback) {
+            this.transfer = transfer;
+            this.length = length;
+            this.callback = callback;
+        }
+
+        @Override
+        public void processTransfer(final Transfer completed) {
+            TransferBudget.this.backend.setCallback(completed, this.callback);
+            TransferBudget.this.release(this.length);
+            this.callback.processTransfer(completed);
+        }
+    }
+}
@@ -0,0 +1,612 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * Java-side transfer timeouts based on a hashed timer wheel.
+ * <p>
+ * libusb keeps transfer timeouts in a sorted list and wakes up the event
+ * thread for every single one of them. With thousands of transfers in
+ * flight this costs CPU time and wakeups. Instead, transfers can be
+ * submitted with a libusb timeout of 0 while their deadline is tracked
+ * here: inserting and disarming a deadline is O(1), deadlines falling into
+ * the same tick share one wakeup and expired transfers are cancelled with
+ * {@link LibUsb#cancelTransfer(Transfer)}. Their callback then sees
+ * {@link LibUsb#TRANSFER_CANCELLED} and {@link Deadline#isExpired()} tells a
+ * timeout apart from other cancellations.
+ * <p>
+ * A {@link Deadline} can cover a single transfer or a group of transfers
+ * which all share the same deadline, for example all chunks of one large
+ * read. Remove transfers from their deadline (or cancel single deadlines)
+ * as soon as they complete, otherwise a resubmitted transfer could be
+ * cancelled by a stale deadline.
+ * <p>
+ * When created with an {@link EventLoop} the wheel is advanced by the event
+ * thread and the wakeups are merged with the libusb timeouts of the loop.
+ * Without an event loop the application must call {@link #expire()}
+ * regularly, for example from its own poller together with
+ * {@link PollfdEventSource}.
+ */
+public final class TransferDeadlines implements EventLoop.TimerSource, AutoCloseable {
+
+    /**
+     * The default tick duration in nanoseconds.
+     */
+    private static final long DEFAULT_TICK = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The default number of buckets.
+     */
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * The event loop advancing the wheel or null if advanced manually.
+     */
+    private final EventLoop eventLoop;
+
+    /**
+     * The function used to cancel expired transfers.
+     */
+    private final ToIntFunction<Transfer> canceller;
+
+    /**
+     * The tick duration in nanoseconds.
+     */
+    private final long tick;
+
+    /**
+     * The bit mask to convert a tick into a bucket index.
+     */
+    private final int mask;
+
+    /**
+     * The first deadline of each bucket. Only accessed by the thread
+     * advancing the wheel.
+     */
+    private final Deadline[] buckets;
+
+    /**
+     * The lowest tick of each bucket or {@link Long#MAX_VALUE} if empty.
+     * May be lower than the actual tick after a removal until the bucket is
+     * expired the next time. Only accessed by the thread advancing the wheel.
+     */
+    private final long[] bucketTicks;
+
+    /**
+     * Newly scheduled deadlines not yet inserted into the wheel.
+     */
+    private final ConcurrentLinkedQueue<Deadline> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Cancelled deadlines not yet removed from the wheel.
+     */
+    private final ConcurrentLinkedQueue<Deadline> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The start time of the wheel in {@link System#nanoTime()} units.
+     */
+    private final long startTime;
+
+    /**
+     * The next tick to process. Only accessed by the thread advancing the
+     * wheel.
+     */
+    private long currentTick;
+
+    /**
+     * The number of deadlines in the wheel including disarmed ones which
+     * are not removed yet. Only accessed by the thread advancing the wheel.
+     */
+    private int size;
+
+    /**
+     * The earliest tick with a deadline or {@link Long#MAX_VALUE} if the
+     * wheel is empty. Never later than the actual tick. Only accessed by the
+     * thread advancing the wheel.
+     */
+    private long nextTick = Long.MAX_VALUE;
+
+    /**
+     * Constructs a new timer wheel with a tick of 1 ms which is advanced by
+     * the specified event loop.
+     *
+     * @param eventLoop The event loop.
+     */
+    public TransferDeadlines(final EventLoop eventLoop) {
+        this(eventLoop, DEFAULT_TICK, TimeUnit.NANOSECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Constructs a new timer wheel which is advanced by the specified event
+     * loop.
+     *
+     * @param eventLoop The event loop or null to advance the wheel manually
+     *                  with {@link #expire()}.
+     * @param tick      The tick duration. Deadlines are rounded up to ticks.
+     * @param unit      The unit of the tick duration.
+     * @param wheelSize The number of buckets. Rounded up to a power of two.
+     */
+    public TransferDeadlines(final EventLoop eventLoop, final long tick, final TimeUnit unit,
+                             final int wheelSize) {
+        this(eventLoop, unit.toNanos(tick), wheelSize, System.nanoTime(), LibUsb::cancelTransfer);
+    }
+
+    /**
+     * Constructs a new timer wheel.
+     *
+     * @param eventLoop The event loop or null.
+     * @param tick      The tick duration in nanoseconds.
+     * @param wheelSize The number of buckets.
+     * @param startTime The start time in {@link System#nanoTime()} units.
+     * @param canceller The function used to cancel expired transfers.
+     */
+    TransferDeadlines(final EventLoop eventLoop, final long tick, final int wheelSize,
+                      final long startTime, final ToIntFunction<Transfer> canceller) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("tick must be positive");
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("invalid wheel size: " + wheelSize);
+        }
+        final int buckets = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.eventLoop = eventLoop;
+        this.canceller = canceller;
+        this.tick = tick;
+        this.mask = buckets - 1;
+        this.startTime = startTime;
+        this.buckets = new Deadline[buckets];
+        this.bucketTicks = new long[buckets];
+        Arrays.fill(this.bucketTicks, Long.MAX_VALUE);
+        if (eventLoop != null) {
+            eventLoop.addTimerSource(this);
+        }
+    }
+
+    /**
+     * Returns the number of wheel buckets.
+     *
+     * @return The number of buckets.
+     */
+    int getWheelSize() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Creates a deadline for a single transfer.
+     *
+     * @param transfer The transfer.
+     * @param timeout  The timeout, relative to now.
+     * @param unit     The timeout unit.
+     * @return The armed deadline.
+     */
+    public Deadline schedule(final Transfer transfer, final long timeout, final TimeUnit unit) {
+        // Add the transfer before arming so an immediate expiry cancels it
+        final Deadline deadline = new Deadline(this, System.nanoTime() + unit.toNanos(timeout));
+        deadline.add(transfer);
+        return arm(deadline);
+    }
+
+    /**
+     * Creates an empty deadline for a group of transfers. Add the transfers
+     * with {@link Deadline#add(Transfer)}.
+     *
+     * @param timeout The timeout, relative to now.
+     * @param unit    The timeout unit.
+     * @return The armed deadline.
+     */
+    public Deadline group(final long timeout, final TimeUnit unit) {
+        return schedule(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Creates an empty deadline expiring at the specified time.
+     *
+     * @param time The deadline in {@link System#nanoTime()} units.
+     * @return The armed deadline.
+     */
+    Deadline schedule(final long time) {
+        return arm(new Deadline(this, time));
+    }
+
+    /**
+     * Hands a new deadline over to the thread advancing the wheel.
+     *
+     * @param deadline The deadline to arm.
+     * @return The armed deadline.
+     */
+    private Deadline arm(final Deadline deadline) {
+        this.pending.offer(deadline);
+        if (this.eventLoop != null) {
+            this.eventLoop.wakeup(deadline.time);
+        }
+        return deadline;
+    }
+
+    /**
+     * Submits a transfer with a Java-side deadline. The libusb timeout of
+     * the transfer is set to 0. When the deadline expires while the transfer
+     * is submitted, the transfer is cancelled after the submission.
+     *
+     * @param transfer The filled transfer.
+     * @param timeout  The timeout, relative to now.
+     * @param unit     The timeout unit.
+     * @return The armed deadline. Cancel it when the transfer completes.
+     * @throws LibUsbException When the transfer could not be submitted.
+     */
+    public Deadline submit(final Transfer transfer, final long timeout, final TimeUnit unit) {
+        transfer.setTimeout(0);
+        final Deadline deadline = schedule(transfer, timeout, unit);
+        final int result = LibUsb.submitTransfer(transfer);
+        if (result != LibUsb.SUCCESS) {
+            deadline.cancel();
+            throw new LibUsbException("Unable to submit transfer", result);
+        }
+        if (deadline.isExpired()) {
+            // The wheel tried to cancel the transfer before it was submitted
+            this.canceller.applyAsInt(transfer);
+        }
+        return deadline;
+    }
+
+    /**
+     * Cancels all expired transfers. Only needed when the wheel is not
+     * advanced by an event loop. Must always be called from the same
+     * thread.
+     *
+     * @return The time in nanoseconds until this method must be called
+     * again, or -1 if no deadline is armed.
+     */
+    public long expire() {
+        final long now = System.nanoTime();
+        final long next = process(now);
+        return next == Long.MAX_VALUE ? -1 : Math.max(0, next - now);
+    }
+
+    @Override
+    public long process(final long now) {
+        final long targetTick = Math.floorDiv(now - this.startTime, this.tick);
+        Deadline deadline;
+        while ((deadline = this.cancelled.poll()) != null) {
+            unlink(deadline);
+        }
+
+        if (targetTick >= this.currentTick) {
+            if (targetTick >= this.nextTick) {
+                // A full rotation visits every bucket, so more iterations
+                // are never needed even after long sleeps
+                final long count = Math.min(targetTick - this.currentTick + 1, this.mask + 1);
+                for (long i = 0; i < count; i++) {
+                    expireBucket((int) ((this.currentTick + i) & this.mask), targetTick);
+                }
+            }
+            this.currentTick = targetTick + 1;
+            if (this.nextTick < this.currentTick) {
+                this.nextTick = findNextTick();
+            }
+        }
+
+        while ((deadline = this.pending.poll()) != null) {
+            insert(deadline, targetTick);
+        }
+
+        return this.nextTick == Long.MAX_VALUE ? Long.MAX_VALUE : this.startTime + this.nextTick * this.tick;
+    }
+
+    @Override
+    public boolean hasPending() {
+        return !this.pending.isEmpty();
+    }
+
+    /**
+     * Inserts a deadline into the wheel or expires it right away when it is
+     * already due.
+     *
+     * @param deadline   The deadline to insert.
+     * @param targetTick The current tick.
+     */
+    private void insert(final Deadline deadline, final long targetTick) {
+        if (deadline.state.get() != Deadline.ARMED) {
+            return;
+        }
+        // Round up so a deadline never fires early
+        deadline.tick = -Math.floorDiv(-(deadline.time - this.startTime), this.tick);
+        if (deadline.tick <= targetTick) {
+            deadline.expire(this.canceller);
+            return;
+        }
+        final int index = (int) (deadline.tick & this.mask);
+        deadline.bucket = index;
+        deadline.next = this.buckets[index];
+        if (deadline.next != null) {
+            deadline.next.previous = deadline;
+        }
+        this.buckets[index] = deadline;
+        this.bucketTicks[index] = Math.min(this.bucketTicks[index], deadline.tick);
+        this.nextTick = Math.min(this.nextTick, deadline.tick);
+        this.size++;
+    }
+
+    /**
+     * Removes a deadline from its bucket. Does nothing if the deadline is not
+     * in the wheel.
+     *
+     * @param deadline The deadline to remove.
+     */
+    private void unlink(final Deadline deadline) {
+        final int index = deadline.bucket;
+        if (index < 0) {
+            return;
+        }
+        if (deadline.previous == null) {
+            this.buckets[index] = deadline.next;
+        } else {
+            deadline.previous.next = deadline.next;
+        }
+        if (deadline.next != null) {
+            deadline.next.previous = deadline.previous;
+        }
+        deadline.previous = null;
+        deadline.next = null;
+        deadline.bucket = -1;
+        if (this.buckets[index] == null) {
+            this.bucketTicks[index] = Long.MAX_VALUE;
+        }
+        if (--this.size == 0) {
+            this.nextTick = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Expires all due deadlines of the specified bucket and drops disarmed
+     * ones.
+     *
+     * @param index      The bucket index.
+     * @param targetTick The current tick.
+     */
+    private void expireBucket(final int index, final long targetTick) {
+        long lowest = Long.MAX_VALUE;
+        Deadline deadline = this.buckets[index];
+        while (deadline != null) {
+            final Deadline next = deadline.next;
+            if (deadline.state.get() != Deadline.ARMED) {
+                unlink(deadline);
+            } else if (deadline.tick <= targetTick) {
+                unlink(deadline);
+                deadline.expire(this.canceller);
+            } else {
+                lowest = Math.min(lowest, deadline.tick);
+            }
+            deadline = next;
+        }
+        this.bucketTicks[index] = lowest;
+    }
+
+    /**
+     * Searches the earliest tick with a deadline. Called only after the
+     * previous earliest tick passed.
+     *
+     * @return The earliest tick or {@link Long#MAX_VALUE} if the wheel is
+     * empty.
+     */
+    private long findNextTick() {
+        if (this.size == 0) {
+            return Long.MAX_VALUE;
+        }
+        long earliest = Long.MAX_VALUE;
+        for (int i = 0; i <= this.mask; i++) {
+            final long tick = this.currentTick + i;
+            final long bucketTick = this.bucketTicks[(int) (tick & this.mask)];
+            if (bucketTick <= tick) {
+                // Due in this rotation, or an outdated value which is
+                // corrected when the bucket is expired at this tick
+                return tick;
+            }
+            earliest = Math.min(earliest, bucketTick);
+        }
+        return earliest;
+    }
+
+    /**
+     * Detaches the wheel from its event loop. Armed deadlines no longer
+     * expire.
+     */
+    @Override
+    public void close() {
+        if (this.eventLoop != null) {
+            this.eventLoop.removeTimerSource(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("transfer deadlines with %d buckets of %d ns", this.mask + 1, this.tick);
+    }
+
+    /**
+     * A deadline of one or more transfers.
+     */
+    public static final class Deadline {
+
+        /**
+         * State of an armed deadline.
+         */
+        private static final int ARMED = 0;
+
+        /**
+         * State of an expired deadline.
+         */
+        private static final int EXPIRED = 1;
+
+        /**
+         * State of a cancelled deadline.
+         */
+        private static final int CANCELLED = 2;
+
+        /**
+         * The wheel of this deadline.
+         */
+        private final TransferDeadlines wheel;
+
+        /**
+         * The deadline in {@link System#nanoTime()} units.
+         */
+        private final long time;
+
+        /**
+         * The deadline state.
+         */
+        private final AtomicInteger state = new AtomicInteger(ARMED);
+
+        /**
+         * The transfers covered by this deadline. Guarded by this.
+         */
+        private final List<Transfer> transfers = new ArrayList<>(1);
+
+        /**
+         * The wheel tick. Only accessed by the thread advancing the wheel.
+         */
+        private long tick;
+
+        /**
+         * The bucket index or -1 if not in the wheel. Only accessed by the
+         * thread advancing the wheel.
+         */
+        private int bucket = -1;
+
+        /**
+         * The previous deadline in the bucket. Only accessed by the thread
+         * advancing the wheel.
+         */
+        private Deadline previous;
+
+        /**
+         * The next deadline in the bucket. Only accessed by the thread
+         * advancing the wheel.
+         */
+        private Deadline next;
+
+        /**
+         * Constructs a new deadline.
+         *
+         * @param wheel The wheel of the deadline.
+         * @param time  The deadline in {@link System#nanoTime()} units.
+         */
+        Deadline(final TransferDeadlines wheel, final long time) {
+            this.wheel = wheel;
+            this.time = time;
+        }
+
+        /**
+         * Returns the deadline.
+         *
+         * @return The deadline in {@link System#nanoTime()} units.
+         */
+        public long getTime() {
+            return this.time;
+        }
+
+        /**
+         * Adds a transfer to this deadline. When the deadline already
+         * expired the transfer is cancelled right away instead, so a
+         * transfer added after submission never outlives the deadline. A
+         * transfer added before submission can't be cancelled yet, so check
+         * the return value and don't submit it when false.
+         *
+         * @param transfer The transfer to add.
+         * @return True if the transfer was added, false if the deadline
+         * already expired and the transfer was cancelled.
+         */
+        public boolean add(final Transfer transfer) {
+            synchronized (this) {
+                if (this.state.get() != EXPIRED) {
+                    this.transfers.add(transfer);
+                    return true;
+                }
+            }
+            this.wheel.canceller.applyAsInt(transfer);
+            return false;
+        }
+
+        /**
+         * Removes a completed transfer from this deadline.
+         *
+         * @param transfer The transfer to remove.
+         * @return True if the transfer was covered by this deadline.
+         */
+        public synchronized boolean remove(final Transfer transfer) {
+            return this.transfers.remove(transfer);
+        }
+
+        /**
+         * Disarms this deadline. Call this when all covered transfers have
+         * completed.
+         *
+         * @return True if the deadline was disarmed, false if it already
+         * expired or was cancelled before.
+         */
+        public boolean cancel() {
+            if (!this.state.compareAndSet(ARMED, CANCELLED)) {
+                return false;
+            }
+            // Removed from its bucket by the thread advancing the wheel
+            this.wheel.cancelled.offer(this);
+            return true;
+        }
+
+        /**
+         * Checks if this deadline has expired and cancelled its transfers.
+         *
+         * @return True if expired.
+         */
+        public boolean isExpired() {
+            return this.state.get() == EXPIRED;
+        }
+
+        /**
+         * Checks if this deadline was disarmed before it expired.
+         *
+         * @return True if cancelled.
+         */
+        public boolean isCancelled() {
+            return this.state.get() == CANCELLED;
+        }
+
+        /**
+         * Marks this deadline as expired and cancels all covered transfers.
+         *
+         * @param canceller The function cancelling a transfer.
+         */
+        void expire(final ToIntFunction<Transfer> canceller) {
+            if (!this.state.compareAndSet(ARMED, EXPIRED)) {
+                return;
+            }
+            final Transfer[] expired;
+            synchronized (this) {
+                expired = this.transfers.toArray(new Transfer[0]);
+                this.transfers.clear();
+            }
+            for (final Transfer transfer : expired) {
+                // ERROR_NOT_FOUND just means the transfer completed in the
+                // meantime
+                canceller.applyAsInt(transfer);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("transfer deadline at %d (%s)", this.time,
+                                 isExpired() ? "expired" : isCancelled() ? "cancelled" : "armed");
+        }
+    }
+}
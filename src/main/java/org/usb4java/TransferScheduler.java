@@ -0,0 +1,820 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Submission scheduler sitting in front of
+ * {@link LibUsb#submitTransfer(Transfer)}.
+ * <p>
+ * A device which receives a large bulk upload and small latency-sensitive
+ * transfers at the same time queues the small transfers behind megabytes of
+ * bulk data. The scheduler keeps the queue in Java instead: transfers are
+ * queued per device, per priority class and per endpoint, and only
+ * submitted to libusb while the device is below its caps on transfers and
+ * bytes in flight. Whenever a transfer completes the next ones are picked:
+ * <ul>
+ * <li>{@link Priority#URGENT} transfers are always submitted first, ignore
+ * the byte cap and may use a few reserved transfer slots above the transfer
+ * cap, so they get out even when bulk traffic fills all regular slots.</li>
+ * <li>The other classes share the remaining capacity by weighted fair
+ * queueing (deficit round robin over bytes), so a class gets bandwidth in
+ * proportion to its weight without starving the others.</li>
+ * <li>Within a class the endpoints take turns, while transfers of one
+ * endpoint keep their order.</li>
+ * </ul>
+ * <p>
+ * The scheduler installs its own callback on each submitted transfer and
+ * restores the original callback before calling it on completion, so
+ * transfers are filled and handled as usual. Use one priority class per
+ * endpoint, otherwise transfers of the endpoint may be reordered. Transfers
+ * which fail to submit after being queued are reported to the
+ * {@link ErrorHandler}. Call {@link #remove(DeviceHandle)} before closing a
+ * device handle to drop the state kept for the device.
+ */
+public final class TransferScheduler {
+
+    /**
+     * Priority classes.
+     */
+    public enum Priority {
+        /** Served before everything else, exempt from the byte cap. */
+        URGENT,
+
+        /** Latency-sensitive traffic, default weight 8. */
+        HIGH,
+
+        /** Regular traffic, default weight 4. */
+        NORMAL,
+
+        /** Bulk background traffic such as firmware uploads, default weight 1. */
+        BACKGROUND
+    }
+
+    /**
+     * Receives transfers which could not be submitted after being queued.
+     */
+    public interface ErrorHandler {
+        /**
+         * Called when libusb rejected a queued transfer. The callback of the
+         * transfer is restored but not called.
+         *
+         * @param transfer The transfer.
+         * @param error    The error code returned by libusb.
+         */
+        void submitFailed(Transfer transfer, int error);
+    }
+
+    /**
+     * The transfer operations. Replaceable for tests.
+     */
+    interface Backend {
+        /**
+         * Submits a transfer.
+         *
+         * @param transfer The transfer.
+         * @return 0 on success or an error code.
+         */
+        int submit(Transfer transfer);
+
+        /**
+         * Returns the device handle of a transfer.
+         *
+         * @param transfer The transfer.
+         * @return The device handle.
+         */
+        DeviceHandle devHandle(Transfer transfer);
+
+        /**
+         * Returns the endpoint of a transfer.
+         *
+         * @param transfer The transfer.
+         * @return The endpoint address.
+         */
+        byte endpoint(Transfer transfer);
+
+        /**
+         * Returns the length of a transfer.
+         *
+         * @param transfer The transfer.
+         * @return The length in bytes.
+         */
+        int length(Transfer transfer);
+
+        /**
+         * Returns the callback of a transfer.
+         *
+         * @param transfer The transfer.
+         * @return The callback.
+         */
+        TransferCallback callback(Transfer transfer);
+
+        /**
+         * Sets the callback of a transfer.
+         *
+         * @param transfer The transfer.
+         * @param callback The callback.
+         */
+        void setCallback(Transfer transfer, TransferCallback callback);
+    }
+
+    /**
+     * The backend calling libusb.
+     */
+    static final Backend LIBUSB = new Backend() {
+        @Override
+        public int submit(final Transfer transfer) {
+            return LibUsb.submitTransfer(transfer);
+        }
+
+        @Override
+        public DeviceHandle devHandle(final Transfer transfer) {
+            return transfer.devHandle();
+        }
+
+        @Override
+        public byte endpoint(final Transfer transfer) {
+            return transfer.endpoint();
+        }
+
+        @Override
+        public int length(final Transfer transfer) {
+            return transfer.length();
+        }
+
+        @Override
+        public TransferCallback callback(final Transfer transfer) {
+            return transfer.callback();
+        }
+
+        @Override
+        public void setCallback(final Transfer transfer, final TransferCallback callback) {
+            transfer.setCallback(callback);
+        }
+    };
+
+    /**
+     * The priority classes sharing capacity by weight.
+     */
+    private static final Priority[] WEIGHTED = { Priority.HIGH, Priority.NORMAL, Priority.BACKGROUND };
+
+    /**
+     * The bytes granted per round for each unit of weight.
+     */
+    private static final int QUANTUM = 16 * 1024;
+
+    /**
+     * The backend.
+     */
+    private final Backend backend;
+
+    /**
+     * The error handler.
+     */
+    private final ErrorHandler errorHandler;
+
+    /**
+     * The weights of the priority classes. Guarded by this.
+     */
+    private final Map<Priority, Integer> weights = new EnumMap<>(Priority.class);
+
+    /**
+     * The queues by device handle pointer. Guarded by this.
+     */
+    private final Map<Long, DeviceQueue> devices = new HashMap<>();
+
+    /**
+     * The default maximum number of transfers in flight per device.
+     */
+    private final int maxInFlight;
+
+    /**
+     * The default maximum number of bytes in flight per device.
+     */
+    private final long maxInFlightBytes;
+
+    /**
+     * The number of transfer slots above the cap reserved for urgent
+     * transfers. Guarded by this.
+     */
+    private int urgentReserve = 2;
+
+    /**
+     * Constructs a scheduler.
+     *
+     * @param maxInFlight      The maximum number of transfers in flight per
+     *                         device.
+     * @param maxInFlightBytes The maximum number of bytes in flight per
+     *                         device. A single transfer larger than this is
+     *                         still submitted when nothing else is in flight.
+     * @param errorHandler     Receives transfers failing to submit after
+     *                         being queued.
+     */
+    public TransferScheduler(final int maxInFlight, final long maxInFlightBytes,
+                             final ErrorHandler errorHandler) {
+        this(LIBUSB, maxInFlight, maxInFlightBytes, errorHandler);
+    }
+
+    /**
+     * Constructs a scheduler using the specified backend.
+     *
+     * @param backend          The backend.
+     * @param maxInFlight      The maximum number of transfers in flight per
+     *                         device.
+     * @param maxInFlightBytes The maximum number of bytes in flight per
+     *                         device.
+     * @param errorHandler     The error handler.
+     */
+    TransferScheduler(final Backend backend, final int maxInFlight, final long maxInFlightBytes,
+                      final ErrorHandler errorHandler) {
+        if (maxInFlight <= 0 || maxInFlightBytes <= 0) {
+            throw new IllegalArgumentException("caps must be positive");
+        }
+        if (errorHandler == null) {
+            throw new IllegalArgumentException("errorHandler must not be null");
+        }
+        this.backend = backend;
+        this.errorHandler = errorHandler;
+        this.maxInFlight = maxInFlight;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.weights.put(Priority.HIGH, 8);
+        this.weights.put(Priority.NORMAL, 4);
+        this.weights.put(Priority.BACKGROUND, 1);
+    }
+
+    /**
+     * Sets the weight of a priority class.
+     *
+     * @param priority The priority class. Urgent transfers have no weight.
+     * @param weight   The positive weight.
+     */
+    public synchronized void setWeight(final Priority priority, final int weight) {
+        if (priority == Priority.URGENT) {
+            throw new IllegalArgumentException("URGENT has strict priority");
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight must be positive");
+        }
+        this.weights.put(priority, weight);
+    }
+
+    /**
+     * Sets the number of transfer slots above the cap which only urgent
+     * transfers may use.
+     *
+     * @param urgentReserve The number of reserved slots.
+     */
+    public synchronized void setUrgentReserve(final int urgentReserve) {
+        if (urgentReserve < 0) {
+            throw new IllegalArgumentException("urgentReserve must not be negative");
+        }
+        this.urgentReserve = urgentReserve;
+    }
+
+    /**
+     * Sets the caps of a single device.
+     *
+     * @param handle           The device handle.
+     * @param maxInFlight      The maximum number of transfers in flight.
+     * @param maxInFlightBytes The maximum number of bytes in flight.
+     */
+    public void setLimits(final DeviceHandle handle, final int maxInFlight, final long maxInFlightBytes) {
+        if (maxInFlight <= 0 || maxInFlightBytes <= 0) {
+            throw new IllegalArgumentException("caps must be positive");
+        }
+        final DeviceQueue queue;
+        synchronized (this) {
+            queue = device(handle);
+            queue.maxInFlight = maxInFlight;
+            queue.maxInFlightBytes = maxInFlightBytes;
+            dispatch(queue);
+        }
+        reportFailures(queue);
+    }
+
+    /**
+     * Forgets the caps and queues of a device. Must be called before the
+     * device handle is closed, otherwise the state is kept forever and a
+     * later handle at the same address inherits the caps.
+     *
+     * @param handle The device handle.
+     * @throws IllegalStateException When transfers of the device are still
+     *                               queued or in flight.
+     */
+    public synchronized void remove(final DeviceHandle handle) {
+        final DeviceQueue queue = this.devices.get(handle.getPointer());
+        if (queue == null) {
+            return;
+        }
+        if (queue.queued > 0 || queue.inFlight > 0) {
+            throw new IllegalStateException("Transfers of the device still queued or in flight");
+        }
+        this.devices.remove(handle.getPointer());
+    }
+
+    /**
+     * Returns the queue of a device, creating it if needed.
+     *
+     * @param handle The device handle.
+     * @return The device queue.
+     */
+    private DeviceQueue device(final DeviceHandle handle) {
+        return this.devices.computeIfAbsent(handle.getPointer(),
+            pointer -> new DeviceQueue(this.maxInFlight, this.maxInFlightBytes));
+    }
+
+    /**
+     * Queues a transfer and submits it as soon as the caps and the
+     * priorities allow. The transfer must be completely filled in.
+     *
+     * @param transfer The transfer.
+     * @param priority The priority class.
+     * @return {@link LibUsb#SUCCESS} if the transfer was submitted or
+     * queued, or the error code if libusb rejected it right away.
+     */
+    public int submit(final Transfer transfer, final Priority priority) {
+        final DeviceHandle handle = this.backend.devHandle(transfer);
+        final Entry entry = new Entry(transfer, priority, this.backend.endpoint(transfer),
+                                      this.backend.length(transfer), this.backend.callback(transfer));
+        this.backend.setCallback(transfer, entry);
+        final DeviceQueue queue;
+        final int error;
+        synchronized (this) {
+            queue = device(handle);
+            queue.enqueue(entry);
+            dispatch(queue);
+            error = entry.error;
+            entry.synchronous = false;
+        }
+        // Queued transfers dispatched along with this one may have failed
+        reportFailures(queue);
+        if (error != LibUsb.SUCCESS) {
+            this.backend.setCallback(transfer, entry.callback);
+        }
+        return error;
+    }
+
+    /**
+     * Removes a transfer which is still queued. Transfers already submitted
+     * must be cancelled with {@link LibUsb#cancelTransfer(Transfer)}.
+     *
+     * @param transfer The transfer.
+     * @return True if the transfer was removed and will not be submitted,
+     * false if it is not queued.
+     */
+    public boolean remove(final Transfer transfer) {
+        Entry removed = null;
+        synchronized (this) {
+            for (final DeviceQueue queue : this.devices.values()) {
+                removed = queue.remove(transfer);
+                if (removed != null) {
+                    break;
+                }
+            }
+        }
+        if (removed == null) {
+            return false;
+        }
+        this.backend.setCallback(transfer, removed.callback);
+        return true;
+    }
+
+    /**
+     * Returns the number of transfers of a device in flight.
+     *
+     * @param handle The device handle.
+     * @return The number of submitted transfers not yet completed.
+     */
+    public synchronized int getInFlight(final DeviceHandle handle) {
+        final DeviceQueue queue = this.devices.get(handle.getPointer());
+        return queue == null ? 0 : queue.inFlight;
+    }
+
+    /**
+     * Returns the number of bytes of a device in flight.
+     *
+     * @param handle The device handle.
+     * @return The bytes of submitted transfers not yet completed.
+     */
+    public synchronized long getInFlightBytes(final DeviceHandle handle) {
+        final DeviceQueue queue = this.devices.get(handle.getPointer());
+        return queue == null ? 0 : queue.inFlightBytes;
+    }
+
+    /**
+     * Returns the number of queued transfers of a device.
+     *
+     * @param handle The device handle.
+     * @return The number of transfers waiting for submission.
+     */
+    public synchronized int getQueued(final DeviceHandle handle) {
+        final DeviceQueue queue = this.devices.get(handle.getPointer());
+        return queue == null ? 0 : queue.queued;
+    }
+
+    /**
+     * Submits queued transfers of a device as long as the caps allow.
+     * Transfers failing to submit are collected in the queue's failed list.
+     *
+     * @param queue The device queue.
+     */
+    private void dispatch(final DeviceQueue queue) {
+        // Urgent transfers first, they may use the reserved slots
+        final ClassQueue urgent = queue.classes.get(Priority.URGENT);
+        while (!urgent.isEmpty() && queue.inFlight < queue.maxInFlight + this.urgentReserve) {
+            submit(queue, urgent.poll());
+        }
+
+        // Deficit round robin over the weighted classes
+        boolean progress = true;
+        while (progress && queue.queued > urgent.size() && queue.inFlight < queue.maxInFlight) {
+            progress = false;
+            for (int i = 0; i < WEIGHTED.length; i++) {
+                final Priority priority = WEIGHTED[(queue.nextClass + i) % WEIGHTED.length];
+                final ClassQueue classQueue = queue.classes.get(priority);
+                if (classQueue.isEmpty()) {
+                    classQueue.deficit = 0;
+                    classQueue.visited = false;
+                    continue;
+                }
+                if (!classQueue.visited) {
+                    classQueue.deficit += (long) this.weights.get(priority) * QUANTUM;
+                    classQueue.visited = true;
+                }
+                while (!classQueue.isEmpty() && queue.inFlight < queue.maxInFlight) {
+                    final Entry head = classQueue.peek();
+                    if (head.length > classQueue.deficit) {
+                        break;
+                    }
+                    if (queue.inFlight > 0 && queue.inFlightBytes + head.length > queue.maxInFlightBytes) {
+                        // Wait for completions, keep the turn of this class
+                        queue.nextClass = (queue.nextClass + i) % WEIGHTED.length;
+                        return;
+                    }
+                    classQueue.deficit -= head.length;
+                    submit(queue, classQueue.poll());
+                    progress = true;
+                }
+                if (queue.inFlight >= queue.maxInFlight) {
+                    // Keep the turn so the class continues when slots are free
+                    queue.nextClass = (queue.nextClass + i) % WEIGHTED.length;
+                    return;
+                }
+                classQueue.visited = false;
+                if (classQueue.isEmpty()) {
+                    classQueue.deficit = 0;
+                }
+                progress = true;
+            }
+            queue.nextClass = 0;
+        }
+    }
+
+    /**
+     * Submits a dequeued transfer.
+     *
+     * @param queue The device queue.
+     * @param entry The transfer entry.
+     */
+    private void submit(final DeviceQueue queue, final Entry entry) {
+        queue.queued--;
+        queue.inFlight++;
+        queue.inFlightBytes += entry.length;
+        entry.queue = queue;
+        final int result = this.backend.submit(entry.transfer);
+        if (result != LibUsb.SUCCESS) {
+            queue.inFlight--;
+            queue.inFlightBytes -= entry.length;
+            entry.error = result;
+            if (!entry.synchronous) {
+                queue.failed.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Reports transfers which failed to submit during a dispatch. Must be
+     * called without holding the lock.
+     *
+     * @param queue The device queue.
+     */
+    private void reportFailures(final DeviceQueue queue) {
+        while (true) {
+            final Entry entry;
+            synchronized (this) {
+                entry = queue.failed.poll();
+            }
+            if (entry == null) {
+                return;
+            }
+            this.backend.setCallback(entry.transfer, entry.callback);
+            this.errorHandler.submitFailed(entry.transfer, entry.error);
+        }
+    }
+
+    /**
+     * Handles the completion of a scheduled transfer.
+     *
+     * @param entry The transfer entry.
+     */
+    void completed(final Entry entry) {
+        final DeviceQueue queue = entry.queue;
+        synchronized (this) {
+            queue.inFlight--;
+            queue.inFlightBytes -= entry.length;
+            dispatch(queue);
+        }
+        this.backend.setCallback(entry.transfer, entry.callback);
+        entry.callback.processTransfer(entry.transfer);
+        reportFailures(queue);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("transfer scheduler for %d devices (max %d transfers, %d bytes in flight)",
+                             this.devices.size(), this.maxInFlight, this.maxInFlightBytes);
+    }
+
+    /**
+     * A scheduled transfer.
+     */
+    private final class Entry implements TransferCallback {
+
+        /**
+         * The transfer.
+         */
+        final Transfer transfer;
+
+        /**
+         * The priority class.
+         */
+        final Priority priority;
+
+        /**
+         * The endpoint address.
+         */
+        final byte endpoint;
+
+        /**
+         * The length in bytes.
+         */
+        final int length;
+
+        /**
+         * The original callback of the transfer.
+         */
+        final TransferCallback callback;
+
+        /**
+         * The device queue once submitted.
+         */
+        DeviceQueue queue;
+
+        /**
+         * The submission error or {@link LibUsb#SUCCESS}.
+         */
+        int error = LibUsb.SUCCESS;
+
+        /**
+         * Set while {@link TransferScheduler#submit(Transfer, Priority)}
+         * can still report errors directly. Guarded by the scheduler.
+         */
+        boolean synchronous = true;
+
+        /**
+         * Constructs a new entry.
+         *
+         * @param transfer The transfer.
+         * @param priority The priority class.
+         * @param endpoint The endpoint address.
+         * @param length   The length in bytes.
+         * @param callback The original callback.
+         */
+        Entry(final Transfer transfer, final Priority priority, final byte endpoint, final int length,
+              final TransferCallback callback) {
+            this.transfer = transfer;
+            this.priority = priority;
+            this.endpoint = endpoint;
+            this.length = length;
+            this.callback = callback;
+        }
+
+        @Override
+        public void processTransfer(final Transfer completed) {
+            completed(this);
+        }
+    }
+
+    /**
+     * The queues of one priority class of a device, one FIFO per endpoint
+     * served in turn.
+     */
+    private static final class ClassQueue {
+
+        /**
+         * The endpoint queues which have transfers, in serving order.
+         */
+        final ArrayDeque<ArrayDeque<Entry>> active = new ArrayDeque<>();
+
+        /**
+         * The endpoint queues by endpoint address.
+         */
+        final Map<Byte, ArrayDeque<Entry>> endpoints = new HashMap<>();
+
+        /**
+         * The byte credit of the class in the current round.
+         */
+        long deficit;
+
+        /**
+         * Set when the class got its quantum in the current round.
+         */
+        boolean visited;
+
+        /**
+         * The number of queued transfers.
+         */
+        private int size;
+
+        /**
+         * Adds a transfer.
+         *
+         * @param entry The transfer entry.
+         */
+        void add(final Entry entry) {
+            final ArrayDeque<Entry> endpoint = this.endpoints.computeIfAbsent(entry.endpoint,
+                                                                             e -> new ArrayDeque<>());
+            if (endpoint.isEmpty()) {
+                this.active.add(endpoint);
+            }
+            endpoint.add(entry);
+            this.size++;
+        }
+
+        /**
+         * Returns the next transfer without removing it.
+         *
+         * @return The next transfer or null if empty.
+         */
+        Entry peek() {
+            final ArrayDeque<Entry> endpoint = this.active.peek();
+            return endpoint == null ? null : endpoint.peek();
+        }
+
+        /**
+         * Removes the next transfer and moves its endpoint to the end of the
+         * serving order.
+         *
+         * @return The next transfer or null if empty.
+         */
+        Entry poll() {
+            final ArrayDeque<Entry> endpoint = this.active.poll();
+            if (endpoint == null) {
+                return null;
+            }
+            final Entry entry = endpoint.poll();
+            if (!endpoint.isEmpty()) {
+                this.active.add(endpoint);
+            }
+            this.size--;
+            return entry;
+        }
+
+        /**
+         * Removes a specific transfer.
+         *
+         * @param transfer The transfer.
+         * @return The removed entry or null if not queued here.
+         */
+        Entry remove(final Transfer transfer) {
+            for (final ArrayDeque<Entry> endpoint : this.endpoints.values()) {
+                final Iterator<Entry> iterator = endpoint.iterator();
+                while (iterator.hasNext()) {
+                    final Entry entry = iterator.next();
+                    if (entry.transfer.equals(transfer)) {
+                        iterator.remove();
+                        if (endpoint.isEmpty()) {
+                            this.active.remove(endpoint);
+                        }
+                        this.size--;
+                        return entry;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the number of queued transfers.
+         *
+         * @return The number of transfers.
+         */
+        int size() {
+            return this.size;
+        }
+
+        /**
+         * Checks if the class has no queued transfers.
+         *
+         * @return True if empty.
+         */
+        boolean isEmpty() {
+            return this.size == 0;
+        }
+    }
+
+    /**
+     * The queues and in-flight accounting of one device.
+     */
+    private static final class DeviceQueue {
+
+        /**
+         * The queues per priority class.
+         */
+        final Map<Priority, ClassQueue> classes = new EnumMap<>(Priority.class);
+
+        /**
+         * Queued transfers which failed to submit, to be reported.
+         */
+        final ArrayDeque<Entry> failed = new ArrayDeque<>();
+
+        /**
+         * The maximum number of transfers in flight.
+         */
+        int maxInFlight;
+
+        /**
+         * The maximum number of bytes in flight.
+         */
+        long maxInFlightBytes;
+
+        /**
+         * The number of transfers in flight.
+         */
+        int inFlight;
+
+        /**
+         * The number of bytes in flight.
+         */
+        long inFlightBytes;
+
+        /**
+         * The number of queued transfers.
+         */
+        int queued;
+
+        /**
+         * The index of the weighted class whose turn it is.
+         */
+        int nextClass;
+
+        /**
+         * Constructs a device queue.
+         *
+         * @param maxInFlight      The maximum number of transfers in flight.
+         * @param maxInFlightBytes The maximum number of bytes in flight.
+         */
+        DeviceQueue(final int maxInFlight, final long maxInFlightBytes) {
+            this.maxInFlight = maxInFlight;
+            this.maxInFlightBytes = maxInFlightBytes;
+            for (final Priority priority : Priority.values()) {
+                this.classes.put(priority, new ClassQueue());
+            }
+        }
+
+        /**
+         * Queues a transfer.
+         *
+         * @param entry The transfer entry.
+         */
+        void enqueue(final Entry entry) {
+            this.classes.get(entry.priority).add(entry);
+            this.queued++;
+        }
+
+        /**
+         * Removes a queued transfer.
+         *
+         * @param transfer The transfer.
+         * @return The removed entry or null if not queued.
+         */
+        Entry remove(final Transfer transfer) {
+            for (final ClassQueue classQueue : this.classes.values()) {
+                final Entry entry = classQueue.remove(transfer);
+                if (entry != null) {
+                    this.queued--;
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+}
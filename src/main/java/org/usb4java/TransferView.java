@@ -0,0 +1,398 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Direct view of the native {@code libusb_transfer} structure of a
+ * {@link Transfer}.
+ * <p>
+ * Every accessor of {@link Transfer} is a JNI call, so setting up a bulk
+ * transfer with {@link LibUsb#fillBulkTransfer(Transfer, DeviceHandle, byte, ByteBuffer, TransferCallback, Object, long)}
+ * costs seven native transitions and reading a completion costs two more.
+ * This view reads and writes the plain fields of the structure straight
+ * from Java, using a field layout computed for the pointer size of the
+ * platform.
+ * <p>
+ * The callback and the user data are managed by the JNI binding and can't
+ * be set through this view. Set them once with the {@link Transfer} methods
+ * (for example with the first {@code fill*Transfer} call) and use the view
+ * to refill and resubmit the transfer afterwards. Like the transfer itself,
+ * a view must not be used after the transfer was freed.
+ * <p>
+ * The view needs direct native memory access. Check {@link #isAvailable()}
+ * and fall back to the {@link Transfer} accessors when it returns false.
+ */
+public final class TransferView {
+
+    /**
+     * The layout of the native structure on this platform or null if native
+     * memory access is not available.
+     */
+    private static final Layout LAYOUT =
+        NativeMemory.isAvailable() ? Layout.forAddressSize(NativeMemory.addressSize()) : null;
+
+    /**
+     * The transfer.
+     */
+    private final Transfer transfer;
+
+    /**
+     * The address of the native structure.
+     */
+    private final long address;
+
+    /**
+     * The field layout.
+     */
+    private final Layout layout;
+
+    /**
+     * Creates a view of the specified transfer.
+     *
+     * @param transfer The transfer. Must be allocated with
+     *                 {@link LibUsb#allocTransfer()}.
+     * @throws UnsupportedOperationException When native memory access is not
+     *                                       available.
+     */
+    public TransferView(final Transfer transfer) {
+        this(transfer, transfer.getPointer(), LAYOUT);
+    }
+
+    /**
+     * Creates a view of a structure at the specified address.
+     *
+     * @param transfer The transfer owning the structure.
+     * @param address  The address of the structure.
+     * @param layout   The field layout.
+     */
+    TransferView(final Transfer transfer, final long address, final Layout layout) {
+        if (layout == null) {
+            throw new UnsupportedOperationException("Native memory access is not available");
+        }
+        if (address == 0) {
+            throw new IllegalArgumentException("transfer is not allocated");
+        }
+        this.transfer = transfer;
+        this.address = address;
+        this.layout = layout;
+    }
+
+    /**
+     * Checks if transfer views can be created on this platform.
+     *
+     * @return True if available.
+     */
+    public static boolean isAvailable() {
+        return LAYOUT != null;
+    }
+
+    /**
+     * Returns the transfer of this view.
+     *
+     * @return The transfer.
+     */
+    public Transfer getTransfer() {
+        return this.transfer;
+    }
+
+    /**
+     * Populates the plain fields of the transfer in one go. Equivalent to the
+     * {@code fill*Transfer} methods of {@link LibUsb} except that the
+     * callback and the user data are left unchanged.
+     *
+     * @param handle   The device handle.
+     * @param endpoint The endpoint address.
+     * @param type     The transfer type.
+     * @param buffer   The direct data buffer. The length is set to its
+     *                 capacity.
+     * @param timeout  The timeout in milliseconds, 0 for unlimited.
+     */
+    public void fill(final DeviceHandle handle, final byte endpoint, final byte type,
+                     final ByteBuffer buffer, final long timeout) {
+        setDevHandle(handle);
+        setEndpoint(endpoint);
+        setType(type);
+        setTimeout(timeout);
+        setBuffer(buffer);
+    }
+
+    /**
+     * Sets the device handle.
+     *
+     * @param handle The device handle.
+     */
+    public void setDevHandle(final DeviceHandle handle) {
+        NativeMemory.putAddress(this.address + this.layout.devHandle, handle.getPointer());
+    }
+
+    /**
+     * Returns the transfer flags.
+     *
+     * @return The flags.
+     */
+    public byte flags() {
+        return NativeMemory.getByte(this.address + this.layout.flags);
+    }
+
+    /**
+     * Sets the transfer flags.
+     *
+     * @param flags The flags.
+     */
+    public void setFlags(final byte flags) {
+        NativeMemory.putByte(this.address + this.layout.flags, flags);
+    }
+
+    /**
+     * Returns the endpoint address.
+     *
+     * @return The endpoint address.
+     */
+    public byte endpoint() {
+        return NativeMemory.getByte(this.address + this.layout.endpoint);
+    }
+
+    /**
+     * Sets the endpoint address.
+     *
+     * @param endpoint The endpoint address.
+     */
+    public void setEndpoint(final byte endpoint) {
+        NativeMemory.putByte(this.address + this.layout.endpoint, endpoint);
+    }
+
+    /**
+     * Returns the transfer type.
+     *
+     * @return The transfer type.
+     */
+    public byte type() {
+        return NativeMemory.getByte(this.address + this.layout.type);
+    }
+
+    /**
+     * Sets the transfer type.
+     *
+     * @param type The transfer type.
+     */
+    public void setType(final byte type) {
+        NativeMemory.putByte(this.address + this.layout.type, type);
+    }
+
+    /**
+     * Returns the timeout.
+     *
+     * @return The timeout in milliseconds.
+     */
+    public long timeout() {
+        return NativeMemory.getInt(this.address + this.layout.timeout) & 0xffffffffL;
+    }
+
+    /**
+     * Sets the timeout.
+     *
+     * @param timeout The timeout in milliseconds, 0 for unlimited.
+     */
+    public void setTimeout(final long timeout) {
+        NativeMemory.putInt(this.address + this.layout.timeout, (int) timeout);
+    }
+
+    /**
+     * Returns the status of a completed transfer.
+     *
+     * @return The transfer status.
+     */
+    public int status() {
+        return NativeMemory.getInt(this.address + this.layout.status);
+    }
+
+    /**
+     * Returns the length of the data buffer.
+     *
+     * @return The length.
+     */
+    public int length() {
+        return NativeMemory.getInt(this.address + this.layout.length);
+    }
+
+    /**
+     * Sets the number of bytes to transfer.
+     *
+     * @param length The length. Must not exceed the capacity of the buffer.
+     */
+    public void setLength(final int length) {
+        final ByteBuffer buffer = this.transfer.buffer();
+        if (length != 0 && (buffer == null || buffer.capacity() < length)) {
+            throw new IllegalArgumentException("buffer too small for requested length");
+        }
+        NativeMemory.putInt(this.address + this.layout.length, length);
+    }
+
+    /**
+     * Returns the number of bytes actually transferred.
+     *
+     * @return The actual length.
+     */
+    public int actualLength() {
+        return NativeMemory.getInt(this.address + this.layout.actualLength);
+    }
+
+    /**
+     * Sets the data buffer and sets the length to its capacity.
+     *
+     * @param buffer The direct data buffer or null.
+     */
+    public void setBuffer(final ByteBuffer buffer) {
+        final long bufferAddress;
+        if (buffer == null) {
+            bufferAddress = 0;
+        } else if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer must be direct");
+        } else {
+            bufferAddress = NativeMemory.address(buffer);
+        }
+        NativeMemory.putAddress(this.address + this.layout.buffer, bufferAddress);
+        NativeMemory.putInt(this.address + this.layout.length, buffer == null ? 0 : buffer.capacity());
+        this.transfer.setBufferReference(buffer);
+    }
+
+    /**
+     * Returns the number of isochronous packets.
+     *
+     * @return The number of isochronous packets.
+     */
+    public int numIsoPackets() {
+        return NativeMemory.getInt(this.address + this.layout.numIsoPackets);
+    }
+
+    /**
+     * Sets the number of isochronous packets. Must not exceed the number the
+     * transfer was allocated with.
+     *
+     * @param numIsoPackets The number of isochronous packets.
+     */
+    public void setNumIsoPackets(final int numIsoPackets) {
+        NativeMemory.putInt(this.address + this.layout.numIsoPackets, numIsoPackets);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("view of transfer 0x%x", this.address);
+    }
+
+    /**
+     * Field offsets of {@code struct libusb_transfer}.
+     */
+    static final class Layout {
+
+        /**
+         * Offset of dev_handle.
+         */
+        final int devHandle;
+
+        /**
+         * Offset of flags.
+         */
+        final int flags;
+
+        /**
+         * Offset of endpoint.
+         */
+        final int endpoint;
+
+        /**
+         * Offset of type.
+         */
+        final int type;
+
+        /**
+         * Offset of timeout.
+         */
+        final int timeout;
+
+        /**
+         * Offset of status.
+         */
+        final int status;
+
+        /**
+         * Offset of length.
+         */
+        final int length;
+
+        /**
+         * Offset of actual_length.
+         */
+        final int actualLength;
+
+        /**
+         * Offset of callback.
+         */
+        final int callback;
+
+        /**
+         * Offset of user_data.
+         */
+        final int userData;
+
+        /**
+         * Offset of buffer.
+         */
+        final int buffer;
+
+        /**
+         * Offset of num_iso_packets.
+         */
+        final int numIsoPackets;
+
+        /**
+         * Computes the layout with natural alignment for the specified
+         * pointer size.
+         *
+         * @param pointerSize The pointer size (4 or 8).
+         */
+        private Layout(final int pointerSize) {
+            this.devHandle = 0;
+            this.flags = pointerSize;
+            this.endpoint = this.flags + 1;
+            this.type = this.endpoint + 1;
+            this.timeout = align(this.type + 1, 4);
+            this.status = this.timeout + 4;
+            this.length = this.status + 4;
+            this.actualLength = this.length + 4;
+            this.callback = align(this.actualLength + 4, pointerSize);
+            this.userData = this.callback + pointerSize;
+            this.buffer = this.userData + pointerSize;
+            this.numIsoPackets = this.buffer + pointerSize;
+        }
+
+        /**
+         * Returns the layout for the specified pointer size.
+         *
+         * @param pointerSize The pointer size (4 or 8).
+         * @return The layout.
+         */
+        static Layout forAddressSize(final int pointerSize) {
+            if (pointerSize != 4 && pointerSize != 8) {
+                throw new IllegalArgumentException("Unsupported pointer size: " + pointerSize);
+            }
+            return new Layout(pointerSize);
+        }
+
+        /**
+         * Rounds an offset up to the specified alignment.
+         *
+         * @param offset    The offset.
+         * @param alignment The alignment, a power of two.
+         * @return The aligned offset.
+         */
+        private static int align(final int offset, final int alignment) {
+            return (offset + alignment - 1) & -alignment;
+        }
+    }
+}
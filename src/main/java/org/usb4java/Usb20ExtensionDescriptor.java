@@ -29,7 +29,7 @@ import lombok.EqualsAndHashCode;
  * @author Klaus Reimer (k@ailis.de)
  */
 @EqualsAndHashCode(doNotUseGetters = true)
-public final class Usb20ExtensionDescriptor {
+public final class Usb20ExtensionDescriptor implements AutoCloseable {
 
     /**
      * The native pointer to the descriptor structure.
@@ -55,6 +55,20 @@ public final class Usb20ExtensionDescriptor {
         return this.usb20ExtensionDescriptorPointer;
     }
 
+    /**
+     * Frees the descriptor with
+     * {@link LibUsb#freeUsb20ExtensionDescriptor(Usb20ExtensionDescriptor)}.
+     * Does nothing if the descriptor was never filled or is already freed.
+     */
+    @Override
+    public void close() {
+        if (this.usb20ExtensionDescriptorPointer != 0) {
+            NativeResources.closed(this.usb20ExtensionDescriptorPointer);
+            LibUsb.freeUsb20ExtensionDescriptor(this);
+            this.usb20ExtensionDescriptorPointer = 0;
+        }
+    }
+
     /**
      * Returns the size of this descriptor (in bytes).
      *
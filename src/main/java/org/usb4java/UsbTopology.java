@@ -0,0 +1,736 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory tree of the USB topology with buses, hubs and ports.
+ * <p>
+ * Answering "which devices hang off this hub" or "where is this device
+ * plugged in" with {@link LibUsb#getParent(Device)} and
+ * {@link LibUsb#getPortNumbers(Device, ByteBuffer)} costs several native
+ * calls and allocations per query. This class reads the location of every
+ * device once, when the topology is built from the device list and when a
+ * hotplug event reports an arrival, and keeps the result in a tree of
+ * {@link Node}s. Departures remove the node of the device and prune empty
+ * branches, so the tree is updated incrementally and never rebuilt.
+ * <p>
+ * Nodes are addressed by their port path and found in constant time with
+ * {@link #lookup(int, byte...)} or {@link #lookup(String)}, using the
+ * {@code bus-port.port} notation of {@link ShardedContexts#location(Device)}.
+ * The node of a known device is found with {@link #find(Device)}.
+ * {@link Node#subtree()} lists a node and everything connected below it.
+ * <p>
+ * Hotplug events are delivered while the events of the context are handled,
+ * for example by an {@link EventLoop}. Queries may run concurrently on any
+ * thread. The topology holds a reference on every device it contains until
+ * the device leaves or the topology is closed.
+ */
+public final class UsbTopology implements AutoCloseable {
+
+    /**
+     * Receives topology changes.
+     */
+    public interface Listener {
+        /**
+         * Called after a device was added to or removed from the topology.
+         * Runs on the thread applying the update, usually the event thread,
+         * so it must not block.
+         *
+         * @param node     The node of the device.
+         * @param attached True if the device arrived, false if it left.
+         */
+        void topologyChanged(Node node, boolean attached);
+    }
+
+    /**
+     * The device operations. Replaceable for tests.
+     */
+    interface Backend {
+        /**
+         * Returns the bus number of a device.
+         *
+         * @param device The device.
+         * @return The bus number.
+         */
+        int busNumber(Device device);
+
+        /**
+         * Writes the port numbers from the root hub to the device.
+         *
+         * @param device The device.
+         * @param path   The direct buffer receiving the port numbers.
+         * @return The number of ports or an error code.
+         */
+        int portNumbers(Device device, ByteBuffer path);
+
+        /**
+         * Checks if a device is a hub.
+         *
+         * @param device The device.
+         * @return True for hubs.
+         */
+        boolean isHub(Device device);
+
+        /**
+         * Adds a reference to a device.
+         *
+         * @param device The device.
+         */
+        void ref(Device device);
+
+        /**
+         * Removes a reference from a device.
+         *
+         * @param device The device.
+         */
+        void unref(Device device);
+    }
+
+    /**
+     * The backend calling libusb.
+     */
+    private static final Backend LIBUSB = new Backend() {
+        @Override
+        public int busNumber(final Device device) {
+            return LibUsb.getBusNumber(device);
+        }
+
+        @Override
+        public int portNumbers(final Device device, final ByteBuffer path) {
+            return LibUsb.getPortNumbers(device, path);
+        }
+
+        @Override
+        public boolean isHub(final Device device) {
+            final DeviceDescriptor descriptor = new DeviceDescriptor();
+            return LibUsb.getDeviceDescriptor(device, descriptor) == LibUsb.SUCCESS
+                && descriptor.bDeviceClass() == LibUsb.CLASS_HUB;
+        }
+
+        @Override
+        public void ref(final Device device) {
+            LibUsb.refDevice(device);
+        }
+
+        @Override
+        public void unref(final Device device) {
+            LibUsb.unrefDevice(device);
+        }
+    };
+
+    /**
+     * The maximum number of ports in a path (USB 3.0 allows 7 tiers).
+     */
+    static final int MAX_PORT_DEPTH = 7;
+
+    /**
+     * The backend.
+     */
+    private final Backend backend;
+
+    /**
+     * The context of the hotplug registration or null.
+     */
+    private final Context context;
+
+    /**
+     * The hotplug callback handle or null if hotplug is not used.
+     */
+    private final HotplugCallbackHandle hotplugHandle;
+
+    /**
+     * All nodes by path key. Read without locking, modified under this.
+     */
+    private final Map<Long, Node> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * The nodes of the contained devices. Guarded by this.
+     */
+    private final Map<Device, Node> devices = new HashMap<>();
+
+    /**
+     * The bus nodes sorted by bus number. Guarded by this.
+     */
+    private final List<Node> buses = new ArrayList<>();
+
+    /**
+     * Buffer receiving port numbers. Guarded by this.
+     */
+    private final ByteBuffer path = BufferUtils.allocateByteBuffer(MAX_PORT_DEPTH);
+
+    /**
+     * The listener or null.
+     */
+    private volatile Listener listener;
+
+    /**
+     * Set when closed. Guarded by this.
+     */
+    private boolean closed;
+
+    /**
+     * Builds the topology of a context from its device list and keeps it up
+     * to date with hotplug events if the platform supports them.
+     *
+     * @param context The context, null for the default context.
+     * @throws LibUsbException When the device list could not be read or the
+     *                         hotplug callback could not be registered.
+     */
+    public UsbTopology(final Context context) {
+        this.backend = LIBUSB;
+        this.context = context;
+        if (LibUsb.hasCapability(LibUsb.CAP_HAS_HOTPLUG)) {
+            // Register first so no arrival between listing and registering
+            // is missed, adding a device twice is harmless
+            this.hotplugHandle = new HotplugCallbackHandle();
+            final int result = LibUsb.hotplugRegisterCallback(context,
+                LibUsb.HOTPLUG_EVENT_DEVICE_ARRIVED | LibUsb.HOTPLUG_EVENT_DEVICE_LEFT, LibUsb.HOTPLUG_NO_FLAGS,
+                LibUsb.HOTPLUG_MATCH_ANY, LibUsb.HOTPLUG_MATCH_ANY, LibUsb.HOTPLUG_MATCH_ANY, this::hotplug,
+                null, this.hotplugHandle);
+            if (result != LibUsb.SUCCESS) {
+                throw new LibUsbException("Unable to register hotplug callback", result);
+            }
+        } else {
+            this.hotplugHandle = null;
+        }
+        final DeviceList list = new DeviceList();
+        final int count = LibUsb.getDeviceList(context, list);
+        if (count < 0) {
+            close();
+            throw new LibUsbException("Unable to get device list", count);
+        }
+        try {
+            for (final Device device : list) {
+                add(device);
+            }
+        } finally {
+            LibUsb.freeDeviceList(list, true);
+        }
+    }
+
+    /**
+     * Constructs an empty topology which is updated manually with
+     * {@link #add(Device)} and {@link #remove(Device)}.
+     *
+     * @param backend The backend.
+     */
+    UsbTopology(final Backend backend) {
+        this.backend = backend;
+        this.context = null;
+        this.hotplugHandle = null;
+    }
+
+    /**
+     * Processes a hotplug event.
+     *
+     * @param eventContext The context of the event.
+     * @param device       The device.
+     * @param event        The event.
+     * @param userData     Unused.
+     * @return Always 0 to stay registered.
+     */
+    private int hotplug(final Context eventContext, final Device device, final int event,
+                        final Object userData) {
+        if (event == LibUsb.HOTPLUG_EVENT_DEVICE_ARRIVED) {
+            add(device);
+        } else {
+            remove(device);
+        }
+        return 0;
+    }
+
+    /**
+     * Sets the listener notified about topology changes.
+     *
+     * @param listener The listener or null for none.
+     */
+    public void setListener(final Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Computes the key of a port path. The bus number is stored in the top
+     * byte followed by one byte per port. Port numbers start at 1, so the
+     * unused trailing bytes are 0 and keys of different depths never
+     * collide.
+     *
+     * @param bus   The bus number.
+     * @param ports The port numbers.
+     * @param depth The number of ports.
+     * @return The key.
+     */
+    static long key(final int bus, final byte[] ports, final int depth) {
+        long key = (long) (bus & 0xff) << 56;
+        for (int i = 0; i < depth; i++) {
+            key |= (long) (ports[i] & 0xff) << (48 - i * 8);
+        }
+        return key;
+    }
+
+    /**
+     * Adds a device. Does nothing if the device is already contained.
+     * Missing ancestors are created as empty nodes which are filled when
+     * their hubs are added.
+     *
+     * @param device The device.
+     */
+    synchronized void add(final Device device) {
+        if (this.closed || this.devices.containsKey(device)) {
+            return;
+        }
+        final int bus = this.backend.busNumber(device);
+        this.path.clear();
+        final int depth = this.backend.portNumbers(device, this.path);
+        if (depth < 0) {
+            return;
+        }
+        final byte[] ports = new byte[depth];
+        this.path.get(ports);
+        final Node node = node(bus, ports, depth);
+        if (node.device != null) {
+            // A device which left without an event, replace it
+            this.devices.remove(node.device);
+            this.backend.unref(node.device);
+        }
+        this.backend.ref(device);
+        node.device = device;
+        node.hub = this.backend.isHub(device);
+        this.devices.put(device, node);
+        notifyListener(node, true);
+    }
+
+    /**
+     * Returns the node of a path, creating it and its ancestors if needed.
+     *
+     * @param bus   The bus number.
+     * @param ports The port numbers.
+     * @param depth The number of ports to use.
+     * @return The node.
+     */
+    private Node node(final int bus, final byte[] ports, final int depth) {
+        final long key = key(bus, ports, depth);
+        Node node = this.nodes.get(key);
+        if (node != null) {
+            return node;
+        }
+        final byte[] nodePorts = new byte[depth];
+        System.arraycopy(ports, 0, nodePorts, 0, depth);
+        if (depth == 0) {
+            node = new Node(null, bus, nodePorts, key);
+            insert(this.buses, node, bus);
+        } else {
+            final Node parent = node(bus, ports, depth - 1);
+            node = new Node(parent, bus, nodePorts, key);
+            insert(parent.children, node, nodePorts[depth - 1] & 0xff);
+        }
+        this.nodes.put(key, node);
+        return node;
+    }
+
+    /**
+     * Inserts a node into a list sorted by port (or bus) number.
+     *
+     * @param list   The list.
+     * @param node   The node.
+     * @param number The port or bus number of the node.
+     */
+    private static void insert(final List<Node> list, final Node node, final int number) {
+        int index = 0;
+        while (index < list.size() && list.get(index).number() < number) {
+            index++;
+        }
+        list.add(index, node);
+    }
+
+    /**
+     * Removes a device. Nodes left without device and children are pruned.
+     *
+     * @param device The device.
+     */
+    synchronized void remove(final Device device) {
+        final Node node = this.devices.remove(device);
+        if (node == null) {
+            return;
+        }
+        this.backend.unref(node.device);
+        node.device = null;
+        node.hub = false;
+        notifyListener(node, false);
+        prune(node);
+    }
+
+    /**
+     * Removes empty nodes from a node upwards.
+     *
+     * @param start The first node to check.
+     */
+    private void prune(final Node start) {
+        Node node = start;
+        while (node != null && node.device == null && node.children.isEmpty()) {
+            this.nodes.remove(node.key);
+            if (node.parent == null) {
+                this.buses.remove(node);
+            } else {
+                node.parent.children.remove(node);
+            }
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Notifies the listener.
+     *
+     * @param node     The node.
+     * @param attached True for arrivals.
+     */
+    private void notifyListener(final Node node, final boolean attached) {
+        final Listener current = this.listener;
+        if (current != null) {
+            current.topologyChanged(node, attached);
+        }
+    }
+
+    /**
+     * Returns the node at a port path.
+     *
+     * @param bus   The bus number.
+     * @param ports The port numbers from the root hub, none for the bus
+     *              (root hub) node.
+     * @return The node or null if nothing is known at this path.
+     */
+    public Node lookup(final int bus, final byte... ports) {
+        if (ports.length > MAX_PORT_DEPTH) {
+            return null;
+        }
+        return this.nodes.get(key(bus, ports, ports.length));
+    }
+
+    /**
+     * Returns the node at a location in {@code bus-port.port} notation, for
+     * example {@code 1-2.4}. A bus number alone addresses the bus node.
+     *
+     * @param location The location.
+     * @return The node or null if nothing is known at this location.
+     * @throws IllegalArgumentException When the location is malformed.
+     */
+    public Node lookup(final String location) {
+        final int dash = location.indexOf('-');
+        final byte[] ports = new byte[MAX_PORT_DEPTH];
+        int depth = 0;
+        try {
+            final int bus = Integer.parseInt(dash < 0 ? location : location.substring(0, dash));
+            if (dash >= 0) {
+                int start = dash + 1;
+                while (true) {
+                    if (depth == MAX_PORT_DEPTH) {
+                        return null;
+                    }
+                    final int dot = location.indexOf('.', start);
+                    final int end = dot < 0 ? location.length() : dot;
+                    final int port = Integer.parseInt(location.substring(start, end));
+                    if (port < 1 || port > 255) {
+                        return null;
+                    }
+                    ports[depth++] = (byte) port;
+                    if (dot < 0) {
+                        break;
+                    }
+                    start = dot + 1;
+                }
+            }
+            return this.nodes.get(key(bus, ports, depth));
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid location: " + location, e);
+        }
+    }
+
+    /**
+     * Returns the node of a device.
+     *
+     * @param device The device.
+     * @return The node or null if the device is not part of the topology.
+     */
+    public synchronized Node find(final Device device) {
+        return this.devices.get(device);
+    }
+
+    /**
+     * Returns the bus nodes.
+     *
+     * @return Snapshot of the bus nodes sorted by bus number.
+     */
+    public synchronized List<Node> getBuses() {
+        return Collections.unmodifiableList(new ArrayList<>(this.buses));
+    }
+
+    /**
+     * Returns the number of devices in the topology.
+     *
+     * @return The number of devices.
+     */
+    public synchronized int getDeviceCount() {
+        return this.devices.size();
+    }
+
+    /**
+     * Deregisters the hotplug callback and releases the references to all
+     * devices.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        }
+        if (this.hotplugHandle != null) {
+            LibUsb.hotplugDeregisterCallback(this.context, this.hotplugHandle);
+        }
+        synchronized (this) {
+            for (final Device device : this.devices.keySet()) {
+                this.backend.unref(device);
+            }
+            for (final Node node : this.nodes.values()) {
+                node.device = null;
+            }
+            this.devices.clear();
+            this.nodes.clear();
+            this.buses.clear();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("USB topology with %d buses and %d devices", this.buses.size(), this.devices.size());
+    }
+
+    /**
+     * A position in the topology: a bus (with its root hub) or a port with
+     * the device plugged into it.
+     */
+    public final class Node {
+
+        /**
+         * The parent node or null for bus nodes.
+         */
+        private final Node parent;
+
+        /**
+         * The bus number.
+         */
+        private final int bus;
+
+        /**
+         * The port numbers from the root hub.
+         */
+        private final byte[] ports;
+
+        /**
+         * The path key.
+         */
+        private final long key;
+
+        /**
+         * The child nodes sorted by port number. Guarded by the topology.
+         */
+        private final List<Node> children = new ArrayList<>();
+
+        /**
+         * The device or null if the node only leads to known devices. Guarded
+         * by the topology.
+         */
+        private Device device;
+
+        /**
+         * If the device is a hub. Guarded by the topology.
+         */
+        private boolean hub;
+
+        /**
+         * Constructs a new node.
+         *
+         * @param parent The parent or null.
+         * @param bus    The bus number.
+         * @param ports  The port numbers.
+         * @param key    The path key.
+         */
+        Node(final Node parent, final int bus, final byte[] ports, final long key) {
+            this.parent = parent;
+            this.bus = bus;
+            this.ports = ports;
+            this.key = key;
+        }
+
+        /**
+         * Returns the bus number for bus nodes and the port number otherwise.
+         *
+         * @return The number used for sorting.
+         */
+        int number() {
+            return this.ports.length == 0 ? this.bus : this.ports[this.ports.length - 1] & 0xff;
+        }
+
+        /**
+         * Returns the bus number.
+         *
+         * @return The bus number.
+         */
+        public int getBus() {
+            return this.bus;
+        }
+
+        /**
+         * Returns the port numbers from the root hub to this node.
+         *
+         * @return A copy of the port numbers, empty for bus nodes.
+         */
+        public byte[] getPortNumbers() {
+            return this.ports.clone();
+        }
+
+        /**
+         * Returns the number of the port of the parent hub this node is
+         * connected to.
+         *
+         * @return The port number or 0 for bus nodes.
+         */
+        public int getPortNumber() {
+            return this.ports.length == 0 ? 0 : this.ports[this.ports.length - 1] & 0xff;
+        }
+
+        /**
+         * Returns the depth, the number of ports between the root hub and
+         * this node.
+         *
+         * @return The depth, 0 for bus nodes.
+         */
+        public int getDepth() {
+            return this.ports.length;
+        }
+
+        /**
+         * Returns the location in {@code bus-port.port} notation.
+         *
+         * @return The location.
+         */
+        public String getLocation() {
+            return ShardedContexts.location(this.bus, this.ports);
+        }
+
+        /**
+         * Checks if this is a bus node.
+         *
+         * @return True for bus nodes.
+         */
+        public boolean isBus() {
+            return this.parent == null;
+        }
+
+        /**
+         * Returns the parent node.
+         *
+         * @return The parent or null for bus nodes.
+         */
+        public Node getParent() {
+            return this.parent;
+        }
+
+        /**
+         * Returns the device at this node. The device stays valid while it
+         * is part of the topology; add a reference with
+         * {@link LibUsb#refDevice(Device)} to keep it longer.
+         *
+         * @return The device or null if the device at this position is not
+         * known (yet).
+         */
+        public Device getDevice() {
+            synchronized (UsbTopology.this) {
+                return this.device;
+            }
+        }
+
+        /**
+         * Checks if the device at this node is a hub. Bus nodes represent the
+         * root hub.
+         *
+         * @return True for hubs.
+         */
+        public boolean isHub() {
+            synchronized (UsbTopology.this) {
+                return this.hub || !this.children.isEmpty();
+            }
+        }
+
+        /**
+         * Returns the child nodes.
+         *
+         * @return Snapshot of the children sorted by port number.
+         */
+        public List<Node> getChildren() {
+            synchronized (UsbTopology.this) {
+                return Collections.unmodifiableList(new ArrayList<>(this.children));
+            }
+        }
+
+        /**
+         * Returns this node and all nodes below it in depth-first pre-order,
+         * children sorted by port number.
+         *
+         * @return Snapshot of the subtree.
+         */
+        public List<Node> subtree() {
+            final List<Node> result = new ArrayList<>();
+            synchronized (UsbTopology.this) {
+                collect(this, result);
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        /**
+         * Returns the devices in the subtree of this node.
+         *
+         * @return Snapshot of the devices in depth-first pre-order.
+         */
+        public List<Device> devices() {
+            final List<Device> result = new ArrayList<>();
+            synchronized (UsbTopology.this) {
+                for (final Node node : subtree()) {
+                    if (node.device != null) {
+                        result.add(node.device);
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return getLocation();
+        }
+    }
+
+    /**
+     * Collects a subtree in pre-order.
+     *
+     * @param node   The root of the subtree.
+     * @param result The list receiving the nodes.
+     */
+    private static void collect(final Node node, final List<Node> result) {
+        result.add(node);
+        for (final Node child : node.children) {
+            collect(child, result);
+        }
+    }
+}
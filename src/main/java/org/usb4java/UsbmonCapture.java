@@ -0,0 +1,265 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A Linux usbmon capture stored in the classic pcap file format.
+ * <p>
+ * Both usbmon link types written by libpcap (and therefore by tcpdump and
+ * Wireshark) are supported: {@link #LINKTYPE_USB_LINUX} with the 48 byte
+ * header and {@link #LINKTYPE_USB_LINUX_MMAPPED} with the 64 byte header
+ * which also carries isochronous packet descriptors. Microsecond and
+ * nanosecond timestamp resolution is supported in either byte order.
+ * <p>
+ * Captures are usually replayed with {@link CaptureReplay}.
+ */
+public final class UsbmonCapture {
+
+    /**
+     * pcap link type of usbmon captures with the 48 byte header.
+     */
+    public static final int LINKTYPE_USB_LINUX = 189;
+
+    /**
+     * pcap link type of usbmon captures with the 64 byte header.
+     */
+    public static final int LINKTYPE_USB_LINUX_MMAPPED = 220;
+
+    /**
+     * pcap magic number for microsecond timestamps.
+     */
+    private static final int MAGIC_MICROS = 0xa1b2c3d4;
+
+    /**
+     * pcap magic number for nanosecond timestamps.
+     */
+    private static final int MAGIC_NANOS = 0xa1b23c4d;
+
+    /**
+     * Size of the pcap file header.
+     */
+    private static final int FILE_HEADER_SIZE = 24;
+
+    /**
+     * Size of the pcap record header.
+     */
+    private static final int RECORD_HEADER_SIZE = 16;
+
+    /**
+     * Size of the usbmon header of link type 189.
+     */
+    private static final int USBMON_HEADER_SIZE = 48;
+
+    /**
+     * Size of the usbmon header of link type 220.
+     */
+    private static final int USBMON_MMAPPED_HEADER_SIZE = 64;
+
+    /**
+     * Size of a single isochronous packet descriptor.
+     */
+    private static final int ISO_DESCRIPTOR_SIZE = 16;
+
+    /**
+     * The pcap link type.
+     */
+    private final int linkType;
+
+    /**
+     * The captured packets in capture order.
+     */
+    private final List<UsbmonPacket> packets;
+
+    /**
+     * Constructs a new capture.
+     *
+     * @param linkType The pcap link type.
+     * @param packets  The captured packets.
+     */
+    private UsbmonCapture(final int linkType, final List<UsbmonPacket> packets) {
+        this.linkType = linkType;
+        this.packets = Collections.unmodifiableList(packets);
+    }
+
+    /**
+     * Reads a capture from the specified pcap file. The file is memory-mapped
+     * while it is parsed.
+     *
+     * @param file The pcap file to read.
+     * @return The parsed capture.
+     * @throws IOException When the file could not be read or is not a usbmon
+     *                     pcap capture.
+     */
+    public static UsbmonCapture read(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a capture from the specified buffer. The buffer is read from its
+     * current position up to its limit.
+     *
+     * @param buffer The buffer containing the pcap data.
+     * @return The parsed capture.
+     * @throws IOException When the data is not a usbmon pcap capture.
+     */
+    public static UsbmonCapture read(final ByteBuffer buffer) throws IOException {
+        final ByteBuffer in = buffer.duplicate();
+        if (in.remaining() < FILE_HEADER_SIZE) {
+            throw new IOException("Truncated pcap file header");
+        }
+
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        int magic = in.getInt(in.position());
+        if (magic != MAGIC_MICROS && magic != MAGIC_NANOS) {
+            in.order(ByteOrder.BIG_ENDIAN);
+            magic = in.getInt(in.position());
+            if (magic != MAGIC_MICROS && magic != MAGIC_NANOS) {
+                throw new IOException(String.format("Not a pcap file (magic 0x%08x)", magic));
+            }
+        }
+        final boolean nanos = magic == MAGIC_NANOS;
+
+        in.position(in.position() + 20);
+        final int linkType = in.getInt();
+        if (linkType != LINKTYPE_USB_LINUX && linkType != LINKTYPE_USB_LINUX_MMAPPED) {
+            throw new IOException("Not a usbmon capture (link type " + linkType + ")");
+        }
+
+        final int headerSize = linkType == LINKTYPE_USB_LINUX_MMAPPED
+            ? USBMON_MMAPPED_HEADER_SIZE : USBMON_HEADER_SIZE;
+        final List<UsbmonPacket> packets = new ArrayList<>();
+        while (in.remaining() >= RECORD_HEADER_SIZE) {
+            final long seconds = in.getInt() & 0xffffffffL;
+            final long fraction = in.getInt() & 0xffffffffL;
+            final int capturedLength = in.getInt();
+            in.getInt(); // Original length, not needed
+
+            if (capturedLength < headerSize) {
+                throw new IOException("Invalid pcap record length " + capturedLength);
+            }
+            if (capturedLength > in.remaining()) {
+                throw new IOException("Truncated pcap record");
+            }
+            final ByteBuffer record = BufferUtils.slice(in, in.position(), capturedLength);
+            record.order(in.order());
+            in.position(in.position() + capturedLength);
+
+            final long timestamp = seconds * 1000000000L + (nanos ? fraction : fraction * 1000L);
+            packets.add(parse(record, linkType, timestamp));
+        }
+
+        return new UsbmonCapture(linkType, packets);
+    }
+
+    /**
+     * Parses a single usbmon record.
+     *
+     * @param record    The record data, at least as large as the usbmon
+     *                  header of the link type.
+     * @param linkType  The pcap link type.
+     * @param timestamp The record timestamp in nanoseconds.
+     * @return The parsed packet.
+     * @throws IOException When the isochronous packet descriptors don't fit
+     *                     into the record.
+     */
+    private static UsbmonPacket parse(final ByteBuffer record, final int linkType,
+                                      final long timestamp) throws IOException {
+        final long id = record.getLong(0);
+        final char type = (char) (record.get(8) & 0xff);
+        final int transferType = record.get(9) & 0xff;
+        final byte endpoint = record.get(10);
+        final int deviceAddress = record.get(11) & 0xff;
+        final int busNumber = record.getShort(12) & 0xffff;
+        final boolean hasSetup = record.get(14) == 0;
+        final int status = record.getInt(28);
+        final int length = record.getInt(32);
+        final int dataLength = record.getInt(36);
+
+        byte[] setup = null;
+        if (hasSetup) {
+            setup = new byte[LibUsb.CONTROL_SETUP_SIZE];
+            BufferUtils.slice(record, 40, setup.length).get(setup);
+        }
+
+        int offset = USBMON_HEADER_SIZE;
+        UsbmonPacket.IsoPacket[] isoPackets = null;
+        if (linkType == LINKTYPE_USB_LINUX_MMAPPED) {
+            offset = USBMON_MMAPPED_HEADER_SIZE;
+            if (transferType == UsbmonPacket.XFER_ISO) {
+                final int count = record.getInt(60);
+                if (count < 0 || count > (record.limit() - offset) / ISO_DESCRIPTOR_SIZE) {
+                    throw new IOException("Invalid isochronous packet count " + count);
+                }
+                isoPackets = new UsbmonPacket.IsoPacket[count];
+                for (int i = 0; i < count; i++) {
+                    final int base = offset + i * ISO_DESCRIPTOR_SIZE;
+                    isoPackets[i] = new UsbmonPacket.IsoPacket(record.getInt(base),
+                        record.getInt(base + 4), record.getInt(base + 8));
+                }
+                offset += count * ISO_DESCRIPTOR_SIZE;
+            }
+        }
+
+        final byte[] data = new byte[Math.max(0, Math.min(dataLength, record.limit() - offset))];
+        BufferUtils.slice(record, offset, data.length).get(data);
+
+        return new UsbmonPacket(id, type, transferType, endpoint, deviceAddress,
+                                busNumber, timestamp, status, length, setup, data, isoPackets);
+    }
+
+    /**
+     * Returns the pcap link type of the capture.
+     *
+     * @return The link type.
+     */
+    public int linkType() {
+        return this.linkType;
+    }
+
+    /**
+     * Returns all captured packets in capture order.
+     *
+     * @return The captured packets. Never null.
+     */
+    public List<UsbmonPacket> packets() {
+        return this.packets;
+    }
+
+    /**
+     * Returns a capture containing only the packets of the specified device.
+     *
+     * @param busNumber     The bus number.
+     * @param deviceAddress The device address.
+     * @return The filtered capture.
+     */
+    public UsbmonCapture filter(final int busNumber, final int deviceAddress) {
+        final List<UsbmonPacket> filtered = new ArrayList<>();
+        for (final UsbmonPacket packet : this.packets) {
+            if (packet.busNumber() == busNumber && packet.deviceAddress() == deviceAddress) {
+                filtered.add(packet);
+            }
+        }
+        return new UsbmonCapture(this.linkType, filtered);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("usbmon capture with %d packets (link type %d)",
+                             this.packets.size(), this.linkType);
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A single URB event read from a Linux usbmon capture.
+ * <p>
+ * Every URB shows up at least twice in a capture: once when it is submitted
+ * ({@link #TYPE_SUBMIT}) and once when it completes ({@link #TYPE_COMPLETE})
+ * or fails to be submitted ({@link #TYPE_ERROR}). Both events share the same
+ * {@link #id()}.
+ *
+ * @see UsbmonCapture
+ */
+public final class UsbmonPacket {
+
+    /**
+     * Event type of a submission.
+     */
+    public static final char TYPE_SUBMIT = 'S';
+
+    /**
+     * Event type of a completion.
+     */
+    public static final char TYPE_COMPLETE = 'C';
+
+    /**
+     * Event type of a submission error.
+     */
+    public static final char TYPE_ERROR = 'E';
+
+    /**
+     * usbmon transfer type of isochronous transfers.
+     */
+    public static final int XFER_ISO = 0;
+
+    /**
+     * usbmon transfer type of interrupt transfers.
+     */
+    public static final int XFER_INTERRUPT = 1;
+
+    /**
+     * usbmon transfer type of control transfers.
+     */
+    public static final int XFER_CONTROL = 2;
+
+    /**
+     * usbmon transfer type of bulk transfers.
+     */
+    public static final int XFER_BULK = 3;
+
+    /**
+     * Empty iso packet array shared by all non-isochronous events.
+     */
+    private static final IsoPacket[] NO_ISO_PACKETS = new IsoPacket[0];
+
+    /**
+     * The URB tag.
+     */
+    private final long id;
+
+    /**
+     * The event type.
+     */
+    private final char type;
+
+    /**
+     * The usbmon transfer type.
+     */
+    private final int transferType;
+
+    /**
+     * The endpoint address including the direction bit.
+     */
+    private final byte endpoint;
+
+    /**
+     * The device address.
+     */
+    private final int deviceAddress;
+
+    /**
+     * The bus number.
+     */
+    private final int busNumber;
+
+    /**
+     * The capture timestamp in nanoseconds.
+     */
+    private final long timestamp;
+
+    /**
+     * The URB status (negative errno).
+     */
+    private final int status;
+
+    /**
+     * The URB length.
+     */
+    private final int length;
+
+    /**
+     * The setup packet or null if none was captured.
+     */
+    private final byte[] setup;
+
+    /**
+     * The captured data.
+     */
+    private final byte[] data;
+
+    /**
+     * The isochronous packet descriptors.
+     */
+    private final IsoPacket[] isoPackets;
+
+    /**
+     * Constructs a new packet.
+     *
+     * @param id            The URB tag.
+     * @param type          The event type.
+     * @param transferType  The usbmon transfer type.
+     * @param endpoint      The endpoint address including the direction bit.
+     * @param deviceAddress The device address.
+     * @param busNumber     The bus number.
+     * @param timestamp     The capture timestamp in nanoseconds.
+     * @param status        The URB status.
+     * @param length        The URB length.
+     * @param setup         The setup packet or null if none.
+     * @param data          The captured data.
+     * @param isoPackets    The isochronous packet descriptors or null if none.
+     */
+    UsbmonPacket(final long id, final char type, final int transferType,
+                 final byte endpoint, final int deviceAddress, final int busNumber,
+                 final long timestamp, final int status, final int length,
+                 final byte[] setup, final byte[] data, final IsoPacket[] isoPackets) {
+        this.id = id;
+        this.type = type;
+        this.transferType = transferType;
+        this.endpoint = endpoint;
+        this.deviceAddress = deviceAddress;
+        this.busNumber = busNumber;
+        this.timestamp = timestamp;
+        this.status = status;
+        this.length = length;
+        this.setup = setup;
+        this.data = data;
+        this.isoPackets = isoPackets == null ? NO_ISO_PACKETS : isoPackets;
+    }
+
+    /**
+     * Returns the URB tag which links submissions and completions.
+     *
+     * @return The URB tag.
+     */
+    public long id() {
+        return this.id;
+    }
+
+    /**
+     * Returns the event type. One of {@link #TYPE_SUBMIT},
+     * {@link #TYPE_COMPLETE} or {@link #TYPE_ERROR}.
+     *
+     * @return The event type.
+     */
+    public char type() {
+        return this.type;
+    }
+
+    /**
+     * Returns the usbmon transfer type. One of {@link #XFER_ISO},
+     * {@link #XFER_INTERRUPT}, {@link #XFER_CONTROL} or {@link #XFER_BULK}.
+     *
+     * @return The transfer type.
+     */
+    public int transferType() {
+        return this.transferType;
+    }
+
+    /**
+     * Returns the endpoint address including the direction bit.
+     *
+     * @return The endpoint address.
+     */
+    public byte endpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Checks if this event belongs to an IN endpoint.
+     *
+     * @return True for IN endpoints, false for OUT endpoints.
+     */
+    public boolean isIn() {
+        return (this.endpoint & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN;
+    }
+
+    /**
+     * Returns the device address.
+     *
+     * @return The device address.
+     */
+    public int deviceAddress() {
+        return this.deviceAddress;
+    }
+
+    /**
+     * Returns the bus number.
+     *
+     * @return The bus number.
+     */
+    public int busNumber() {
+        return this.busNumber;
+    }
+
+    /**
+     * Returns the capture timestamp in nanoseconds since the epoch.
+     *
+     * @return The timestamp.
+     */
+    public long timestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Returns the URB status. 0 on success, a negative errno value otherwise.
+     *
+     * @return The URB status.
+     */
+    public int status() {
+        return this.status;
+    }
+
+    /**
+     * Returns the URB length. For submissions this is the requested length,
+     * for completions it is the actual length.
+     *
+     * @return The URB length.
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Returns the setup packet of a control submission.
+     *
+     * @return The 8 byte setup packet as a read-only buffer or null if none.
+     */
+    public ByteBuffer setup() {
+        return this.setup == null ? null : ByteBuffer.wrap(this.setup).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the captured data. This may be shorter than {@link #length()}
+     * when the capture was truncated by the snap length.
+     *
+     * @return The captured data as a read-only buffer.
+     */
+    public ByteBuffer data() {
+        return ByteBuffer.wrap(this.data).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the number of captured data bytes.
+     *
+     * @return The captured data length.
+     */
+    public int dataLength() {
+        return this.data.length;
+    }
+
+    /**
+     * Returns the isochronous packet descriptors. Only available in captures
+     * using the memory-mapped usbmon header.
+     *
+     * @return The isochronous packet descriptors. Never null.
+     */
+    public IsoPacket[] isoPackets() {
+        return this.isoPackets.clone();
+    }
+
+    /**
+     * Returns the internal setup array.
+     *
+     * @return The internal setup array or null. Must not be modified.
+     */
+    byte[] setupArray() {
+        return this.setup;
+    }
+
+    /**
+     * Returns the internal data array.
+     *
+     * @return The internal data array. Must not be modified.
+     */
+    byte[] dataArray() {
+        return this.data;
+    }
+
+    /**
+     * Returns the internal iso packet array.
+     *
+     * @return The internal iso packet array. Must not be modified.
+     */
+    IsoPacket[] isoPacketArray() {
+        return this.isoPackets;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("usbmon %c %016x %d:%d:%02x len %d status %d",
+                             this.type, this.id, this.busNumber, this.deviceAddress,
+                             this.endpoint & 0xff, this.length, this.status);
+    }
+
+    /**
+     * Isochronous packet descriptor of a captured URB.
+     */
+    public static final class IsoPacket {
+
+        /**
+         * The packet status.
+         */
+        private final int status;
+
+        /**
+         * The packet offset within the URB data.
+         */
+        private final int offset;
+
+        /**
+         * The packet length.
+         */
+        private final int length;
+
+        /**
+         * Constructs a new iso packet descriptor.
+         *
+         * @param status The packet status.
+         * @param offset The packet offset within the URB data.
+         * @param length The packet length.
+         */
+        IsoPacket(final int status, final int offset, final int length) {
+            this.status = status;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * Returns the packet status.
+         *
+         * @return The packet status.
+         */
+        public int status() {
+            return this.status;
+        }
+
+        /**
+         * Returns the offset of the packet within the URB data.
+         *
+         * @return The packet offset.
+         */
+        public int offset() {
+            return this.offset;
+        }
+
+        /**
+         * Returns the packet length.
+         *
+         * @return The packet length.
+         */
+        public int length() {
+            return this.length;
+        }
+    }
+}
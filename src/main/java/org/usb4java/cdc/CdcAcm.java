@@ -0,0 +1,646 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.cdc;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.usb4java.BufferUtils;
+import org.usb4java.ConfigDescriptor;
+import org.usb4java.DeviceHandle;
+import org.usb4java.EndpointChannel;
+import org.usb4java.EndpointDescriptor;
+import org.usb4java.EventLoop;
+import org.usb4java.Interface;
+import org.usb4java.InterfaceDescriptor;
+import org.usb4java.LibUsb;
+import org.usb4java.LibUsbException;
+import org.usb4java.Transfer;
+import org.usb4java.TransferCallback;
+
+/**
+ * Driver for CDC-ACM (Abstract Control Model) functions such as USB modems,
+ * data loggers and USB serial adapters.
+ * <p>
+ * Finds the communication (control) interface and the data interface of
+ * the function in a configuration descriptor, using the union functional
+ * descriptor when present, and claims both. Line coding and control line
+ * state are set with class-specific control requests. The bulk data pipes
+ * are exposed as {@link EndpointChannel}s which keep several IN transfers
+ * queued, so received data is picked up without the latency of the tty
+ * layer. Serial state notifications from the interrupt endpoint are
+ * delivered asynchronously to a {@link SerialStateListener}.
+ * <p>
+ * Completions are handled by the {@link EventLoop} passed to the
+ * constructor, which must be running until the driver is closed.
+ */
+public final class CdcAcm implements AutoCloseable {
+
+    /**
+     * Receives serial state notifications.
+     */
+    public interface SerialStateListener {
+        /**
+         * Called on the event thread when the device reports a new serial
+         * state.
+         *
+         * @param state The UART state bitmap, see the SERIAL_STATE
+         *              constants.
+         */
+        void serialStateChanged(int state);
+    }
+
+    /** Serial state: data carrier detect (bRxCarrier). */
+    public static final int SERIAL_STATE_DCD = 0x01;
+
+    /** Serial state: data set ready (bTxCarrier). */
+    public static final int SERIAL_STATE_DSR = 0x02;
+
+    /** Serial state: break detected. */
+    public static final int SERIAL_STATE_BREAK = 0x04;
+
+    /** Serial state: ring signal detected. */
+    public static final int SERIAL_STATE_RING = 0x08;
+
+    /** Serial state: framing error. */
+    public static final int SERIAL_STATE_FRAMING = 0x10;
+
+    /** Serial state: parity error. */
+    public static final int SERIAL_STATE_PARITY = 0x20;
+
+    /** Serial state: receive buffer overrun. */
+    public static final int SERIAL_STATE_OVERRUN = 0x40;
+
+    /** The ACM subclass of the communication interface class. */
+    static final int SUBCLASS_ACM = 0x02;
+
+    /** Class-specific interface descriptor type. */
+    static final int CS_INTERFACE = 0x24;
+
+    /** Union functional descriptor subtype. */
+    static final int UNION_FUNCTIONAL = 0x06;
+
+    /** The SERIAL_STATE notification code. */
+    static final int NOTIFICATION_SERIAL_STATE = 0x20;
+
+    /** The SET_LINE_CODING request. */
+    private static final byte SET_LINE_CODING = 0x20;
+
+    /** The GET_LINE_CODING request. */
+    private static final byte GET_LINE_CODING = 0x21;
+
+    /** The SET_CONTROL_LINE_STATE request. */
+    private static final byte SET_CONTROL_LINE_STATE = 0x22;
+
+    /** The SEND_BREAK request. */
+    private static final byte SEND_BREAK = 0x23;
+
+    /** The timeout of control requests in milliseconds. */
+    private static final long CONTROL_TIMEOUT = 1000;
+
+    /** The number of queued notification transfers. */
+    private static final int NOTIFICATION_DEPTH = 2;
+
+    /** The size of a notification transfer. */
+    private static final int NOTIFICATION_SIZE = 16;
+
+    /**
+     * The event loop handling the completions.
+     */
+    private final EventLoop eventLoop;
+
+    /**
+     * The device handle.
+     */
+    private final DeviceHandle handle;
+
+    /**
+     * The communication interface number.
+     */
+    private final int controlInterface;
+
+    /**
+     * The data interface number.
+     */
+    private final int dataInterface;
+
+    /**
+     * The interrupt IN notification endpoint or 0 if none.
+     */
+    private final byte notificationEndpoint;
+
+    /**
+     * The input channel.
+     */
+    private final EndpointChannel input;
+
+    /**
+     * The output channel.
+     */
+    private final EndpointChannel output;
+
+    /**
+     * The notification reader or null if not started. Guarded by this.
+     */
+    private Notifications notifications;
+
+    /**
+     * Set when closed. Guarded by this.
+     */
+    private boolean closed;
+
+    /**
+     * Opens the first CDC-ACM function of a configuration.
+     *
+     * @param eventLoop    The running event loop of the context of the handle.
+     * @param handle       The device handle.
+     * @param config       The active configuration descriptor.
+     * @param transferSize The size of each bulk transfer in bytes.
+     * @param depth        The number of bulk transfers kept in flight per
+     *                     direction.
+     * @throws IllegalArgumentException When the configuration has no CDC-ACM
+     *                                  function or the transfer size or
+     *                                  depth is not positive.
+     * @throws LibUsbException When the interfaces could not be claimed.
+     */
+    public CdcAcm(final EventLoop eventLoop, final DeviceHandle handle, final ConfigDescriptor config,
+                  final int transferSize, final int depth) {
+        if (eventLoop == null) {
+            throw new IllegalArgumentException("eventLoop must not be null");
+        }
+        // Checked before any interface is claimed
+        if (transferSize <= 0) {
+            throw new IllegalArgumentException("transferSize must be positive");
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("depth must be positive");
+        }
+        this.eventLoop = eventLoop;
+        this.handle = handle;
+
+        // Find the communication interface and its notification endpoint
+        InterfaceDescriptor control = null;
+        int data = -1;
+        for (final Interface iface : config.iface()) {
+            final InterfaceDescriptor descriptor = iface.altsetting()[0];
+            if (descriptor.bInterfaceClass() == LibUsb.CLASS_COMM
+                && descriptor.bInterfaceSubClass() == SUBCLASS_ACM) {
+                control = descriptor;
+                data = parseUnion(descriptor.extra(), descriptor.bInterfaceNumber() & 0xff);
+                break;
+            }
+        }
+        if (control == null) {
+            throw new IllegalArgumentException("No CDC-ACM communication interface found");
+        }
+        byte notify = 0;
+        for (final EndpointDescriptor endpoint : control.endpoint()) {
+            if (isType(endpoint, LibUsb.TRANSFER_TYPE_INTERRUPT) && isIn(endpoint)) {
+                notify = endpoint.bEndpointAddress();
+            }
+        }
+
+        // Find the data interface setting with a bulk IN and OUT endpoint
+        InterfaceDescriptor dataSetting = null;
+        byte bulkIn = 0;
+        byte bulkOut = 0;
+        for (final Interface iface : config.iface()) {
+            for (final InterfaceDescriptor descriptor : iface.altsetting()) {
+                final int number = descriptor.bInterfaceNumber() & 0xff;
+                if (data >= 0 ? number != data : descriptor.bInterfaceClass() != LibUsb.CLASS_DATA) {
+                    continue;
+                }
+                byte in = 0;
+                byte out = 0;
+                for (final EndpointDescriptor endpoint : descriptor.endpoint()) {
+                    if (isType(endpoint, LibUsb.TRANSFER_TYPE_BULK)) {
+                        if (isIn(endpoint)) {
+                            in = endpoint.bEndpointAddress();
+                        } else {
+                            out = endpoint.bEndpointAddress();
+                        }
+                    }
+                }
+                if (in != 0 && out != 0 && dataSetting == null) {
+                    dataSetting = descriptor;
+                    bulkIn = in;
+                    bulkOut = out;
+                }
+            }
+        }
+        if (dataSetting == null) {
+            throw new IllegalArgumentException("No CDC data interface with bulk endpoints found");
+        }
+        this.controlInterface = control.bInterfaceNumber() & 0xff;
+        this.dataInterface = dataSetting.bInterfaceNumber() & 0xff;
+        this.notificationEndpoint = notify;
+
+        LibUsb.setAutoDetachKernelDriver(handle, true);
+        claim(this.controlInterface);
+        try {
+            claim(this.dataInterface);
+        } catch (final LibUsbException e) {
+            LibUsb.releaseInterface(handle, this.controlInterface);
+            throw e;
+        }
+        if (dataSetting.bAlternateSetting() != 0) {
+            final int result = LibUsb.setInterfaceAltSetting(handle, this.dataInterface,
+                                                             dataSetting.bAlternateSetting() & 0xff);
+            if (result != LibUsb.SUCCESS) {
+                releaseInterfaces();
+                throw new LibUsbException("Unable to select data interface setting", result);
+            }
+        }
+        EndpointChannel in = null;
+        EndpointChannel out = null;
+        try {
+            in = new EndpointChannel(eventLoop, handle, bulkIn, transferSize, depth);
+            out = new EndpointChannel(eventLoop, handle, bulkOut, transferSize, depth);
+        } finally {
+            if (out == null) {
+                // For example out of direct memory for the buffers
+                if (in != null) {
+                    in.close();
+                }
+                releaseInterfaces();
+            }
+        }
+        this.input = in;
+        this.output = out;
+    }
+
+    /**
+     * Checks the transfer type of an endpoint.
+     *
+     * @param endpoint The endpoint descriptor.
+     * @param type     The transfer type.
+     * @return True if the endpoint has the transfer type.
+     */
+    private static boolean isType(final EndpointDescriptor endpoint, final byte type) {
+        return (endpoint.bmAttributes() & LibUsb.TRANSFER_TYPE_MASK) == type;
+    }
+
+    /**
+     * Checks if an endpoint is an IN endpoint.
+     *
+     * @param endpoint The endpoint descriptor.
+     * @return True for IN endpoints.
+     */
+    private static boolean isIn(final EndpointDescriptor endpoint) {
+        return (endpoint.bEndpointAddress() & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN;
+    }
+
+    /**
+     * Finds the data interface in the union functional descriptor of a
+     * communication interface.
+     *
+     * @param extra            The extra descriptors of the interface.
+     * @param controlInterface The number of the communication interface.
+     * @return The number of the first subordinate interface or -1 if there
+     * is no matching union functional descriptor.
+     */
+    static int parseUnion(final ByteBuffer extra, final int controlInterface) {
+        if (extra == null) {
+            return -1;
+        }
+        final ByteBuffer buffer = extra.duplicate();
+        while (buffer.remaining() >= 2) {
+            final int start = buffer.position();
+            final int length = buffer.get(start) & 0xff;
+            if (length < 2 || length > buffer.remaining()) {
+                break;
+            }
+            if ((buffer.get(start + 1) & 0xff) == CS_INTERFACE && length >= 5
+                && (buffer.get(start + 2) & 0xff) == UNION_FUNCTIONAL
+                && (buffer.get(start + 3) & 0xff) == controlInterface) {
+                return buffer.get(start + 4) & 0xff;
+            }
+            buffer.position(start + length);
+        }
+        return -1;
+    }
+
+    /**
+     * Extracts the UART state from a SERIAL_STATE notification.
+     *
+     * @param notification The notification at the position of the buffer.
+     * @param length       The number of received bytes.
+     * @return The UART state bitmap or -1 if this is no serial state
+     * notification.
+     */
+    static int parseSerialState(final ByteBuffer notification, final int length) {
+        final int base = notification.position();
+        if (length < 10 || (notification.get(base + 1) & 0xff) != NOTIFICATION_SERIAL_STATE) {
+            return -1;
+        }
+        return (notification.get(base + 8) & 0xff) | (notification.get(base + 9) & 0xff) << 8;
+    }
+
+    /**
+     * Claims an interface.
+     *
+     * @param number The interface number.
+     */
+    private void claim(final int number) {
+        final int result = LibUsb.claimInterface(this.handle, number);
+        if (result != LibUsb.SUCCESS) {
+            throw new LibUsbException("Unable to claim interface " + number, result);
+        }
+    }
+
+    /**
+     * Releases both interfaces.
+     */
+    private void releaseInterfaces() {
+        LibUsb.releaseInterface(this.handle, this.dataInterface);
+        LibUsb.releaseInterface(this.handle, this.controlInterface);
+    }
+
+    /**
+     * Returns the number of the communication interface.
+     *
+     * @return The interface number.
+     */
+    public int getControlInterface() {
+        return this.controlInterface;
+    }
+
+    /**
+     * Returns the number of the data interface.
+     *
+     * @return The interface number.
+     */
+    public int getDataInterface() {
+        return this.dataInterface;
+    }
+
+    /**
+     * Returns the channel receiving data from the device.
+     *
+     * @return The input channel.
+     */
+    public ReadableByteChannel getInputChannel() {
+        return this.input;
+    }
+
+    /**
+     * Returns the channel sending data to the device.
+     *
+     * @return The output channel.
+     */
+    public WritableByteChannel getOutputChannel() {
+        return this.output;
+    }
+
+    /**
+     * Sends a class-specific request to the communication interface.
+     *
+     * @param request The request.
+     * @param value   The wValue field.
+     * @param data    The direct data buffer.
+     * @param in      True for device-to-host requests.
+     * @return The number of transferred bytes.
+     */
+    private int request(final byte request, final int value, final ByteBuffer data, final boolean in) {
+        final byte type = (byte) ((in ? LibUsb.ENDPOINT_IN : LibUsb.ENDPOINT_OUT) | LibUsb.REQUEST_TYPE_CLASS
+            | LibUsb.RECIPIENT_INTERFACE);
+        final int result = LibUsb.controlTransfer(this.handle, type, request, (short) value,
+                                                  (short) this.controlInterface, data, CONTROL_TIMEOUT);
+        if (result < 0) {
+            throw new LibUsbException("Control request 0x" + Integer.toHexString(request) + " failed", result);
+        }
+        return result;
+    }
+
+    /**
+     * Sets the line coding (SET_LINE_CODING).
+     *
+     * @param coding The line coding.
+     * @throws LibUsbException When the request failed.
+     */
+    public void setLineCoding(final LineCoding coding) {
+        final ByteBuffer data = BufferUtils.allocateByteBuffer(LineCoding.SIZE);
+        coding.encode(data);
+        request(SET_LINE_CODING, 0, data, false);
+    }
+
+    /**
+     * Reads the current line coding (GET_LINE_CODING).
+     *
+     * @return The line coding.
+     * @throws LibUsbException When the request failed.
+     */
+    public LineCoding getLineCoding() {
+        final ByteBuffer data = BufferUtils.allocateByteBuffer(LineCoding.SIZE);
+        if (request(GET_LINE_CODING, 0, data, true) < LineCoding.SIZE) {
+            throw new LibUsbException("Short line coding response", LibUsb.ERROR_IO);
+        }
+        return LineCoding.decode(data);
+    }
+
+    /**
+     * Sets the control line state (SET_CONTROL_LINE_STATE).
+     *
+     * @param dtr The state of the Data Terminal Ready line.
+     * @param rts The state of the Request To Send line.
+     * @throws LibUsbException When the request failed.
+     */
+    public void setControlLineState(final boolean dtr, final boolean rts) {
+        request(SET_CONTROL_LINE_STATE, (dtr ? 1 : 0) | (rts ? 2 : 0), BufferUtils.allocateByteBuffer(0), false);
+    }
+
+    /**
+     * Sends a break (SEND_BREAK).
+     *
+     * @param duration The duration in milliseconds, 0xffff to start a break
+     *                 until the next call with 0.
+     * @throws LibUsbException When the request failed.
+     */
+    public void sendBreak(final int duration) {
+        request(SEND_BREAK, duration, BufferUtils.allocateByteBuffer(0), false);
+    }
+
+    /**
+     * Starts delivering serial state notifications to the listener. Does
+     * nothing if the function has no notification endpoint.
+     *
+     * @param listener The listener.
+     * @throws LibUsbException When the notification transfers could not be
+     *                         submitted.
+     */
+    public synchronized void startNotifications(final SerialStateListener listener) {
+        if (this.closed) {
+            throw new IllegalStateException("Driver already closed");
+        }
+        if (this.notifications != null) {
+            throw new IllegalStateException("Notifications already started");
+        }
+        if (this.notificationEndpoint == 0) {
+            return;
+        }
+        final Notifications reader = new Notifications(listener);
+        try {
+            reader.start();
+        } catch (final LibUsbException e) {
+            reader.close();
+            throw e;
+        }
+        this.notifications = reader;
+    }
+
+    /**
+     * Closes the data channels, stops the notifications and releases the
+     * interfaces. Must not be called on the event thread. Waits for the
+     * cancelled transfers even when interrupted and restores the interrupt
+     * status afterwards.
+     */
+    @Override
+    public void close() {
+        // Checked first so the close can be retried from another thread
+        if (this.eventLoop.isEventThread()) {
+            throw new IllegalStateException("Can't wait for transfers on the event thread");
+        }
+        final Notifications running;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            running = this.notifications;
+            this.notifications = null;
+        }
+        try {
+            this.input.close();
+            this.output.close();
+        } finally {
+            try {
+                if (running != null) {
+                    running.close();
+                }
+            } finally {
+                releaseInterfaces();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CDC-ACM with control interface %d and data interface %d",
+                             this.controlInterface, this.dataInterface);
+    }
+
+    /**
+     * Continuously reads the notification endpoint.
+     */
+    private final class Notifications implements TransferCallback {
+
+        /**
+         * The listener.
+         */
+        private final SerialStateListener listener;
+
+        /**
+         * The transfers.
+         */
+        private final Transfer[] transfers = new Transfer[NOTIFICATION_DEPTH];
+
+        /**
+         * The number of transfers in flight. Guarded by this.
+         */
+        private int inFlight;
+
+        /**
+         * Set when stopping. Guarded by this.
+         */
+        private boolean stopping;
+
+        /**
+         * Constructs the notification reader.
+         *
+         * @param listener The listener.
+         */
+        Notifications(final SerialStateListener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Allocates and submits the transfers.
+         */
+        void start() {
+            for (int i = 0; i < this.transfers.length; i++) {
+                final Transfer transfer = LibUsb.allocTransfer();
+                if (transfer == null) {
+                    throw new LibUsbException("Unable to allocate transfer", LibUsb.ERROR_NO_MEM);
+                }
+                LibUsb.fillInterruptTransfer(transfer, CdcAcm.this.handle, CdcAcm.this.notificationEndpoint,
+                                             BufferUtils.allocateByteBuffer(NOTIFICATION_SIZE), this, null, 0);
+                this.transfers[i] = transfer;
+                synchronized (this) {
+                    final int result = LibUsb.submitTransfer(transfer);
+                    if (result != LibUsb.SUCCESS) {
+                        throw new LibUsbException("Unable to submit notification transfer", result);
+                    }
+                    this.inFlight++;
+                }
+            }
+        }
+
+        @Override
+        public void processTransfer(final Transfer transfer) {
+            final int status = transfer.status();
+            if (status == LibUsb.TRANSFER_COMPLETED) {
+                final int state = parseSerialState(transfer.buffer(), transfer.actualLength());
+                if (state >= 0) {
+                    this.listener.serialStateChanged(state);
+                }
+            }
+            synchronized (this) {
+                if (!this.stopping && (status == LibUsb.TRANSFER_COMPLETED
+                    || status == LibUsb.TRANSFER_TIMED_OUT)
+                    && LibUsb.submitTransfer(transfer) == LibUsb.SUCCESS) {
+                    return;
+                }
+                this.inFlight--;
+                notifyAll();
+            }
+        }
+
+        /**
+         * Cancels the transfers, waits for them and frees them. An interrupt
+         * does not stop the wait, because the transfers can't be freed while
+         * in flight, and is restored afterwards.
+         */
+        void close() {
+            synchronized (this) {
+                this.stopping = true;
+            }
+            for (final Transfer transfer : this.transfers) {
+                if (transfer != null) {
+                    LibUsb.cancelTransfer(transfer);
+                }
+            }
+            boolean interrupted = false;
+            synchronized (this) {
+                while (this.inFlight > 0) {
+                    try {
+                        wait();
+                    } catch (final InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            for (final Transfer transfer : this.transfers) {
+                if (transfer != null) {
+                    LibUsb.freeTransfer(transfer);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.cdc;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The line coding of a CDC-ACM function (baud rate and character format),
+ * as transferred by the SET_LINE_CODING and GET_LINE_CODING requests.
+ */
+public final class LineCoding {
+
+    /**
+     * The size of the encoded line coding.
+     */
+    public static final int SIZE = 7;
+
+    /** One stop bit. */
+    public static final int STOP_BITS_1 = 0;
+
+    /** 1.5 stop bits. */
+    public static final int STOP_BITS_1_5 = 1;
+
+    /** Two stop bits. */
+    public static final int STOP_BITS_2 = 2;
+
+    /** No parity. */
+    public static final int PARITY_NONE = 0;
+
+    /** Odd parity. */
+    public static final int PARITY_ODD = 1;
+
+    /** Even parity. */
+    public static final int PARITY_EVEN = 2;
+
+    /** Mark parity. */
+    public static final int PARITY_MARK = 3;
+
+    /** Space parity. */
+    public static final int PARITY_SPACE = 4;
+
+    /**
+     * The baud rate.
+     */
+    private final int baudRate;
+
+    /**
+     * The number of data bits.
+     */
+    private final int dataBits;
+
+    /**
+     * The parity.
+     */
+    private final int parity;
+
+    /**
+     * The stop bits.
+     */
+    private final int stopBits;
+
+    /**
+     * Constructs a new line coding.
+     *
+     * @param baudRate The baud rate in bits per second.
+     * @param dataBits The number of data bits (5, 6, 7, 8 or 16).
+     * @param parity   The parity, one of the PARITY constants.
+     * @param stopBits The stop bits, one of the STOP_BITS constants.
+     */
+    public LineCoding(final int baudRate, final int dataBits, final int parity, final int stopBits) {
+        if (baudRate <= 0) {
+            throw new IllegalArgumentException("baudRate must be positive");
+        }
+        if (dataBits != 5 && dataBits != 6 && dataBits != 7 && dataBits != 8 && dataBits != 16) {
+            throw new IllegalArgumentException("Invalid number of data bits: " + dataBits);
+        }
+        if (parity < PARITY_NONE || parity > PARITY_SPACE) {
+            throw new IllegalArgumentException("Invalid parity: " + parity);
+        }
+        if (stopBits < STOP_BITS_1 || stopBits > STOP_BITS_2) {
+            throw new IllegalArgumentException("Invalid stop bits: " + stopBits);
+        }
+        this.baudRate = baudRate;
+        this.dataBits = dataBits;
+        this.parity = parity;
+        this.stopBits = stopBits;
+    }
+
+    /**
+     * Decodes a line coding.
+     *
+     * @param data The encoded line coding at the position of the buffer.
+     * @return The line coding.
+     */
+    public static LineCoding decode(final ByteBuffer data) {
+        final ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int baudRate = buffer.getInt();
+        final int stopBits = buffer.get() & 0xff;
+        final int parity = buffer.get() & 0xff;
+        final int dataBits = buffer.get() & 0xff;
+        return new LineCoding(baudRate, dataBits, parity, stopBits);
+    }
+
+    /**
+     * Encodes this line coding.
+     *
+     * @param data The buffer to write the {@link #SIZE} bytes to, starting at
+     *             its position. The position is not changed.
+     */
+    public void encode(final ByteBuffer data) {
+        final ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(this.baudRate);
+        buffer.put((byte) this.stopBits);
+        buffer.put((byte) this.parity);
+        buffer.put((byte) this.dataBits);
+    }
+
+    /**
+     * Returns the baud rate.
+     *
+     * @return The baud rate in bits per second.
+     */
+    public int getBaudRate() {
+        return this.baudRate;
+    }
+
+    /**
+     * Returns the number of data bits.
+     *
+     * @return The number of data bits.
+     */
+    public int getDataBits() {
+        return this.dataBits;
+    }
+
+    /**
+     * Returns the parity.
+     *
+     * @return One of the PARITY constants.
+     */
+    public int getParity() {
+        return this.parity;
+    }
+
+    /**
+     * Returns the stop bits.
+     *
+     * @return One of the STOP_BITS constants.
+     */
+    public int getStopBits() {
+        return this.stopBits;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LineCoding)) {
+            return false;
+        }
+        final LineCoding other = (LineCoding) obj;
+        return this.baudRate == other.baudRate && this.dataBits == other.dataBits
+            && this.parity == other.parity && this.stopBits == other.stopBits;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((this.baudRate * 31 + this.dataBits) * 31 + this.parity) * 31 + this.stopBits;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d baud, %d%c%s", this.baudRate, this.dataBits, "NOEMS".charAt(this.parity),
+                             new String[] { "1", "1.5", "2" }[this.stopBits]);
+    }
+}
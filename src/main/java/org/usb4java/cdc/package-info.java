@@ -0,0 +1,10 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+/**
+ * CDC-ACM (USB serial) class driver with pipelined bulk data channels and
+ * asynchronous serial state notifications.
+ */
+package org.usb4java.cdc;
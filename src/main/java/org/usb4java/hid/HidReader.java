@@ -0,0 +1,369 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.hid;
+
+import java.nio.ByteBuffer;
+
+import org.usb4java.BufferUtils;
+import org.usb4java.DeviceHandle;
+import org.usb4java.EventLoop;
+import org.usb4java.LibUsb;
+import org.usb4java.LibUsbException;
+import org.usb4java.Transfer;
+import org.usb4java.TransferCallback;
+import org.usb4java.TransferView;
+
+/**
+ * Continuously reads and decodes input reports from a HID interrupt IN
+ * endpoint.
+ * <p>
+ * Keeps several interrupt transfers queued so the host controller never
+ * misses a polling interval, decodes each received report with the
+ * precompiled {@link Report} of its report ID and resubmits the transfer
+ * immediately. Decoding happens on the event thread and allocates nothing:
+ * the decoded values are written to one preallocated array per report
+ * which is passed to the {@link Listener}. This keeps one event thread
+ * able to serve many devices at 1 kHz report rates.
+ * <p>
+ * Completions are handled by the {@link EventLoop} passed to the
+ * constructor, which must be running while the reader is started.
+ */
+public final class HidReader implements TransferCallback, AutoCloseable {
+
+    /**
+     * Receives decoded reports.
+     */
+    public interface Listener {
+        /**
+         * Called on the event thread for each received input report. The
+         * values array and the data buffer are reused for the next report,
+         * so copy what must be kept.
+         *
+         * @param report The layout of the report.
+         * @param values The decoded element values.
+         * @param data   The raw report data.
+         */
+        void reportReceived(Report report, int[] values, ByteBuffer data);
+
+        /**
+         * Called on the event thread when the reader stopped because a
+         * transfer failed.
+         *
+         * @param status The transfer status.
+         */
+        void readFailed(int status);
+    }
+
+    /**
+     * The event loop handling the completions.
+     */
+    private final EventLoop eventLoop;
+
+    /**
+     * The interrupt IN endpoint.
+     */
+    private final byte endpoint;
+
+    /**
+     * The parsed report descriptor.
+     */
+    private final ReportDescriptor descriptor;
+
+    /**
+     * The listener.
+     */
+    private final Listener listener;
+
+    /**
+     * The transfers.
+     */
+    private final Transfer[] transfers;
+
+    /**
+     * The transfer buffers.
+     */
+    private final ByteBuffer[] buffers;
+
+    /**
+     * Direct views of the transfers or null if not available.
+     */
+    private final TransferView[] views;
+
+    /**
+     * The value arrays indexed by report ID.
+     */
+    private final int[][] values = new int[256][];
+
+    /**
+     * The number of transfers in flight. Guarded by this.
+     */
+    private int inFlight;
+
+    /**
+     * Set while reading. Guarded by this.
+     */
+    private boolean running;
+
+    /**
+     * The number of decoded reports.
+     */
+    private volatile long reportCount;
+
+    /**
+     * The number of reports with an unknown report ID.
+     */
+    private volatile long unknownCount;
+
+    /**
+     * Constructs a new reader.
+     *
+     * @param eventLoop  The running event loop of the context of the handle.
+     * @param handle     The device handle. The HID interface must be claimed.
+     * @param endpoint   The interrupt IN endpoint address.
+     * @param reportSize The transfer size, usually the maximum packet size of
+     *                   the endpoint.
+     * @param depth      The number of transfers kept queued.
+     * @param descriptor The report descriptor of the interface.
+     * @param listener   The listener receiving the decoded reports.
+     */
+    public HidReader(final EventLoop eventLoop, final DeviceHandle handle, final byte endpoint,
+                     final int reportSize, final int depth, final ReportDescriptor descriptor,
+                     final Listener listener) {
+        if (eventLoop == null) {
+            throw new IllegalArgumentException("eventLoop must not be null");
+        }
+        if ((endpoint & LibUsb.ENDPOINT_DIR_MASK) != LibUsb.ENDPOINT_IN) {
+            throw new IllegalArgumentException("Not an IN endpoint");
+        }
+        if (reportSize <= 0) {
+            throw new IllegalArgumentException("reportSize must be positive");
+        }
+        if (depth <= 0) {
+            throw new IllegalArgumentException("depth must be positive");
+        }
+        this.eventLoop = eventLoop;
+        this.endpoint = endpoint;
+        this.descriptor = descriptor;
+        this.listener = listener;
+        for (final Report report : descriptor.getReports()) {
+            if (report.getType() == Report.Type.INPUT) {
+                this.values[report.getId()] = new int[report.getElementCount()];
+            }
+        }
+        this.transfers = new Transfer[depth];
+        this.buffers = new ByteBuffer[depth];
+        this.views = TransferView.isAvailable() ? new TransferView[depth] : null;
+        for (int i = 0; i < depth; i++) {
+            final Transfer transfer = LibUsb.allocTransfer();
+            if (transfer == null) {
+                free();
+                throw new LibUsbException("Unable to allocate transfer", LibUsb.ERROR_NO_MEM);
+            }
+            this.buffers[i] = BufferUtils.allocateByteBuffer(reportSize);
+            LibUsb.fillInterruptTransfer(transfer, handle, endpoint, this.buffers[i], this, null, 0);
+            this.transfers[i] = transfer;
+            if (this.views != null) {
+                this.views[i] = new TransferView(transfer);
+            }
+        }
+    }
+
+    /**
+     * Returns the report descriptor.
+     *
+     * @return The report descriptor.
+     */
+    public ReportDescriptor getDescriptor() {
+        return this.descriptor;
+    }
+
+    /**
+     * Returns the number of decoded reports.
+     *
+     * @return The number of reports.
+     */
+    public long getReportCount() {
+        return this.reportCount;
+    }
+
+    /**
+     * Returns the number of reports which were dropped because their report
+     * ID is not defined in the descriptor.
+     *
+     * @return The number of unknown reports.
+     */
+    public long getUnknownCount() {
+        return this.unknownCount;
+    }
+
+    /**
+     * Checks if the reader is running.
+     *
+     * @return True while reading.
+     */
+    public synchronized boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Submits all transfers.
+     *
+     * @throws LibUsbException When a transfer could not be submitted. The
+     *                         transfers already submitted are cancelled.
+     */
+    public void start() {
+        synchronized (this) {
+            if (this.running) {
+                return;
+            }
+            if (this.inFlight > 0) {
+                throw new IllegalStateException("Reader is still stopping");
+            }
+            this.running = true;
+        }
+        for (final Transfer transfer : this.transfers) {
+            final int result;
+            synchronized (this) {
+                if (!this.running) {
+                    return;
+                }
+                result = LibUsb.submitTransfer(transfer);
+                if (result == LibUsb.SUCCESS) {
+                    this.inFlight++;
+                }
+            }
+            if (result != LibUsb.SUCCESS) {
+                stop();
+                throw new LibUsbException("Unable to submit interrupt transfer", result);
+            }
+        }
+    }
+
+    /**
+     * Stops reading. Cancels all queued transfers without waiting for them.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (!this.running) {
+                return;
+            }
+            this.running = false;
+        }
+        for (final Transfer transfer : this.transfers) {
+            LibUsb.cancelTransfer(transfer);
+        }
+    }
+
+    @Override
+    public void processTransfer(final Transfer transfer) {
+        final int index = indexOf(transfer);
+        final TransferView view = this.views == null ? null : this.views[index];
+        final int status = view != null ? view.status() : transfer.status();
+        if (status == LibUsb.TRANSFER_COMPLETED) {
+            final int length = view != null ? view.actualLength() : transfer.actualLength();
+            final ByteBuffer data = this.buffers[index];
+            data.clear().limit(length);
+            decode(data);
+        }
+        final boolean failed;
+        synchronized (this) {
+            if (this.running && (status == LibUsb.TRANSFER_COMPLETED || status == LibUsb.TRANSFER_TIMED_OUT
+                || status == LibUsb.TRANSFER_OVERFLOW)) {
+                if (LibUsb.submitTransfer(transfer) == LibUsb.SUCCESS) {
+                    return;
+                }
+            }
+            this.inFlight--;
+            failed = this.running;
+            this.running = false;
+            notifyAll();
+        }
+        if (failed) {
+            for (final Transfer other : this.transfers) {
+                LibUsb.cancelTransfer(other);
+            }
+            this.listener.readFailed(status == LibUsb.TRANSFER_COMPLETED ? LibUsb.TRANSFER_ERROR : status);
+        }
+    }
+
+    /**
+     * Returns the index of a transfer.
+     *
+     * @param transfer The transfer.
+     * @return The index.
+     */
+    private int indexOf(final Transfer transfer) {
+        for (int i = 0; i < this.transfers.length; i++) {
+            if (transfer.equals(this.transfers[i])) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown transfer: " + transfer);
+    }
+
+    /**
+     * Decodes a received report and passes it to the listener.
+     *
+     * @param data The report data.
+     */
+    private void decode(final ByteBuffer data) {
+        final Report report = this.descriptor.getInputReport(data);
+        if (report == null) {
+            this.unknownCount++;
+            return;
+        }
+        final int[] target = this.values[report.getId()];
+        report.decode(data, target);
+        this.reportCount++;
+        this.listener.reportReceived(report, target, data);
+    }
+
+    /**
+     * Stops reading, waits until all transfers completed and frees them.
+     * Must not be called on the event thread. Waits even when interrupted,
+     * because the transfers can't be freed while in flight, and restores the
+     * interrupt status afterwards.
+     */
+    @Override
+    public void close() {
+        if (this.eventLoop.isEventThread()) {
+            throw new IllegalStateException("Can't wait for transfers on the event thread");
+        }
+        stop();
+        boolean interrupted = false;
+        synchronized (this) {
+            while (this.inFlight > 0) {
+                try {
+                    wait();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        free();
+    }
+
+    /**
+     * Frees all allocated transfers.
+     */
+    private void free() {
+        for (int i = 0; i < this.transfers.length; i++) {
+            if (this.transfers[i] != null) {
+                LibUsb.freeTransfer(this.transfers[i]);
+                this.transfers[i] = null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HID reader on endpoint 0x%02x with %d transfers", this.endpoint & 0xff,
+                             this.transfers.length);
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.hid;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The layout of one HID report (one report ID and type) with precompiled
+ * field extractors.
+ * <p>
+ * A report consists of elements. A variable main item contributes one
+ * element per report count, an array main item contributes one element per
+ * array slot whose value is a usage index. Constant (padding) items
+ * contribute no elements. For every element the byte offset, bit shift and
+ * bit size are computed once when the descriptor is parsed, so
+ * {@link #decode(ByteBuffer, int[])} only shifts and masks and never
+ * allocates.
+ * <p>
+ * Usages are 32 bit values with the usage page in the upper and the usage
+ * ID in the lower 16 bits.
+ */
+public final class Report {
+
+    /**
+     * The report types.
+     */
+    public enum Type {
+        /** Input report, sent by the device. */
+        INPUT,
+        /** Output report, sent to the device. */
+        OUTPUT,
+        /** Feature report, read and written with control transfers. */
+        FEATURE
+    }
+
+    /**
+     * Element flag: the value is signed.
+     */
+    static final int SIGNED = 1;
+
+    /**
+     * Element flag: the element is an array slot.
+     */
+    static final int ARRAY = 2;
+
+    /**
+     * Element flag: the value is relative.
+     */
+    static final int RELATIVE = 4;
+
+    /**
+     * The report ID or 0 if the device uses no report IDs.
+     */
+    private final int id;
+
+    /**
+     * The report type.
+     */
+    private final Type type;
+
+    /**
+     * The report length in bytes including the report ID prefix.
+     */
+    private final int length;
+
+    /**
+     * The usages of the elements.
+     */
+    private final int[] usages;
+
+    /**
+     * The byte offsets of the elements, including the report ID prefix.
+     */
+    private final int[] offsets;
+
+    /**
+     * The bit shifts of the elements within their first byte.
+     */
+    private final int[] shifts;
+
+    /**
+     * The bit sizes of the elements.
+     */
+    private final int[] sizes;
+
+    /**
+     * The flags of the elements.
+     */
+    private final int[] flags;
+
+    /**
+     * The logical minimums of the elements.
+     */
+    private final int[] minimums;
+
+    /**
+     * The logical maximums of the elements.
+     */
+    private final int[] maximums;
+
+    /**
+     * Constructs a new report.
+     *
+     * @param id         The report ID or 0.
+     * @param type       The report type.
+     * @param bits       The number of data bits, without the report ID
+     *                   prefix.
+     * @param usages     The element usages.
+     * @param bitOffsets The element bit offsets without the report ID prefix.
+     * @param sizes      The element bit sizes.
+     * @param flags      The element flags.
+     * @param minimums   The element logical minimums.
+     * @param maximums   The element logical maximums.
+     */
+    Report(final int id, final Type type, final int bits, final int[] usages, final int[] bitOffsets,
+           final int[] sizes, final int[] flags, final int[] minimums, final int[] maximums) {
+        final int prefix = id == 0 ? 0 : 8;
+        this.id = id;
+        this.type = type;
+        this.length = (prefix + bits + 7) >>> 3;
+        this.usages = usages;
+        this.sizes = sizes;
+        this.flags = flags;
+        this.minimums = minimums;
+        this.maximums = maximums;
+        this.offsets = new int[usages.length];
+        this.shifts = new int[usages.length];
+        for (int i = 0; i < usages.length; i++) {
+            final int bit = prefix + bitOffsets[i];
+            this.offsets[i] = bit >>> 3;
+            this.shifts[i] = bit & 7;
+        }
+    }
+
+    /**
+     * Returns the report ID.
+     *
+     * @return The report ID or 0 if the device uses no report IDs.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns the report type.
+     *
+     * @return The report type.
+     */
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the report length.
+     *
+     * @return The length in bytes including the report ID prefix.
+     */
+    public int getLength() {
+        return this.length;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return The number of elements.
+     */
+    public int getElementCount() {
+        return this.usages.length;
+    }
+
+    /**
+     * Returns the usage of an element. For array elements this is the first
+     * usage of the array.
+     *
+     * @param index The element index.
+     * @return The usage (page in the upper 16 bits).
+     */
+    public int getUsage(final int index) {
+        return this.usages[index];
+    }
+
+    /**
+     * Returns the bit size of an element.
+     *
+     * @param index The element index.
+     * @return The size in bits.
+     */
+    public int getSize(final int index) {
+        return this.sizes[index];
+    }
+
+    /**
+     * Checks if an element is signed.
+     *
+     * @param index The element index.
+     * @return True if the logical minimum is negative.
+     */
+    public boolean isSigned(final int index) {
+        return (this.flags[index] & SIGNED) != 0;
+    }
+
+    /**
+     * Checks if an element is an array slot.
+     *
+     * @param index The element index.
+     * @return True for array slots.
+     */
+    public boolean isArray(final int index) {
+        return (this.flags[index] & ARRAY) != 0;
+    }
+
+    /**
+     * Checks if an element holds a relative value.
+     *
+     * @param index The element index.
+     * @return True for relative values.
+     */
+    public boolean isRelative(final int index) {
+        return (this.flags[index] & RELATIVE) != 0;
+    }
+
+    /**
+     * Returns the logical minimum of an element.
+     *
+     * @param index The element index.
+     * @return The logical minimum.
+     */
+    public int getLogicalMinimum(final int index) {
+        return this.minimums[index];
+    }
+
+    /**
+     * Returns the logical maximum of an element.
+     *
+     * @param index The element index.
+     * @return The logical maximum.
+     */
+    public int getLogicalMaximum(final int index) {
+        return this.maximums[index];
+    }
+
+    /**
+     * Returns the index of the first element with the specified usage.
+     *
+     * @param usagePage The usage page.
+     * @param usageId   The usage ID.
+     * @return The element index or -1 if not found.
+     */
+    public int indexOf(final int usagePage, final int usageId) {
+        final int usage = (usagePage << 16) | (usageId & 0xffff);
+        for (int i = 0; i < this.usages.length; i++) {
+            if (this.usages[i] == usage) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes all elements of a report.
+     *
+     * @param data   The report data starting at the position of the buffer,
+     *               including the report ID prefix. The position is not
+     *               changed. Elements beyond the remaining bytes are 0.
+     * @param values The array receiving the element values. Must have at
+     *               least {@link #getElementCount()} entries.
+     * @return The number of decoded elements.
+     */
+    public int decode(final ByteBuffer data, final int[] values) {
+        final int count = this.usages.length;
+        if (values.length < count) {
+            throw new IllegalArgumentException("values array too small");
+        }
+        final int base = data.position();
+        final int available = data.remaining();
+        if (available >= this.length) {
+            for (int i = 0; i < count; i++) {
+                values[i] = extract(data, base, i);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                values[i] = this.offsets[i] + ((this.shifts[i] + this.sizes[i] + 7) >>> 3) <= available
+                    ? extract(data, base, i) : 0;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Decodes a single element. Unsigned 32 bit values are returned with
+     * their bit pattern.
+     *
+     * @param data  The report data starting at the position of the buffer.
+     * @param index The element index.
+     * @return The value.
+     */
+    public int get(final ByteBuffer data, final int index) {
+        final int bytes = (this.shifts[index] + this.sizes[index] + 7) >>> 3;
+        if (this.offsets[index] + bytes > data.remaining()) {
+            return 0;
+        }
+        return extract(data, data.position(), index);
+    }
+
+    /**
+     * Extracts an element value. The bytes must be available.
+     *
+     * @param data  The data buffer.
+     * @param base  The absolute index of the report in the buffer.
+     * @param index The element index.
+     * @return The value.
+     */
+    private int extract(final ByteBuffer data, final int base, final int index) {
+        final int size = this.sizes[index];
+        final int shift = this.shifts[index];
+        final int start = base + this.offsets[index];
+        final int bytes = (shift + size + 7) >>> 3;
+        long raw = 0;
+        for (int i = 0; i < bytes; i++) {
+            raw |= (data.get(start + i) & 0xffL) << (i << 3);
+        }
+        raw >>>= shift;
+        if ((this.flags[index] & SIGNED) != 0) {
+            return (int) ((raw << (64 - size)) >> (64 - size));
+        }
+        return (int) (raw & ((1L << size) - 1));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s report %d with %d elements in %d bytes", this.type, this.id,
+                             this.usages.length, this.length);
+    }
+}
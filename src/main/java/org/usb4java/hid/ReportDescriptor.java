@@ -0,0 +1,531 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.hid;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.usb4java.BufferUtils;
+import org.usb4java.DeviceHandle;
+import org.usb4java.LibUsb;
+import org.usb4java.LibUsbException;
+
+/**
+ * A parsed HID report descriptor.
+ * <p>
+ * Parses the short items of a report descriptor (long items are skipped)
+ * and compiles the main items into one {@link Report} per report type and
+ * report ID. Push and pop of the global state, usage ranges and extended
+ * (32 bit) usages are supported. Elements larger than 32 bits are treated
+ * like padding.
+ */
+public final class ReportDescriptor {
+
+    /**
+     * The maximum size of a report descriptor (wDescriptorLength).
+     */
+    private static final int MAX_LENGTH = 65535;
+
+    /**
+     * The reports in descriptor order.
+     */
+    private final List<Report> reports;
+
+    /**
+     * Input reports indexed by report ID.
+     */
+    private final Report[] inputReports = new Report[256];
+
+    /**
+     * If the device prefixes reports with a report ID.
+     */
+    private final boolean reportIds;
+
+    /**
+     * Constructs a new report descriptor.
+     *
+     * @param reports   The reports.
+     * @param reportIds If report IDs are used.
+     */
+    private ReportDescriptor(final List<Report> reports, final boolean reportIds) {
+        this.reports = Collections.unmodifiableList(reports);
+        this.reportIds = reportIds;
+        for (final Report report : reports) {
+            if (report.getType() == Report.Type.INPUT) {
+                this.inputReports[report.getId()] = report;
+            }
+        }
+    }
+
+    /**
+     * Reads and parses the report descriptor of a HID interface.
+     * <p>
+     * The descriptor is requested with a standard GET_DESCRIPTOR request
+     * addressed to the interface, as required by the HID specification
+     * ({@link LibUsb#getDescriptor(DeviceHandle, byte, byte, ByteBuffer)}
+     * addresses the device, which many HID devices reject for
+     * {@link LibUsb#DT_REPORT}).
+     *
+     * @param handle          The device handle.
+     * @param interfaceNumber The number of the HID interface.
+     * @return The parsed report descriptor.
+     * @throws LibUsbException When the descriptor could not be read.
+     */
+    public static ReportDescriptor read(final DeviceHandle handle, final int interfaceNumber) {
+        final ByteBuffer buffer = BufferUtils.allocateByteBuffer(MAX_LENGTH);
+        final int result = LibUsb.controlTransfer(handle,
+            (byte) (LibUsb.ENDPOINT_IN | LibUsb.RECIPIENT_INTERFACE), LibUsb.REQUEST_GET_DESCRIPTOR,
+            (short) ((LibUsb.DT_REPORT & 0xff) << 8), (short) interfaceNumber, buffer, 1000);
+        if (result < 0) {
+            throw new LibUsbException("Unable to read report descriptor", result);
+        }
+        buffer.limit(result);
+        return parse(buffer);
+    }
+
+    /**
+     * Parses a report descriptor.
+     *
+     * @param data The descriptor, from position to limit. The position is
+     *             not changed.
+     * @return The parsed report descriptor.
+     * @throws IllegalArgumentException When the descriptor is malformed.
+     */
+    public static ReportDescriptor parse(final ByteBuffer data) {
+        return new Parser().parse(data);
+    }
+
+    /**
+     * Returns all reports in descriptor order.
+     *
+     * @return The reports.
+     */
+    public List<Report> getReports() {
+        return this.reports;
+    }
+
+    /**
+     * Checks if the device prefixes its reports with a report ID.
+     *
+     * @return True if report IDs are used.
+     */
+    public boolean hasReportIds() {
+        return this.reportIds;
+    }
+
+    /**
+     * Returns the input report with the specified ID.
+     *
+     * @param id The report ID, 0 if no report IDs are used.
+     * @return The report or null if not defined.
+     */
+    public Report getInputReport(final int id) {
+        return id < 0 || id > 255 ? null : this.inputReports[id];
+    }
+
+    /**
+     * Returns the layout of a received input report.
+     *
+     * @param data The report data starting at the position of the buffer.
+     * @return The report or null if the report ID is not defined.
+     */
+    public Report getInputReport(final ByteBuffer data) {
+        if (!this.reportIds) {
+            return this.inputReports[0];
+        }
+        if (!data.hasRemaining()) {
+            return null;
+        }
+        return this.inputReports[data.get(data.position()) & 0xff];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("report descriptor with %d reports", this.reports.size());
+    }
+
+    /**
+     * The global item state.
+     */
+    private static final class Globals implements Cloneable {
+
+        /** The usage page. */
+        int usagePage;
+
+        /** The logical minimum. */
+        int logicalMinimum;
+
+        /** The logical maximum. */
+        int logicalMaximum;
+
+        /** The logical maximum as unsigned value. */
+        int logicalMaximumUnsigned;
+
+        /** The report size in bits. */
+        int reportSize;
+
+        /** The report count. */
+        int reportCount;
+
+        /** The report ID. */
+        int reportId;
+
+        @Override
+        protected Globals clone() {
+            try {
+                return (Globals) super.clone();
+            } catch (final CloneNotSupportedException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * Collects the elements of one report.
+     */
+    private static final class ReportBuilder {
+
+        /** The report ID. */
+        final int id;
+
+        /** The report type. */
+        final Report.Type type;
+
+        /** The number of bits so far. */
+        int bits;
+
+        /** The number of elements. */
+        int count;
+
+        /** The usages. */
+        int[] usages = new int[8];
+
+        /** The bit offsets. */
+        int[] offsets = new int[8];
+
+        /** The bit sizes. */
+        int[] sizes = new int[8];
+
+        /** The flags. */
+        int[] flags = new int[8];
+
+        /** The logical minimums. */
+        int[] minimums = new int[8];
+
+        /** The logical maximums. */
+        int[] maximums = new int[8];
+
+        /**
+         * Constructs a new builder.
+         *
+         * @param id   The report ID.
+         * @param type The report type.
+         */
+        ReportBuilder(final int id, final Report.Type type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        /**
+         * Adds an element.
+         *
+         * @param usage   The usage.
+         * @param size    The size in bits.
+         * @param flags   The flags.
+         * @param minimum The logical minimum.
+         * @param maximum The logical maximum.
+         */
+        void add(final int usage, final int size, final int flags, final int minimum, final int maximum) {
+            if (this.count == this.usages.length) {
+                final int capacity = this.count * 2;
+                this.usages = Arrays.copyOf(this.usages, capacity);
+                this.offsets = Arrays.copyOf(this.offsets, capacity);
+                this.sizes = Arrays.copyOf(this.sizes, capacity);
+                this.flags = Arrays.copyOf(this.flags, capacity);
+                this.minimums = Arrays.copyOf(this.minimums, capacity);
+                this.maximums = Arrays.copyOf(this.maximums, capacity);
+            }
+            this.usages[this.count] = usage;
+            this.offsets[this.count] = this.bits;
+            this.sizes[this.count] = size;
+            this.flags[this.count] = flags;
+            this.minimums[this.count] = minimum;
+            this.maximums[this.count] = maximum;
+            this.count++;
+            this.bits += size;
+        }
+
+        /**
+         * Builds the report.
+         *
+         * @return The report.
+         */
+        Report build() {
+            return new Report(this.id, this.type, this.bits, Arrays.copyOf(this.usages, this.count),
+                              Arrays.copyOf(this.offsets, this.count), Arrays.copyOf(this.sizes, this.count),
+                              Arrays.copyOf(this.flags, this.count), Arrays.copyOf(this.minimums, this.count),
+                              Arrays.copyOf(this.maximums, this.count));
+        }
+    }
+
+    /**
+     * The report descriptor parser.
+     */
+    private static final class Parser {
+
+        /** The maximum number of bits of one report. */
+        private static final int MAX_REPORT_BITS = 8 * MAX_LENGTH;
+
+        /** The report builders by type and ID. */
+        private final Map<Integer, ReportBuilder> builders = new LinkedHashMap<>();
+
+        /** The pushed global states. */
+        private final ArrayDeque<Globals> stack = new ArrayDeque<>();
+
+        /** The current global state. */
+        private Globals globals = new Globals();
+
+        /** The local usages. */
+        private int[] usages = new int[8];
+
+        /** The number of local usages. */
+        private int usageCount;
+
+        /** The local usage minimum or -1. */
+        private long usageMinimum = -1;
+
+        /** The local usage maximum or -1. */
+        private long usageMaximum = -1;
+
+        /** If a report ID item was seen. */
+        private boolean reportIds;
+
+        /**
+         * Parses a report descriptor.
+         *
+         * @param data The descriptor.
+         * @return The parsed descriptor.
+         */
+        ReportDescriptor parse(final ByteBuffer data) {
+            final ByteBuffer buffer = data.duplicate();
+            while (buffer.hasRemaining()) {
+                final int prefix = buffer.get() & 0xff;
+                if (prefix == 0xfe) {
+                    // Long item: data size and tag follow
+                    if (buffer.remaining() < 2) {
+                        throw new IllegalArgumentException("Truncated long item");
+                    }
+                    final int size = buffer.get() & 0xff;
+                    buffer.get();
+                    skip(buffer, size);
+                    continue;
+                }
+                final int size = (prefix & 3) == 3 ? 4 : prefix & 3;
+                if (buffer.remaining() < size) {
+                    throw new IllegalArgumentException("Truncated item 0x" + Integer.toHexString(prefix));
+                }
+                int unsigned = 0;
+                for (int i = 0; i < size; i++) {
+                    unsigned |= (buffer.get() & 0xff) << (i * 8);
+                }
+                final int signed = size == 0 || size == 4 ? unsigned
+                    : unsigned << (32 - size * 8) >> (32 - size * 8);
+                switch ((prefix >> 2) & 3) {
+                    case 0:
+                        main(prefix >> 4, unsigned);
+                        break;
+                    case 1:
+                        global(prefix >> 4, unsigned, signed, size);
+                        break;
+                    case 2:
+                        local(prefix >> 4, unsigned, size);
+                        break;
+                    default:
+                        // Reserved item type
+                        break;
+                }
+            }
+            final List<Report> reports = new ArrayList<>(this.builders.size());
+            for (final ReportBuilder builder : this.builders.values()) {
+                reports.add(builder.build());
+            }
+            return new ReportDescriptor(reports, this.reportIds);
+        }
+
+        /**
+         * Skips bytes.
+         *
+         * @param buffer The buffer.
+         * @param count  The number of bytes.
+         */
+        private static void skip(final ByteBuffer buffer, final int count) {
+            if (buffer.remaining() < count) {
+                throw new IllegalArgumentException("Truncated item");
+            }
+            buffer.position(buffer.position() + count);
+        }
+
+        /**
+         * Handles a main item.
+         *
+         * @param tag   The item tag.
+         * @param value The item data.
+         */
+        private void main(final int tag, final int value) {
+            switch (tag) {
+                case 0x8:
+                    field(Report.Type.INPUT, value);
+                    break;
+                case 0x9:
+                    field(Report.Type.OUTPUT, value);
+                    break;
+                case 0xb:
+                    field(Report.Type.FEATURE, value);
+                    break;
+                default:
+                    // Collection and End Collection only reset the locals
+                    break;
+            }
+            this.usageCount = 0;
+            this.usageMinimum = -1;
+            this.usageMaximum = -1;
+        }
+
+        /**
+         * Compiles an Input, Output or Feature item.
+         *
+         * @param type  The report type.
+         * @param value The item data.
+         */
+        private void field(final Report.Type type, final int value) {
+            final Globals g = this.globals;
+            final ReportBuilder builder = this.builders.computeIfAbsent(
+                (type.ordinal() << 8) | g.reportId, key -> new ReportBuilder(g.reportId, type));
+            final int size = g.reportSize;
+            final int count = g.reportCount;
+            if ((long) builder.bits + (long) size * count > MAX_REPORT_BITS) {
+                throw new IllegalArgumentException("Report too large");
+            }
+            final boolean constant = (value & 1) != 0;
+            if (constant || size == 0 || size > 32) {
+                builder.bits += size * count;
+                return;
+            }
+            final boolean variable = (value & 2) != 0;
+            int flags = variable ? 0 : Report.ARRAY;
+            if ((value & 4) != 0) {
+                flags |= Report.RELATIVE;
+            }
+            final boolean signed = g.logicalMinimum < 0;
+            if (signed) {
+                flags |= Report.SIGNED;
+            }
+            final int maximum = signed ? g.logicalMaximum : g.logicalMaximumUnsigned;
+            for (int i = 0; i < count; i++) {
+                builder.add(variable ? usage(i) : usage(0), size, flags, g.logicalMinimum, maximum);
+            }
+        }
+
+        /**
+         * Returns the usage of the n-th element of a main item.
+         *
+         * @param n The element index.
+         * @return The usage or 0 if none declared.
+         */
+        private int usage(final int n) {
+            if (this.usageCount > 0) {
+                return this.usages[Math.min(n, this.usageCount - 1)];
+            }
+            if (this.usageMinimum >= 0) {
+                final long max = this.usageMaximum >= this.usageMinimum ? this.usageMaximum : this.usageMinimum;
+                return (int) Math.min(this.usageMinimum + n, max);
+            }
+            return 0;
+        }
+
+        /**
+         * Handles a global item.
+         *
+         * @param tag      The item tag.
+         * @param unsigned The unsigned item data.
+         * @param signed   The sign extended item data.
+         * @param size     The data size in bytes.
+         */
+        private void global(final int tag, final int unsigned, final int signed, final int size) {
+            switch (tag) {
+                case 0x0:
+                    this.globals.usagePage = unsigned & 0xffff;
+                    break;
+                case 0x1:
+                    this.globals.logicalMinimum = signed;
+                    break;
+                case 0x2:
+                    this.globals.logicalMaximum = signed;
+                    this.globals.logicalMaximumUnsigned = unsigned;
+                    break;
+                case 0x7:
+                    this.globals.reportSize = unsigned;
+                    break;
+                case 0x8:
+                    if (unsigned <= 0 || unsigned > 255) {
+                        throw new IllegalArgumentException("Invalid report ID " + unsigned);
+                    }
+                    this.globals.reportId = unsigned;
+                    this.reportIds = true;
+                    break;
+                case 0x9:
+                    this.globals.reportCount = unsigned;
+                    break;
+                case 0xa:
+                    this.stack.push(this.globals.clone());
+                    break;
+                case 0xb:
+                    if (this.stack.isEmpty()) {
+                        throw new IllegalArgumentException("Pop without push");
+                    }
+                    this.globals = this.stack.pop();
+                    break;
+                default:
+                    // Physical range and units don't affect decoding
+                    break;
+            }
+        }
+
+        /**
+         * Handles a local item.
+         *
+         * @param tag   The item tag.
+         * @param value The unsigned item data.
+         * @param size  The data size in bytes.
+         */
+        private void local(final int tag, final int value, final int size) {
+            final int usage = size == 4 ? value : (this.globals.usagePage << 16) | (value & 0xffff);
+            switch (tag) {
+                case 0x0:
+                    if (this.usageCount == this.usages.length) {
+                        this.usages = Arrays.copyOf(this.usages, this.usageCount * 2);
+                    }
+                    this.usages[this.usageCount++] = usage;
+                    break;
+                case 0x1:
+                    this.usageMinimum = usage & 0xffffffffL;
+                    break;
+                case 0x2:
+                    this.usageMaximum = usage & 0xffffffffL;
+                    break;
+                default:
+                    // Designators and strings don't affect decoding
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+/**
+ * HID class driver: report descriptor parser, precompiled report decoders
+ * and a continuous interrupt report reader.
+ */
+package org.usb4java.hid;
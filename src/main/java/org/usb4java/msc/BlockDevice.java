@@ -0,0 +1,302 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.msc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.usb4java.BufferUtils;
+
+/**
+ * A logical unit of a mass storage device accessed as an array of blocks.
+ * <p>
+ * Reads and writes are split into commands of at most
+ * {@link #setMaxTransferSize(int) the maximum transfer size}, each of which
+ * moves its data with pipelined transfers straight between the device and
+ * the caller's buffer. {@link #readImage(FileChannel, long, long, long)}
+ * and {@link #writeImage(FileChannel, long, long, long)} map the image file
+ * window by window so whole devices are imaged or written without any
+ * intermediate copy.
+ */
+public final class BlockDevice {
+
+    /**
+     * The default maximum transfer size of a single command.
+     */
+    private static final int DEFAULT_MAX_TRANSFER_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The size of the file windows mapped at once.
+     */
+    private static final int WINDOW_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * The number of TEST UNIT READY attempts before giving up.
+     */
+    private static final int READY_ATTEMPTS = 5;
+
+    /**
+     * The transport.
+     */
+    private final BulkOnlyTransport transport;
+
+    /**
+     * The logical unit number.
+     */
+    private final int lun;
+
+    /**
+     * The number of blocks.
+     */
+    private final long blockCount;
+
+    /**
+     * The block size in bytes.
+     */
+    private final int blockSize;
+
+    /**
+     * The maximum number of blocks of a single command.
+     */
+    private volatile int maxTransferBlocks;
+
+    /**
+     * Opens a logical unit. Waits until the unit is ready, clearing pending
+     * unit attention conditions, and reads its capacity.
+     *
+     * @param transport The transport.
+     * @param lun       The logical unit number.
+     * @throws IOException When the unit did not become ready or its
+     *                     capacity could not be read.
+     */
+    public BlockDevice(final BulkOnlyTransport transport, final int lun) throws IOException {
+        this.transport = transport;
+        this.lun = lun;
+        boolean ready = false;
+        for (int attempt = 0; attempt < READY_ATTEMPTS && !ready; attempt++) {
+            ready = transport.testUnitReady(lun);
+        }
+        if (!ready) {
+            throw new IOException("Logical unit " + lun + " is not ready");
+        }
+        final BulkOnlyTransport.Capacity capacity = transport.readCapacity(lun);
+        if (capacity.getBlockSize() <= 0) {
+            throw new IOException("Invalid block size " + capacity.getBlockSize());
+        }
+        this.blockCount = capacity.getBlockCount();
+        this.blockSize = capacity.getBlockSize();
+        setMaxTransferSize(DEFAULT_MAX_TRANSFER_SIZE);
+    }
+
+    /**
+     * Returns the logical unit number.
+     *
+     * @return The logical unit number.
+     */
+    public int getLun() {
+        return this.lun;
+    }
+
+    /**
+     * Returns the number of blocks.
+     *
+     * @return The number of blocks.
+     */
+    public long getBlockCount() {
+        return this.blockCount;
+    }
+
+    /**
+     * Returns the block size.
+     *
+     * @return The block size in bytes.
+     */
+    public int getBlockSize() {
+        return this.blockSize;
+    }
+
+    /**
+     * Returns the size of the unit.
+     *
+     * @return The size in bytes.
+     */
+    public long getSize() {
+        return this.blockCount * this.blockSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes moved by a single READ or WRITE
+     * command. It is rounded down to whole blocks, but at least one block.
+     *
+     * @param maxTransferSize The maximum transfer size in bytes.
+     */
+    public void setMaxTransferSize(final int maxTransferSize) {
+        this.maxTransferBlocks = Math.max(1, maxTransferSize / this.blockSize);
+    }
+
+    /**
+     * Returns the maximum number of bytes moved by a single command.
+     *
+     * @return The maximum transfer size in bytes.
+     */
+    public int getMaxTransferSize() {
+        return this.maxTransferBlocks * this.blockSize;
+    }
+
+    /**
+     * Reads blocks into a buffer. The remaining bytes of the buffer must be a
+     * multiple of the block size. On return the position of the buffer is
+     * advanced to its limit.
+     *
+     * @param lba The first logical block address.
+     * @param dst The direct destination buffer, for example a
+     *            {@link MappedByteBuffer}.
+     * @throws IOException When a command failed or the device returned less
+     *                     data than requested.
+     */
+    public void read(final long lba, final ByteBuffer dst) throws IOException {
+        transfer(lba, dst, true);
+    }
+
+    /**
+     * Writes blocks from a buffer. The remaining bytes of the buffer must be
+     * a multiple of the block size. On return the position of the buffer is
+     * advanced to its limit.
+     *
+     * @param lba The first logical block address.
+     * @param src The direct source buffer, for example a
+     *            {@link MappedByteBuffer}.
+     * @throws IOException When a command failed or the device accepted less
+     *                     data than requested.
+     */
+    public void write(final long lba, final ByteBuffer src) throws IOException {
+        transfer(lba, src, false);
+    }
+
+    /**
+     * Reads or writes a buffer with as many commands as needed.
+     *
+     * @param lba    The first logical block address.
+     * @param buffer The direct buffer.
+     * @param in     True to read, false to write.
+     * @throws IOException When a command failed.
+     */
+    private void transfer(final long lba, final ByteBuffer buffer, final boolean in) throws IOException {
+        if (buffer.remaining() % this.blockSize != 0) {
+            throw new IllegalArgumentException("buffer must hold whole blocks");
+        }
+        final long blocks = buffer.remaining() / this.blockSize;
+        if (lba < 0 || lba + blocks > this.blockCount) {
+            throw new IllegalArgumentException("block range outside of device");
+        }
+        long address = lba;
+        while (buffer.hasRemaining()) {
+            final int count = Math.min(this.maxTransferBlocks, buffer.remaining() / this.blockSize);
+            final int bytes = count * this.blockSize;
+            final ByteBuffer part = BufferUtils.slice(buffer, buffer.position(), bytes);
+            final int done = in ? this.transport.read(this.lun, address, this.blockSize, part)
+                : this.transport.write(this.lun, address, this.blockSize, part);
+            if (done != bytes) {
+                throw new IOException(String.format("Short %s at block %d: %d of %d bytes",
+                                                    in ? "read" : "write", address, done, bytes));
+            }
+            buffer.position(buffer.position() + bytes);
+            address += count;
+        }
+    }
+
+    /**
+     * Reads the whole unit into a file.
+     *
+     * @param file The file channel, opened for reading and writing.
+     * @throws IOException When reading the device or mapping the file
+     *                     failed.
+     */
+    public void readImage(final FileChannel file) throws IOException {
+        readImage(file, 0, 0, this.blockCount);
+    }
+
+    /**
+     * Reads a range of blocks into a region of a file. The file is mapped
+     * read-write window by window and the device writes the data directly
+     * into the mapped pages.
+     *
+     * @param file     The file channel, opened for reading and writing.
+     * @param position The position of the region in the file.
+     * @param lba      The first logical block address.
+     * @param blocks   The number of blocks.
+     * @throws IOException When reading the device or mapping the file
+     *                     failed.
+     */
+    public void readImage(final FileChannel file, final long position, final long lba, final long blocks)
+        throws IOException {
+        image(file, position, lba, blocks, true);
+    }
+
+    /**
+     * Writes a file to the whole unit. The file must not be larger than the
+     * unit and its size must be a multiple of the block size.
+     *
+     * @param file The file channel, opened for reading.
+     * @throws IOException When writing the device or mapping the file failed.
+     */
+    public void writeImage(final FileChannel file) throws IOException {
+        final long size = file.size();
+        if (size % this.blockSize != 0) {
+            throw new IllegalArgumentException("image size must be a multiple of the block size");
+        }
+        writeImage(file, 0, 0, size / this.blockSize);
+    }
+
+    /**
+     * Writes a region of a file to a range of blocks. The file is mapped
+     * read-only window by window and the device reads the data directly from
+     * the mapped pages.
+     *
+     * @param file     The file channel, opened for reading.
+     * @param position The position of the region in the file.
+     * @param lba      The first logical block address.
+     * @param blocks   The number of blocks.
+     * @throws IOException When writing the device or mapping the file failed.
+     */
+    public void writeImage(final FileChannel file, final long position, final long lba, final long blocks)
+        throws IOException {
+        image(file, position, lba, blocks, false);
+    }
+
+    /**
+     * Transfers a file region window by window.
+     *
+     * @param file     The file channel.
+     * @param position The position of the region in the file.
+     * @param lba      The first logical block address.
+     * @param blocks   The number of blocks.
+     * @param in       True to read from the device into the file.
+     * @throws IOException When the transfer or mapping failed.
+     */
+    private void image(final FileChannel file, final long position, final long lba, final long blocks,
+                       final boolean in) throws IOException {
+        if (lba < 0 || blocks < 0 || lba + blocks > this.blockCount) {
+            throw new IllegalArgumentException("block range outside of device");
+        }
+        final long windowBlocks = WINDOW_SIZE / this.blockSize;
+        long done = 0;
+        while (done < blocks) {
+            final long count = Math.min(windowBlocks, blocks - done);
+            final MappedByteBuffer window = file.map(in ? FileChannel.MapMode.READ_WRITE
+                : FileChannel.MapMode.READ_ONLY, position + done * this.blockSize, count * this.blockSize);
+            transfer(lba + done, window, in);
+            done += count;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LUN %d with %d blocks of %d bytes", this.lun, this.blockCount, this.blockSize);
+    }
+}
@@ -0,0 +1,737 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.msc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import org.usb4java.BufferUtils;
+import org.usb4java.ConfigDescriptor;
+import org.usb4java.DeviceHandle;
+import org.usb4java.EndpointDescriptor;
+import org.usb4java.EventLoop;
+import org.usb4java.Interface;
+import org.usb4java.InterfaceDescriptor;
+import org.usb4java.LargeTransfer;
+import org.usb4java.LibUsb;
+import org.usb4java.LibUsbException;
+
+/**
+ * USB mass storage Bulk-Only Transport (BBB) talking SCSI directly to the
+ * device, bypassing the block layer of the operating system.
+ * <p>
+ * Each command is sent as a 31 byte Command Block Wrapper (CBW) carrying a
+ * tag, followed by an optional data phase and a 13 byte Command Status
+ * Wrapper (CSW) which must echo the tag. The data phase is split into
+ * pipelined chunks by {@link LargeTransfer}, so a single command can move
+ * many megabytes straight from or into a direct or memory-mapped buffer
+ * without intermediate copies. Stalls are cleared as required by the
+ * specification and protocol errors such as a tag mismatch trigger the
+ * reset recovery procedure.
+ * <p>
+ * The protocol allows only one command at a time, so commands are
+ * serialized. Data phase completions are handled by the {@link EventLoop}
+ * passed to the constructor, which must be running. The methods must not
+ * be called on the event thread.
+ */
+public final class BulkOnlyTransport implements AutoCloseable {
+
+    /**
+     * The capacity of a logical unit.
+     */
+    public static final class Capacity {
+
+        /**
+         * The number of blocks.
+         */
+        private final long blockCount;
+
+        /**
+         * The block size in bytes.
+         */
+        private final int blockSize;
+
+        /**
+         * Constructs a new capacity.
+         *
+         * @param blockCount The number of blocks.
+         * @param blockSize  The block size in bytes.
+         */
+        Capacity(final long blockCount, final int blockSize) {
+            this.blockCount = blockCount;
+            this.blockSize = blockSize;
+        }
+
+        /**
+         * Returns the number of blocks.
+         *
+         * @return The number of blocks.
+         */
+        public long getBlockCount() {
+            return this.blockCount;
+        }
+
+        /**
+         * Returns the block size.
+         *
+         * @return The block size in bytes.
+         */
+        public int getBlockSize() {
+            return this.blockSize;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d blocks of %d bytes", this.blockCount, this.blockSize);
+        }
+    }
+
+    /** The SCSI transparent command set subclass. */
+    static final int SUBCLASS_SCSI = 0x06;
+
+    /** The Bulk-Only Transport protocol. */
+    static final int PROTOCOL_BULK_ONLY = 0x50;
+
+    /** The size of a Command Block Wrapper. */
+    static final int CBW_SIZE = 31;
+
+    /** The size of a Command Status Wrapper. */
+    static final int CSW_SIZE = 13;
+
+    /** The Command Block Wrapper signature ("USBC"). */
+    static final int CBW_SIGNATURE = 0x43425355;
+
+    /** The Command Status Wrapper signature ("USBS"). */
+    static final int CSW_SIGNATURE = 0x53425355;
+
+    /** Command status: passed. */
+    static final int STATUS_PASSED = 0;
+
+    /** Command status: failed. */
+    static final int STATUS_FAILED = 1;
+
+    /** Command status: phase error. */
+    static final int STATUS_PHASE_ERROR = 2;
+
+    /** TEST UNIT READY operation code. */
+    static final int TEST_UNIT_READY = 0x00;
+
+    /** REQUEST SENSE operation code. */
+    static final int REQUEST_SENSE = 0x03;
+
+    /** READ CAPACITY (10) operation code. */
+    static final int READ_CAPACITY_10 = 0x25;
+
+    /** READ (10) operation code. */
+    static final int READ_10 = 0x28;
+
+    /** WRITE (10) operation code. */
+    static final int WRITE_10 = 0x2a;
+
+    /** READ (16) operation code. */
+    static final int READ_16 = 0x88;
+
+    /** WRITE (16) operation code. */
+    static final int WRITE_16 = 0x8a;
+
+    /** SERVICE ACTION IN (16) operation code used by READ CAPACITY (16). */
+    static final int SERVICE_ACTION_IN_16 = 0x9e;
+
+    /** The READ CAPACITY (16) service action. */
+    static final int READ_CAPACITY_16 = 0x10;
+
+    /** The Bulk-Only Mass Storage Reset request. */
+    private static final byte MASS_STORAGE_RESET = (byte) 0xff;
+
+    /** The Get Max LUN request. */
+    private static final byte GET_MAX_LUN = (byte) 0xfe;
+
+    /** The number of sense bytes requested. */
+    private static final int SENSE_SIZE = 18;
+
+    /**
+     * The event loop handling the data phase completions.
+     */
+    private final EventLoop eventLoop;
+
+    /**
+     * The device handle.
+     */
+    private final DeviceHandle handle;
+
+    /**
+     * The claimed interface number.
+     */
+    private final int interfaceNumber;
+
+    /**
+     * The bulk IN endpoint.
+     */
+    private final byte inEndpoint;
+
+    /**
+     * The bulk OUT endpoint.
+     */
+    private final byte outEndpoint;
+
+    /**
+     * The pipelined IN data phase.
+     */
+    private final LargeTransfer inData;
+
+    /**
+     * The pipelined OUT data phase.
+     */
+    private final LargeTransfer outData;
+
+    /**
+     * The Command Block Wrapper buffer.
+     */
+    private final ByteBuffer cbw = BufferUtils.allocateByteBuffer(CBW_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * The Command Status Wrapper buffer.
+     */
+    private final ByteBuffer csw = BufferUtils.allocateByteBuffer(CSW_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Receives the number of bytes of CBW and CSW transfers.
+     */
+    private final IntBuffer transferred = BufferUtils.allocateIntBuffer();
+
+    /**
+     * The timeout of each transfer in milliseconds.
+     */
+    private volatile long timeout = 20000;
+
+    /**
+     * The tag of the last command. Guarded by this.
+     */
+    private int tag;
+
+    /**
+     * Set when an interrupted command left the device in an unknown state.
+     * Guarded by this.
+     */
+    private boolean resetNeeded;
+
+    /**
+     * Set when closed. Guarded by this.
+     */
+    private boolean closed;
+
+    /**
+     * Opens the first Bulk-Only SCSI mass storage interface of a
+     * configuration and claims it.
+     *
+     * @param eventLoop The running event loop of the context of the handle.
+     * @param handle    The device handle.
+     * @param config    The active configuration descriptor.
+     * @throws IllegalArgumentException When the configuration has no
+     *                                  Bulk-Only mass storage interface.
+     * @throws LibUsbException When the interface could not be claimed.
+     */
+    public BulkOnlyTransport(final EventLoop eventLoop, final DeviceHandle handle,
+                             final ConfigDescriptor config) {
+        if (eventLoop == null) {
+            throw new IllegalArgumentException("eventLoop must not be null");
+        }
+        InterfaceDescriptor found = null;
+        EndpointDescriptor in = null;
+        EndpointDescriptor out = null;
+        for (final Interface iface : config.iface()) {
+            for (final InterfaceDescriptor descriptor : iface.altsetting()) {
+                if (descriptor.bInterfaceClass() != LibUsb.CLASS_MASS_STORAGE
+                    || descriptor.bInterfaceSubClass() != SUBCLASS_SCSI
+                    || (descriptor.bInterfaceProtocol() & 0xff) != PROTOCOL_BULK_ONLY) {
+                    continue;
+                }
+                in = null;
+                out = null;
+                for (final EndpointDescriptor endpoint : descriptor.endpoint()) {
+                    if ((endpoint.bmAttributes() & LibUsb.TRANSFER_TYPE_MASK) != LibUsb.TRANSFER_TYPE_BULK) {
+                        continue;
+                    }
+                    if ((endpoint.bEndpointAddress() & LibUsb.ENDPOINT_DIR_MASK) == LibUsb.ENDPOINT_IN) {
+                        in = endpoint;
+                    } else {
+                        out = endpoint;
+                    }
+                }
+                if (in != null && out != null) {
+                    found = descriptor;
+                    break;
+                }
+            }
+            if (found != null) {
+                break;
+            }
+        }
+        if (found == null) {
+            throw new IllegalArgumentException("No Bulk-Only mass storage interface found");
+        }
+        this.eventLoop = eventLoop;
+        this.handle = handle;
+        this.interfaceNumber = found.bInterfaceNumber() & 0xff;
+        this.inEndpoint = in.bEndpointAddress();
+        this.outEndpoint = out.bEndpointAddress();
+        this.inData = new LargeTransfer(eventLoop, handle, this.inEndpoint, in.wMaxPacketSize() & 0x7ff);
+        this.outData = new LargeTransfer(eventLoop, handle, this.outEndpoint, out.wMaxPacketSize() & 0x7ff);
+
+        LibUsb.setAutoDetachKernelDriver(handle, true);
+        int result = LibUsb.claimInterface(handle, this.interfaceNumber);
+        if (result != LibUsb.SUCCESS) {
+            throw new LibUsbException("Unable to claim interface " + this.interfaceNumber, result);
+        }
+        if (found.bAlternateSetting() != 0) {
+            result = LibUsb.setInterfaceAltSetting(handle, this.interfaceNumber, found.bAlternateSetting() & 0xff);
+            if (result != LibUsb.SUCCESS) {
+                LibUsb.releaseInterface(handle, this.interfaceNumber);
+                throw new LibUsbException("Unable to select interface setting", result);
+            }
+        }
+    }
+
+    /**
+     * Sets the size of the pipelined chunks of the data phase. It is rounded
+     * down to a multiple of the packet size.
+     *
+     * @param chunkSize The chunk size in bytes.
+     */
+    public void setChunkSize(final int chunkSize) {
+        this.inData.setChunkSize(chunkSize);
+        this.outData.setChunkSize(chunkSize);
+    }
+
+    /**
+     * Sets the maximum number of data phase chunks in flight.
+     *
+     * @param maxInFlight The maximum number of chunks in flight.
+     */
+    public void setMaxInFlight(final int maxInFlight) {
+        this.inData.setMaxInFlight(maxInFlight);
+        this.outData.setMaxInFlight(maxInFlight);
+    }
+
+    /**
+     * Sets the timeout of each transfer.
+     *
+     * @param timeout The timeout in milliseconds, 0 for unlimited.
+     */
+    public void setTimeout(final long timeout) {
+        this.timeout = timeout;
+        this.inData.setTimeout(timeout);
+        this.outData.setTimeout(timeout);
+    }
+
+    /**
+     * Returns the claimed interface number.
+     *
+     * @return The interface number.
+     */
+    public int getInterfaceNumber() {
+        return this.interfaceNumber;
+    }
+
+    /**
+     * Returns the highest logical unit number (Get Max LUN).
+     *
+     * @return The highest LUN, 0 for devices with a single unit.
+     * @throws IOException When the request failed.
+     */
+    public int getMaxLun() throws IOException {
+        final ByteBuffer data = BufferUtils.allocateByteBuffer(1);
+        final int result = LibUsb.controlTransfer(this.handle,
+            (byte) (LibUsb.ENDPOINT_IN | LibUsb.REQUEST_TYPE_CLASS | LibUsb.RECIPIENT_INTERFACE),
+            GET_MAX_LUN, (short) 0, (short) this.interfaceNumber, data, this.timeout);
+        if (result == LibUsb.ERROR_PIPE) {
+            // Devices with a single unit may stall the request
+            return 0;
+        }
+        if (result < 1) {
+            throw failure("Get Max LUN failed", result < 0 ? result : LibUsb.ERROR_IO);
+        }
+        return data.get(0) & 0x0f;
+    }
+
+    /**
+     * Checks if a logical unit is ready (TEST UNIT READY).
+     *
+     * @param lun The logical unit number.
+     * @return True if the unit is ready, false if the command failed, for
+     * example because no medium is present or after a medium change.
+     * @throws IOException When the transport failed.
+     */
+    public boolean testUnitReady(final int lun) throws IOException {
+        try {
+            final byte[] cdb = new byte[6];
+            cdb[0] = TEST_UNIT_READY;
+            execute(lun, cdb, null, false);
+            return true;
+        } catch (final CommandFailedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the capacity of a logical unit. Uses READ CAPACITY (16) when
+     * the unit has more blocks than READ CAPACITY (10) can report.
+     *
+     * @param lun The logical unit number.
+     * @return The capacity.
+     * @throws IOException When the command or the transport failed.
+     */
+    public Capacity readCapacity(final int lun) throws IOException {
+        final ByteBuffer data = BufferUtils.allocateByteBuffer(32);
+        final byte[] cdb10 = new byte[10];
+        cdb10[0] = READ_CAPACITY_10;
+        data.limit(8);
+        if (execute(lun, cdb10, data, true) < 8) {
+            throw new IOException("Short READ CAPACITY (10) response");
+        }
+        final long lastBlock = data.getInt(0) & 0xffffffffL;
+        if (lastBlock != 0xffffffffL) {
+            return new Capacity(lastBlock + 1, data.getInt(4));
+        }
+        data.clear();
+        if (execute(lun, readCapacity16(data.capacity()), data, true) < 12) {
+            throw new IOException("Short READ CAPACITY (16) response");
+        }
+        return new Capacity(data.getLong(0) + 1, data.getInt(8));
+    }
+
+    /**
+     * Reads blocks into a buffer (READ (10) or READ (16)). The remaining
+     * bytes of the buffer must be a multiple of the block size and are
+     * filled directly by the data phase transfers. The position of the
+     * buffer is advanced by the number of received bytes.
+     *
+     * @param lun       The logical unit number.
+     * @param lba       The first logical block address.
+     * @param blockSize The block size in bytes.
+     * @param dst       The direct destination buffer.
+     * @return The number of received bytes.
+     * @throws IOException When the command or the transport failed.
+     */
+    public int read(final int lun, final long lba, final int blockSize, final ByteBuffer dst)
+        throws IOException {
+        return execute(lun, readWrite(READ_10, READ_16, lba, blocks(dst, blockSize)), dst, true);
+    }
+
+    /**
+     * Writes blocks from a buffer (WRITE (10) or WRITE (16)). The remaining
+     * bytes of the buffer must be a multiple of the block size and are sent
+     * directly by the data phase transfers. The position of the buffer is
+     * advanced by the number of sent bytes.
+     *
+     * @param lun       The logical unit number.
+     * @param lba       The first logical block address.
+     * @param blockSize The block size in bytes.
+     * @param src       The direct source buffer.
+     * @return The number of sent bytes.
+     * @throws IOException When the command or the transport failed.
+     */
+    public int write(final int lun, final long lba, final int blockSize, final ByteBuffer src)
+        throws IOException {
+        return execute(lun, readWrite(WRITE_10, WRITE_16, lba, blocks(src, blockSize)), src, false);
+    }
+
+    /**
+     * Returns the number of blocks in the remaining bytes of a buffer.
+     *
+     * @param buffer    The buffer.
+     * @param blockSize The block size.
+     * @return The number of blocks.
+     */
+    private static int blocks(final ByteBuffer buffer, final int blockSize) {
+        if (blockSize <= 0 || buffer.remaining() % blockSize != 0) {
+            throw new IllegalArgumentException("buffer must hold whole blocks");
+        }
+        return buffer.remaining() / blockSize;
+    }
+
+    /**
+     * Executes a SCSI command. A failed command is followed by REQUEST SENSE
+     * and reported as {@link CommandFailedException} with the sense data.
+     *
+     * @param lun  The logical unit number.
+     * @param cdb  The command descriptor block, 1 to 16 bytes.
+     * @param data The direct data buffer or null for commands without data
+     *             phase. The remaining bytes are transferred and the
+     *             position is advanced accordingly.
+     * @param in   True if the data phase transfers from the device.
+     * @return The number of bytes transferred in the data phase.
+     * @throws IOException When the command or the transport failed.
+     */
+    public synchronized int execute(final int lun, final byte[] cdb, final ByteBuffer data,
+                                    final boolean in) throws IOException {
+        final int start = data == null ? 0 : data.position();
+        final int status = transport(lun, cdb, data, in);
+        if (status == STATUS_FAILED) {
+            if ((cdb[0] & 0xff) == REQUEST_SENSE) {
+                throw new CommandFailedException(REQUEST_SENSE, -1, -1, -1);
+            }
+            throw senseFailure(lun, cdb[0] & 0xff);
+        }
+        return data == null ? 0 : data.position() - start;
+    }
+
+    /**
+     * Performs the CBW, data and CSW phases of a command.
+     *
+     * @param lun  The logical unit number.
+     * @param cdb  The command descriptor block.
+     * @param data The data buffer or null.
+     * @param in   The data direction.
+     * @return The command status, {@link #STATUS_PASSED} or
+     * {@link #STATUS_FAILED}.
+     * @throws IOException When the transport failed.
+     */
+    private int transport(final int lun, final byte[] cdb, final ByteBuffer data, final boolean in)
+        throws IOException {
+        if (this.closed) {
+            throw new IOException("Transport closed");
+        }
+        if (this.eventLoop.isEventThread()) {
+            throw new IllegalStateException("Can't wait for transfers on the event thread");
+        }
+        if (data != null && !data.isDirect()) {
+            throw new IllegalArgumentException("data buffer must be direct");
+        }
+        if (this.resetNeeded) {
+            resetRecovery();
+        }
+        final int length = data == null ? 0 : data.remaining();
+        final int commandTag = ++this.tag;
+        encodeCommand(this.cbw, commandTag, length, in, lun, cdb);
+        int result = LibUsb.bulkTransfer(this.handle, this.outEndpoint, this.cbw, this.transferred, this.timeout);
+        if (result != LibUsb.SUCCESS || this.transferred.get(0) != CBW_SIZE) {
+            resetRecovery();
+            throw failure("Unable to send command block", result != LibUsb.SUCCESS ? result : LibUsb.ERROR_IO);
+        }
+
+        if (length > 0) {
+            final byte endpoint = in ? this.inEndpoint : this.outEndpoint;
+            long count = 0;
+            try {
+                count = (in ? this.inData : this.outData).transfer(data);
+            } catch (final LibUsbException e) {
+                if (e.getErrorCode() != LibUsb.ERROR_PIPE) {
+                    resetRecovery();
+                    throw new IOException("Data phase failed", e);
+                }
+                // The device ended the data phase early, the CSW follows
+                LibUsb.clearHalt(this.handle, endpoint);
+            } catch (final InterruptedException e) {
+                this.resetNeeded = true;
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted during data phase");
+            }
+            data.position(data.position() + (int) count);
+        }
+
+        int status = -1;
+        for (int attempt = 0; attempt < 2 && status < 0; attempt++) {
+            this.csw.clear();
+            result = LibUsb.bulkTransfer(this.handle, this.inEndpoint, this.csw, this.transferred, this.timeout);
+            if (result == LibUsb.ERROR_PIPE && attempt == 0) {
+                LibUsb.clearHalt(this.handle, this.inEndpoint);
+                continue;
+            }
+            if (result != LibUsb.SUCCESS) {
+                resetRecovery();
+                throw failure("Unable to receive command status", result);
+            }
+            status = decodeStatus(this.csw, this.transferred.get(0), commandTag);
+            if (status < 0) {
+                resetRecovery();
+                throw new IOException("Invalid command status wrapper for tag " + commandTag);
+            }
+        }
+        if (status == STATUS_PHASE_ERROR) {
+            resetRecovery();
+            throw new IOException("Phase error");
+        }
+        if (status < 0 || status > STATUS_PHASE_ERROR) {
+            resetRecovery();
+            throw new IOException("Invalid command status " + status);
+        }
+        return status;
+    }
+
+    /**
+     * Requests the sense data after a failed command.
+     *
+     * @param lun           The logical unit number.
+     * @param operationCode The operation code of the failed command.
+     * @return The exception describing the failure.
+     * @throws IOException When the transport failed.
+     */
+    private CommandFailedException senseFailure(final int lun, final int operationCode) throws IOException {
+        final ByteBuffer sense = BufferUtils.allocateByteBuffer(SENSE_SIZE);
+        final byte[] cdb = new byte[6];
+        cdb[0] = REQUEST_SENSE;
+        cdb[4] = SENSE_SIZE;
+        if (transport(lun, cdb, sense, true) != STATUS_PASSED || sense.position() < 14) {
+            return new CommandFailedException(operationCode, -1, -1, -1);
+        }
+        return new CommandFailedException(operationCode, sense.get(2) & 0x0f, sense.get(12) & 0xff,
+                                          sense.get(13) & 0xff);
+    }
+
+    /**
+     * Performs the Bulk-Only reset recovery: a Bulk-Only Mass Storage Reset
+     * followed by clearing the halt of both endpoints.
+     *
+     * @throws IOException When the reset failed.
+     */
+    private void resetRecovery() throws IOException {
+        this.resetNeeded = false;
+        final int result = LibUsb.controlTransfer(this.handle,
+            (byte) (LibUsb.ENDPOINT_OUT | LibUsb.REQUEST_TYPE_CLASS | LibUsb.RECIPIENT_INTERFACE),
+            MASS_STORAGE_RESET, (short) 0, (short) this.interfaceNumber, BufferUtils.allocateByteBuffer(0),
+            this.timeout);
+        LibUsb.clearHalt(this.handle, this.inEndpoint);
+        LibUsb.clearHalt(this.handle, this.outEndpoint);
+        if (result < 0) {
+            this.resetNeeded = true;
+            throw failure("Reset recovery failed", result);
+        }
+    }
+
+    /**
+     * Creates an I/O exception for a libusb error code.
+     *
+     * @param message The message.
+     * @param result  The libusb error code.
+     * @return The exception.
+     */
+    private static IOException failure(final String message, final int result) {
+        return new IOException(message, new LibUsbException(result));
+    }
+
+    /**
+     * Writes a Command Block Wrapper.
+     *
+     * @param cbw    The little endian buffer of {@link #CBW_SIZE} bytes.
+     * @param tag    The command tag.
+     * @param length The data transfer length.
+     * @param in     True if data is transferred from the device.
+     * @param lun    The logical unit number.
+     * @param cdb    The command descriptor block, 1 to 16 bytes.
+     */
+    static void encodeCommand(final ByteBuffer cbw, final int tag, final int length, final boolean in,
+                              final int lun, final byte[] cdb) {
+        if (cdb.length < 1 || cdb.length > 16) {
+            throw new IllegalArgumentException("cdb must have 1 to 16 bytes");
+        }
+        if (lun < 0 || lun > 15) {
+            throw new IllegalArgumentException("lun must be between 0 and 15");
+        }
+        cbw.clear();
+        cbw.putInt(0, CBW_SIGNATURE);
+        cbw.putInt(4, tag);
+        cbw.putInt(8, length);
+        cbw.put(12, in ? LibUsb.ENDPOINT_IN : 0);
+        cbw.put(13, (byte) lun);
+        cbw.put(14, (byte) cdb.length);
+        for (int i = 0; i < 16; i++) {
+            cbw.put(15 + i, i < cdb.length ? cdb[i] : 0);
+        }
+    }
+
+    /**
+     * Validates a Command Status Wrapper and returns its status.
+     *
+     * @param csw    The little endian buffer.
+     * @param length The number of received bytes.
+     * @param tag    The tag of the command.
+     * @return The command status or -1 if the wrapper is not valid for the
+     * command.
+     */
+    static int decodeStatus(final ByteBuffer csw, final int length, final int tag) {
+        if (length != CSW_SIZE || csw.getInt(0) != CSW_SIGNATURE || csw.getInt(4) != tag) {
+            return -1;
+        }
+        return csw.get(12) & 0xff;
+    }
+
+    /**
+     * Builds a READ or WRITE command, using the 10 byte form when the
+     * address and length fit and the 16 byte form otherwise.
+     *
+     * @param op10   The operation code of the 10 byte form.
+     * @param op16   The operation code of the 16 byte form.
+     * @param lba    The logical block address.
+     * @param blocks The number of blocks.
+     * @return The command descriptor block.
+     */
+    static byte[] readWrite(final int op10, final int op16, final long lba, final int blocks) {
+        final byte[] cdb;
+        if (lba >= 0 && lba + blocks - 1 <= 0xffffffffL && blocks <= 0xffff) {
+            cdb = new byte[10];
+            cdb[0] = (byte) op10;
+            putBigEndian(cdb, 2, lba, 4);
+            putBigEndian(cdb, 7, blocks, 2);
+        } else {
+            cdb = new byte[16];
+            cdb[0] = (byte) op16;
+            putBigEndian(cdb, 2, lba, 8);
+            putBigEndian(cdb, 10, blocks, 4);
+        }
+        return cdb;
+    }
+
+    /**
+     * Builds a READ CAPACITY (16) command.
+     *
+     * @param allocationLength The allocation length.
+     * @return The command descriptor block.
+     */
+    static byte[] readCapacity16(final int allocationLength) {
+        final byte[] cdb = new byte[16];
+        cdb[0] = (byte) SERVICE_ACTION_IN_16;
+        cdb[1] = READ_CAPACITY_16;
+        putBigEndian(cdb, 10, allocationLength, 4);
+        return cdb;
+    }
+
+    /**
+     * Stores a big endian value.
+     *
+     * @param target The target array.
+     * @param offset The offset.
+     * @param value  The value.
+     * @param size   The number of bytes.
+     */
+    private static void putBigEndian(final byte[] target, final int offset, final long value, final int size) {
+        for (int i = 0; i < size; i++) {
+            target[offset + i] = (byte) (value >>> ((size - 1 - i) * 8));
+        }
+    }
+
+    /**
+     * Releases the interface. Must not be called while a command is in
+     * progress.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        LibUsb.releaseInterface(this.handle, this.interfaceNumber);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("bulk-only transport on interface %d (IN 0x%02x, OUT 0x%02x)",
+                             this.interfaceNumber, this.inEndpoint & 0xff, this.outEndpoint & 0xff);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.msc;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a SCSI command completed with a failed command status. Carries
+ * the sense data reported by the device for the failure.
+ */
+public final class CommandFailedException extends IOException {
+
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The operation code of the failed command.
+     */
+    private final int operationCode;
+
+    /**
+     * The sense key or -1 if unknown.
+     */
+    private final int senseKey;
+
+    /**
+     * The additional sense code or -1 if unknown.
+     */
+    private final int asc;
+
+    /**
+     * The additional sense code qualifier or -1 if unknown.
+     */
+    private final int ascq;
+
+    /**
+     * Constructs a new exception.
+     *
+     * @param operationCode The operation code of the failed command.
+     * @param senseKey      The sense key or -1 if unknown.
+     * @param asc           The additional sense code or -1 if unknown.
+     * @param ascq          The additional sense code qualifier or -1 if
+     *                      unknown.
+     */
+    public CommandFailedException(final int operationCode, final int senseKey, final int asc,
+                                  final int ascq) {
+        super(senseKey < 0 ? String.format("SCSI command 0x%02x failed", operationCode)
+            : String.format("SCSI command 0x%02x failed: sense key 0x%x, ASC 0x%02x, ASCQ 0x%02x",
+                            operationCode, senseKey, asc, ascq));
+        this.operationCode = operationCode;
+        this.senseKey = senseKey;
+        this.asc = asc;
+        this.ascq = ascq;
+    }
+
+    /**
+     * Returns the operation code of the failed command.
+     *
+     * @return The operation code.
+     */
+    public int getOperationCode() {
+        return this.operationCode;
+    }
+
+    /**
+     * Returns the sense key.
+     *
+     * @return The sense key or -1 if unknown.
+     */
+    public int getSenseKey() {
+        return this.senseKey;
+    }
+
+    /**
+     * Returns the additional sense code.
+     *
+     * @return The additional sense code or -1 if unknown.
+     */
+    public int getAsc() {
+        return this.asc;
+    }
+
+    /**
+     * Returns the additional sense code qualifier.
+     *
+     * @return The additional sense code qualifier or -1 if unknown.
+     */
+    public int getAscq() {
+        return this.ascq;
+    }
+}
@@ -0,0 +1,10 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+/**
+ * USB mass storage Bulk-Only Transport with pipelined data phases and a
+ * block device view for imaging whole devices into memory-mapped files.
+ */
+package org.usb4java.msc;
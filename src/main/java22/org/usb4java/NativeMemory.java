@@ -0,0 +1,245 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import java.io.FileDescriptor;
+import java.lang.foreign.AddressLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * Direct access to native memory for the few places where a JNI call per
+ * field is too expensive or where the JNI binding loses information.
+ * <p>
+ * Java 22+ variant of this class, selected automatically from the
+ * multi-release JAR. Memory is accessed through the Foreign Function &amp;
+ * Memory API instead of the memory access methods of
+ * {@code sun.misc.Unsafe}, which are deprecated for removal. Reading the
+ * private field of {@link FileDescriptor} requires {@code java.base/java.io}
+ * to be opened to this library
+ * ({@code --add-opens java.base/java.io=ALL-UNNAMED}), otherwise
+ * {@link #isFdAvailable()} returns false while memory access keeps working.
+ * <p>
+ * Creating the segment spanning the whole address space is a restricted
+ * operation. Run with {@code --enable-native-access=ALL-UNNAMED} (or the
+ * module name) to avoid the warning printed by the JVM.
+ */
+final class NativeMemory {
+
+    /**
+     * Segment spanning the whole address space or null if not available.
+     */
+    private static final MemorySegment ALL;
+
+    /**
+     * Unaligned pointer layout.
+     */
+    private static final AddressLayout ADDRESS = ValueLayout.ADDRESS_UNALIGNED;
+
+    /**
+     * Accessor for the fd field of file descriptors or null if not
+     * accessible.
+     */
+    private static final VarHandle FD_HANDLE;
+
+    static {
+        MemorySegment all;
+        try {
+            all = MemorySegment.NULL.reinterpret(Long.MAX_VALUE);
+        } catch (final RuntimeException e) {
+            // Native access denied for this module
+            all = null;
+        }
+        ALL = all;
+
+        VarHandle fdHandle;
+        try {
+            fdHandle = MethodHandles.privateLookupIn(FileDescriptor.class, MethodHandles.lookup())
+                .findVarHandle(FileDescriptor.class, "fd", int.class);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            // java.base/java.io is not opened to this module
+            fdHandle = null;
+        }
+        FD_HANDLE = fdHandle;
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private NativeMemory() {
+        // Empty
+    }
+
+    /**
+     * Checks if direct native memory access is available.
+     *
+     * @return True if available, false if not.
+     */
+    static boolean isAvailable() {
+        return ALL != null;
+    }
+
+    /**
+     * Checks if the numeric value of file descriptor objects can be read.
+     *
+     * @return True if available, false if not.
+     */
+    static boolean isFdAvailable() {
+        return FD_HANDLE != null;
+    }
+
+    /**
+     * Returns the segment spanning the whole address space.
+     *
+     * @return The segment.
+     * @throws UnsupportedOperationException When native memory access is not
+     *                                       available.
+     */
+    private static MemorySegment all() {
+        if (ALL == null) {
+            throw new UnsupportedOperationException("Native memory access is not available");
+        }
+        return ALL;
+    }
+
+    /**
+     * Returns the size of a native pointer in bytes.
+     *
+     * @return The pointer size (4 or 8).
+     */
+    static int addressSize() {
+        return (int) ADDRESS.byteSize();
+    }
+
+    /**
+     * Reads a byte from native memory.
+     *
+     * @param address The address to read from.
+     * @return The read value.
+     */
+    static byte getByte(final long address) {
+        return all().get(ValueLayout.JAVA_BYTE, address);
+    }
+
+    /**
+     * Writes a byte to native memory.
+     *
+     * @param address The address to write to.
+     * @param value   The value to write.
+     */
+    static void putByte(final long address, final byte value) {
+        all().set(ValueLayout.JAVA_BYTE, address, value);
+    }
+
+    /**
+     * Reads a short from native memory.
+     *
+     * @param address The address to read from.
+     * @return The read value.
+     */
+    static short getShort(final long address) {
+        return all().get(ValueLayout.JAVA_SHORT_UNALIGNED, address);
+    }
+
+    /**
+     * Reads an int from native memory.
+     *
+     * @param address The address to read from.
+     * @return The read value.
+     */
+    static int getInt(final long address) {
+        return all().get(ValueLayout.JAVA_INT_UNALIGNED, address);
+    }
+
+    /**
+     * Writes an int to native memory.
+     *
+     * @param address The address to write to.
+     * @param value   The value to write.
+     */
+    static void putInt(final long address, final int value) {
+        all().set(ValueLayout.JAVA_INT_UNALIGNED, address, value);
+    }
+
+    /**
+     * Reads a native pointer from native memory.
+     *
+     * @param address The address to read from.
+     * @return The read pointer.
+     */
+    static long getAddress(final long address) {
+        return all().get(ADDRESS, address).address();
+    }
+
+    /**
+     * Writes a native pointer to native memory.
+     *
+     * @param address The address to write to.
+     * @param value   The pointer to write.
+     */
+    static void putAddress(final long address, final long value) {
+        all().set(ADDRESS, address, MemorySegment.ofAddress(value));
+    }
+
+    /**
+     * Returns the native address of a direct buffer.
+     *
+     * @param buffer The direct buffer.
+     * @return The address of the first element of the buffer (ignoring the
+     * position).
+     * @throws IllegalArgumentException When the buffer is not direct.
+     */
+    static long address(final ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer must be direct");
+        }
+        // The segment of a buffer starts at its position
+        return MemorySegment.ofBuffer(buffer).address() - buffer.position();
+    }
+
+    /**
+     * Returns a buffer viewing the given number of bytes starting at the
+     * position of a direct buffer, possibly beyond its limit and capacity.
+     * The caller must make sure the viewed memory belongs to buffers which
+     * stay reachable while the view is used.
+     *
+     * @param buffer The direct buffer.
+     * @param length The number of bytes to view.
+     * @return The view, read-only if the buffer is read-only, or null if
+     * the memory can't be viewed.
+     * @throws IllegalArgumentException When the buffer is not direct.
+     */
+    static ByteBuffer view(final ByteBuffer buffer, final int length) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("buffer must be direct");
+        }
+        if (ALL == null) {
+            return null;
+        }
+        // The resized segment keeps the scope of the buffer, so the view
+        // keeps the buffer reachable
+        final ByteBuffer view = MemorySegment.ofBuffer(buffer).reinterpret(length).asByteBuffer();
+        return buffer.isReadOnly() ? view.asReadOnlyBuffer() : view;
+    }
+
+    /**
+     * Returns the numeric value of a file descriptor object.
+     *
+     * @param fd The file descriptor.
+     * @return The numeric file descriptor.
+     * @throws UnsupportedOperationException When file descriptor access is
+     *                                       not available.
+     */
+    static int fd(final FileDescriptor fd) {
+        if (FD_HANDLE == null) {
+            throw new UnsupportedOperationException("File descriptor access is not available");
+        }
+        return (int) FD_HANDLE.get(fd);
+    }
+}
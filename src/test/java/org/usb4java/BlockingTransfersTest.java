@@ -0,0 +1,416 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link BlockingTransfers} class.
+ */
+public class BlockingTransfersTest
+{
+    /**
+     * Backend recording the submitted transfers.
+     */
+    private static final class FakeBackend implements BlockingTransfers.Backend
+    {
+        /** The next transfer pointer. */
+        private long nextPointer = 1;
+
+        /** The number of allocated transfers. */
+        volatile int allocated;
+
+        /** The result returned by submit. */
+        volatile int submitResult = LibUsb.SUCCESS;
+
+        /** The submitted transfers in submission order. */
+        final List<Transfer> submitted = new CopyOnWriteArrayList<Transfer>();
+
+        /** The transfer types by transfer. */
+        final Map<Transfer, Byte> types = new ConcurrentHashMap<Transfer, Byte>();
+
+        /** The buffers by transfer. */
+        final Map<Transfer, ByteBuffer> buffers = new ConcurrentHashMap<Transfer, ByteBuffer>();
+
+        /** The callbacks by transfer. */
+        final Map<Transfer, TransferCallback> callbacks = new ConcurrentHashMap<Transfer, TransferCallback>();
+
+        /** The user data by transfer. */
+        final Map<Transfer, Object> userData = new ConcurrentHashMap<Transfer, Object>();
+
+        /** The status of the completed transfers. */
+        final Map<Transfer, Integer> status = new ConcurrentHashMap<Transfer, Integer>();
+
+        /** The actual length of the completed transfers. */
+        final Map<Transfer, Integer> actualLengths = new ConcurrentHashMap<Transfer, Integer>();
+
+        /** The cancelled transfers. */
+        final List<Transfer> cancelled = new CopyOnWriteArrayList<Transfer>();
+
+        /** The freed transfers. */
+        final List<Transfer> freed = new CopyOnWriteArrayList<Transfer>();
+
+        @Override
+        public synchronized Transfer alloc()
+        {
+            final Transfer transfer = new Transfer();
+            try
+            {
+                final Field field = Transfer.class.getDeclaredField("transferPointer");
+                field.setAccessible(true);
+                field.setLong(transfer, this.nextPointer++);
+            }
+            catch (final ReflectiveOperationException e)
+            {
+                throw new AssertionError(e);
+            }
+            this.allocated++;
+            return transfer;
+        }
+
+        @Override
+        public void fill(final Transfer transfer, final byte type, final DeviceHandle handle,
+            final byte endpoint, final ByteBuffer buffer, final TransferCallback callback,
+            final Object data, final long timeout)
+        {
+            this.types.put(transfer, type);
+            this.buffers.put(transfer, buffer);
+            this.callbacks.put(transfer, callback);
+            this.userData.put(transfer, data);
+        }
+
+        @Override
+        public int submit(final Transfer transfer)
+        {
+            if (this.submitResult == LibUsb.SUCCESS)
+            {
+                this.submitted.add(transfer);
+            }
+            return this.submitResult;
+        }
+
+        @Override
+        public void cancel(final Transfer transfer)
+        {
+            this.cancelled.add(transfer);
+        }
+
+        @Override
+        public void clearBuffer(final Transfer transfer)
+        {
+            this.buffers.remove(transfer);
+        }
+
+        @Override
+        public void free(final Transfer transfer)
+        {
+            this.freed.add(transfer);
+        }
+
+        @Override
+        public Object userData(final Transfer transfer)
+        {
+            return this.userData.get(transfer);
+        }
+
+        @Override
+        public int status(final Transfer transfer)
+        {
+            return this.status.get(transfer);
+        }
+
+        @Override
+        public int actualLength(final Transfer transfer)
+        {
+            return this.actualLengths.get(transfer);
+        }
+
+        /**
+         * Completes a submitted transfer like the event thread does.
+         *
+         * @param index
+         *            The index of the submitted transfer.
+         * @param transferStatus
+         *            The transfer status.
+         * @param actualLength
+         *            The number of transferred bytes.
+         */
+        void complete(final int index, final int transferStatus, final int actualLength)
+        {
+            final Transfer transfer = this.submitted.get(index);
+            this.status.put(transfer, transferStatus);
+            this.actualLengths.put(transfer, actualLength);
+            this.callbacks.get(transfer).processTransfer(transfer);
+        }
+    }
+
+    /**
+     * A thread performing a bulk or interrupt transfer.
+     */
+    private static final class Caller extends Thread
+    {
+        /** The blocking transfers. */
+        private final BlockingTransfers transfers;
+
+        /** True for an interrupt transfer, false for a bulk transfer. */
+        private final boolean interrupt;
+
+        /** The transferred bytes. */
+        final IntBuffer transferred = IntBuffer.allocate(1);
+
+        /** The result of the transfer. */
+        volatile int result = Integer.MIN_VALUE;
+
+        /** The interrupt flag after the transfer returned. */
+        volatile boolean interrupted;
+
+        /**
+         * Constructor.
+         *
+         * @param transfers
+         *            The blocking transfers.
+         * @param interrupt
+         *            True for an interrupt transfer.
+         */
+        Caller(final BlockingTransfers transfers, final boolean interrupt)
+        {
+            this.transfers = transfers;
+            this.interrupt = interrupt;
+        }
+
+        @Override
+        public void run()
+        {
+            final ByteBuffer data = BufferUtils.allocateByteBuffer(64);
+            if (this.interrupt)
+            {
+                this.result = this.transfers.interruptTransfer(new DeviceHandle(), (byte) 0x81, data,
+                    this.transferred, 0);
+            }
+            else
+            {
+                this.result = this.transfers.bulkTransfer(new DeviceHandle(), (byte) 0x81, data,
+                    this.transferred, 0);
+            }
+            this.interrupted = Thread.currentThread().isInterrupted();
+        }
+    }
+
+    /** The fake backend. */
+    private final FakeBackend backend = new FakeBackend();
+
+    /**
+     * Creates blocking transfers on the fake backend with an event loop
+     * which is marked as running but handled by the test.
+     *
+     * @return The blocking transfers.
+     * @throws Exception
+     *             When the event loop could not be marked as running.
+     */
+    private BlockingTransfers transfers() throws Exception
+    {
+        final EventLoop eventLoop = new EventLoop(null);
+        final Field running = EventLoop.class.getDeclaredField("running");
+        running.setAccessible(true);
+        running.setBoolean(eventLoop, true);
+        return new BlockingTransfers(this.backend, eventLoop);
+    }
+
+    /**
+     * Starts a caller and waits until it parked on its submitted transfer.
+     *
+     * @param caller
+     *            The caller to start.
+     * @param submissions
+     *            The number of submissions expected after the caller parked.
+     * @throws InterruptedException
+     *             When interrupted.
+     */
+    private void startAndAwaitPark(final Caller caller, final int submissions)
+        throws InterruptedException
+    {
+        caller.start();
+        while (this.backend.submitted.size() < submissions
+            || caller.getState() != Thread.State.WAITING)
+        {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Tests the conversion of transfer status codes into error codes.
+     */
+    @Test
+    public void testToErrorCode()
+    {
+        assertEquals(LibUsb.SUCCESS,
+            BlockingTransfers.toErrorCode(LibUsb.TRANSFER_COMPLETED));
+        assertEquals(LibUsb.ERROR_TIMEOUT,
+            BlockingTransfers.toErrorCode(LibUsb.TRANSFER_TIMED_OUT));
+        assertEquals(LibUsb.ERROR_PIPE,
+            BlockingTransfers.toErrorCode(LibUsb.TRANSFER_STALL));
+        assertEquals(LibUsb.ERROR_OVERFLOW,
+            BlockingTransfers.toErrorCode(LibUsb.TRANSFER_OVERFLOW));
+        assertEquals(LibUsb.ERROR_NO_DEVICE,
+            BlockingTransfers.toErrorCode(LibUsb.TRANSFER_NO_DEVICE));
+        assertEquals(LibUsb.ERROR_INTERRUPTED,
+            BlockingTransfers.toErrorCode(LibUsb.TRANSFER_CANCELLED));
+        assertEquals(LibUsb.ERROR_IO,
+            BlockingTransfers.toErrorCode(LibUsb.TRANSFER_ERROR));
+    }
+
+    /**
+     * Tests the constructor with a null event loop.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithoutEventLoop()
+    {
+        new BlockingTransfers(null);
+    }
+
+    /**
+     * Tests that the caller is parked until the completion wakes it up and
+     * that the transfer is pooled afterwards.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test(timeout = 5000)
+    public void testWaitForCompletion() throws Exception
+    {
+        final BlockingTransfers transfers = transfers();
+        final Caller caller = new Caller(transfers, false);
+        startAndAwaitPark(caller, 1);
+        final Transfer transfer = this.backend.submitted.get(0);
+        assertEquals(LibUsb.TRANSFER_TYPE_BULK, (byte) this.backend.types.get(transfer));
+
+        this.backend.complete(0, LibUsb.TRANSFER_COMPLETED, 42);
+        caller.join();
+        assertEquals(LibUsb.SUCCESS, caller.result);
+        assertEquals(42, caller.transferred.get(0));
+        assertNull(this.backend.buffers.get(transfer));
+
+        // The second transfer reuses the pooled transfer
+        final Caller second = new Caller(transfers, true);
+        startAndAwaitPark(second, 2);
+        assertSame(transfer, this.backend.submitted.get(1));
+        assertEquals(LibUsb.TRANSFER_TYPE_INTERRUPT, (byte) this.backend.types.get(transfer));
+        this.backend.complete(1, LibUsb.TRANSFER_STALL, 0);
+        second.join();
+        assertEquals(LibUsb.ERROR_PIPE, second.result);
+        assertEquals(1, this.backend.allocated);
+
+        transfers.close();
+        assertEquals(1, this.backend.freed.size());
+    }
+
+    /**
+     * Tests that interrupting a waiting caller cancels its transfer and
+     * restores the interrupt flag.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test(timeout = 5000)
+    public void testInterruptCancels() throws Exception
+    {
+        final Caller caller = new Caller(transfers(), false);
+        startAndAwaitPark(caller, 1);
+        caller.interrupt();
+        while (this.backend.cancelled.isEmpty())
+        {
+            Thread.sleep(1);
+        }
+        assertSame(this.backend.submitted.get(0), this.backend.cancelled.get(0));
+
+        // The caller keeps waiting for the completion of the cancellation
+        assertTrue(caller.isAlive());
+        this.backend.complete(0, LibUsb.TRANSFER_CANCELLED, 3);
+        caller.join();
+        assertEquals(LibUsb.ERROR_INTERRUPTED, caller.result);
+        assertEquals(3, caller.transferred.get(0));
+        assertTrue(caller.interrupted);
+        assertEquals(1, this.backend.cancelled.size());
+    }
+
+    /**
+     * Tests that a failed submission is returned without waiting.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test(timeout = 5000)
+    public void testSubmitFailure() throws Exception
+    {
+        this.backend.submitResult = LibUsb.ERROR_NO_DEVICE;
+        final Caller caller = new Caller(transfers(), false);
+        caller.start();
+        caller.join();
+        assertEquals(LibUsb.ERROR_NO_DEVICE, caller.result);
+        assertEquals(0, caller.transferred.get(0));
+    }
+
+    /**
+     * Tests that transfers on the event thread fail instead of waiting
+     * forever.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test(timeout = 5000)
+    public void testEventThread() throws Exception
+    {
+        final BlockingTransfers[] transfers = new BlockingTransfers[1];
+        final int[] result = { Integer.MIN_VALUE };
+        final Thread[] thread = new Thread[1];
+        final EventLoop eventLoop = new EventLoop(null, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                thread[0] = new Thread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        result[0] = transfers[0].bulkTransfer(new DeviceHandle(), (byte) 0x81,
+                            BufferUtils.allocateByteBuffer(8), null, 0);
+                    }
+                });
+                return thread[0];
+            }
+        });
+        transfers[0] = new BlockingTransfers(this.backend, eventLoop);
+        thread[0].start();
+        thread[0].join();
+        assertEquals(LibUsb.ERROR_BUSY, result[0]);
+        assertTrue(this.backend.submitted.isEmpty());
+    }
+
+    /**
+     * Tests that transfers fail when the event loop is not running.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testEventLoopNotRunning()
+    {
+        new BlockingTransfers(this.backend, new EventLoop(null)).bulkTransfer(new DeviceHandle(),
+            (byte) 0x81, BufferUtils.allocateByteBuffer(8), null, 0);
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.usb4java.BulkStreams.Stream;
+
+/**
+ * Tests the {@link BulkStreams} class.
+ */
+public class BulkStreamsTest
+{
+    /**
+     * Backend recording the submitted transfers.
+     */
+    private static final class FakeBackend implements BulkStreams.Backend
+    {
+        /** The next transfer pointer. */
+        private long nextPointer = 1;
+
+        /** The user data by transfer. */
+        final Map<Transfer, Object> userData = new HashMap<Transfer, Object>();
+
+        /** The stream IDs by transfer. */
+        final Map<Transfer, Integer> streamIds = new HashMap<Transfer, Integer>();
+
+        /** The callbacks by transfer. */
+        final Map<Transfer, TransferCallback> callbacks = new HashMap<Transfer, TransferCallback>();
+
+        /** The submitted transfers. */
+        final List<Transfer> submitted = new ArrayList<Transfer>();
+
+        /** The cancelled transfers. */
+        final List<Transfer> cancelled = new ArrayList<Transfer>();
+
+        /** The number of freed transfers. */
+        int freed;
+
+        /** The number of calls freeing the streams. */
+        int streamsFreed;
+
+        @Override
+        public Transfer alloc()
+        {
+            final Transfer transfer = new Transfer();
+            try
+            {
+                final Field field = Transfer.class.getDeclaredField("transferPointer");
+                field.setAccessible(true);
+                field.setLong(transfer, this.nextPointer++);
+            }
+            catch (final ReflectiveOperationException e)
+            {
+                throw new AssertionError(e);
+            }
+            return transfer;
+        }
+
+        @Override
+        public void fill(final Transfer transfer, final DeviceHandle handle, final byte endpoint,
+            final int streamId, final ByteBuffer buffer, final TransferCallback callback,
+            final Object data, final long timeout)
+        {
+            this.streamIds.put(transfer, streamId);
+            this.callbacks.put(transfer, callback);
+            this.userData.put(transfer, data);
+        }
+
+        @Override
+        public int submit(final Transfer transfer)
+        {
+            this.submitted.add(transfer);
+            return LibUsb.SUCCESS;
+        }
+
+        @Override
+        public void cancel(final Transfer transfer)
+        {
+            this.cancelled.add(transfer);
+        }
+
+        @Override
+        public void free(final Transfer transfer)
+        {
+            this.freed++;
+        }
+
+        @Override
+        public Object userData(final Transfer transfer)
+        {
+            return this.userData.get(transfer);
+        }
+
+        @Override
+        public void setUserData(final Transfer transfer, final Object data)
+        {
+            this.userData.put(transfer, data);
+        }
+
+        @Override
+        public void clear(final Transfer transfer)
+        {
+            this.userData.remove(transfer);
+        }
+
+        @Override
+        public int freeStreams(final DeviceHandle handle, final byte[] endpoints)
+        {
+            this.streamsFreed++;
+            return LibUsb.SUCCESS;
+        }
+
+        /**
+         * Completes a submitted transfer.
+         *
+         * @param index
+         *            The index of the submitted transfer.
+         */
+        void complete(final int index)
+        {
+            final Transfer transfer = this.submitted.get(index);
+            this.callbacks.get(transfer).processTransfer(transfer);
+        }
+    }
+
+    /**
+     * Tests stream ID allocation and recycling.
+     *
+     * @throws InterruptedException
+     *             When interrupted.
+     */
+    @Test
+    public void testStreamIds() throws InterruptedException
+    {
+        final BulkStreams streams = new BulkStreams(new FakeBackend(), new DeviceHandle(),
+            new byte[] { (byte) 0x81, 0x02 }, 3);
+        assertEquals(3, streams.getStreamCount());
+        final Stream a = streams.tryOpen(t -> { });
+        final Stream b = streams.tryOpen(t -> { });
+        final Stream c = streams.tryOpen(t -> { });
+        assertEquals(1, a.getId());
+        assertEquals(2, b.getId());
+        assertEquals(3, c.getId());
+        assertNull(streams.tryOpen(t -> { }));
+        assertNull(streams.open(t -> { }, 10, TimeUnit.MILLISECONDS));
+
+        // Recycled IDs are handed out first
+        b.close();
+        b.close();
+        assertEquals(1, streams.getFreeStreams());
+        assertEquals(2, streams.tryOpen(t -> { }).getId());
+        assertEquals(0, streams.getFreeStreams());
+        assertEquals(0, a.getInFlight());
+    }
+
+    /**
+     * Tests that completions are routed to the callback of their stream
+     * with the user data of the caller.
+     */
+    @Test
+    public void testRouting()
+    {
+        final FakeBackend backend = new FakeBackend();
+        final BulkStreams streams = new BulkStreams(backend, new DeviceHandle(), new byte[] { (byte) 0x81 }, 2);
+        final List<Object> first = new ArrayList<Object>();
+        final List<Object> second = new ArrayList<Object>();
+        final Stream a = streams.tryOpen(t -> first.add(backend.userData(t)));
+        final Stream b = streams.tryOpen(t -> second.add(backend.userData(t)));
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(512);
+        a.submit((byte) 0x81, buffer, 0, "a1");
+        b.submit((byte) 0x81, buffer, 0, "b1");
+        a.submit((byte) 0x81, buffer, 0);
+        assertEquals(Integer.valueOf(1), backend.streamIds.get(backend.submitted.get(0)));
+        assertEquals(Integer.valueOf(2), backend.streamIds.get(backend.submitted.get(1)));
+        assertEquals(2, a.getInFlight());
+        assertEquals(1, b.getInFlight());
+
+        // Out of submission order
+        backend.complete(2);
+        backend.complete(1);
+        backend.complete(0);
+        assertEquals(2, first.size());
+        assertNull(first.get(0));
+        assertEquals("a1", first.get(1));
+        assertEquals(1, second.size());
+        assertEquals("b1", second.get(0));
+        assertEquals(0, a.getInFlight());
+        assertEquals(0, b.getInFlight());
+    }
+
+    /**
+     * Tests that a closed stream keeps its ID until its transfers completed
+     * and that the streams can't be freed while in use.
+     */
+    @Test
+    public void testCloseWithTransfersInFlight()
+    {
+        final FakeBackend backend = new FakeBackend();
+        final BulkStreams streams = new BulkStreams(backend, new DeviceHandle(), new byte[] { (byte) 0x81 }, 2);
+        final Stream stream = streams.tryOpen(t -> { });
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(512);
+        stream.submit((byte) 0x81, buffer, 0);
+        stream.submit((byte) 0x81, buffer, 0);
+        stream.cancel();
+        assertEquals(backend.submitted, backend.cancelled);
+        stream.close();
+        assertEquals(1, streams.getFreeStreams());
+        try
+        {
+            streams.close();
+            fail("Streams freed while in use");
+        }
+        catch (final IllegalStateException e)
+        {
+            assertEquals("Bulk streams still in use", e.getMessage());
+        }
+        assertEquals(1, streams.getFreeStreams());
+        assertEquals(0, backend.streamsFreed);
+
+        backend.complete(0);
+        assertEquals(1, streams.getFreeStreams());
+        backend.complete(1);
+        assertEquals(2, streams.getFreeStreams());
+        streams.close();
+        assertEquals(1, backend.streamsFreed);
+        assertEquals(2, backend.freed);
+        try
+        {
+            streams.tryOpen(t -> { });
+            fail("Stream opened after freeing");
+        }
+        catch (final IllegalStateException e)
+        {
+            assertEquals("Bulk streams already freed", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link BusyPollPolicy} class.
+ */
+public class BusyPollPolicyTest
+{
+    /**
+     * Tests that the windows grow when events arrive shortly after parking
+     * and shrink when the thread parks for long.
+     */
+    @Test
+    public void testAdaptation()
+    {
+        final BusyPollPolicy policy = new BusyPollPolicy(10, 20, 5, 40, TimeUnit.NANOSECONDS);
+        policy.parked(25, true);
+        assertEquals(20, policy.getSpinNanos());
+        assertEquals(40, policy.getYieldNanos());
+        policy.parked(50, true);
+        assertEquals(40, policy.getSpinNanos());
+        policy.parked(10, true);
+        assertEquals(40, policy.getSpinNanos());
+        assertEquals(80, policy.getYieldNanos());
+
+        // Woken up late but not later than the maximum windows
+        policy.parked(100, true);
+        assertEquals(40, policy.getSpinNanos());
+
+        // Long idle periods shrink the windows down to the minimum
+        policy.parked(1000, false);
+        assertEquals(20, policy.getSpinNanos());
+        policy.parked(1000, true);
+        policy.parked(1000, false);
+        policy.parked(1000, false);
+        assertEquals(5, policy.getSpinNanos());
+        assertEquals(10, policy.getYieldNanos());
+        assertEquals(8, policy.getParkCount());
+    }
+
+    /**
+     * Tests that the windows stay fixed when adaptation is disabled.
+     */
+    @Test
+    public void testFixed()
+    {
+        final BusyPollPolicy policy = new BusyPollPolicy(10, 20, TimeUnit.MICROSECONDS);
+        policy.setAdaptive(false);
+        policy.parked(1, true);
+        policy.parked(TimeUnit.SECONDS.toNanos(1), false);
+        assertEquals(10000, policy.getSpinNanos());
+        assertEquals(20000, policy.getYieldNanos());
+    }
+
+    /**
+     * Tests that an initial spin window outside of the limits is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimits()
+    {
+        new BusyPollPolicy(10, 20, 20, 40, TimeUnit.NANOSECONDS);
+    }
+}
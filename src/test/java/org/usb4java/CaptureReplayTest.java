@@ -0,0 +1,209 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.usb4java.test.UsbmonPcapWriter;
+
+/**
+ * Tests the {@link UsbmonCapture} and {@link CaptureReplay} classes.
+ */
+public class CaptureReplayTest
+{
+    /** The test capture. */
+    private UsbmonCapture capture;
+
+    /**
+     * Set up the test.
+     *
+     * @throws IOException
+     *             When capture could not be parsed.
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        final byte[] setup = { (byte) 0x80, 6, 0, 1, 0, 0, 18, 0 };
+        this.capture = UsbmonCapture.read(new UsbmonPcapWriter(ByteOrder.LITTLE_ENDIAN)
+            .add(1000, 1, 'S', UsbmonPacket.XFER_CONTROL, 0x80, 5, -115, 18, setup, new byte[0])
+            .add(1100, 1, 'C', UsbmonPacket.XFER_CONTROL, 0x80, 5, 0, 4, null, new byte[] { 18, 1, 0, 2 })
+            .add(2000, 2, 'S', UsbmonPacket.XFER_BULK, 0x02, 5, -115, 3, null, new byte[] { 1, 2, 3 })
+            .add(2100, 2, 'C', UsbmonPacket.XFER_BULK, 0x02, 5, 0, 3, null, new byte[0])
+            .add(3000, 3, 'S', UsbmonPacket.XFER_BULK, 0x81, 5, -115, 512, null, new byte[0])
+            .add(3100, 3, 'C', UsbmonPacket.XFER_BULK, 0x81, 5, 0, 2, null, new byte[] { 7, 8 })
+            .add(4000, 4, 'S', UsbmonPacket.XFER_BULK, 0x81, 5, -115, 512, null, new byte[0])
+            .add(4100, 4, 'C', UsbmonPacket.XFER_BULK, 0x81, 5, -32, 0, null, new byte[0])
+            .add(5000, 5, 'S', UsbmonPacket.XFER_BULK, 0x81, 9, -115, 512, null, new byte[0])
+            .toBuffer());
+    }
+
+    /**
+     * Tests parsing a capture.
+     */
+    @Test
+    public void testRead()
+    {
+        assertEquals(UsbmonCapture.LINKTYPE_USB_LINUX, this.capture.linkType());
+        assertEquals(9, this.capture.packets().size());
+        assertEquals(8, this.capture.filter(1, 5).packets().size());
+
+        final UsbmonPacket packet = this.capture.packets().get(5);
+        assertEquals(UsbmonPacket.TYPE_COMPLETE, packet.type());
+        assertEquals((byte) 0x81, packet.endpoint());
+        assertTrue(packet.isIn());
+        assertEquals(3100000, packet.timestamp());
+        assertEquals(2, packet.length());
+        assertEquals(2, packet.dataLength());
+    }
+
+    /**
+     * Tests that big-endian captures are detected.
+     *
+     * @throws IOException
+     *             When capture could not be parsed.
+     */
+    @Test
+    public void testReadBigEndian() throws IOException
+    {
+        final UsbmonCapture bigEndian = UsbmonCapture.read(new UsbmonPcapWriter(ByteOrder.BIG_ENDIAN)
+            .add(1000, 7, 'S', UsbmonPacket.XFER_INTERRUPT, 0x83, 2, -115, 8, null, new byte[0])
+            .toBuffer());
+        assertEquals(1, bigEndian.packets().size());
+        assertEquals(7, bigEndian.packets().get(0).id());
+        assertEquals(8, bigEndian.packets().get(0).length());
+    }
+
+    /**
+     * Tests that non-pcap data is rejected.
+     *
+     * @throws IOException
+     *             Expected.
+     */
+    @Test(expected = IOException.class)
+    public void testReadInvalid() throws IOException
+    {
+        UsbmonCapture.read(ByteBuffer.allocate(64));
+    }
+
+    /**
+     * Tests that records shorter than the usbmon header are rejected.
+     *
+     * @throws IOException
+     *             Expected.
+     */
+    @Test(expected = IOException.class)
+    public void testReadShortRecord() throws IOException
+    {
+        final ByteBuffer pcap = new UsbmonPcapWriter(ByteOrder.LITTLE_ENDIAN)
+            .add(1000, 1, 'S', UsbmonPacket.XFER_BULK, 0x81, 5, -115, 512, null, new byte[0])
+            .toBuffer();
+        // Captured length of the first record
+        pcap.order(ByteOrder.LITTLE_ENDIAN).putInt(32, 20);
+        UsbmonCapture.read(pcap);
+    }
+
+    /**
+     * Tests that records with a negative length are rejected.
+     *
+     * @throws IOException
+     *             Expected.
+     */
+    @Test(expected = IOException.class)
+    public void testReadNegativeRecordLength() throws IOException
+    {
+        final ByteBuffer pcap = new UsbmonPcapWriter(ByteOrder.LITTLE_ENDIAN)
+            .add(1000, 1, 'S', UsbmonPacket.XFER_BULK, 0x81, 5, -115, 512, null, new byte[0])
+            .toBuffer();
+        pcap.order(ByteOrder.LITTLE_ENDIAN).putInt(32, -1);
+        UsbmonCapture.read(pcap);
+    }
+
+    /**
+     * Tests replaying the capture.
+     */
+    @Test
+    public void testReplay()
+    {
+        final CaptureReplay replay = new CaptureReplay(this.capture.filter(1, 5));
+        replay.setSpeed(Double.POSITIVE_INFINITY);
+        assertEquals(4, replay.getRemaining());
+
+        final ByteBuffer descriptor = ByteBuffer.allocateDirect(18);
+        assertEquals(4, replay.controlTransfer((byte) 0x80, (byte) 6, (short) 0x100,
+            (short) 0, descriptor, 1000));
+        assertEquals(18, descriptor.get(0));
+
+        final IntBuffer transferred = IntBuffer.allocate(1);
+        final ByteBuffer out = ByteBuffer.allocateDirect(3);
+        out.put(new byte[] { 1, 2, 3 });
+        assertEquals(LibUsb.SUCCESS, replay.bulkTransfer((byte) 0x02, out, transferred, 0));
+        assertEquals(3, transferred.get(0));
+
+        final ByteBuffer in = ByteBuffer.allocateDirect(512);
+        assertEquals(LibUsb.SUCCESS, replay.bulkTransfer((byte) 0x81, in, transferred, 0));
+        assertEquals(2, transferred.get(0));
+        final byte[] received = new byte[2];
+        in.get(received);
+        assertArrayEquals(new byte[] { 7, 8 }, received);
+
+        assertEquals(LibUsb.ERROR_PIPE, replay.bulkTransfer((byte) 0x81, in, transferred, 0));
+        assertEquals(LibUsb.ERROR_NO_DEVICE, replay.bulkTransfer((byte) 0x81, in, transferred, 0));
+        assertEquals(4, replay.getCompleted());
+        assertEquals(0, replay.getMismatches());
+    }
+
+    /**
+     * Tests that mismatching OUT payloads are detected.
+     */
+    @Test
+    public void testOutMismatch()
+    {
+        final CaptureReplay replay = new CaptureReplay(this.capture.filter(1, 5));
+        replay.setSpeed(Double.POSITIVE_INFINITY);
+        final ByteBuffer out = ByteBuffer.allocateDirect(3);
+        out.put(new byte[] { 1, 2, 4 });
+        assertEquals(LibUsb.ERROR_IO, replay.bulkTransfer((byte) 0x02, out, null, 0));
+        assertEquals(1, replay.getMismatches());
+    }
+
+    /**
+     * Tests that the capture timing is kept when compressed.
+     */
+    @Test
+    public void testTiming()
+    {
+        final CaptureReplay replay = new CaptureReplay(this.capture.filter(1, 5));
+        replay.setSpeed(0.5);
+        final long start = System.nanoTime();
+        replay.controlTransfer((byte) 0x80, (byte) 6, (short) 0x100, (short) 0,
+            ByteBuffer.allocate(18), 0);
+        // Completion at 100us capture time means 200us at half speed
+        assertTrue(System.nanoTime() - start >= 200000);
+    }
+
+    /**
+     * Tests the conversion of URB status codes.
+     */
+    @Test
+    public void testToLibUsbError()
+    {
+        assertEquals(LibUsb.SUCCESS, CaptureReplay.toLibUsbError(0));
+        assertEquals(LibUsb.ERROR_PIPE, CaptureReplay.toLibUsbError(-32));
+        assertEquals(LibUsb.ERROR_OVERFLOW, CaptureReplay.toLibUsbError(-75));
+        assertEquals(LibUsb.ERROR_NO_DEVICE, CaptureReplay.toLibUsbError(-19));
+        assertEquals(LibUsb.ERROR_TIMEOUT, CaptureReplay.toLibUsbError(-2));
+        assertEquals(LibUsb.ERROR_IO, CaptureReplay.toLibUsbError(-71));
+    }
+}
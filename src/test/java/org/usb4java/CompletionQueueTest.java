@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link CompletionQueue} class.
+ */
+public class CompletionQueueTest
+{
+    /**
+     * Tests FIFO order and capacity rounding.
+     */
+    @Test
+    public void testOrder()
+    {
+        final CompletionQueue queue = new CompletionQueue(3);
+        assertEquals(4, queue.getCapacity());
+        final Transfer a = new Transfer();
+        final Transfer b = new Transfer();
+        queue.processTransfer(a);
+        queue.processTransfer(b);
+        assertEquals(2, queue.size());
+        assertSame(a, queue.poll());
+        assertSame(b, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    /**
+     * Tests batch draining.
+     */
+    @Test
+    public void testBatch()
+    {
+        final CompletionQueue queue = new CompletionQueue(8);
+        for (int i = 0; i < 5; i++)
+        {
+            queue.processTransfer(new Transfer());
+        }
+        final List<Transfer> drained = new ArrayList<Transfer>();
+        assertEquals(3, queue.poll(3, drained::add));
+        final Transfer[] batch = new Transfer[4];
+        assertEquals(2, queue.poll(batch));
+        assertEquals(0, queue.poll(batch));
+        assertEquals(3, drained.size());
+    }
+
+    /**
+     * Tests that a full ring overflows instead of losing completions.
+     */
+    @Test
+    public void testOverflow()
+    {
+        final CompletionQueue queue = new CompletionQueue(2);
+        for (int i = 0; i < 5; i++)
+        {
+            queue.processTransfer(new Transfer());
+        }
+        assertEquals(3, queue.getOverflows());
+        assertEquals(5, queue.poll(10, t -> { }));
+    }
+
+    /**
+     * Tests blocking take with timeout.
+     *
+     * @throws InterruptedException
+     *             When interrupted.
+     */
+    @Test
+    public void testTake() throws InterruptedException
+    {
+        final CompletionQueue queue = new CompletionQueue(4);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        final Transfer transfer = new Transfer();
+        final Thread producer = new Thread(() -> {
+            try
+            {
+                Thread.sleep(20);
+            }
+            catch (final InterruptedException e)
+            {
+                return;
+            }
+            queue.processTransfer(transfer);
+        });
+        producer.start();
+        assertSame(transfer, queue.take());
+        producer.join();
+    }
+
+    /**
+     * Tests that completions of several producers are all delivered once.
+     *
+     * @throws InterruptedException
+     *             When interrupted.
+     */
+    @Test
+    public void testMultipleProducers() throws InterruptedException
+    {
+        final CompletionQueue queue = new CompletionQueue(64);
+        final int producers = 4;
+        final int perProducer = 10000;
+        final List<Thread> threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++)
+        {
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++)
+                {
+                    queue.processTransfer(new Transfer());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        final Map<Transfer, Boolean> seen =
+            Collections.synchronizedMap(new IdentityHashMap<Transfer, Boolean>());
+        final Transfer[] batch = new Transfer[32];
+        while (seen.size() < producers * perProducer)
+        {
+            final int count = queue.take(batch);
+            for (int i = 0; i < count; i++)
+            {
+                assertNull(seen.put(batch[i], Boolean.TRUE));
+            }
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertNull(queue.poll());
+    }
+
+    /**
+     * Tests that a consumer parked in take never misses the wakeup of a
+     * completion offered at the same time.
+     *
+     * @throws InterruptedException
+     *             When interrupted.
+     */
+    @Test(timeout = 60000)
+    public void testParkedConsumer() throws InterruptedException
+    {
+        final CompletionQueue queue = new CompletionQueue(4);
+        final Semaphore consumed = new Semaphore(0);
+        final int rounds = 20000;
+        final Thread producer = new Thread(() -> {
+            for (int i = 0; i < rounds; i++)
+            {
+                queue.processTransfer(new Transfer());
+                try
+                {
+                    consumed.acquire();
+                }
+                catch (final InterruptedException e)
+                {
+                    return;
+                }
+                // Vary the timing so the completion races with the consumer
+                // registering as waiter
+                for (int spin = i % 64; spin > 0; spin--)
+                {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        for (int i = 0; i < rounds; i++)
+        {
+            assertNotNull("Lost wakeup in round " + i, queue.poll(10, TimeUnit.SECONDS));
+            consumed.release();
+        }
+        producer.join();
+        assertNull(queue.poll());
+    }
+}
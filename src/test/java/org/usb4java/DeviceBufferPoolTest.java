@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link DeviceBufferPool} class.
+ */
+public class DeviceBufferPoolTest
+{
+    /**
+     * Fake device memory.
+     */
+    private static final class FakeMemory implements DeviceBufferPool.Memory
+    {
+        /** The number of chunks which can be allocated. */
+        int available;
+
+        /** The allocated chunk sizes. */
+        final List<Integer> allocated = new ArrayList<Integer>();
+
+        /** The number of allocation attempts. */
+        int attempts;
+
+        /** The freed chunk sizes. */
+        final List<Integer> freed = new ArrayList<Integer>();
+
+        /**
+         * Constructor.
+         *
+         * @param available
+         *            The number of chunks which can be allocated.
+         */
+        FakeMemory(final int available)
+        {
+            this.available = available;
+        }
+
+        @Override
+        public ByteBuffer alloc(final int length)
+        {
+            this.attempts++;
+            if (this.available == 0) return null;
+            this.available--;
+            this.allocated.add(length);
+            return ByteBuffer.allocateDirect(length);
+        }
+
+        @Override
+        public void free(final ByteBuffer buffer, final int length)
+        {
+            this.freed.add(length);
+        }
+    }
+
+    /**
+     * Tests slicing of device memory chunks.
+     */
+    @Test
+    public void testZeroCopy()
+    {
+        final FakeMemory memory = new FakeMemory(1);
+        final DeviceBufferPool pool = new DeviceBufferPool(memory, 100, 2);
+        final ByteBuffer a = pool.acquire();
+        final ByteBuffer b = pool.acquire();
+        assertEquals(100, a.capacity());
+        assertEquals(100, b.remaining());
+        assertTrue(pool.isZeroCopy(a));
+        assertTrue(pool.isZeroCopy(b));
+        assertEquals(1, pool.getChunkCount());
+        // Slices are padded to whole cache lines
+        assertEquals(Integer.valueOf(256), memory.allocated.get(0));
+
+        pool.release(a);
+        assertSame(a, pool.acquire());
+        assertEquals(3, pool.getZeroCopyCount());
+        assertEquals(0, pool.getFallbackCount());
+    }
+
+    /**
+     * Tests the fallback to direct buffers.
+     */
+    @Test
+    public void testFallback()
+    {
+        final FakeMemory memory = new FakeMemory(1);
+        final DeviceBufferPool pool = new DeviceBufferPool(memory, 64, 1);
+        final ByteBuffer zeroCopy = pool.acquire();
+        final ByteBuffer fallback = pool.acquire();
+        assertTrue(pool.isZeroCopy(zeroCopy));
+        assertFalse(pool.isZeroCopy(fallback));
+        assertTrue(fallback.isDirect());
+        assertFalse(pool.isDeviceMemoryAvailable());
+
+        // Released zero-copy buffers are preferred over fallbacks
+        pool.release(fallback);
+        pool.release(zeroCopy);
+        assertSame(zeroCopy, pool.acquire());
+        assertSame(fallback, pool.acquire());
+        assertEquals(2, pool.getZeroCopyCount());
+        assertEquals(2, pool.getFallbackCount());
+    }
+
+    /**
+     * Tests that mapping device memory is retried with growing intervals
+     * after failures.
+     */
+    @Test
+    public void testRetryDeviceMemory()
+    {
+        final FakeMemory memory = new FakeMemory(0);
+        final DeviceBufferPool pool = new DeviceBufferPool(memory, 64, 1);
+        for (int i = 0; i < 11; i++)
+        {
+            pool.acquire();
+        }
+        // Attempts on acquisitions 1, 3, 6 and 11
+        assertEquals(4, memory.attempts);
+        assertFalse(pool.isDeviceMemoryAvailable());
+
+        memory.available = 1;
+        for (int i = 0; i < 8; i++)
+        {
+            assertFalse(pool.isZeroCopy(pool.acquire()));
+        }
+        assertTrue(pool.isZeroCopy(pool.acquire()));
+        assertTrue(pool.isDeviceMemoryAvailable());
+        assertEquals(1, pool.getZeroCopyCount());
+    }
+
+    /**
+     * Tests that close frees all chunks.
+     */
+    @Test
+    public void testClose()
+    {
+        final FakeMemory memory = new FakeMemory(2);
+        final DeviceBufferPool pool = new DeviceBufferPool(memory, 64, 1);
+        pool.acquire();
+        pool.acquire();
+        pool.close();
+        pool.close();
+        assertEquals(2, memory.freed.size());
+        assertEquals(0, pool.getChunkCount());
+    }
+
+    /**
+     * Tests releasing a foreign buffer.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReleaseForeign()
+    {
+        new DeviceBufferPool(new FakeMemory(0), 64, 1).release(ByteBuffer.allocate(64));
+    }
+
+    /**
+     * Tests releasing a direct buffer of the right size which was not
+     * handed out by the pool.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testReleaseForeignDirect()
+    {
+        final DeviceBufferPool pool = new DeviceBufferPool(new FakeMemory(0), 64, 1);
+        pool.release(pool.acquire());
+        pool.release(ByteBuffer.allocateDirect(64));
+    }
+}
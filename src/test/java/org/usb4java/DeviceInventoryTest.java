@@ -0,0 +1,272 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the {@link DeviceInventory} class.
+ */
+public class DeviceInventoryTest
+{
+    /**
+     * Backend serving the descriptors of a fake device.
+     */
+    private static final class FakeBackend implements DeviceInventory.Backend
+    {
+        /** The descriptors by type and index. */
+        final Map<Integer, byte[]> descriptors = new HashMap<Integer, byte[]>();
+
+        /** The requested descriptors as type and index. */
+        final List<Integer> requests = new ArrayList<Integer>();
+
+        /**
+         * Creates the backend of a device with one configuration, a BOS
+         * descriptor and four strings.
+         *
+         * @param bcdDevice
+         *            The device release number.
+         */
+        FakeBackend(final int bcdDevice)
+        {
+            put(LibUsb.DT_DEVICE, 0, new byte[] { 18, 1, 0x10, 0x02, 0, 0, 0, 64, 0x34, 0x12, 0x78, 0x56,
+                (byte) bcdDevice, (byte) (bcdDevice >> 8), 1, 2, 3, 1 });
+            put(LibUsb.DT_CONFIG, 0, new byte[] { 9, 2, 18, 0, 1, 1, 0, (byte) 0x80, 50,
+                9, 4, 0, 0, 0, (byte) 0xff, 0, 0, 4 });
+            put(LibUsb.DT_BOS, 0, new byte[] { 5, 15, 12, 0, 1, 7, 16, 2, 2, 0, 0, 0 });
+            put(LibUsb.DT_STRING, 0, new byte[] { 4, 3, 0x09, 0x04 });
+            putString(1, "ACME");
+            putString(2, "Widget");
+            putString(3, "SN1");
+            putString(4, "Data");
+        }
+
+        /**
+         * Adds a descriptor.
+         *
+         * @param type
+         *            The descriptor type.
+         * @param index
+         *            The descriptor index.
+         * @param data
+         *            The descriptor.
+         */
+        void put(final byte type, final int index, final byte[] data)
+        {
+            this.descriptors.put((type << 8) | index, data);
+        }
+
+        /**
+         * Adds a string descriptor.
+         *
+         * @param index
+         *            The string index.
+         * @param string
+         *            The string.
+         */
+        void putString(final int index, final String string)
+        {
+            final byte[] chars = string.getBytes(StandardCharsets.UTF_16LE);
+            final byte[] data = new byte[chars.length + 2];
+            data[0] = (byte) data.length;
+            data[1] = LibUsb.DT_STRING;
+            System.arraycopy(chars, 0, data, 2, chars.length);
+            put(LibUsb.DT_STRING, index, data);
+        }
+
+        @Override
+        public int descriptor(final DeviceHandle handle, final byte type, final byte index, final short langId,
+            final ByteBuffer data)
+        {
+            final int key = (type << 8) | (index & 0xff);
+            this.requests.add(key);
+            final byte[] descriptor = this.descriptors.get(key);
+            if (descriptor == null)
+            {
+                return LibUsb.ERROR_PIPE;
+            }
+            final int length = Math.min(descriptor.length, data.remaining());
+            data.duplicate().put(descriptor, 0, length);
+            return length;
+        }
+    }
+
+    /** The temporary folder. */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Returns the bytes of a buffer.
+     *
+     * @param buffer
+     *            The buffer.
+     * @return The remaining bytes.
+     */
+    private static byte[] bytes(final ByteBuffer buffer)
+    {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Tests fetching all descriptors and strings of a device.
+     */
+    @Test
+    public void testFetch()
+    {
+        final FakeBackend backend = new FakeBackend(0x0100);
+        final DeviceInventory inventory = new DeviceInventory(backend);
+        final DeviceInventory.Record record = inventory.fetch(null);
+        assertEquals(0x1234, record.getVendorId());
+        assertEquals(0x5678, record.getProductId());
+        assertEquals(0x0100, record.getBcdDevice());
+        assertEquals("SN1", record.getSerialNumber());
+        assertEquals(0x0409, record.getLanguageId());
+        assertEquals(1, record.getConfigCount());
+        assertEquals(18, record.getConfigDescriptor(0).remaining());
+        assertEquals(12, record.getBosDescriptor().remaining());
+        assertEquals("ACME", record.getString(1));
+        assertEquals("Widget", record.getString(2));
+        assertEquals("Data", record.getString(4));
+        assertEquals(1, inventory.size());
+        assertSame(record, inventory.get((short) 0x1234, (short) 0x5678, (short) 0x0100, "SN1"));
+    }
+
+    /**
+     * Tests writing and mapping an inventory file.
+     *
+     * @throws IOException
+     *             When test fails.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException
+    {
+        final FakeBackend backend = new FakeBackend(0x0100);
+        final DeviceInventory inventory = new DeviceInventory(backend);
+        final DeviceInventory.Record original = inventory.fetch(null);
+        final Path file = this.folder.getRoot().toPath().resolve("inventory.bin");
+        inventory.write(file);
+
+        final DeviceInventory loaded = DeviceInventory.read(file);
+        assertEquals(1, loaded.size());
+        final DeviceInventory.Record record =
+            loaded.get((short) 0x1234, (short) 0x5678, (short) 0x0100, "SN1");
+        assertNotNull(record);
+        assertEquals(Arrays.toString(bytes(original.getDeviceDescriptor())),
+            Arrays.toString(bytes(record.getDeviceDescriptor())));
+        assertEquals(Arrays.toString(bytes(original.getConfigDescriptor(0))),
+            Arrays.toString(bytes(record.getConfigDescriptor(0))));
+        assertEquals(Arrays.toString(bytes(original.getBosDescriptor())),
+            Arrays.toString(bytes(record.getBosDescriptor())));
+        assertEquals(original.getStrings(), record.getStrings());
+        assertEquals(0x0409, record.getLanguageId());
+    }
+
+    /**
+     * Tests that a known device is validated with a quick re-read and a
+     * changed device is fetched again.
+     *
+     * @throws IOException
+     *             When test fails.
+     */
+    @Test
+    public void testValidate() throws IOException
+    {
+        final ByteBuffer data = new DeviceInventory(new FakeBackend(0x0100)).toByteBuffer();
+        final DeviceInventory empty = DeviceInventory.read(data, new FakeBackend(0x0100));
+        assertNull(empty.validate(null));
+
+        final DeviceInventory source = new DeviceInventory(new FakeBackend(0x0100));
+        source.fetch(null);
+        final FakeBackend backend = new FakeBackend(0x0100);
+        final DeviceInventory inventory = DeviceInventory.read(source.toByteBuffer(), backend);
+        final DeviceInventory.Record record = inventory.get(null);
+        assertEquals("SN1", record.getSerialNumber());
+        // Only the device descriptor and the serial number were read
+        assertEquals(Arrays.asList(LibUsb.DT_DEVICE << 8, (LibUsb.DT_STRING << 8) | 3), backend.requests);
+
+        final FakeBackend changed = new FakeBackend(0x0200);
+        final DeviceInventory updated = DeviceInventory.read(source.toByteBuffer(), changed);
+        assertNull(updated.validate(null));
+        final DeviceInventory.Record fetched = updated.get(null);
+        assertEquals(0x0200, fetched.getBcdDevice());
+        assertEquals(2, updated.size());
+    }
+
+    /**
+     * Tests rejecting files of other formats and versions.
+     */
+    @Test
+    public void testInvalidData()
+    {
+        final ByteBuffer data = new DeviceInventory().toByteBuffer();
+        data.putShort(4, (short) 2);
+        try
+        {
+            DeviceInventory.read(data);
+            fail("Version accepted");
+        }
+        catch (final IOException e)
+        {
+            assertEquals("Unsupported inventory version 2", e.getMessage());
+        }
+        data.putInt(0, 0);
+        try
+        {
+            DeviceInventory.read(data);
+            fail("Magic accepted");
+        }
+        catch (final IOException e)
+        {
+            // Expected
+        }
+        final DeviceInventory inventory = new DeviceInventory(new FakeBackend(0x0100));
+        inventory.fetch(null);
+        final ByteBuffer truncated = inventory.toByteBuffer();
+        truncated.limit(truncated.limit() - 3);
+        try
+        {
+            DeviceInventory.read(truncated);
+            fail("Truncated record accepted");
+        }
+        catch (final IOException e)
+        {
+            assertEquals("Corrupt inventory record", e.getMessage());
+        }
+    }
+
+    /**
+     * Tests collecting the string indexes of the descriptors.
+     */
+    @Test
+    public void testStringIndexes()
+    {
+        final FakeBackend backend = new FakeBackend(0x0100);
+        final ByteBuffer device = ByteBuffer.wrap(backend.descriptors.get(LibUsb.DT_DEVICE << 8));
+        final ByteBuffer config = ByteBuffer.wrap(backend.descriptors.get(LibUsb.DT_CONFIG << 8));
+        assertEquals(Arrays.asList(1, 2, 3, 4),
+            new ArrayList<Integer>(DeviceInventory.stringIndexes(device, Arrays.asList(config))));
+    }
+}
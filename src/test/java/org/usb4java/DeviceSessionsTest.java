@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.usb4java.DeviceSessions.Session;
+
+/**
+ * Tests the {@link DeviceSessions} class.
+ */
+public class DeviceSessionsTest
+{
+    /**
+     * Backend recording all calls.
+     */
+    private static final class RecordingBackend implements DeviceSessions.Backend
+    {
+        /** The recorded calls. */
+        final List<String> calls = new ArrayList<String>();
+
+        @Override
+        public synchronized int open(final Device device, final DeviceHandle handle)
+        {
+            this.calls.add("open");
+            return LibUsb.SUCCESS;
+        }
+
+        @Override
+        public synchronized void close(final DeviceHandle handle)
+        {
+            this.calls.add("close");
+        }
+
+        @Override
+        public synchronized int enableAutoDetach(final DeviceHandle handle)
+        {
+            this.calls.add("detach");
+            return LibUsb.ERROR_NOT_SUPPORTED;
+        }
+
+        @Override
+        public synchronized int claimInterface(final DeviceHandle handle, final int iface)
+        {
+            this.calls.add("claim " + iface);
+            return LibUsb.SUCCESS;
+        }
+
+        @Override
+        public synchronized int releaseInterface(final DeviceHandle handle, final int iface)
+        {
+            this.calls.add("release " + iface);
+            return LibUsb.SUCCESS;
+        }
+
+        /**
+         * Returns a copy of the recorded calls.
+         *
+         * @return The calls.
+         */
+        synchronized List<String> calls()
+        {
+            return new ArrayList<String>(this.calls);
+        }
+    }
+
+    /**
+     * Tests that the handle is shared and closed with the last session.
+     */
+    @Test
+    public void testSharedHandle()
+    {
+        final RecordingBackend backend = new RecordingBackend();
+        final DeviceSessions sessions = new DeviceSessions(backend, 0);
+        final Device device = new Device();
+        final Session a = sessions.open(device);
+        final Session b = sessions.open(device);
+        assertNotSame(a, b);
+        assertSame(a.getHandle(), b.getHandle());
+        assertEquals(1, sessions.getOpenHandles());
+
+        a.close();
+        a.close();
+        assertEquals(1, sessions.getOpenHandles());
+        b.close();
+        assertEquals(0, sessions.getOpenHandles());
+        assertEquals(Arrays.asList("open", "detach", "close"), backend.calls());
+
+        // Reopening after close opens a new handle
+        sessions.open(device).close();
+        assertEquals(6, backend.calls().size());
+    }
+
+    /**
+     * Tests that interfaces are claimed only once and released with the
+     * last claim.
+     */
+    @Test
+    public void testClaims()
+    {
+        final RecordingBackend backend = new RecordingBackend();
+        final DeviceSessions sessions = new DeviceSessions(backend, 0);
+        final Device device = new Device();
+        final Session a = sessions.open(device);
+        final Session b = sessions.open(device);
+        a.claimInterface(0);
+        b.claimInterface(0);
+        b.claimInterface(1);
+        a.releaseInterface(0);
+        a.releaseInterface(0);
+        b.close();
+        a.close();
+        assertEquals(Arrays.asList("open", "detach", "claim 0", "claim 1",
+            "release 0", "release 1", "close"), backend.calls());
+    }
+
+    /**
+     * Tests that idle handles survive the grace period when reopened and
+     * are closed after it.
+     *
+     * @throws InterruptedException
+     *             When interrupted.
+     */
+    @Test
+    public void testGracePeriod() throws InterruptedException
+    {
+        final RecordingBackend backend = new RecordingBackend();
+        final DeviceSessions sessions = new DeviceSessions(backend,
+            TimeUnit.MILLISECONDS.toNanos(200));
+        final Device device = new Device();
+        sessions.open(device).close();
+        final Session session = sessions.open(device);
+        assertEquals(2, backend.calls().size());
+        session.close();
+
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sessions.getOpenHandles() > 0 && System.nanoTime() < end)
+        {
+            Thread.sleep(5);
+        }
+        assertEquals(Arrays.asList("open", "detach", "close"), backend.calls());
+        sessions.close();
+    }
+
+    /**
+     * Tests that closing the manager closes all handles.
+     */
+    @Test
+    public void testClose()
+    {
+        final RecordingBackend backend = new RecordingBackend();
+        final DeviceSessions sessions = new DeviceSessions(backend,
+            TimeUnit.HOURS.toNanos(1));
+        sessions.open(new Device()).claimInterface(3);
+        sessions.close();
+        assertEquals(0, sessions.getOpenHandles());
+        assertEquals(Arrays.asList("open", "detach", "claim 3", "release 3",
+            "close"), backend.calls());
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link EndpointChannel} and {@link AsynchronousEndpointChannel}
+ * classes.
+ */
+public class EndpointChannelTest
+{
+    /**
+     * Backend recording submitted transfers which are completed manually.
+     */
+    static final class FakeBackend implements EndpointPipeline.Backend
+    {
+        /** The submitted slots and lengths in submission order. */
+        final List<EndpointPipeline.Slot> submitted = new ArrayList<EndpointPipeline.Slot>();
+
+        /** The submitted lengths. */
+        final List<Integer> lengths = new ArrayList<Integer>();
+
+        /** The number of cancelled transfers. */
+        int cancelled;
+
+        @Override
+        public synchronized int submit(final EndpointPipeline.Slot slot, final int length)
+        {
+            this.submitted.add(slot);
+            this.lengths.add(length);
+            return LibUsb.SUCCESS;
+        }
+
+        @Override
+        public void cancel(final EndpointPipeline.Slot slot)
+        {
+            this.cancelled++;
+            slot.pipeline.completed(slot, LibUsb.TRANSFER_CANCELLED, 0);
+        }
+
+        @Override
+        public void free(final EndpointPipeline.Slot slot)
+        {
+            // Nothing allocated
+        }
+
+        @Override
+        public void checkWait()
+        {
+            // Always allowed
+        }
+
+        /**
+         * Returns the number of transfers in flight.
+         *
+         * @return The number of submitted transfers not yet completed.
+         */
+        synchronized int count()
+        {
+            return this.submitted.size();
+        }
+
+        /**
+         * Completes the oldest submitted transfer with IN data.
+         *
+         * @param data
+         *            The received data.
+         */
+        void receive(final byte... data)
+        {
+            final EndpointPipeline.Slot slot;
+            synchronized (this)
+            {
+                slot = this.submitted.remove(0);
+                this.lengths.remove(0);
+            }
+            final ByteBuffer buffer = slot.buffer.duplicate();
+            buffer.put(data);
+            slot.pipeline.completed(slot, LibUsb.TRANSFER_COMPLETED, data.length);
+        }
+
+        /**
+         * Completes the oldest submitted OUT transfer and returns its data.
+         *
+         * @param status
+         *            The transfer status.
+         * @return The sent data.
+         */
+        byte[] send(final int status)
+        {
+            final EndpointPipeline.Slot slot;
+            final int length;
+            synchronized (this)
+            {
+                slot = this.submitted.remove(0);
+                length = this.lengths.remove(0);
+            }
+            final byte[] data = new byte[length];
+            slot.buffer.duplicate().get(data);
+            slot.pipeline.completed(slot, status, length);
+            return data;
+        }
+    }
+
+    /**
+     * Tests read-ahead and reading across transfer boundaries.
+     *
+     * @throws IOException
+     *             When reading fails.
+     */
+    @Test
+    public void testRead() throws IOException
+    {
+        final FakeBackend backend = new FakeBackend();
+        final EndpointChannel channel =
+            new EndpointChannel(new EndpointPipeline(backend, true, 4, 3));
+        assertEquals(0, backend.count());
+        final ByteBuffer dst = ByteBuffer.allocate(5);
+        final Thread producer = new Thread(() -> {
+            while (backend.count() < 3)
+            {
+                Thread.yield();
+            }
+            backend.receive((byte) 1, (byte) 2, (byte) 3, (byte) 4);
+            backend.receive((byte) 5, (byte) 6);
+        });
+        producer.start();
+        int read = 0;
+        while (read < 5)
+        {
+            read += channel.read(dst);
+        }
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, dst.array());
+        final ByteBuffer rest = ByteBuffer.allocate(4);
+        assertEquals(1, channel.read(rest));
+        assertEquals(6, rest.get(0));
+        channel.close();
+        assertFalse(channel.isOpen());
+    }
+
+    /**
+     * Tests that a failed IN transfer is reported.
+     */
+    @Test
+    public void testReadError()
+    {
+        final FakeBackend backend = new FakeBackend();
+        final EndpointPipeline pipeline = new EndpointPipeline(backend, true, 4, 2);
+        final EndpointChannel channel = new EndpointChannel(pipeline);
+        final Thread producer = new Thread(() -> {
+            while (backend.count() < 2)
+            {
+                Thread.yield();
+            }
+            final EndpointPipeline.Slot slot;
+            synchronized (backend)
+            {
+                slot = backend.submitted.remove(0);
+            }
+            pipeline.completed(slot, LibUsb.TRANSFER_STALL, 0);
+        });
+        producer.start();
+        try
+        {
+            channel.read(ByteBuffer.allocate(4));
+            fail("Expected IOException");
+        }
+        catch (final IOException e)
+        {
+            // Expected
+        }
+        channel.close();
+        assertEquals(1, backend.cancelled);
+    }
+
+    /**
+     * Tests write-behind on an OUT channel.
+     *
+     * @throws IOException
+     *             When writing fails.
+     */
+    @Test
+    public void testWrite() throws IOException
+    {
+        final FakeBackend backend = new FakeBackend();
+        final EndpointChannel channel =
+            new EndpointChannel(new EndpointPipeline(backend, false, 4, 2));
+        assertEquals(6, channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6 })));
+        assertEquals(2, backend.submitted.size());
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, backend.send(LibUsb.TRANSFER_COMPLETED));
+        assertArrayEquals(new byte[] { 5, 6 }, backend.send(LibUsb.TRANSFER_COMPLETED));
+        try
+        {
+            channel.read(ByteBuffer.allocate(1));
+            fail("Expected exception");
+        }
+        catch (final NonReadableChannelException e)
+        {
+            // Expected
+        }
+        channel.close();
+    }
+
+    /**
+     * Tests that an OUT error is reported by the next write.
+     *
+     * @throws IOException
+     *             When writing fails unexpectedly.
+     */
+    @Test
+    public void testWriteError() throws IOException
+    {
+        final FakeBackend backend = new FakeBackend();
+        final EndpointChannel channel =
+            new EndpointChannel(new EndpointPipeline(backend, false, 4, 2));
+        channel.write(ByteBuffer.wrap(new byte[] { 1 }));
+        backend.send(LibUsb.TRANSFER_NO_DEVICE);
+        try
+        {
+            channel.write(ByteBuffer.wrap(new byte[] { 2 }));
+            fail("Expected IOException");
+        }
+        catch (final IOException e)
+        {
+            // Expected
+        }
+        channel.close();
+    }
+
+    /**
+     * Tests the asynchronous channel.
+     *
+     * @throws Exception
+     *             When the test fails.
+     */
+    @Test
+    public void testAsynchronousRead() throws Exception
+    {
+        final FakeBackend backend = new FakeBackend();
+        final AsynchronousEndpointChannel channel =
+            new AsynchronousEndpointChannel(new EndpointPipeline(backend, true, 4, 2));
+        final ByteBuffer dst = ByteBuffer.allocate(8);
+        final Future<Integer> future = channel.read(dst);
+        assertFalse(future.isDone());
+        backend.receive((byte) 7, (byte) 8);
+        assertEquals(Integer.valueOf(2), future.get());
+        assertEquals(7, dst.get(0));
+
+        final Future<Integer> closed = channel.read(ByteBuffer.allocate(4));
+        channel.close();
+        try
+        {
+            closed.get();
+            fail("Expected AsynchronousCloseException");
+        }
+        catch (final ExecutionException e)
+        {
+            assertTrue(e.getCause() instanceof AsynchronousCloseException);
+        }
+    }
+
+    /**
+     * Tests that a write on an IN channel is rejected.
+     */
+    @Test(expected = NonWritableChannelException.class)
+    public void testAsynchronousWriteOnInChannel()
+    {
+        final AsynchronousEndpointChannel channel = new AsynchronousEndpointChannel(
+            new EndpointPipeline(new FakeBackend(), true, 4, 1));
+        channel.write(ByteBuffer.allocate(1));
+    }
+}
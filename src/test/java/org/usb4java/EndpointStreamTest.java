@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link EndpointInputStream} and {@link EndpointOutputStream}
+ * classes.
+ */
+public class EndpointStreamTest
+{
+    /**
+     * Tests that reads are served from completed read-ahead transfers.
+     *
+     * @throws IOException
+     *             When reading fails.
+     */
+    @Test
+    public void testInputStream() throws IOException
+    {
+        final EndpointChannelTest.FakeBackend backend = new EndpointChannelTest.FakeBackend();
+        final EndpointInputStream in =
+            new EndpointInputStream(new EndpointPipeline(backend, true, 4, 2));
+        assertEquals(0, in.available());
+        final Thread producer = new Thread(() -> {
+            while (backend.count() < 2)
+            {
+                Thread.yield();
+            }
+            backend.receive((byte) 1, (byte) 2, (byte) 3);
+        });
+        producer.start();
+        assertEquals(1, in.read());
+        assertEquals(2, in.available());
+        backend.receive((byte) 4, (byte) 5, (byte) 6, (byte) 7);
+        assertEquals(6, in.available());
+        final byte[] data = new byte[8];
+        assertEquals(6, in.read(data, 1, 7));
+        assertArrayEquals(new byte[] { 0, 2, 3, 4, 5, 6, 7, 0 }, data);
+        // Both consumed buffers were resubmitted
+        assertEquals(2, backend.count());
+        in.close();
+    }
+
+    /**
+     * Tests write-behind and flushing of the output stream.
+     *
+     * @throws IOException
+     *             When writing fails.
+     * @throws InterruptedException
+     *             When interrupted.
+     */
+    @Test
+    public void testOutputStream() throws IOException, InterruptedException
+    {
+        final EndpointChannelTest.FakeBackend backend = new EndpointChannelTest.FakeBackend();
+        final EndpointOutputStream out =
+            new EndpointOutputStream(new EndpointPipeline(backend, false, 4, 2));
+        out.write(new byte[] { 1, 2, 3 });
+        assertEquals(0, backend.count());
+        out.write(4);
+        out.write(5);
+        assertEquals(1, backend.count());
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, backend.send(LibUsb.TRANSFER_COMPLETED));
+        final byte[][] flushed = new byte[1][];
+        final Thread consumer = new Thread(() -> {
+            while (backend.count() < 1)
+            {
+                Thread.yield();
+            }
+            flushed[0] = backend.send(LibUsb.TRANSFER_COMPLETED);
+        });
+        consumer.start();
+        out.flush();
+        consumer.join();
+        assertArrayEquals(new byte[] { 5 }, flushed[0]);
+        out.close();
+    }
+}
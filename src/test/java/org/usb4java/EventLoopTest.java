@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.usb4java.test.UsbAssume.assumeUsbTestsEnabled;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link EventLoop} class.
+ */
+public class EventLoopTest
+{
+    /** The libusb context. */
+    private Context context;
+
+    /**
+     * Set up the test.
+     */
+    @Before
+    public void setUp()
+    {
+        this.context = new Context();
+        try
+        {
+            LibUsb.init(this.context);
+        }
+        catch (final Throwable e)
+        {
+            this.context = null;
+        }
+    }
+
+    /**
+     * Tear down the test.
+     */
+    @After
+    public void tearDown()
+    {
+        if (this.context != null)
+        {
+            LibUsb.exit(this.context);
+        }
+    }
+
+    /**
+     * Tests starting and closing an event loop.
+     */
+    @Test
+    public void testStartAndClose()
+    {
+        assumeUsbTestsEnabled();
+        final EventLoop loop = new EventLoop(this.context);
+        assertFalse(loop.isRunning());
+        loop.start();
+        assertTrue(loop.isRunning());
+        assertFalse(loop.isEventThread());
+        loop.close();
+        assertFalse(loop.isRunning());
+    }
+
+    /**
+     * Tests that an event loop can't be started twice.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testStartTwice()
+    {
+        assumeUsbTestsEnabled();
+        try (EventLoop loop = new EventLoop(this.context))
+        {
+            loop.start();
+            loop.start();
+        }
+    }
+}
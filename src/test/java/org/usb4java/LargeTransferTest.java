@@ -0,0 +1,306 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link LargeTransfer} class.
+ */
+public class LargeTransferTest
+{
+    /**
+     * Backend recording the submitted chunks.
+     */
+    private static final class FakeBackend implements LargeTransfer.Backend
+    {
+        /** The next transfer pointer. */
+        private long nextPointer = 1;
+
+        /** The submitted transfers in submission order. */
+        final List<Transfer> submitted = new ArrayList<Transfer>();
+
+        /** The lengths of the submitted chunks. */
+        final List<Integer> lengths = new ArrayList<Integer>();
+
+        /** The flags of the submitted chunks. */
+        final List<Byte> flags = new ArrayList<Byte>();
+
+        /** The callbacks by transfer. */
+        final Map<Transfer, TransferCallback> callbacks = new HashMap<Transfer, TransferCallback>();
+
+        /** The user data by transfer. */
+        final Map<Transfer, Object> userData = new HashMap<Transfer, Object>();
+
+        /** The status of the completed transfers. */
+        final Map<Transfer, Integer> status = new HashMap<Transfer, Integer>();
+
+        /** The actual length of the completed transfers. */
+        final Map<Transfer, Integer> actualLengths = new HashMap<Transfer, Integer>();
+
+        /** The cancelled transfers. */
+        final List<Transfer> cancelled = new ArrayList<Transfer>();
+
+        /** The number of freed transfers. */
+        int freed;
+
+        /** The number of chunks in flight. */
+        int inFlight;
+
+        /** The highest number of chunks in flight. */
+        int maxInFlight;
+
+        @Override
+        public Transfer alloc()
+        {
+            final Transfer transfer = new Transfer();
+            try
+            {
+                final Field field = Transfer.class.getDeclaredField("transferPointer");
+                field.setAccessible(true);
+                field.setLong(transfer, this.nextPointer++);
+            }
+            catch (final ReflectiveOperationException e)
+            {
+                throw new AssertionError(e);
+            }
+            return transfer;
+        }
+
+        @Override
+        public int submit(final Transfer transfer, final DeviceHandle handle, final byte endpoint,
+            final ByteBuffer buffer, final TransferCallback callback, final Object data, final long timeout,
+            final byte transferFlags)
+        {
+            this.submitted.add(transfer);
+            this.lengths.add(buffer.capacity());
+            this.flags.add(transferFlags);
+            this.callbacks.put(transfer, callback);
+            this.userData.put(transfer, data);
+            this.inFlight++;
+            this.maxInFlight = Math.max(this.maxInFlight, this.inFlight);
+            return LibUsb.SUCCESS;
+        }
+
+        @Override
+        public void cancel(final Transfer transfer)
+        {
+            this.cancelled.add(transfer);
+        }
+
+        @Override
+        public void free(final Transfer transfer)
+        {
+            this.freed++;
+        }
+
+        @Override
+        public Object userData(final Transfer transfer)
+        {
+            return this.userData.get(transfer);
+        }
+
+        @Override
+        public int status(final Transfer transfer)
+        {
+            return this.status.get(transfer);
+        }
+
+        @Override
+        public int actualLength(final Transfer transfer)
+        {
+            return this.actualLengths.get(transfer);
+        }
+
+        /**
+         * Completes a submitted chunk.
+         *
+         * @param index
+         *            The index of the submitted chunk.
+         * @param transferStatus
+         *            The transfer status.
+         * @param actualLength
+         *            The number of transferred bytes.
+         */
+        void complete(final int index, final int transferStatus, final int actualLength)
+        {
+            final Transfer transfer = this.submitted.get(index);
+            this.status.put(transfer, transferStatus);
+            this.actualLengths.put(transfer, actualLength);
+            this.inFlight--;
+            this.callbacks.get(transfer).processTransfer(transfer);
+        }
+    }
+
+    /**
+     * Listener recording the reported progress.
+     */
+    private static final class RecordingListener implements LargeTransfer.ProgressListener
+    {
+        /** The reported progress. */
+        final List<Long> progress = new ArrayList<Long>();
+
+        /** The reported lost bytes. */
+        final List<Long> lost = new ArrayList<Long>();
+
+        @Override
+        public void progress(final long transferred, final long total)
+        {
+            this.progress.add(transferred);
+        }
+
+        @Override
+        public void dataLost(final long bytes)
+        {
+            this.lost.add(bytes);
+        }
+    }
+
+    /** The fake backend. */
+    private final FakeBackend backend = new FakeBackend();
+
+    /** The progress listener. */
+    private final RecordingListener listener = new RecordingListener();
+
+    /**
+     * Creates a large transfer with 1024 byte chunks of 512 byte packets and
+     * at most two chunks in flight.
+     *
+     * @param endpoint
+     *            The endpoint address.
+     * @return The large transfer.
+     * @throws Exception
+     *             When the event loop could not be marked as running.
+     */
+    private LargeTransfer largeTransfer(final int endpoint) throws Exception
+    {
+        final EventLoop eventLoop = new EventLoop(null);
+        final Field running = EventLoop.class.getDeclaredField("running");
+        running.setAccessible(true);
+        running.setBoolean(eventLoop, true);
+        final LargeTransfer transfer = new LargeTransfer(this.backend, eventLoop, new DeviceHandle(),
+            (byte) endpoint, 512);
+        transfer.setChunkSize(1024);
+        transfer.setMaxInFlight(2);
+        transfer.setProgressListener(this.listener);
+        return transfer;
+    }
+
+    /**
+     * Tests the alignment of chunk sizes to the packet size.
+     */
+    @Test
+    public void testAlignChunkSize()
+    {
+        assertEquals(1024, LargeTransfer.alignChunkSize(1024, 512));
+        assertEquals(1024, LargeTransfer.alignChunkSize(1500, 512));
+        assertEquals(512, LargeTransfer.alignChunkSize(100, 512));
+        assertEquals(65535 / 1023 * 1023, LargeTransfer.alignChunkSize(65535, 1023));
+    }
+
+    /**
+     * Tests the constructor with an invalid packet size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPacketSize()
+    {
+        new LargeTransfer(new EventLoop(null), new DeviceHandle(), (byte) 0x81, 0);
+    }
+
+    /**
+     * Tests splitting an OUT transfer into chunks with a bounded number in
+     * flight and the progress reported per chunk.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testChunking() throws Exception
+    {
+        final LargeTransfer transfer = largeTransfer(0x02);
+        transfer.setZeroLengthPacket(true);
+        final CompletableFuture<Long> future = transfer.submit(ByteBuffer.allocateDirect(3 * 1024 + 512));
+        assertEquals(2, this.backend.submitted.size());
+
+        for (int i = 0; i < 4; i++)
+        {
+            this.backend.complete(i, LibUsb.TRANSFER_COMPLETED, this.backend.lengths.get(i));
+        }
+        assertTrue(future.isDone());
+        assertEquals(3 * 1024 + 512, (long) future.get());
+        assertEquals(2, this.backend.maxInFlight);
+        assertEquals("[1024, 1024, 1024, 512]", this.backend.lengths.toString());
+        // Only the last chunk ends with a full packet and gets a ZLP
+        assertEquals(LibUsb.TRANSFER_ADD_ZERO_PACKET, (byte) this.backend.flags.get(3));
+        assertEquals(0, (byte) this.backend.flags.get(0));
+        assertEquals("[1024, 2048, 3072, 3584]", this.listener.progress.toString());
+        assertEquals(2, this.backend.freed);
+        assertTrue(this.backend.cancelled.isEmpty());
+    }
+
+    /**
+     * Tests that a short IN packet ends the transfer, cancels the chunks
+     * still in flight and reports the data they consumed.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testShortPacket() throws Exception
+    {
+        final LargeTransfer transfer = largeTransfer(0x81);
+        final CompletableFuture<Long> future = transfer.submit(ByteBuffer.allocateDirect(8 * 1024));
+        this.backend.complete(0, LibUsb.TRANSFER_COMPLETED, 1024);
+        assertEquals(3, this.backend.submitted.size());
+
+        // The short chunk cancels the one chunk still in flight
+        this.backend.complete(1, LibUsb.TRANSFER_COMPLETED, 100);
+        assertEquals(1, this.backend.cancelled.size());
+        assertEquals(this.backend.submitted.get(2), this.backend.cancelled.get(0));
+        assertEquals(3, this.backend.submitted.size());
+        assertFalse(future.isDone());
+
+        // It already received the next 13 bytes of the device
+        this.backend.complete(2, LibUsb.TRANSFER_COMPLETED, 13);
+        assertTrue(future.isDone());
+        assertEquals(1124, (long) future.get());
+        assertEquals("[1024, 1124]", this.listener.progress.toString());
+        assertEquals("[13]", this.listener.lost.toString());
+        assertEquals(13, transfer.getLostBytes());
+        assertEquals(2, this.backend.freed);
+    }
+
+    /**
+     * Tests that chunks cancelled without data after a short packet don't
+     * report lost data.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testShortPacketWithoutLoss() throws Exception
+    {
+        final LargeTransfer transfer = largeTransfer(0x81);
+        final CompletableFuture<Long> future = transfer.submit(ByteBuffer.allocateDirect(8 * 1024));
+        this.backend.complete(0, LibUsb.TRANSFER_COMPLETED, 0);
+        this.backend.complete(1, LibUsb.TRANSFER_CANCELLED, 0);
+        assertEquals(0, (long) future.get());
+        assertTrue(this.listener.lost.isEmpty());
+        assertEquals(0, transfer.getLostBytes());
+    }
+}
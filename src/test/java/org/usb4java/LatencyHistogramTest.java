@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link LatencyHistogram} class.
+ */
+public class LatencyHistogramTest
+{
+    /**
+     * Tests that every value falls into a bucket whose bounds contain it.
+     */
+    @Test
+    public void testBuckets()
+    {
+        for (long value = 0; value < 100000; value += value < 1000 ? 1 : 997)
+        {
+            final int bucket = LatencyHistogram.bucket(value);
+            assertTrue(value <= LatencyHistogram.upperBound(bucket));
+            if (bucket > 0)
+            {
+                assertTrue(value > LatencyHistogram.upperBound(bucket - 1));
+            }
+        }
+    }
+
+    /**
+     * Tests percentiles.
+     */
+    @Test
+    public void testPercentiles()
+    {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 1; i <= 99; i++)
+        {
+            histogram.record(1000);
+        }
+        histogram.record(1000000);
+        assertEquals(100, histogram.getCount());
+        assertEquals(1000000, histogram.getMax());
+        final long median = histogram.getPercentile(50);
+        assertTrue(median >= 1000 && median < 1250);
+        assertEquals(median, histogram.getPercentile(99));
+        assertEquals(1000000, histogram.getPercentile(100));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    /**
+     * Tests that an invalid percentile is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile()
+    {
+        new LatencyHistogram().getPercentile(101);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.FileDescriptor;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link NativeMemory} class.
+ */
+public class NativeMemoryTest
+{
+    /**
+     * Set when the build tests the Java 22 classes of the multi-release JAR.
+     */
+    private static final boolean JAVA22 = Boolean.getBoolean("org.usb4java.test.java22");
+
+    /**
+     * Set up the test.
+     */
+    @Before
+    public void setUp()
+    {
+        if (JAVA22)
+        {
+            assertTrue(NativeMemory.class.getResource("NativeMemory.class").toString()
+                .contains("META-INF/versions/22/"));
+            assertTrue(NativeMemory.isAvailable());
+        }
+        assumeTrue(NativeMemory.isAvailable());
+    }
+
+    /**
+     * Tests reading and writing the memory of a direct buffer.
+     */
+    @Test
+    public void testReadWrite()
+    {
+        final ByteBuffer buffer = BufferUtils.allocateByteBuffer(16)
+            .order(ByteOrder.nativeOrder());
+        buffer.putInt(4, 0x12345678);
+        final long address = NativeMemory.address(buffer);
+        assertEquals(0x12345678, NativeMemory.getInt(address + 4));
+
+        NativeMemory.putByte(address, (byte) 42);
+        assertEquals(42, buffer.get(0));
+        NativeMemory.putAddress(address + 8, 0x1234);
+        assertEquals(0x1234, NativeMemory.getAddress(address + 8));
+    }
+
+    /**
+     * Tests that heap buffers are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddressOfHeapBuffer()
+    {
+        NativeMemory.address(ByteBuffer.allocate(4));
+    }
+
+    /**
+     * Tests reading the numeric value of file descriptors.
+     */
+    @Test
+    public void testFd()
+    {
+        if (JAVA22)
+        {
+            assertTrue(NativeMemory.isFdAvailable());
+        }
+        assumeTrue(NativeMemory.isFdAvailable());
+        assertEquals(1, NativeMemory.fd(FileDescriptor.out));
+        assertEquals(2, NativeMemory.fd(FileDescriptor.err));
+    }
+
+    /**
+     * Tests viewing memory beyond the capacity of a slice.
+     */
+    @Test
+    public void testView()
+    {
+        final ByteBuffer buffer = BufferUtils.allocateByteBuffer(16);
+        final ByteBuffer slice = BufferUtils.slice(buffer, 4, 2);
+        slice.position(1);
+        final ByteBuffer view = NativeMemory.view(slice, 8);
+        assertEquals(8, view.capacity());
+        view.put(7, (byte) 42);
+        assertEquals(42, buffer.get(12));
+        assertTrue(NativeMemory.view(slice.asReadOnlyBuffer(), 8).isReadOnly());
+    }
+
+    /**
+     * Tests the address size.
+     */
+    @Test
+    public void testAddressSize()
+    {
+        final int size = NativeMemory.addressSize();
+        assertTrue(size == 4 || size == 8);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the {@link NativeResources} and {@link NativeResource} classes.
+ */
+public class NativeResourcesTest
+{
+    /**
+     * Restore the defaults.
+     */
+    @After
+    public void tearDown()
+    {
+        NativeResources.setCleanerEnabled(false);
+        NativeResources.setSamplingInterval(0);
+    }
+
+    /**
+     * Tests explicit closing.
+     */
+    @Test
+    public void testClose()
+    {
+        final AtomicInteger frees = new AtomicInteger();
+        final DeviceList list = new DeviceList();
+        final NativeResource<DeviceList> resource = NativeResources.track(list,
+            "TestClose", l -> frees.incrementAndGet());
+        assertSame(list, resource.get());
+        assertEquals(Long.valueOf(1), NativeResources.getLiveCounts().get("TestClose"));
+
+        resource.close();
+        resource.close();
+        assertTrue(resource.isClosed());
+        assertEquals(1, frees.get());
+        assertNull(NativeResources.getLiveCounts().get("TestClose"));
+        assertNull(NativeResources.getCleanedCounts().get("TestClose"));
+    }
+
+    /**
+     * Tests that accessing a closed resource fails.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testGetClosed()
+    {
+        final NativeResource<DeviceList> resource = NativeResources.track(
+            new DeviceList(), "TestGetClosed", l -> { });
+        resource.close();
+        resource.get();
+    }
+
+    /**
+     * Tests that the shadow copy has the same pointer.
+     *
+     * @throws ReflectiveOperationException
+     *             When reflection fails.
+     */
+    @Test
+    public void testShadow() throws ReflectiveOperationException
+    {
+        final Field field = Transfer.class.getDeclaredField("transferPointer");
+        field.setAccessible(true);
+        final Transfer transfer = new Transfer();
+        field.setLong(transfer, 0x1234);
+        final Transfer shadow = NativeResources.shadow(transfer);
+        assertNotSame(transfer, shadow);
+        assertEquals(0x1234, shadow.getPointer());
+    }
+
+    /**
+     * Tests sampled allocation sites in the leak report.
+     */
+    @Test
+    public void testLeakReport()
+    {
+        NativeResources.setSamplingInterval(1);
+        final NativeResource<DeviceList> resource = NativeResources.track(
+            new DeviceList(), "TestLeakReport", l -> { });
+        final String report = NativeResources.getLeakReport();
+        assertTrue(report, report.contains("TestLeakReport"));
+        assertTrue(report, report.contains("NativeResourcesTest.testLeakReport"));
+        resource.close();
+        assertFalse(NativeResources.getLeakReport().contains("TestLeakReport"));
+    }
+
+    /**
+     * Tests that the cleaner frees unreachable structures.
+     *
+     * @throws InterruptedException
+     *             When interrupted.
+     */
+    @Test
+    public void testCleaner() throws InterruptedException
+    {
+        NativeResources.setCleanerEnabled(true);
+        final AtomicInteger frees = new AtomicInteger();
+        NativeResources.track(new DeviceList(), "TestCleaner",
+            l -> frees.incrementAndGet());
+
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (frees.get() == 0 && System.nanoTime() < end)
+        {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(1, frees.get());
+        assertEquals(Long.valueOf(1), NativeResources.getCleanedCounts().get("TestCleaner"));
+        assertNull(NativeResources.getLiveCounts().get("TestCleaner"));
+    }
+
+    /**
+     * Creates a configuration descriptor with a fake pointer.
+     *
+     * @param pointer
+     *            The fake pointer.
+     * @return The descriptor.
+     * @throws ReflectiveOperationException
+     *             When reflection fails.
+     */
+    private static ConfigDescriptor configDescriptor(final long pointer) throws ReflectiveOperationException
+    {
+        final Field field = ConfigDescriptor.class.getDeclaredField("configDescriptorPointer");
+        field.setAccessible(true);
+        final ConfigDescriptor descriptor = new ConfigDescriptor();
+        field.setLong(descriptor, pointer);
+        return descriptor;
+    }
+
+    /**
+     * Tests that closing a tracked structure directly stops tracking it and
+     * that the wrapper does not free it again.
+     *
+     * @throws ReflectiveOperationException
+     *             When reflection fails.
+     */
+    @Test
+    public void testClosedDirectly() throws ReflectiveOperationException
+    {
+        final NativeResource<ConfigDescriptor> resource = NativeResources.track(configDescriptor(0x5000));
+        final long live = NativeResources.getLiveCounts().get("ConfigDescriptor");
+        NativeResources.closed(0x5000);
+        assertTrue(resource.isClosed());
+        assertEquals(live - 1, NativeResources.getLiveCounts().getOrDefault("ConfigDescriptor", 0L).longValue());
+        resource.close();
+        NativeResources.closed(0x5000);
+        assertEquals(live - 1, NativeResources.getLiveCounts().getOrDefault("ConfigDescriptor", 0L).longValue());
+    }
+
+    /**
+     * Tests that unfilled structures can be closed without calling libusb.
+     */
+    @Test
+    public void testCloseUnfilled()
+    {
+        new DeviceList().close();
+        new ConfigDescriptor().close();
+        new BosDescriptor().close();
+        new ContainerIdDescriptor().close();
+    }
+
+    /**
+     * Tests that the cleaner does not free a configuration descriptor whose
+     * interfaces may still be in use, but reports it.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testCleanerKeepsDescriptorTree() throws Exception
+    {
+        NativeResources.setCleanerEnabled(true);
+        NativeResources.track(configDescriptor(0x6000));
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (NativeResources.getAbandonedCounts().get("ConfigDescriptor") == null && System.nanoTime() < end)
+        {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(Long.valueOf(1), NativeResources.getAbandonedCounts().get("ConfigDescriptor"));
+        assertNull(NativeResources.getCleanedCounts().get("ConfigDescriptor"));
+        assertTrue(NativeResources.getLiveCounts().get("ConfigDescriptor") >= 1);
+        assertTrue(NativeResources.getLeakReport().contains("Unreachable but not freed"));
+    }
+
+    /**
+     * Tests that unknown structures are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrackUnsupported()
+    {
+        NativeResources.track(new AutoCloseable()
+        {
+            @Override
+            public void close()
+            {
+                // Empty
+            }
+        });
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Tests the {@link ScatterGather} class.
+ */
+public class ScatterGatherTest
+{
+    /**
+     * Creates a helper backed by a pool without device memory.
+     *
+     * @param bufferSize
+     *            The pool buffer size.
+     * @return The helper.
+     */
+    private static ScatterGather create(final int bufferSize)
+    {
+        final DeviceBufferPool pool = new DeviceBufferPool(new DeviceBufferPool.Memory()
+        {
+            @Override
+            public ByteBuffer alloc(final int length)
+            {
+                return null;
+            }
+
+            @Override
+            public void free(final ByteBuffer buffer, final int length)
+            {
+                // Nothing allocated
+            }
+        }, bufferSize, 4);
+        return new ScatterGather(pool);
+    }
+
+    /**
+     * Returns the remaining bytes of a buffer.
+     *
+     * @param buffer
+     *            The buffer.
+     * @return The bytes.
+     */
+    private static byte[] bytes(final ByteBuffer buffer)
+    {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Tests that adjacent views of one frame buffer are not copied.
+     */
+    @Test
+    public void testGatherAdjacentIsZeroCopy()
+    {
+        Assume.assumeTrue(NativeMemory.isAvailable());
+        final ScatterGather sg = create(64);
+        final ByteBuffer frame = BufferUtils.allocateByteBuffer(16);
+        final ByteBuffer header = frame.duplicate();
+        header.position(2).limit(6);
+        final ByteBuffer payload = frame.duplicate();
+        payload.position(6).limit(14);
+        try (final ScatterGather.Vector vector = sg.gather(header, payload))
+        {
+            assertFalse(vector.isCopied());
+            assertEquals(12, vector.buffer().remaining());
+            vector.buffer().put(0, (byte) 42);
+            assertEquals(42, frame.get(2));
+            assertEquals(12, vector.complete(12));
+        }
+        assertFalse(header.hasRemaining());
+        assertFalse(payload.hasRemaining());
+        assertEquals(1, sg.getZeroCopyCount());
+    }
+
+    /**
+     * Tests that adjacent slices of one frame buffer, each with its own
+     * capacity, are not copied.
+     */
+    @Test
+    public void testGatherAdjacentSlicesIsZeroCopy()
+    {
+        Assume.assumeTrue(NativeMemory.isAvailable());
+        final ScatterGather sg = create(64);
+        final ByteBuffer frame = BufferUtils.allocateByteBuffer(16);
+        final ByteBuffer header = BufferUtils.slice(frame, 2, 4);
+        final ByteBuffer payload = BufferUtils.slice(frame, 6, 6);
+        final ByteBuffer trailer = BufferUtils.slice(frame, 12, 2);
+        header.put(0, (byte) 1);
+        trailer.put(1, (byte) 2);
+        try (final ScatterGather.Vector vector = sg.gather(header, payload, trailer))
+        {
+            assertFalse(vector.isCopied());
+            assertEquals(12, vector.buffer().capacity());
+            assertEquals(1, vector.buffer().get(0));
+            assertEquals(2, vector.buffer().get(11));
+            vector.buffer().put(4, (byte) 42);
+            assertEquals(42, payload.get(0));
+            assertEquals(12, vector.complete(12));
+        }
+        assertFalse(trailer.hasRemaining());
+        assertEquals(1, sg.getZeroCopyCount());
+        assertEquals(0, sg.getCopyCount());
+    }
+
+    /**
+     * Tests that slices of different buffers are copied even if they
+     * happen to be adjacent.
+     */
+    @Test
+    public void testScatterSlicesOfDifferentBuffers()
+    {
+        final ScatterGather sg = create(64);
+        final ByteBuffer a = BufferUtils.slice(BufferUtils.allocateByteBuffer(8), 4, 4);
+        final ByteBuffer b = BufferUtils.slice(BufferUtils.allocateByteBuffer(8), 0, 4);
+        try (final ScatterGather.Vector vector = sg.scatter(a, b))
+        {
+            assertTrue(vector.isCopied());
+            vector.buffer().duplicate().put(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+            vector.complete(8);
+        }
+        assertEquals(4, a.get(3));
+        assertEquals(5, b.get(0));
+    }
+
+    /**
+     * Tests that separate buffers are copied once in order.
+     */
+    @Test
+    public void testGatherCopies()
+    {
+        final ScatterGather sg = create(64);
+        final ByteBuffer a = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+        final ByteBuffer b = BufferUtils.allocateByteBuffer(2);
+        b.put(0, (byte) 4).put(1, (byte) 5);
+        try (final ScatterGather.Vector vector = sg.gather(a, b))
+        {
+            assertTrue(vector.isCopied());
+            assertTrue(vector.buffer().isDirect());
+            // Pooled, but limited to the frame so no stale bytes are sent
+            assertEquals(5, vector.buffer().capacity());
+            assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, bytes(vector.buffer()));
+            assertEquals(0, a.position());
+            vector.complete(4);
+        }
+        assertEquals(3, a.position());
+        assertEquals(1, b.position());
+        assertEquals(1, sg.getCopyCount());
+    }
+
+    /**
+     * Tests that gathered data larger than a pooled buffer still works.
+     */
+    @Test
+    public void testGatherLargerThanPool()
+    {
+        final ScatterGather sg = create(4);
+        final ByteBuffer a = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+        final ByteBuffer b = ByteBuffer.wrap(new byte[] { 4, 5, 6 });
+        try (final ScatterGather.Vector vector = sg.gather(a, b))
+        {
+            assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6 }, bytes(vector.buffer()));
+        }
+    }
+
+    /**
+     * Tests that a copied IN vector is split into the parts, including a
+     * short completion.
+     */
+    @Test
+    public void testScatter()
+    {
+        final ScatterGather sg = create(64);
+        final ByteBuffer header = ByteBuffer.allocate(2);
+        final ByteBuffer payload = ByteBuffer.allocate(4);
+        try (final ScatterGather.Vector vector = sg.scatter(header, payload))
+        {
+            assertTrue(vector.isCopied());
+            assertEquals(6, vector.buffer().remaining());
+            assertEquals(6, vector.buffer().capacity());
+            vector.buffer().duplicate().put(new byte[] { 9, 8, 7, 6, 5, 4 });
+            assertEquals(5, vector.complete(5));
+        }
+        assertArrayEquals(new byte[] { 9, 8 }, header.array());
+        assertArrayEquals(new byte[] { 7, 6, 5, 0 }, payload.array());
+        assertEquals(3, payload.position());
+    }
+
+    /**
+     * Tests that a single direct part is used directly.
+     */
+    @Test
+    public void testScatterSingleDirectPart()
+    {
+        final ScatterGather sg = create(64);
+        final ByteBuffer part = BufferUtils.allocateByteBuffer(8);
+        part.position(2);
+        try (final ScatterGather.Vector vector = sg.scatter(part))
+        {
+            assertFalse(vector.isCopied());
+            vector.buffer().put(0, (byte) 1);
+            vector.complete(3);
+        }
+        assertEquals(1, part.get(2));
+        assertEquals(5, part.position());
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link ShardedContexts} class.
+ */
+public class ShardedContextsTest
+{
+    /**
+     * Tests the device location naming.
+     */
+    @Test
+    public void testLocation()
+    {
+        assertEquals("3", ShardedContexts.location(3, new byte[0]));
+        assertEquals("1-2", ShardedContexts.location(1, new byte[] { 2 }));
+        assertEquals("1-2.3.200",
+            ShardedContexts.location(1, new byte[] { 2, 3, (byte) 200 }));
+    }
+
+    /**
+     * Tests that idle devices are spread by count.
+     */
+    @Test
+    public void testBalanceIdle()
+    {
+        final int[] result = ShardedContexts.balance(new long[4],
+            new int[] { -1, -1, -1, -1 }, 2);
+        int first = 0;
+        for (final int shard : result)
+        {
+            if (shard == 0) first++;
+        }
+        assertEquals(2, first);
+    }
+
+    /**
+     * Tests that heavy devices are separated and fixed devices stay.
+     */
+    @Test
+    public void testBalanceLoad()
+    {
+        final int[] result = ShardedContexts.balance(
+            new long[] { 1000, 900, 100, 50, 800 },
+            new int[] { 0, -1, -1, -1, -1 }, 3);
+        assertEquals(0, result[0]);
+        // The two other heavy devices go to the two empty shards, the light
+        // ones fill up the lighter of them first
+        assertEquals(1, result[1]);
+        assertEquals(2, result[4]);
+        assertEquals(2, result[2]);
+        assertEquals(1, result[3]);
+        assertArrayEquals(new int[0], ShardedContexts.balance(new long[0], new int[0], 3));
+    }
+}
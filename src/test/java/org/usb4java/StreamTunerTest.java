@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link StreamTuner} class and the reconfiguration of
+ * {@link EndpointPipeline}.
+ */
+public class StreamTunerTest
+{
+    /** The fake time in nanoseconds. */
+    private long now = 1;
+
+    /**
+     * Creates a tuner using the fake clock.
+     *
+     * @param speed
+     *            The device speed.
+     * @param maxPacketSize
+     *            The maximum packet size.
+     * @param maxMemory
+     *            The memory bound.
+     * @return The tuner.
+     */
+    private StreamTuner tuner(final int speed, final int maxPacketSize, final long maxMemory)
+    {
+        return new StreamTuner(speed, maxPacketSize, maxMemory, () -> this.now);
+    }
+
+    /**
+     * Reports completions to a tuner, one every millisecond.
+     *
+     * @param tuner
+     *            The tuner.
+     * @param count
+     *            The number of completions.
+     * @param length
+     *            The received bytes of each completion.
+     * @param inFlight
+     *            The transfers still in flight after each completion.
+     */
+    private void complete(final StreamTuner tuner, final int count, final int length, final int inFlight)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            this.now += 1000000;
+            tuner.completed(length, inFlight);
+        }
+    }
+
+    /**
+     * Tests the baseline settings derived from speed and packet size.
+     */
+    @Test
+    public void testBaseline()
+    {
+        final StreamTuner high = tuner(LibUsb.SPEED_HIGH, 512, 16 * 1024 * 1024);
+        assertEquals(13 * 512 * 8, high.getTransferSize());
+        assertEquals(4, high.getDepth());
+        final StreamTuner full = tuner(LibUsb.SPEED_FULL, 64, 16 * 1024 * 1024);
+        assertEquals(19 * 64, full.getTransferSize());
+        assertEquals(4, full.getDepth());
+        assertFalse(high.isSettled());
+    }
+
+    /**
+     * Tests that the baseline respects the memory bound.
+     */
+    @Test
+    public void testBaselineMemoryBound()
+    {
+        final StreamTuner tuner = tuner(LibUsb.SPEED_SUPER, 1024, 64 * 1024);
+        assertTrue((long) tuner.getTransferSize() * tuner.getDepth() <= 64 * 1024);
+        assertEquals(0, tuner.getTransferSize() % 1024);
+        assertEquals(2, tuner.getDepth());
+    }
+
+    /**
+     * Tests that a drained pipeline gets deeper when it helps and that a
+     * probe without gain is reverted.
+     */
+    @Test
+    public void testTuning()
+    {
+        final EndpointChannelTest.FakeBackend backend = new EndpointChannelTest.FakeBackend();
+        final StreamTuner tuner = tuner(LibUsb.SPEED_FULL, 64, 1024 * 1024);
+        final int size = tuner.getTransferSize();
+        final EndpointPipeline pipeline = new EndpointPipeline(backend, true, size, tuner.getDepth());
+        tuner.attach(pipeline);
+
+        // Warm-up and baseline window with a drained pipeline
+        complete(tuner, 4 + 250, size / 2, 0);
+        assertEquals(size / 2 * 1000.0, tuner.getThroughput(), 1);
+        assertEquals(8, tuner.getDepth());
+        assertEquals(8, pipeline.getDepth());
+
+        // The deeper pipeline doubles the throughput and is kept
+        complete(tuner, 8 + 250, size, 1);
+        assertEquals(8, tuner.getDepth());
+        assertFalse(tuner.isSettled());
+
+        // Full transfers, so the transfer size is probed next
+        assertEquals(size * 2, tuner.getTransferSize());
+
+        // No gain, reverted and settled
+        complete(tuner, 8 + 250, size, 1);
+        assertEquals(size, tuner.getTransferSize());
+        assertEquals(size, pipeline.getTransferSize());
+        assertTrue(tuner.isSettled());
+        assertEquals(1000000, tuner.getMaxCompletionGap());
+
+        tuner.retune();
+        assertFalse(tuner.isSettled());
+    }
+
+    /**
+     * Tests that a reconfigured IN pipeline replaces consumed slots without
+     * losing data.
+     *
+     * @throws IOException
+     *             When reading fails.
+     */
+    @Test
+    public void testReconfigurePipeline() throws IOException
+    {
+        final EndpointChannelTest.FakeBackend backend = new EndpointChannelTest.FakeBackend();
+        final EndpointPipeline pipeline = new EndpointPipeline(backend, true, 4, 2);
+        final ByteBuffer dst = ByteBuffer.allocate(16);
+        assertEquals(0, pipeline.read(dst, false));
+        assertEquals(2, backend.count());
+
+        // Deeper and larger: one new slot is submitted right away
+        pipeline.reconfigure(8, 3);
+        assertEquals(3, backend.count());
+        assertEquals(8, (int) backend.lengths.get(2));
+
+        // A consumed old slot comes back with the new size
+        backend.receive((byte) 1, (byte) 2, (byte) 3, (byte) 4);
+        assertEquals(4, pipeline.read(dst, false));
+        assertEquals(3, backend.count());
+        assertEquals(8, (int) backend.lengths.get(2));
+
+        // Shallower: consumed slots are dropped until the depth is reached
+        pipeline.reconfigure(8, 1);
+        backend.receive((byte) 5);
+        backend.receive((byte) 6);
+        assertEquals(2, pipeline.read(dst, false));
+        assertEquals(1, backend.count());
+        dst.flip();
+        assertEquals(6, dst.remaining());
+        pipeline.close();
+    }
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TransferBudget} class.
+ */
+public class TransferBudgetTest
+{
+    /**
+     * Backend recording submissions of fake transfers.
+     */
+    private static final class FakeBackend implements TransferBudget.Backend
+    {
+        /** The submitted transfers in submission order. */
+        final List<Transfer> submitted = new ArrayList<Transfer>();
+
+        /** The lengths by transfer. */
+        final Map<Transfer, Integer> lengths = new HashMap<Transfer, Integer>();
+
+        /** The callbacks by transfer. */
+        final Map<Transfer, TransferCallback> callbacks = new HashMap<Transfer, TransferCallback>();
+
+        /** The result of the next submissions. */
+        volatile int result = LibUsb.SUCCESS;
+
+        @Override
+        public synchronized int submit(final Transfer transfer)
+        {
+            if (this.result == LibUsb.SUCCESS)
+            {
+                this.submitted.add(transfer);
+            }
+            return this.result;
+        }
+
+        @Override
+        public synchronized int length(final Transfer transfer)
+        {
+            return this.lengths.get(transfer);
+        }
+
+        @Override
+        public synchronized TransferCallback callback(final Transfer transfer)
+        {
+            return this.callbacks.get(transfer);
+        }
+
+        @Override
+        public synchronized void setCallback(final Transfer transfer, final TransferCallback callback)
+        {
+            this.callbacks.put(transfer, callback);
+        }
+
+        /**
+         * Completes a submitted transfer by calling its current callback.
+         *
+         * @param transfer
+         *            The transfer.
+         */
+        void complete(final Transfer transfer)
+        {
+            final TransferCallback callback;
+            synchronized (this)
+            {
+                assertTrue(this.submitted.remove(transfer));
+                callback = this.callbacks.get(transfer);
+            }
+            callback.processTransfer(transfer);
+        }
+    }
+
+    /** The backend. */
+    private FakeBackend backend;
+
+    /** The transfers whose original callback was called. */
+    private List<Transfer> completed;
+
+    /** The transfers reported as failed. */
+    private List<Transfer> failed;
+
+    /** The next fake transfer pointer. */
+    private long nextPointer;
+
+    /**
+     * Sets up the fake backend.
+     */
+    @Before
+    public void setUp()
+    {
+        this.backend = new FakeBackend();
+        this.completed = new ArrayList<Transfer>();
+        this.failed = new ArrayList<Transfer>();
+        this.nextPointer = 0x1000;
+    }
+
+    /**
+     * Creates a budget on the fake backend.
+     *
+     * @param budget
+     *            The budget in bytes.
+     * @param policy
+     *            The overflow policy.
+     * @return The budget.
+     */
+    private TransferBudget budget(final long budget, final TransferBudget.Policy policy)
+    {
+        return budget(budget, policy, null);
+    }
+
+    /**
+     * Creates an event loop whose event thread is never started.
+     *
+     * @return The event loop.
+     */
+    private static EventLoop eventLoop()
+    {
+        return new EventLoop(null, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                return new Thread(runnable);
+            }
+        });
+    }
+
+    /**
+     * Creates a budget on the fake backend for transfers completed by an
+     * event loop.
+     *
+     * @param budget
+     *            The budget in bytes.
+     * @param policy
+     *            The overflow policy.
+     * @param eventLoop
+     *            The event loop or null if unknown.
+     * @return The budget.
+     */
+    private TransferBudget budget(final long budget, final TransferBudget.Policy policy,
+        final EventLoop eventLoop)
+    {
+        return new TransferBudget(this.backend, budget, policy, new TransferBudget.ErrorHandler()
+        {
+            @Override
+            public void submitFailed(final Transfer transfer, final int error)
+            {
+                TransferBudgetTest.this.failed.add(transfer);
+            }
+        }, eventLoop);
+    }
+
+    /**
+     * Creates a fake transfer.
+     *
+     * @param length
+     *            The length in bytes.
+     * @return The transfer.
+     * @throws Exception
+     *             When setting the pointer fails.
+     */
+    private Transfer transfer(final int length) throws Exception
+    {
+        final Transfer transfer = new Transfer();
+        final Field field = Transfer.class.getDeclaredField("transferPointer");
+        field.setAccessible(true);
+        field.setLong(transfer, this.nextPointer++);
+        this.backend.lengths.put(transfer, length);
+        this.backend.callbacks.put(transfer, new TransferCallback()
+        {
+            @Override
+            public void processTransfer(final Transfer t)
+            {
+                TransferBudgetTest.this.completed.add(t);
+            }
+        });
+        return transfer;
+    }
+
+    /**
+     * Tests rejecting transfers over the budget and the usage reporting.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testReject() throws Exception
+    {
+        final TransferBudget budget = budget(1000, TransferBudget.Policy.REJECT);
+        final Transfer a = transfer(600);
+        final TransferCallback original = this.backend.callbacks.get(a);
+        assertEquals(LibUsb.SUCCESS, budget.submit(a));
+        assertEquals(LibUsb.ERROR_NO_MEM, budget.submit(transfer(600)));
+        assertEquals(LibUsb.SUCCESS, budget.submit(transfer(400)));
+        assertEquals(1000, budget.getUsedBytes());
+        assertEquals(1, budget.getOverflowCount());
+
+        this.backend.complete(a);
+        assertSame(original, this.backend.callbacks.get(a));
+        assertEquals(1, this.completed.size());
+        assertEquals(400, budget.getUsedBytes());
+        assertEquals(1000, budget.getHighWaterMark());
+        budget.resetHighWaterMark();
+        assertEquals(400, budget.getHighWaterMark());
+    }
+
+    /**
+     * Tests that a transfer larger than the budget is admitted when nothing
+     * else is in flight.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testOversizedTransfer() throws Exception
+    {
+        final TransferBudget budget = budget(1000, TransferBudget.Policy.REJECT);
+        assertEquals(LibUsb.SUCCESS, budget.submit(transfer(5000)));
+        assertEquals(5000, budget.getHighWaterMark());
+    }
+
+    /**
+     * Tests queueing transfers over the budget in order.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testQueue() throws Exception
+    {
+        final TransferBudget budget = budget(1000, TransferBudget.Policy.QUEUE);
+        final Transfer a = transfer(800);
+        final Transfer b = transfer(800);
+        final Transfer c = transfer(100);
+        assertEquals(LibUsb.SUCCESS, budget.submit(a));
+        assertEquals(LibUsb.SUCCESS, budget.submit(b));
+        assertEquals(LibUsb.SUCCESS, budget.submit(c));
+        assertEquals(1, this.backend.submitted.size());
+        assertEquals(900, budget.getQueuedBytes());
+
+        this.backend.complete(a);
+        assertEquals(2, this.backend.submitted.size());
+        assertSame(b, this.backend.submitted.get(0));
+        assertSame(c, this.backend.submitted.get(1));
+        assertEquals(900, budget.getUsedBytes());
+        assertEquals(0, budget.getQueuedBytes());
+    }
+
+    /**
+     * Tests removing a queued transfer and reporting queued transfers which
+     * fail to submit.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testQueueRemoveAndFailure() throws Exception
+    {
+        final TransferBudget budget = budget(1000, TransferBudget.Policy.QUEUE);
+        final Transfer a = transfer(800);
+        final Transfer b = transfer(800);
+        final Transfer c = transfer(800);
+        final TransferCallback original = this.backend.callbacks.get(b);
+        budget.submit(a);
+        budget.submit(b);
+        budget.submit(c);
+        assertFalse(budget.remove(a));
+        assertTrue(budget.remove(b));
+        assertSame(original, this.backend.callbacks.get(b));
+
+        this.backend.result = LibUsb.ERROR_NO_DEVICE;
+        this.backend.complete(a);
+        assertEquals(1, this.failed.size());
+        assertSame(c, this.failed.get(0));
+        assertEquals(0, budget.getUsedBytes());
+    }
+
+    /**
+     * Tests blocking until enough transfers completed.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test(timeout = 5000)
+    public void testBlock() throws Exception
+    {
+        final TransferBudget budget = budget(1000, TransferBudget.Policy.BLOCK, eventLoop());
+        final Transfer a = transfer(800);
+        final Transfer b = transfer(800);
+        budget.submit(a);
+        final int[] result = { -1 };
+        final Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                result[0] = budget.submit(b);
+            }
+        });
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING)
+        {
+            Thread.sleep(1);
+        }
+        assertEquals(1, this.backend.submitted.size());
+        this.backend.complete(a);
+        thread.join();
+        assertEquals(LibUsb.SUCCESS, result[0]);
+        assertEquals(800, budget.getUsedBytes());
+    }
+
+    /**
+     * Tests that an interrupted wait returns an error.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test(timeout = 5000)
+    public void testBlockInterrupted() throws Exception
+    {
+        final TransferBudget budget = budget(1000, TransferBudget.Policy.BLOCK, eventLoop());
+        budget.submit(transfer(800));
+        Thread.currentThread().interrupt();
+        assertEquals(LibUsb.ERROR_INTERRUPTED, budget.submit(transfer(800)));
+        assertTrue(Thread.interrupted());
+        assertEquals(800, budget.getUsedBytes());
+    }
+
+    /**
+     * Tests that blocking requires the event loop.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlockWithoutEventLoop()
+    {
+        budget(1000, TransferBudget.Policy.BLOCK);
+    }
+
+    /**
+     * Tests that blocking on the event thread fails instead of waiting
+     * forever.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test(timeout = 5000)
+    public void testBlockOnEventThread() throws Exception
+    {
+        final Transfer a = transfer(800);
+        final Transfer b = transfer(800);
+        final TransferCallback original = this.backend.callbacks.get(b);
+        final TransferBudget[] budget = new TransferBudget[1];
+        final int[] result = { -1 };
+        final Thread[] thread = new Thread[1];
+        final EventLoop eventLoop = new EventLoop(null, new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                thread[0] = new Thread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        result[0] = budget[0].submit(b);
+                    }
+                });
+                return thread[0];
+            }
+        });
+        budget[0] = budget(1000, TransferBudget.Policy.BLOCK, eventLoop);
+        budget[0].submit(a);
+        thread[0].start();
+        thread[0].join();
+        assertEquals(LibUsb.ERROR_BUSY, result[0]);
+        assertSame(original, this.backend.callbacks.get(b));
+        assertEquals(800, budget[0].getUsedBytes());
+        assertEquals(1, this.backend.submitted.size());
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.usb4java.TransferDeadlines.Deadline;
+
+/**
+ * Tests the {@link TransferDeadlines} class.
+ */
+public class TransferDeadlinesTest
+{
+    /** The tick duration used by the tests. */
+    private static final long TICK = 1000;
+
+    /** The transfers cancelled by the wheel. */
+    private final List<Transfer> cancelled = new ArrayList<Transfer>();
+
+    /** The timer wheel to test. */
+    private TransferDeadlines wheel;
+
+    /**
+     * Set up the test.
+     */
+    @Before
+    public void setUp()
+    {
+        this.wheel = new TransferDeadlines(null, TICK, 8, 0, transfer -> {
+            this.cancelled.add(transfer);
+            return LibUsb.SUCCESS;
+        });
+    }
+
+    /**
+     * Tests that the wheel size is rounded up to a power of two.
+     */
+    @Test
+    public void testWheelSize()
+    {
+        assertEquals(8, this.wheel.getWheelSize());
+        assertEquals(1, new TransferDeadlines(null, TICK, 1, 0, t -> 0).getWheelSize());
+        assertEquals(16, new TransferDeadlines(null, TICK, 9, 0, t -> 0).getWheelSize());
+    }
+
+    /**
+     * Tests that a deadline expires at its tick and not before.
+     */
+    @Test
+    public void testExpire()
+    {
+        final Transfer transfer = new Transfer();
+        final Deadline deadline = this.wheel.schedule(2500);
+        deadline.add(transfer);
+        assertTrue(this.wheel.hasPending());
+
+        assertEquals(3000, this.wheel.process(0));
+        assertFalse(this.wheel.hasPending());
+        assertEquals(3000, this.wheel.process(2999));
+        assertTrue(this.cancelled.isEmpty());
+
+        assertEquals(Long.MAX_VALUE, this.wheel.process(3000));
+        assertEquals(1, this.cancelled.size());
+        assertSame(transfer, this.cancelled.get(0));
+        assertTrue(deadline.isExpired());
+        assertFalse(deadline.cancel());
+    }
+
+    /**
+     * Tests that a cancelled deadline never cancels its transfer.
+     */
+    @Test
+    public void testCancel()
+    {
+        final Deadline deadline = this.wheel.schedule(2000);
+        deadline.add(new Transfer());
+        this.wheel.process(0);
+        assertTrue(deadline.cancel());
+        assertTrue(deadline.isCancelled());
+        // Removed from the wheel right away, so no wakeup is left
+        assertEquals(Long.MAX_VALUE, this.wheel.process(1000));
+        assertEquals(Long.MAX_VALUE, this.wheel.process(5000));
+        assertTrue(this.cancelled.isEmpty());
+    }
+
+    /**
+     * Tests a group deadline with a transfer removed after completion.
+     */
+    @Test
+    public void testGroup()
+    {
+        final Transfer a = new Transfer();
+        final Transfer b = new Transfer();
+        final Transfer c = new Transfer();
+        final Deadline group = this.wheel.schedule(1000);
+        group.add(a);
+        group.add(b);
+        group.add(c);
+        assertTrue(group.remove(b));
+        this.wheel.process(1000);
+        assertEquals(2, this.cancelled.size());
+        assertTrue(this.cancelled.contains(a));
+        assertTrue(this.cancelled.contains(c));
+    }
+
+    /**
+     * Tests deadlines which are more than one rotation away.
+     */
+    @Test
+    public void testMultipleRotations()
+    {
+        final Deadline near = this.wheel.schedule(3000);
+        near.add(new Transfer());
+        final Deadline far = this.wheel.schedule(3000 + 8 * TICK * 2);
+        far.add(new Transfer());
+
+        assertEquals(3000, this.wheel.process(0));
+        assertEquals(3000 + 8 * TICK * 2, this.wheel.process(3000));
+        assertTrue(near.isExpired());
+        assertFalse(far.isExpired());
+        assertEquals(1, this.cancelled.size());
+
+        this.wheel.process(3000 + 8 * TICK);
+        assertFalse(far.isExpired());
+        this.wheel.process(3000 + 8 * TICK * 2);
+        assertTrue(far.isExpired());
+    }
+
+    /**
+     * Tests that deadlines passed during a long sleep expire at once.
+     */
+    @Test
+    public void testLongSleep()
+    {
+        final Deadline first = this.wheel.schedule(1000);
+        final Deadline second = this.wheel.schedule(50000);
+        this.wheel.process(0);
+        assertEquals(Long.MAX_VALUE, this.wheel.process(1000000));
+        assertTrue(first.isExpired());
+        assertTrue(second.isExpired());
+    }
+
+    /**
+     * Tests that deadlines in the past expire on the next call.
+     */
+    @Test
+    public void testPastDeadline()
+    {
+        this.wheel.process(10000);
+        final Deadline deadline = this.wheel.schedule(5000);
+        deadline.add(new Transfer());
+        this.wheel.process(10000);
+        assertTrue(deadline.isExpired());
+        assertEquals(1, this.cancelled.size());
+    }
+
+    /**
+     * Tests that a transfer added to an expired deadline is cancelled right
+     * away.
+     */
+    @Test
+    public void testAddAfterExpiry()
+    {
+        final Deadline deadline = this.wheel.schedule(1000);
+        this.wheel.process(1000);
+        assertTrue(deadline.isExpired());
+        final Transfer transfer = new Transfer();
+        assertFalse(deadline.add(transfer));
+        assertEquals(1, this.cancelled.size());
+        assertSame(transfer, this.cancelled.get(0));
+        assertFalse(deadline.remove(transfer));
+    }
+
+    /**
+     * Tests that the next wakeup skips cancelled deadlines.
+     */
+    @Test
+    public void testNextDeadlineAfterCancel()
+    {
+        final Deadline first = this.wheel.schedule(2000);
+        final Deadline second = this.wheel.schedule(5000);
+        assertEquals(2000, this.wheel.process(0));
+        assertTrue(first.cancel());
+        // The earliest tick is only searched again once it passed
+        assertEquals(2000, this.wheel.process(1000));
+        assertEquals(5000, this.wheel.process(2000));
+        assertFalse(second.isExpired());
+        assertEquals(Long.MAX_VALUE, this.wheel.process(5000));
+        assertTrue(second.isExpired());
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TransferScheduler} class.
+ */
+public class TransferSchedulerTest
+{
+    /**
+     * Backend recording submissions of fake transfers.
+     */
+    private static final class FakeBackend implements TransferScheduler.Backend
+    {
+        /** The submitted transfers in submission order. */
+        final List<Transfer> submitted = new ArrayList<Transfer>();
+
+        /** The device handles by transfer. */
+        final Map<Transfer, DeviceHandle> handles = new HashMap<Transfer, DeviceHandle>();
+
+        /** The endpoints by transfer. */
+        final Map<Transfer, Byte> endpoints = new HashMap<Transfer, Byte>();
+
+        /** The lengths by transfer. */
+        final Map<Transfer, Integer> lengths = new HashMap<Transfer, Integer>();
+
+        /** The callbacks by transfer. */
+        final Map<Transfer, TransferCallback> callbacks = new HashMap<Transfer, TransferCallback>();
+
+        /** The result of the next submissions. */
+        int result = LibUsb.SUCCESS;
+
+        @Override
+        public int submit(final Transfer transfer)
+        {
+            if (this.result == LibUsb.SUCCESS)
+            {
+                this.submitted.add(transfer);
+            }
+            return this.result;
+        }
+
+        @Override
+        public DeviceHandle devHandle(final Transfer transfer)
+        {
+            return this.handles.get(transfer);
+        }
+
+        @Override
+        public byte endpoint(final Transfer transfer)
+        {
+            return this.endpoints.get(transfer);
+        }
+
+        @Override
+        public int length(final Transfer transfer)
+        {
+            return this.lengths.get(transfer);
+        }
+
+        @Override
+        public TransferCallback callback(final Transfer transfer)
+        {
+            return this.callbacks.get(transfer);
+        }
+
+        @Override
+        public void setCallback(final Transfer transfer, final TransferCallback callback)
+        {
+            this.callbacks.put(transfer, callback);
+        }
+
+        /**
+         * Completes a submitted transfer by calling its current callback.
+         *
+         * @param transfer
+         *            The transfer.
+         */
+        void complete(final Transfer transfer)
+        {
+            assertTrue(this.submitted.remove(transfer));
+            this.callbacks.get(transfer).processTransfer(transfer);
+        }
+    }
+
+    /** The backend. */
+    private FakeBackend backend;
+
+    /** The device handle. */
+    private DeviceHandle handle;
+
+    /** The transfers whose original callback was called. */
+    private List<Transfer> completed;
+
+    /** The transfers reported as failed. */
+    private List<Transfer> failed;
+
+    /** The next fake transfer pointer. */
+    private long nextPointer;
+
+    /**
+     * Sets up the fake backend.
+     *
+     * @throws Exception
+     *             When setting the handle pointer fails.
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.backend = new FakeBackend();
+        this.handle = new DeviceHandle();
+        final Field field = DeviceHandle.class.getDeclaredField("deviceHandlePointer");
+        field.setAccessible(true);
+        field.setLong(this.handle, 0x100);
+        this.completed = new ArrayList<Transfer>();
+        this.failed = new ArrayList<Transfer>();
+        this.nextPointer = 0x1000;
+    }
+
+    /**
+     * Creates a scheduler on the fake backend.
+     *
+     * @param maxInFlight
+     *            The maximum number of transfers in flight.
+     * @param maxInFlightBytes
+     *            The maximum number of bytes in flight.
+     * @return The scheduler.
+     */
+    private TransferScheduler scheduler(final int maxInFlight, final long maxInFlightBytes)
+    {
+        return new TransferScheduler(this.backend, maxInFlight, maxInFlightBytes,
+            new TransferScheduler.ErrorHandler()
+            {
+                @Override
+                public void submitFailed(final Transfer transfer, final int error)
+                {
+                    TransferSchedulerTest.this.failed.add(transfer);
+                }
+            });
+    }
+
+    /**
+     * Creates a fake transfer.
+     *
+     * @param endpoint
+     *            The endpoint address.
+     * @param length
+     *            The length in bytes.
+     * @return The transfer.
+     * @throws Exception
+     *             When setting the pointer fails.
+     */
+    private Transfer transfer(final int endpoint, final int length) throws Exception
+    {
+        final Transfer transfer = new Transfer();
+        final Field field = Transfer.class.getDeclaredField("transferPointer");
+        field.setAccessible(true);
+        field.setLong(transfer, this.nextPointer++);
+        this.backend.handles.put(transfer, this.handle);
+        this.backend.endpoints.put(transfer, (byte) endpoint);
+        this.backend.lengths.put(transfer, length);
+        this.backend.callbacks.put(transfer, new TransferCallback()
+        {
+            @Override
+            public void processTransfer(final Transfer t)
+            {
+                TransferSchedulerTest.this.completed.add(t);
+            }
+        });
+        return transfer;
+    }
+
+    /**
+     * Tests that transfers are submitted up to the transfer cap and queued
+     * transfers follow on completion with the original callback restored.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testTransferCap() throws Exception
+    {
+        final TransferScheduler scheduler = scheduler(2, 1 << 20);
+        final Transfer a = transfer(0x02, 512);
+        final Transfer b = transfer(0x02, 512);
+        final Transfer c = transfer(0x02, 512);
+        final TransferCallback original = this.backend.callbacks.get(a);
+        assertEquals(LibUsb.SUCCESS, scheduler.submit(a, TransferScheduler.Priority.NORMAL));
+        assertEquals(LibUsb.SUCCESS, scheduler.submit(b, TransferScheduler.Priority.NORMAL));
+        assertEquals(LibUsb.SUCCESS, scheduler.submit(c, TransferScheduler.Priority.NORMAL));
+        assertEquals(2, scheduler.getInFlight(this.handle));
+        assertEquals(1024, scheduler.getInFlightBytes(this.handle));
+        assertEquals(1, scheduler.getQueued(this.handle));
+
+        this.backend.complete(a);
+        assertSame(original, this.backend.callbacks.get(a));
+        assertEquals(1, this.completed.size());
+        assertSame(a, this.completed.get(0));
+        assertTrue(this.backend.submitted.contains(c));
+        assertEquals(0, scheduler.getQueued(this.handle));
+    }
+
+    /**
+     * Tests that the byte cap limits the bytes in flight but lets a single
+     * oversized transfer through.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testByteCap() throws Exception
+    {
+        final TransferScheduler scheduler = scheduler(8, 1000);
+        final Transfer big = transfer(0x02, 4096);
+        final Transfer small = transfer(0x02, 100);
+        scheduler.submit(big, TransferScheduler.Priority.NORMAL);
+        scheduler.submit(small, TransferScheduler.Priority.NORMAL);
+        assertEquals(1, scheduler.getInFlight(this.handle));
+        this.backend.complete(big);
+        assertEquals(1, scheduler.getInFlight(this.handle));
+        assertEquals(100, scheduler.getInFlightBytes(this.handle));
+    }
+
+    /**
+     * Tests that urgent transfers bypass queued bulk traffic and use the
+     * reserved slots.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testUrgentBypassesBulk() throws Exception
+    {
+        final TransferScheduler scheduler = scheduler(2, 1 << 20);
+        for (int i = 0; i < 10; i++)
+        {
+            scheduler.submit(transfer(0x02, 65536), TransferScheduler.Priority.BACKGROUND);
+        }
+        final Transfer urgent = transfer(0x00, 8);
+        scheduler.submit(urgent, TransferScheduler.Priority.URGENT);
+        assertTrue(this.backend.submitted.contains(urgent));
+        assertEquals(3, scheduler.getInFlight(this.handle));
+    }
+
+    /**
+     * Tests that weighted classes share the capacity by weight.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testWeightedFairness() throws Exception
+    {
+        final TransferScheduler scheduler = scheduler(1, 1 << 20);
+        scheduler.submit(transfer(0x04, 1024), TransferScheduler.Priority.NORMAL);
+        final List<Transfer> high = new ArrayList<Transfer>();
+        final List<Transfer> background = new ArrayList<Transfer>();
+        for (int i = 0; i < 40; i++)
+        {
+            final Transfer h = transfer(0x81, 4096);
+            high.add(h);
+            scheduler.submit(h, TransferScheduler.Priority.HIGH);
+            final Transfer b = transfer(0x02, 4096);
+            background.add(b);
+            scheduler.submit(b, TransferScheduler.Priority.BACKGROUND);
+        }
+        int highCount = 0;
+        int backgroundCount = 0;
+        for (int i = 0; i < 36; i++)
+        {
+            this.backend.complete(this.backend.submitted.get(0));
+            final Transfer next = this.backend.submitted.get(0);
+            if (high.contains(next))
+            {
+                highCount++;
+            }
+            else if (background.contains(next))
+            {
+                backgroundCount++;
+            }
+        }
+        assertEquals(32, highCount);
+        assertEquals(4, backgroundCount);
+    }
+
+    /**
+     * Tests that endpoints of one class take turns.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testEndpointsTakeTurns() throws Exception
+    {
+        final TransferScheduler scheduler = scheduler(1, 1 << 20);
+        final Transfer first = transfer(0x02, 64);
+        scheduler.submit(first, TransferScheduler.Priority.NORMAL);
+        final Transfer a1 = transfer(0x02, 64);
+        final Transfer a2 = transfer(0x02, 64);
+        final Transfer b1 = transfer(0x04, 64);
+        scheduler.submit(a1, TransferScheduler.Priority.NORMAL);
+        scheduler.submit(a2, TransferScheduler.Priority.NORMAL);
+        scheduler.submit(b1, TransferScheduler.Priority.NORMAL);
+        this.backend.complete(first);
+        assertSame(a1, this.backend.submitted.get(0));
+        this.backend.complete(a1);
+        assertSame(b1, this.backend.submitted.get(0));
+        this.backend.complete(b1);
+        assertSame(a2, this.backend.submitted.get(0));
+    }
+
+    /**
+     * Tests removing a queued transfer.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testRemove() throws Exception
+    {
+        final TransferScheduler scheduler = scheduler(1, 1 << 20);
+        final Transfer a = transfer(0x02, 64);
+        final Transfer b = transfer(0x02, 64);
+        final TransferCallback original = this.backend.callbacks.get(b);
+        scheduler.submit(a, TransferScheduler.Priority.NORMAL);
+        scheduler.submit(b, TransferScheduler.Priority.NORMAL);
+        assertFalse(scheduler.remove(a));
+        assertTrue(scheduler.remove(b));
+        assertSame(original, this.backend.callbacks.get(b));
+        assertEquals(0, scheduler.getQueued(this.handle));
+    }
+
+    /**
+     * Tests that submit errors are returned directly or reported to the
+     * error handler for queued transfers.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testSubmitErrors() throws Exception
+    {
+        final TransferScheduler scheduler = scheduler(1, 1 << 20);
+        final Transfer a = transfer(0x02, 64);
+        final Transfer b = transfer(0x02, 64);
+        this.backend.result = LibUsb.ERROR_NO_DEVICE;
+        assertEquals(LibUsb.ERROR_NO_DEVICE, scheduler.submit(a, TransferScheduler.Priority.NORMAL));
+        assertEquals(0, scheduler.getInFlight(this.handle));
+        this.backend.result = LibUsb.SUCCESS;
+        scheduler.submit(a, TransferScheduler.Priority.NORMAL);
+        scheduler.submit(b, TransferScheduler.Priority.NORMAL);
+        this.backend.result = LibUsb.ERROR_NO_DEVICE;
+        this.backend.complete(a);
+        assertEquals(1, this.failed.size());
+        assertSame(b, this.failed.get(0));
+        assertEquals(0, scheduler.getInFlight(this.handle));
+    }
+
+    /**
+     * Tests that queued transfers failing to submit are reported when no
+     * transfer of the device completes afterwards.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testFailureWithoutCompletion() throws Exception
+    {
+        final TransferScheduler scheduler = scheduler(1, 1 << 20);
+        final Transfer a = transfer(0x02, 64);
+        final Transfer b = transfer(0x02, 64);
+        final Transfer c = transfer(0x02, 64);
+        final TransferCallback original = this.backend.callbacks.get(b);
+        scheduler.submit(a, TransferScheduler.Priority.NORMAL);
+        scheduler.submit(b, TransferScheduler.Priority.NORMAL);
+        scheduler.submit(c, TransferScheduler.Priority.NORMAL);
+        this.backend.result = LibUsb.ERROR_NO_DEVICE;
+        scheduler.setLimits(this.handle, 3, 1 << 20);
+        assertEquals(2, this.failed.size());
+        assertSame(b, this.failed.get(0));
+        assertSame(c, this.failed.get(1));
+        assertSame(original, this.backend.callbacks.get(b));
+        assertEquals(0, scheduler.getQueued(this.handle));
+        assertEquals(1, scheduler.getInFlight(this.handle));
+    }
+
+    /**
+     * Tests that removing a device drops its caps and is refused while
+     * transfers are in flight.
+     *
+     * @throws Exception
+     *             When test fails.
+     */
+    @Test
+    public void testRemoveDevice() throws Exception
+    {
+        final TransferScheduler scheduler = scheduler(4, 1 << 20);
+        scheduler.setLimits(this.handle, 1, 1 << 20);
+        final Transfer a = transfer(0x02, 64);
+        scheduler.submit(a, TransferScheduler.Priority.NORMAL);
+        try
+        {
+            scheduler.remove(this.handle);
+            fail("Device with transfers in flight removed");
+        }
+        catch (final IllegalStateException e)
+        {
+            // Expected
+        }
+        this.backend.complete(a);
+        scheduler.remove(this.handle);
+        assertTrue(scheduler.toString().contains("for 0 devices"));
+
+        // The default caps apply again
+        scheduler.submit(transfer(0x02, 64), TransferScheduler.Priority.NORMAL);
+        scheduler.submit(transfer(0x02, 64), TransferScheduler.Priority.NORMAL);
+        assertEquals(2, scheduler.getInFlight(this.handle));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TransferView} class.
+ */
+public class TransferViewTest
+{
+    /** Fake transfer structure memory. */
+    private ByteBuffer memory;
+
+    /** The view of the fake structure. */
+    private TransferView view;
+
+    /** The layout for the pointer size of this platform. */
+    private TransferView.Layout layout;
+
+    /** The transfer owning the view. */
+    private Transfer transfer;
+
+    /**
+     * Sets up a view of a fake structure.
+     */
+    @Before
+    public void setUp()
+    {
+        Assume.assumeTrue(NativeMemory.isAvailable());
+        this.memory = BufferUtils.allocateByteBuffer(128).order(ByteOrder.nativeOrder());
+        this.layout = TransferView.Layout.forAddressSize(NativeMemory.addressSize());
+        this.transfer = new Transfer();
+        this.view = new TransferView(this.transfer, NativeMemory.address(this.memory), this.layout);
+    }
+
+    /**
+     * Tests the layouts of both pointer sizes against the libusb header.
+     */
+    @Test
+    public void testLayouts()
+    {
+        final TransferView.Layout l64 = TransferView.Layout.forAddressSize(8);
+        assertEquals(8, l64.flags);
+        assertEquals(10, l64.type);
+        assertEquals(12, l64.timeout);
+        assertEquals(24, l64.actualLength);
+        assertEquals(32, l64.callback);
+        assertEquals(48, l64.buffer);
+        assertEquals(56, l64.numIsoPackets);
+        final TransferView.Layout l32 = TransferView.Layout.forAddressSize(4);
+        assertEquals(8, l32.timeout);
+        assertEquals(24, l32.callback);
+        assertEquals(32, l32.buffer);
+        assertEquals(36, l32.numIsoPackets);
+    }
+
+    /**
+     * Tests that fields are written at their offsets.
+     */
+    @Test
+    public void testFill()
+    {
+        final ByteBuffer buffer = BufferUtils.allocateByteBuffer(64);
+        this.view.fill(new DeviceHandle(), (byte) 0x81, LibUsb.TRANSFER_TYPE_BULK, buffer, 1000);
+        assertEquals((byte) 0x81, this.memory.get(this.layout.endpoint));
+        assertEquals(LibUsb.TRANSFER_TYPE_BULK, this.memory.get(this.layout.type));
+        assertEquals(1000, this.memory.getInt(this.layout.timeout));
+        assertEquals(64, this.memory.getInt(this.layout.length));
+        assertEquals(NativeMemory.address(buffer),
+            NativeMemory.getAddress(NativeMemory.address(this.memory) + this.layout.buffer));
+        assertSame(buffer, this.transfer.buffer());
+        this.view.setLength(10);
+        assertEquals(10, this.view.length());
+    }
+
+    /**
+     * Tests reading completion fields.
+     */
+    @Test
+    public void testCompletion()
+    {
+        this.memory.putInt(this.layout.status, LibUsb.TRANSFER_STALL);
+        this.memory.putInt(this.layout.actualLength, 42);
+        assertEquals(LibUsb.TRANSFER_STALL, this.view.status());
+        assertEquals(42, this.view.actualLength());
+    }
+
+    /**
+     * Tests that the length is checked against the buffer.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testLengthTooLarge()
+    {
+        this.view.setBuffer(BufferUtils.allocateByteBuffer(4));
+        this.view.setLength(5);
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link UsbTopology} class.
+ */
+public class UsbTopologyTest
+{
+    /**
+     * Backend serving fake device locations.
+     */
+    private static final class FakeBackend implements UsbTopology.Backend
+    {
+        /** The locations by device. */
+        final Map<Device, int[]> locations = new HashMap<Device, int[]>();
+
+        /** The hubs. */
+        final Set<Device> hubs = new HashSet<Device>();
+
+        /** The devices currently referenced. */
+        final Set<Device> referenced = new HashSet<Device>();
+
+        /**
+         * Creates a device with the specified location.
+         *
+         * @param pointer
+         *            The fake native pointer.
+         * @param hub
+         *            True for hubs.
+         * @param location
+         *            The bus number followed by the port numbers.
+         * @return The device.
+         * @throws Exception
+         *             When setting the pointer fails.
+         */
+        Device device(final long pointer, final boolean hub, final int... location) throws Exception
+        {
+            final Device device = new Device();
+            final Field field = Device.class.getDeclaredField("devicePointer");
+            field.setAccessible(true);
+            field.setLong(device, pointer);
+            this.locations.put(device, location);
+            if (hub)
+            {
+                this.hubs.add(device);
+            }
+            return device;
+        }
+
+        @Override
+        public int busNumber(final Device device)
+        {
+            return this.locations.get(device)[0];
+        }
+
+        @Override
+        public int portNumbers(final Device device, final ByteBuffer path)
+        {
+            final int[] location = this.locations.get(device);
+            for (int i = 1; i < location.length; i++)
+            {
+                path.put(i - 1, (byte) location[i]);
+            }
+            return location.length - 1;
+        }
+
+        @Override
+        public boolean isHub(final Device device)
+        {
+            return this.hubs.contains(device);
+        }
+
+        @Override
+        public void ref(final Device device)
+        {
+            assertTrue(this.referenced.add(device));
+        }
+
+        @Override
+        public void unref(final Device device)
+        {
+            assertTrue(this.referenced.remove(device));
+        }
+    }
+
+    /**
+     * Tests building the tree and looking up nodes by path.
+     *
+     * @throws Exception
+     *             When the test fails.
+     */
+    @Test
+    public void testBuildAndLookup() throws Exception
+    {
+        final FakeBackend backend = new FakeBackend();
+        final UsbTopology topology = new UsbTopology(backend);
+        final Device root = backend.device(1, true, 1);
+        final Device hub = backend.device(2, true, 1, 3);
+        final Device a = backend.device(3, false, 1, 3, 2);
+        final Device b = backend.device(4, false, 1, 3, 1);
+        final Device other = backend.device(5, false, 2, 1);
+        for (final Device device : new Device[] { a, root, hub, b, other, a })
+        {
+            topology.add(device);
+        }
+        assertEquals(5, topology.getDeviceCount());
+        assertEquals(2, topology.getBuses().size());
+
+        final UsbTopology.Node hubNode = topology.lookup(1, (byte) 3);
+        assertSame(hub, hubNode.getDevice());
+        assertTrue(hubNode.isHub());
+        assertSame(hubNode, topology.lookup("1-3"));
+        assertSame(hubNode, topology.find(hub));
+        assertSame(topology.lookup("1"), hubNode.getParent());
+        assertSame(a, topology.lookup("1-3.2").getDevice());
+        assertEquals("1-3.2", topology.find(a).getLocation());
+        assertEquals(2, topology.find(a).getPortNumber());
+        assertEquals(2, topology.find(a).getDepth());
+        assertFalse(topology.find(a).isHub());
+        assertNull(topology.lookup("1-4"));
+        assertNull(topology.lookup(1, (byte) 3, (byte) 2, (byte) 1));
+
+        final List<String> locations = new ArrayList<String>();
+        for (final UsbTopology.Node node : topology.lookup(1).subtree())
+        {
+            locations.add(node.getLocation());
+        }
+        assertEquals("[1, 1-3, 1-3.1, 1-3.2]", locations.toString());
+        assertEquals(3, hubNode.devices().size());
+    }
+
+    /**
+     * Tests incremental removal and pruning of empty branches.
+     *
+     * @throws Exception
+     *             When the test fails.
+     */
+    @Test
+    public void testRemove() throws Exception
+    {
+        final FakeBackend backend = new FakeBackend();
+        final UsbTopology topology = new UsbTopology(backend);
+        final Device hub = backend.device(2, true, 1, 3);
+        final Device a = backend.device(3, false, 1, 3, 2);
+        final List<String> events = new ArrayList<String>();
+        topology.setListener((node, attached) -> events.add((attached ? "+" : "-") + node));
+
+        // Device arriving before its hub creates an empty hub node
+        topology.add(a);
+        assertNull(topology.lookup("1-3").getDevice());
+        assertTrue(topology.lookup("1-3").isHub());
+        topology.add(hub);
+        assertSame(hub, topology.lookup("1-3").getDevice());
+
+        topology.remove(hub);
+        assertNull(topology.find(hub));
+        assertSame(a, topology.lookup("1-3.2").getDevice());
+        topology.remove(a);
+        assertNull(topology.lookup("1-3"));
+        assertNull(topology.lookup("1"));
+        assertTrue(topology.getBuses().isEmpty());
+        assertTrue(backend.referenced.isEmpty());
+        assertEquals("[+1-3.2, +1-3, -1-3, -1-3.2]", events.toString());
+    }
+
+    /**
+     * Tests that closing releases all device references.
+     *
+     * @throws Exception
+     *             When the test fails.
+     */
+    @Test
+    public void testClose() throws Exception
+    {
+        final FakeBackend backend = new FakeBackend();
+        final UsbTopology topology = new UsbTopology(backend);
+        topology.add(backend.device(1, true, 1));
+        topology.add(backend.device(2, false, 1, 1));
+        topology.close();
+        assertTrue(backend.referenced.isEmpty());
+        assertEquals(0, topology.getDeviceCount());
+        assertNull(topology.lookup("1-1"));
+    }
+
+    /**
+     * Tests that path keys of different depths don't collide.
+     */
+    @Test
+    public void testKey()
+    {
+        final byte[] ports = { 1, 2, 3, 4, 5, 6, 7 };
+        final Set<Long> keys = new HashSet<Long>();
+        for (int depth = 0; depth <= ports.length; depth++)
+        {
+            assertTrue(keys.add(UsbTopology.key(0, ports, depth)));
+            assertTrue(keys.add(UsbTopology.key(255, ports, depth)));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.cdc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+import org.usb4java.DeviceHandle;
+import org.usb4java.EventLoop;
+
+/**
+ * Tests the {@link CdcAcm} descriptor and notification parsing and the
+ * {@link LineCoding} class.
+ */
+public class CdcAcmTest
+{
+    /**
+     * Converts unsigned byte values into a buffer.
+     *
+     * @param values
+     *            The byte values.
+     * @return The buffer.
+     */
+    private static ByteBuffer bytes(final int... values)
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(values.length);
+        for (final int value : values)
+        {
+            buffer.put((byte) value);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Tests encoding and decoding of the line coding structure.
+     */
+    @Test
+    public void testLineCoding()
+    {
+        final LineCoding coding = new LineCoding(115200, 8, LineCoding.PARITY_EVEN, LineCoding.STOP_BITS_2);
+        final ByteBuffer buffer = ByteBuffer.allocate(LineCoding.SIZE);
+        coding.encode(buffer);
+        assertArrayEquals(new byte[] { 0x00, (byte) 0xc2, 0x01, 0x00, 2, 2, 8 }, buffer.array());
+        buffer.rewind();
+        assertEquals(coding, LineCoding.decode(buffer));
+    }
+
+    /**
+     * Tests that invalid data bits are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testLineCodingWithInvalidDataBits()
+    {
+        new LineCoding(9600, 9, LineCoding.PARITY_NONE, LineCoding.STOP_BITS_1);
+    }
+
+    /**
+     * Tests that an invalid depth is rejected before the configuration is
+     * examined and any interface is claimed.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDepth()
+    {
+        new CdcAcm(new EventLoop(null), new DeviceHandle(), null, 64, 0);
+    }
+
+    /**
+     * Tests finding the data interface in the functional descriptors of a
+     * typical ACM modem.
+     */
+    @Test
+    public void testParseUnion()
+    {
+        final ByteBuffer extra = bytes(
+            0x05, 0x24, 0x00, 0x10, 0x01,   // Header
+            0x05, 0x24, 0x01, 0x00, 0x01,   // Call management
+            0x04, 0x24, 0x02, 0x02,         // ACM
+            0x05, 0x24, 0x06, 0x02, 0x03);  // Union
+        assertEquals(3, CdcAcm.parseUnion(extra, 2));
+        assertEquals(0, extra.position());
+        assertEquals(-1, CdcAcm.parseUnion(extra, 0));
+        assertEquals(-1, CdcAcm.parseUnion(bytes(0x05, 0x24, 0x06), 0));
+        assertEquals(-1, CdcAcm.parseUnion(null, 0));
+    }
+
+    /**
+     * Tests parsing serial state notifications.
+     */
+    @Test
+    public void testParseSerialState()
+    {
+        final ByteBuffer notification = bytes(0xa1, 0x20, 0x00, 0x00, 0x00, 0x00, 0x02, 0x00, 0x43, 0x00);
+        assertEquals(CdcAcm.SERIAL_STATE_DCD | CdcAcm.SERIAL_STATE_DSR | CdcAcm.SERIAL_STATE_OVERRUN,
+            CdcAcm.parseSerialState(notification, 10));
+        assertEquals(-1, CdcAcm.parseSerialState(notification, 8));
+        assertEquals(-1, CdcAcm.parseSerialState(
+            bytes(0xa1, 0x2a, 0x00, 0x00, 0x00, 0x00, 0x02, 0x00, 0x43, 0x00), 10));
+    }
+}
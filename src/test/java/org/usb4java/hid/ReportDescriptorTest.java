@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.hid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link ReportDescriptor} and {@link Report} classes.
+ */
+public class ReportDescriptorTest
+{
+    /** Boot protocol mouse. */
+    private static final int[] MOUSE = {
+        0x05, 0x01, 0x09, 0x02, 0xa1, 0x01, 0x09, 0x01, 0xa1, 0x00, 0x05, 0x09,
+        0x19, 0x01, 0x29, 0x03, 0x15, 0x00, 0x25, 0x01, 0x95, 0x03, 0x75, 0x01,
+        0x81, 0x02, 0x95, 0x01, 0x75, 0x05, 0x81, 0x01, 0x05, 0x01, 0x09, 0x30,
+        0x09, 0x31, 0x15, 0x81, 0x25, 0x7f, 0x75, 0x08, 0x95, 0x02, 0x81, 0x06,
+        0xc0, 0xc0
+    };
+
+    /** Keyboard (report 1) and vendor value (report 2) with report IDs. */
+    private static final int[] REPORT_IDS = {
+        0x05, 0x01, 0x09, 0x06, 0xa1, 0x01, 0x85, 0x01, 0x05, 0x07, 0x19, 0xe0,
+        0x29, 0xe7, 0x15, 0x00, 0x25, 0x01, 0x75, 0x01, 0x95, 0x08, 0x81, 0x02,
+        0x95, 0x06, 0x75, 0x08, 0x26, 0xff, 0x00, 0x19, 0x00, 0x2a, 0xff, 0x00,
+        0x81, 0x00, 0x85, 0x02, 0x06, 0x00, 0xff, 0x09, 0x01, 0x15, 0x00, 0x26,
+        0xff, 0xff, 0x75, 0x10, 0x95, 0x01, 0x81, 0x02, 0xc0
+    };
+
+    /** Two unaligned 12 bit values inside push/pop. */
+    private static final int[] UNALIGNED = {
+        0x05, 0x01, 0xa4, 0x05, 0x0d, 0xb4, 0x09, 0x30, 0x09, 0x31, 0x15, 0x00,
+        0x26, 0xff, 0x0f, 0x75, 0x0c, 0x95, 0x02, 0x81, 0x02
+    };
+
+    /**
+     * Creates a buffer from unsigned byte values.
+     *
+     * @param values
+     *            The byte values.
+     * @return The buffer.
+     */
+    private static ByteBuffer bytes(final int... values)
+    {
+        final ByteBuffer buffer = ByteBuffer.allocate(values.length);
+        for (final int value : values)
+        {
+            buffer.put((byte) value);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Tests parsing and decoding a boot mouse report.
+     */
+    @Test
+    public void testMouse()
+    {
+        final ReportDescriptor descriptor = ReportDescriptor.parse(bytes(MOUSE));
+        assertFalse(descriptor.hasReportIds());
+        assertEquals(1, descriptor.getReports().size());
+        final Report report = descriptor.getInputReport(0);
+        assertEquals(3, report.getLength());
+        assertEquals(5, report.getElementCount());
+        assertEquals(0x00090002, report.getUsage(1));
+        final int x = report.indexOf(0x01, 0x30);
+        assertEquals(3, x);
+        assertTrue(report.isSigned(x));
+        assertTrue(report.isRelative(x));
+        assertEquals(-127, report.getLogicalMinimum(x));
+
+        final int[] values = new int[report.getElementCount()];
+        final ByteBuffer data = bytes(0x05, 0xfe, 0x03);
+        assertSame(report, descriptor.getInputReport(data));
+        assertEquals(5, report.decode(data, values));
+        assertEquals(1, values[0]);
+        assertEquals(0, values[1]);
+        assertEquals(1, values[2]);
+        assertEquals(-2, values[3]);
+        assertEquals(3, values[4]);
+        assertEquals(0, data.position());
+    }
+
+    /**
+     * Tests report IDs, arrays and unsigned 16 bit values.
+     */
+    @Test
+    public void testReportIds()
+    {
+        final ReportDescriptor descriptor = ReportDescriptor.parse(bytes(REPORT_IDS));
+        assertTrue(descriptor.hasReportIds());
+        final Report keyboard = descriptor.getInputReport(1);
+        assertEquals(8, keyboard.getLength());
+        assertEquals(14, keyboard.getElementCount());
+        assertTrue(keyboard.isArray(8));
+        assertEquals(255, keyboard.getLogicalMaximum(8));
+
+        final Report vendor = descriptor.getInputReport(bytes(0x02, 0x00, 0x00));
+        assertEquals(2, vendor.getId());
+        assertEquals(65535, vendor.getLogicalMaximum(0));
+        assertEquals(0xfffe, vendor.get(bytes(0x02, 0xfe, 0xff), 0));
+        assertNull(descriptor.getInputReport(bytes(0x03)));
+
+        final int[] values = new int[keyboard.getElementCount()];
+        keyboard.decode(bytes(0x01, 0x02, 0x00, 0x04, 0x05), values);
+        assertEquals(1, values[1]);
+        assertEquals(4, values[9]);
+        assertEquals(5, values[10]);
+        // Beyond the short report
+        assertEquals(0, values[11]);
+    }
+
+    /**
+     * Tests values crossing byte boundaries and push/pop.
+     */
+    @Test
+    public void testUnaligned()
+    {
+        final ReportDescriptor descriptor = ReportDescriptor.parse(bytes(UNALIGNED));
+        final Report report = descriptor.getInputReport(0);
+        assertEquals(0x00010030, report.getUsage(0));
+        final int[] values = new int[2];
+        report.decode(bytes(0x23, 0x61, 0xab), values);
+        assertEquals(0x123, values[0]);
+        assertEquals(0xab6, values[1]);
+    }
+
+    /**
+     * Tests that a truncated descriptor is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncated()
+    {
+        ReportDescriptor.parse(bytes(0x05, 0x01, 0x26, 0xff));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.msc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+/**
+ * Tests the wrapper and command encoding of {@link BulkOnlyTransport}.
+ */
+public class BulkOnlyTransportTest
+{
+    /**
+     * Tests encoding a Command Block Wrapper.
+     */
+    @Test
+    public void testEncodeCommand()
+    {
+        final ByteBuffer cbw = ByteBuffer.allocate(BulkOnlyTransport.CBW_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        BulkOnlyTransport.encodeCommand(cbw, 0x01020304, 512, true, 1,
+            new byte[] { 0x28, 0, 0, 0, 0, 8, 0, 0, 1, 0 });
+        final byte[] expected = new byte[BulkOnlyTransport.CBW_SIZE];
+        System.arraycopy(new byte[] {
+            0x55, 0x53, 0x42, 0x43, 0x04, 0x03, 0x02, 0x01, 0x00, 0x02, 0x00, 0x00,
+            (byte) 0x80, 0x01, 0x0a, 0x28, 0, 0, 0, 0, 8, 0, 0, 1, 0 }, 0, expected, 0, 25);
+        assertArrayEquals(expected, cbw.array());
+    }
+
+    /**
+     * Tests that an oversized command descriptor block is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncodeCommandWithLongCdb()
+    {
+        BulkOnlyTransport.encodeCommand(ByteBuffer.allocate(BulkOnlyTransport.CBW_SIZE), 1, 0, false, 0,
+            new byte[17]);
+    }
+
+    /**
+     * Tests validating Command Status Wrappers.
+     */
+    @Test
+    public void testDecodeStatus()
+    {
+        final ByteBuffer csw = ByteBuffer.allocate(BulkOnlyTransport.CSW_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        csw.putInt(0, BulkOnlyTransport.CSW_SIGNATURE).putInt(4, 7).putInt(8, 0).put(12, (byte) 1);
+        assertEquals(BulkOnlyTransport.STATUS_FAILED, BulkOnlyTransport.decodeStatus(csw, 13, 7));
+        assertEquals(-1, BulkOnlyTransport.decodeStatus(csw, 13, 8));
+        assertEquals(-1, BulkOnlyTransport.decodeStatus(csw, 12, 7));
+        csw.putInt(0, BulkOnlyTransport.CBW_SIGNATURE);
+        assertEquals(-1, BulkOnlyTransport.decodeStatus(csw, 13, 7));
+    }
+
+    /**
+     * Tests that READ (10) is used while the address and length fit.
+     */
+    @Test
+    public void testRead10()
+    {
+        assertArrayEquals(new byte[] { 0x28, 0, 0x12, 0x34, 0x56, 0x78, 0, 0x01, 0x00, 0 },
+            BulkOnlyTransport.readWrite(BulkOnlyTransport.READ_10, BulkOnlyTransport.READ_16,
+                0x12345678L, 256));
+    }
+
+    /**
+     * Tests that WRITE (16) is used for addresses beyond 32 bits and for
+     * long transfers.
+     */
+    @Test
+    public void testWrite16()
+    {
+        assertArrayEquals(new byte[] { (byte) 0x8a, 0, 0, 0, 0, 0x01, 0, 0, 0, 0, 0, 0, 0, 0x08, 0, 0 },
+            BulkOnlyTransport.readWrite(BulkOnlyTransport.WRITE_10, BulkOnlyTransport.WRITE_16,
+                0x100000000L, 8));
+        assertEquals(16, BulkOnlyTransport.readWrite(BulkOnlyTransport.WRITE_10, BulkOnlyTransport.WRITE_16,
+            0, 0x10000).length);
+        assertEquals(16, BulkOnlyTransport.readWrite(BulkOnlyTransport.WRITE_10, BulkOnlyTransport.WRITE_16,
+            0xffffffffL, 2).length);
+    }
+
+    /**
+     * Tests the READ CAPACITY (16) command.
+     */
+    @Test
+    public void testReadCapacity16()
+    {
+        assertArrayEquals(new byte[] { (byte) 0x9e, 0x10, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 32, 0, 0 },
+            BulkOnlyTransport.readCapacity16(32));
+    }
+}
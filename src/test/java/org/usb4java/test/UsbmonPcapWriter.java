@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 usb4java Team
+ * See LICENSE.md for licensing information.
+ */
+
+package org.usb4java.test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Writes synthetic usbmon pcap captures for tests.
+ */
+public class UsbmonPcapWriter {
+
+    /**
+     * The capture buffer.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs a new writer for a capture with 48 byte usbmon headers.
+     *
+     * @param order The byte order of the capture.
+     */
+    public UsbmonPcapWriter(final ByteOrder order) {
+        this.buffer = ByteBuffer.allocate(65536).order(order);
+        this.buffer.putInt(0xa1b2c3d4);
+        this.buffer.putShort((short) 2);
+        this.buffer.putShort((short) 4);
+        this.buffer.putInt(0);
+        this.buffer.putInt(0);
+        this.buffer.putInt(65535);
+        this.buffer.putInt(189);
+    }
+
+    /**
+     * Appends a usbmon event.
+     *
+     * @param micros       The timestamp in microseconds.
+     * @param id           The URB tag.
+     * @param type         The event type.
+     * @param transferType The usbmon transfer type.
+     * @param endpoint     The endpoint address.
+     * @param device       The device address.
+     * @param status       The URB status.
+     * @param length       The URB length.
+     * @param setup        The setup packet or null.
+     * @param data         The captured data.
+     * @return This writer.
+     */
+    public UsbmonPcapWriter add(final long micros, final long id, final char type,
+                                final int transferType, final int endpoint, final int device,
+                                final int status, final int length, final byte[] setup,
+                                final byte[] data) {
+        this.buffer.putInt((int) (micros / 1000000));
+        this.buffer.putInt((int) (micros % 1000000));
+        this.buffer.putInt(48 + data.length);
+        this.buffer.putInt(48 + data.length);
+
+        this.buffer.putLong(id);
+        this.buffer.put((byte) type);
+        this.buffer.put((byte) transferType);
+        this.buffer.put((byte) endpoint);
+        this.buffer.put((byte) device);
+        this.buffer.putShort((short) 1);
+        this.buffer.put((byte) (setup == null ? '-' : 0));
+        this.buffer.put((byte) (data.length == 0 ? '<' : 0));
+        this.buffer.putLong(micros / 1000000);
+        this.buffer.putInt((int) (micros % 1000000));
+        this.buffer.putInt(status);
+        this.buffer.putInt(length);
+        this.buffer.putInt(data.length);
+        this.buffer.put(setup == null ? new byte[8] : setup);
+        this.buffer.put(data);
+        return this;
+    }
+
+    /**
+     * Returns the capture written so far.
+     *
+     * @return The capture data.
+     */
+    public ByteBuffer toBuffer() {
+        final ByteBuffer result = this.buffer.duplicate();
+        result.flip();
+        return result;
+    }
+}